@@ -0,0 +1,165 @@
+package com.mystictarot.backend.entity.id;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Inserts rows keyed by random v4 ids or by {@link UuidV7Generator} into an embedded Postgres table shaped like
+ * readings, through JDBC batches as Hibernate sends them. The score is the time for the whole load. After
+ * each run the benchmark prints:
+ * <ul>
+ *   <li>throughput over the last 10% of rows, which drops for random keys once the index no longer fits in
+ *   shared_buffers;</li>
+ *   <li>primary key size in MB and bytes per row, from which leaf density follows;</li>
+ *   <li>WAL written, which grows with the full-page images that random page splits cause.</li>
+ * </ul>
+ * shared_buffers is kept small (256MB), so tens of millions of rows show the effect that a production table
+ * many times larger than its cache would. With existingV4Rows, the table starts with v4 keys, as readings does
+ * after the switch to v7.
+ *
+ * Run with: mvn -P benchmarks test-compile exec:exec -Djmh.args="UuidPrimaryKeyInsertBenchmark"
+ * Quick check: -Djmh.args="UuidPrimaryKeyInsertBenchmark -p rows=1000000"
+ * Migrated table: -Djmh.args="UuidPrimaryKeyInsertBenchmark -p keys=UUID_V7 -p existingV4Rows=10000000"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(1)
+public class UuidPrimaryKeyInsertBenchmark {
+
+    private static final int BATCH_SIZE = 1000;
+    private static final int USERS = 100_000;
+    private static final String QUESTION = "What should I focus on in my career over the next three months?";
+
+    @Param({"RANDOM_V4", "UUID_V7"})
+    public String keys;
+
+    @Param("20000000")
+    public int rows;
+
+    @Param("0")
+    public int existingV4Rows;
+
+    private EmbeddedPostgres postgres;
+    private Connection connection;
+    private UUID[] userIds;
+    private long walStartBytes;
+    private long tailNanos;
+
+    @Setup(Level.Trial)
+    public void startDatabase() throws IOException {
+        postgres = EmbeddedPostgres.builder()
+                .setServerConfig("shared_buffers", "256MB")
+                .setServerConfig("max_wal_size", "4GB")
+                .setServerConfig("full_page_writes", "on")
+                .start();
+        userIds = new UUID[USERS];
+        for (int i = 0; i < USERS; i++) {
+            userIds[i] = UUID.randomUUID();
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void createTable() throws SQLException {
+        connection = postgres.getDatabase("postgres", "postgres", Map.of("reWriteBatchedInserts", "true"))
+                .getConnection();
+        connection.setAutoCommit(false);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS bench_readings");
+            statement.execute("CREATE TABLE bench_readings (id UUID PRIMARY KEY, user_id UUID NOT NULL, "
+                    + "question TEXT NOT NULL, created_at TIMESTAMP NOT NULL)");
+        }
+        connection.commit();
+        if (existingV4Rows > 0) {
+            insertRows(existingV4Rows, false);
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("CHECKPOINT");
+            }
+        }
+        walStartBytes = walPosition();
+    }
+
+    @Benchmark
+    public void insert() throws SQLException {
+        insertRows(rows, "UUID_V7".equals(keys));
+    }
+
+    @TearDown(Level.Iteration)
+    public void report() throws SQLException {
+        long walBytes = walPosition() - walStartBytes;
+        long pkeyBytes;
+        try (Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery("SELECT pg_relation_size('bench_readings_pkey')")) {
+            result.next();
+            pkeyBytes = result.getLong(1);
+        }
+        long totalRows = (long) rows + existingV4Rows;
+        int tailRows = rows - rows * 9 / 10;
+        System.out.printf("%nkeys=%s rows=%d existingV4Rows=%d: last10%%RowsPerSecond=%.0f pkeyMb=%.1f "
+                        + "pkeyBytesPerRow=%.1f walMb=%.1f%n",
+                keys, rows, existingV4Rows, tailRows / (tailNanos / 1e9), pkeyBytes / 1048576.0,
+                (double) pkeyBytes / totalRows, walBytes / 1048576.0);
+        connection.close();
+    }
+
+    @TearDown(Level.Trial)
+    public void stopDatabase() throws IOException {
+        postgres.close();
+    }
+
+    private void insertRows(int count, boolean timeOrdered) throws SQLException {
+        int tailFrom = count * 9 / 10;
+        long tailStarted = 0;
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO bench_readings (id, user_id, question, created_at) VALUES (?, ?, ?, ?)")) {
+            for (int i = 0; i < count; i++) {
+                if (i == tailFrom) {
+                    tailStarted = System.nanoTime();
+                }
+                insert.setObject(1, timeOrdered ? UuidV7Generator.generate() : UUID.randomUUID());
+                insert.setObject(2, userIds[i % USERS]);
+                insert.setString(3, QUESTION);
+                insert.setTimestamp(4, new Timestamp(System.currentTimeMillis()));
+                insert.addBatch();
+                if ((i + 1) % BATCH_SIZE == 0 || i + 1 == count) {
+                    insert.executeBatch();
+                    connection.commit();
+                }
+            }
+        }
+        tailNanos = System.nanoTime() - tailStarted;
+    }
+
+    private long walPosition() throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery("SELECT pg_wal_lsn_diff(pg_current_wal_lsn(), '0/0')::bigint")) {
+            result.next();
+            return result.getLong(1);
+        }
+    }
+}
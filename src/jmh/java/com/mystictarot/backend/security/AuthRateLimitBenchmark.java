@@ -0,0 +1,59 @@
+package com.mystictarot.backend.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RateLimitFilter.allowRequest under contention: 8 threads on the same client key (one busy NAT address or
+ * an attacker) versus keys spread over many clients.
+ *
+ * Run with: mvn -P benchmarks test-compile exec:exec -Djmh.args="AuthRateLimitBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+public class AuthRateLimitBenchmark {
+
+    /**
+     * Number of distinct client IPs the threads pick from
+     */
+    @Param({"1", "10000"})
+    public int clients;
+
+    private RateLimitFilter rateLimitFilter;
+    private String[] keys;
+
+    @Setup
+    public void setUp() {
+        rateLimitFilter = new RateLimitFilter(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(rateLimitFilter, "authMaxPerMinute", 20);
+        keys = new String[clients];
+        for (int i = 0; i < clients; i++) {
+            keys[i] = "10." + (i >> 16 & 0xff) + "." + (i >> 8 & 0xff) + "." + (i & 0xff);
+        }
+    }
+
+    @Benchmark
+    public boolean allowRequest() {
+        return rateLimitFilter.allowRequest(keys[ThreadLocalRandom.current().nextInt(keys.length)]);
+    }
+}
@@ -0,0 +1,62 @@
+package com.mystictarot.backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * GeminiService.extractTextFromResponse on generateContent response bodies shaped like the real ones
+ * (candidate with safety ratings, usage metadata), for a short follow-up answer and a full interpretation.
+ *
+ * Run with: mvn -P benchmarks test-compile exec:exec -Djmh.args="GeminiResponseParsingBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GeminiResponseParsingBenchmark {
+
+    /**
+     * Length of the generated text in characters
+     */
+    @Param({"500", "6000"})
+    public int textLength;
+
+    private GeminiService geminiService;
+    private String responseBody;
+
+    @Setup
+    public void setUp() {
+        geminiService = new GeminiService(new ObjectMapper(), new SimpleMeterRegistry(), ObservationRegistry.NOOP);
+        String sentence = "The Tower reversed suggests the upheaval you fear has already passed. \\n";
+        String text = sentence.repeat(textLength / sentence.length() + 1).substring(0, textLength);
+        responseBody = "{\"candidates\":[{\"content\":{\"parts\":[{\"text\":\"" + text + "\"}],\"role\":\"model\"},"
+                + "\"finishReason\":\"STOP\",\"index\":0,\"safetyRatings\":["
+                + "{\"category\":\"HARM_CATEGORY_SEXUALLY_EXPLICIT\",\"probability\":\"NEGLIGIBLE\"},"
+                + "{\"category\":\"HARM_CATEGORY_HATE_SPEECH\",\"probability\":\"NEGLIGIBLE\"},"
+                + "{\"category\":\"HARM_CATEGORY_HARASSMENT\",\"probability\":\"NEGLIGIBLE\"},"
+                + "{\"category\":\"HARM_CATEGORY_DANGEROUS_CONTENT\",\"probability\":\"NEGLIGIBLE\"}]}],"
+                + "\"usageMetadata\":{\"promptTokenCount\":412,\"candidatesTokenCount\":" + textLength / 4
+                + ",\"totalTokenCount\":" + (412 + textLength / 4) + "},\"modelVersion\":\"gemini-2.5-flash\"}";
+    }
+
+    @Benchmark
+    public String extractTextFromResponse() {
+        return geminiService.extractTextFromResponse(responseBody);
+    }
+}
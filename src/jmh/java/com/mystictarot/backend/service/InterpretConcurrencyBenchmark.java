@@ -0,0 +1,146 @@
+package com.mystictarot.backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mystictarot.backend.entity.enums.SpreadType;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A burst of concurrent interpret requests against a local stand-in for Gemini, handled by
+ * Tomcat's default 200 platform threads versus one virtual thread per request.
+ * Each request mimics the interpret path: a short database step (a 10-permit semaphore standing in
+ * for the Hikari pool), the real GeminiService call over HTTP, then a second short database step.
+ * The score is the time to drain the whole burst.
+ *
+ * Run with: mvn -P benchmarks test-compile exec:exec -Djmh.args="InterpretConcurrencyBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Djdk.tracePinnedThreads=short")
+public class InterpretConcurrencyBenchmark {
+
+    private static final int TOMCAT_DEFAULT_MAX_THREADS = 200;
+    private static final int DB_POOL_SIZE = 10;
+    private static final long DB_STEP_MS = 2;
+    private static final byte[] GEMINI_RESPONSE =
+            "{\"candidates\":[{\"content\":{\"parts\":[{\"text\":\"The cards suggest patience.\"}]}}]}"
+                    .getBytes(StandardCharsets.UTF_8);
+
+    @Param({"PLATFORM", "VIRTUAL"})
+    public String threads;
+
+    @Param({"200", "1000"})
+    public int concurrentRequests;
+
+    @Param({"200"})
+    public long geminiLatencyMs;
+
+    private HttpServer server;
+    private GeminiService geminiService;
+    private ExecutorService requestExecutor;
+    private final Semaphore dbPool = new Semaphore(DB_POOL_SIZE);
+
+    @Setup(Level.Trial)
+    public void startServer() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 4096);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/", exchange -> {
+            exchange.getRequestBody().readAllBytes();
+            try {
+                Thread.sleep(geminiLatencyMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, GEMINI_RESPONSE.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(GEMINI_RESPONSE);
+            }
+        });
+        server.start();
+
+        geminiService = new GeminiService(new ObjectMapper(), new SimpleMeterRegistry(), ObservationRegistry.NOOP);
+        ReflectionTestUtils.setField(geminiService, "apiKey", "bench");
+        ReflectionTestUtils.setField(geminiService, "baseUrl", "http://127.0.0.1:" + server.getAddress().getPort() + "/");
+        ReflectionTestUtils.setField(geminiService, "connectTimeout", 5000);
+        ReflectionTestUtils.setField(geminiService, "readTimeout", 60000);
+        ReflectionTestUtils.setField(geminiService, "maxRetries", 0);
+        geminiService.initRestClient();
+    }
+
+    @Setup(Level.Iteration)
+    public void startExecutor() {
+        requestExecutor = "VIRTUAL".equals(threads)
+                ? Executors.newVirtualThreadPerTaskExecutor()
+                : Executors.newFixedThreadPool(TOMCAT_DEFAULT_MAX_THREADS);
+    }
+
+    @TearDown(Level.Iteration)
+    public void stopExecutor() {
+        requestExecutor.shutdownNow();
+    }
+
+    @TearDown(Level.Trial)
+    public void stopServer() {
+        server.stop(0);
+    }
+
+    @Benchmark
+    public int burst() throws Exception {
+        List<Future<String>> results = new ArrayList<>(concurrentRequests);
+        for (int i = 0; i < concurrentRequests; i++) {
+            results.add(requestExecutor.submit(this::interpret));
+        }
+        int completed = 0;
+        for (Future<String> result : results) {
+            completed += result.get().isEmpty() ? 0 : 1;
+        }
+        return completed;
+    }
+
+    private String interpret() throws InterruptedException {
+        databaseStep();
+        String text = geminiService.generateInterpretation("Will it work out?", SpreadType.THREE_CARDS,
+                "1. The Fool (UPRIGHT)\n2. The Tower (REVERSED)\n3. The Star (UPRIGHT)\n", "en");
+        databaseStep();
+        return text;
+    }
+
+    private void databaseStep() throws InterruptedException {
+        dbPool.acquire();
+        try {
+            Thread.sleep(DB_STEP_MS);
+        } finally {
+            dbPool.release();
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.mystictarot.backend.service;
+
+import com.mystictarot.backend.dto.webhook.MomoWebhookPayloadDTO;
+import com.mystictarot.backend.service.payment.signing.HmacSha256Signer;
+import com.mystictarot.backend.service.payment.signing.SignaturePayloads;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Webhook verification as the controllers call it: PaymentWebhookService.verifyMomoSignature (canonical
+ * payload + HMAC) and verifyStripeSignature (Stripe-Signature header parsing, timestamp tolerance + HMAC).
+ * WebhookVerificationBenchmark covers the signer alone.
+ *
+ * Run with: mvn -P benchmarks test-compile exec:exec -Djmh.args="PaymentWebhookVerificationBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class PaymentWebhookVerificationBenchmark {
+
+    private static final String MOMO_KEY = "K2zX9mQp7rT4vW1yB6nC3dF8gH5jL0sA";
+    private static final String STRIPE_SECRET = "whsec_5f8a3c1e9b7d2f4a6c8e0b1d3f5a7c9e";
+
+    private PaymentWebhookService paymentWebhookService;
+    private MomoWebhookPayloadDTO momoPayload;
+    private String stripePayload;
+    private String stripeSignatureHeader;
+
+    @Setup
+    public void setUp() {
+        paymentWebhookService = new PaymentWebhookService(null, null, null, null);
+        ReflectionTestUtils.setField(paymentWebhookService, "momoSecretKey", MOMO_KEY);
+        ReflectionTestUtils.setField(paymentWebhookService, "stripeWebhookSecret", STRIPE_SECRET);
+
+        momoPayload = new MomoWebhookPayloadDTO();
+        momoPayload.setPartnerCode("MOMOBKUN20180529");
+        momoPayload.setOrderId("3f1c2a9e-6d4b-4f0e-9a51-2b7e8c1d0f34");
+        momoPayload.setRequestId("9b2e7f61-0c3d-4a58-b1e4-7d6f5a2c8e90");
+        momoPayload.setAmount(new BigDecimal("199000"));
+        momoPayload.setOrderInfo("Mystic Tarot - MONTHLY");
+        momoPayload.setOrderType("momo_wallet");
+        momoPayload.setTransId(4088878653L);
+        momoPayload.setResultCode(0);
+        momoPayload.setMessage("Successful.");
+        momoPayload.setPayType("qr");
+        momoPayload.setResponseTime(1700000000000L);
+        momoPayload.setExtraData("e30=");
+        momoPayload.setSignature(HmacSha256Signer.forKey(MOMO_KEY).signHex(SignaturePayloads.momoIpn(momoPayload)));
+
+        // Signed now: the 5-minute tolerance covers a whole fork
+        String timestamp = String.valueOf(System.currentTimeMillis() / 1000);
+        stripePayload = "{\"id\":\"evt_1OabCdEfGhIjKlMn\",\"type\":\"checkout.session.completed\",\"data\":{\"object\":"
+                + "{\"id\":\"cs_test_a1b2c3\",\"client_reference_id\":\"3f1c2a9e-6d4b-4f0e-9a51-2b7e8c1d0f34\"}}}";
+        String v1 = HmacSha256Signer.forKey(STRIPE_SECRET).signHex(timestamp + "." + stripePayload);
+        stripeSignatureHeader = "t=" + timestamp + ",v1=" + v1 + ",v0=6ffbb59b2300aae63f272406069a9788598b792a944a07aba816edb039989a39";
+    }
+
+    @Benchmark
+    public boolean verifyMomoSignature() {
+        return paymentWebhookService.verifyMomoSignature(momoPayload);
+    }
+
+    @Benchmark
+    public boolean verifyStripeSignature() {
+        return paymentWebhookService.verifyStripeSignature(stripePayload, stripeSignatureHeader);
+    }
+}
@@ -0,0 +1,142 @@
+package com.mystictarot.backend.service;
+
+import com.mystictarot.backend.dto.request.CardDTO;
+import com.mystictarot.backend.entity.ChatMessage;
+import com.mystictarot.backend.entity.Reading;
+import com.mystictarot.backend.entity.TarotCard;
+import com.mystictarot.backend.entity.TarotCardTranslation;
+import com.mystictarot.backend.entity.enums.CardOrientation;
+import com.mystictarot.backend.entity.enums.ChatRole;
+import com.mystictarot.backend.entity.enums.SpreadType;
+import com.mystictarot.backend.entity.enums.SuitType;
+import com.mystictarot.backend.repository.TarotCardTranslationRepository;
+import com.mystictarot.backend.util.LocaleUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * String assembly for Gemini prompts: TarotService.buildCardsDescriptionForPrompt (translation lookup
+ * by id, fallback merge, one line per card) and buildFollowUpContext (question, interpretation and the
+ * chat history so far). The translation repository is an in-memory stand-in, so only the Java side is
+ * measured. Partial translations exercise the fallback-to-default-locale path.
+ *
+ * Run with: mvn -P benchmarks test-compile exec:exec -Djmh.args="PromptAssemblyBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PromptAssemblyBenchmark {
+
+    private static final String DESCRIPTION = "Stands for new beginnings, spontaneity and a free spirit. "
+            + "Reversed, it warns of recklessness and holding back out of fear of the unknown.";
+    private static final String INTERPRETATION = "The cards point to a period of change. ".repeat(40);
+
+    @Param({"DAILY_DRAW", "PAST_PRESENT_FUTURE", "CELTIC_CROSS"})
+    public SpreadType spreadType;
+
+    /**
+     * Share of the cards translated in the requested locale; the rest fall back to the default locale
+     */
+    @Param({"1.0", "0.5"})
+    public double translatedShare;
+
+    @Param({"0", "10", "40"})
+    public int followUpMessages;
+
+    private TarotService tarotService;
+    private List<CardDTO> cards;
+    private Reading reading;
+    private List<ChatMessage> messages;
+
+    @Setup
+    public void setUp() {
+        int cardCount = spreadType.getCardCount();
+        List<TarotCardTranslation> translations = new ArrayList<>();
+        cards = new ArrayList<>();
+        for (int id = 1; id <= cardCount; id++) {
+            TarotCard card = TarotCard.builder().id(id).cardNumber(id).suit(SuitType.MAJOR_ARCANA).build();
+            translations.add(translation(card, "vi", "Lá " + id));
+            if (id <= Math.round(cardCount * translatedShare)) {
+                translations.add(translation(card, "en", "Card " + id));
+            }
+            cards.add(new CardDTO(id, id % 3 == 0 ? CardOrientation.REVERSED : CardOrientation.UPRIGHT));
+        }
+
+        tarotService = new TarotService(null, null, null, null, translationRepository(translations), null, null,
+                new LocaleUtil("vi", "vi,en"), null, null, new SimpleMeterRegistry(), ObservationRegistry.NOOP);
+
+        reading = Reading.builder()
+                .question("What should I focus on in my career this month?")
+                .spreadType(spreadType)
+                .interpretationText(INTERPRETATION)
+                .build();
+        messages = new ArrayList<>();
+        for (int i = 0; i < followUpMessages; i++) {
+            messages.add(ChatMessage.builder()
+                    .role(i % 2 == 0 ? ChatRole.USER : ChatRole.AI)
+                    .content(i % 2 == 0 ? "What does the third card mean for my relationships?"
+                            : "The third card suggests honest conversations will bring you closer. ".repeat(5))
+                    .build());
+        }
+    }
+
+    @Benchmark
+    public String buildCardsDescriptionForPrompt() {
+        return tarotService.buildCardsDescriptionForPrompt(cards, "en");
+    }
+
+    @Benchmark
+    public String buildFollowUpContext() {
+        return tarotService.buildFollowUpContext(reading, messages);
+    }
+
+    private static TarotCardTranslation translation(TarotCard card, String locale, String name) {
+        return TarotCardTranslation.builder().tarotCard(card).locale(locale).name(name).description(DESCRIPTION).build();
+    }
+
+    /**
+     * Answers findByTarotCard_IdInAndLocale from memory; no other repository method is used
+     */
+    @SuppressWarnings("unchecked")
+    private static TarotCardTranslationRepository translationRepository(List<TarotCardTranslation> translations) {
+        Map<String, Map<Integer, TarotCardTranslation>> byLocale = translations.stream()
+                .collect(Collectors.groupingBy(TarotCardTranslation::getLocale,
+                        Collectors.toMap(t -> t.getTarotCard().getId(), Function.identity())));
+        return (TarotCardTranslationRepository) Proxy.newProxyInstance(
+                TarotCardTranslationRepository.class.getClassLoader(),
+                new Class<?>[]{TarotCardTranslationRepository.class},
+                (proxy, method, args) -> {
+                    if (!method.getName().equals("findByTarotCard_IdInAndLocale")) {
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                    Map<Integer, TarotCardTranslation> forLocale = byLocale.getOrDefault((String) args[1], Map.of());
+                    return ((Collection<Integer>) args[0]).stream()
+                            .map(forLocale::get)
+                            .filter(t -> t != null)
+                            .toList();
+                });
+    }
+}
@@ -0,0 +1,110 @@
+package com.mystictarot.backend.service.payment.signing;
+
+import com.mystictarot.backend.dto.webhook.MomoWebhookPayloadDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Webhook signature verification throughput: the previous per-call implementation
+ * (Mac.getInstance + new key + String.format hex + equalsIgnoreCase) against HmacSha256Signer.
+ *
+ * Run with: mvn -P benchmarks test-compile exec:exec -Djmh.args="WebhookVerificationBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class WebhookVerificationBenchmark {
+
+    private static final String KEY = "K2zX9mQp7rT4vW1yB6nC3dF8gH5jL0sA";
+
+    private MomoWebhookPayloadDTO momoPayload;
+    private String stripeTimestamp;
+    private String stripePayload;
+    private String stripeSignature;
+
+    @Setup
+    public void setUp() throws Exception {
+        momoPayload = new MomoWebhookPayloadDTO();
+        momoPayload.setPartnerCode("MOMOBKUN20180529");
+        momoPayload.setOrderId("3f1c2a9e-6d4b-4f0e-9a51-2b7e8c1d0f34");
+        momoPayload.setRequestId("9b2e7f61-0c3d-4a58-b1e4-7d6f5a2c8e90");
+        momoPayload.setAmount(new BigDecimal("199000"));
+        momoPayload.setOrderInfo("Mystic Tarot - MONTHLY");
+        momoPayload.setOrderType("momo_wallet");
+        momoPayload.setTransId(4088878653L);
+        momoPayload.setResultCode(0);
+        momoPayload.setMessage("Successful.");
+        momoPayload.setPayType("qr");
+        momoPayload.setResponseTime(1700000000000L);
+        momoPayload.setExtraData("e30=");
+        momoPayload.setSignature(HmacSha256Signer.forKey(KEY).signHex(SignaturePayloads.momoIpn(momoPayload)));
+
+        stripeTimestamp = "1700000000";
+        stripePayload = "{\"id\":\"evt_1OabCdEfGhIjKlMn\",\"type\":\"checkout.session.completed\",\"data\":{\"object\":"
+                + "{\"id\":\"cs_test_a1b2c3\",\"client_reference_id\":\"3f1c2a9e-6d4b-4f0e-9a51-2b7e8c1d0f34\"}}}";
+        stripeSignature = legacySign(stripeTimestamp + "." + stripePayload, KEY);
+    }
+
+    @Benchmark
+    public boolean momoLegacy() throws Exception {
+        MomoWebhookPayloadDTO p = momoPayload;
+        String raw = "amount=" + p.getAmount() +
+                "&extraData=" + p.getExtraData() +
+                "&message=" + p.getMessage() +
+                "&orderId=" + p.getOrderId() +
+                "&orderInfo=" + p.getOrderInfo() +
+                "&orderType=" + p.getOrderType() +
+                "&partnerCode=" + p.getPartnerCode() +
+                "&payType=" + p.getPayType() +
+                "&requestId=" + p.getRequestId() +
+                "&responseTime=" + p.getResponseTime() +
+                "&resultCode=" + p.getResultCode() +
+                "&transId=" + p.getTransId();
+        return legacySign(raw, KEY).equalsIgnoreCase(p.getSignature());
+    }
+
+    @Benchmark
+    public boolean momoSigner() {
+        return HmacSha256Signer.forKey(KEY).verifyHex(momoPayload.getSignature(), SignaturePayloads.momoIpn(momoPayload));
+    }
+
+    @Benchmark
+    public boolean stripeLegacy() throws Exception {
+        return legacySign(stripeTimestamp + "." + stripePayload, KEY).equalsIgnoreCase(stripeSignature);
+    }
+
+    @Benchmark
+    public boolean stripeSigner() {
+        return HmacSha256Signer.forKey(KEY).verifyHex(stripeSignature, stripeTimestamp, ".", stripePayload);
+    }
+
+    private static String legacySign(String data, String key) throws Exception {
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(key.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        byte[] hash = mac.doFinal(data.getBytes(StandardCharsets.UTF_8));
+        StringBuilder sb = new StringBuilder();
+        for (byte b : hash) {
+            sb.append(String.format("%02x", b));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,72 @@
+package com.mystictarot.backend.service.token;
+
+import com.mystictarot.backend.service.JwtTokenProvider;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Access-token checks done by JwtAuthenticationFilter on every authenticated request: validateToken
+ * (signature, issuer/audience, expiry, revocation Bloom filter probe) and getUserIdFromToken, which parses
+ * the token a second time. The revocation filter is empty, as it is for almost every token in production.
+ *
+ * Run with: mvn -P benchmarks test-compile exec:exec -Djmh.args="JwtVerificationBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class JwtVerificationBenchmark {
+
+    private JwtTokenProvider jwtTokenProvider;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        TokenRevocationService tokenRevocationService = new TokenRevocationService(null, null, meterRegistry);
+        ReflectionTestUtils.setField(tokenRevocationService, "filter", new RevocationBloomFilter(100_000, 0.001));
+
+        jwtTokenProvider = new JwtTokenProvider(tokenRevocationService, meterRegistry);
+        ReflectionTestUtils.setField(jwtTokenProvider, "jwtSecret", "K2zX9mQp7rT4vW1yB6nC3dF8gH5jL0sAK2zX9mQp7rT4vW1y");
+        ReflectionTestUtils.setField(jwtTokenProvider, "jwtExpiration", TimeUnit.HOURS.toMillis(1));
+        ReflectionTestUtils.setField(jwtTokenProvider, "jwtIssuer", "MysticTarotBackend");
+        ReflectionTestUtils.setField(jwtTokenProvider, "jwtAudience", "MysticTarotFrontend");
+        token = jwtTokenProvider.generateToken(UUID.fromString("3f1c2a9e-6d4b-4f0e-9a51-2b7e8c1d0f34"),
+                "reader@example.com");
+    }
+
+    @Benchmark
+    public Boolean validateToken() {
+        return jwtTokenProvider.validateToken(token);
+    }
+
+    @Benchmark
+    public UUID getUserIdFromToken() {
+        return jwtTokenProvider.getUserIdFromToken(token);
+    }
+
+    /**
+     * Both calls, as JwtAuthenticationFilter makes them
+     */
+    @Benchmark
+    public UUID authenticate() {
+        return jwtTokenProvider.validateToken(token) ? jwtTokenProvider.getUserIdFromToken(token) : null;
+    }
+}
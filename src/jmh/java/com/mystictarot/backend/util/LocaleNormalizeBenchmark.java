@@ -0,0 +1,47 @@
+package com.mystictarot.backend.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * LocaleUtil.normalize, called for the lang parameter of deck, interpret and payment requests, over the
+ * mix of inputs clients send (blank, short codes, Accept-Language style tags, unsupported locales).
+ * The score is per batch of all inputs.
+ *
+ * Run with: mvn -P benchmarks test-compile exec:exec -Djmh.args="LocaleNormalizeBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LocaleNormalizeBenchmark {
+
+    private static final String[] INPUTS = {null, "", "vi", "VN", "vi-VN", "en", "en-US", "EN_gb", " fr ", "zh-Hant-TW", "de"};
+
+    private LocaleUtil localeUtil;
+
+    @Setup
+    public void setUp() {
+        localeUtil = new LocaleUtil("vi", "vi,en,zh,fr,it");
+    }
+
+    @Benchmark
+    public void normalize(Blackhole blackhole) {
+        for (String input : INPUTS) {
+            blackhole.consume(localeUtil.normalize(input));
+        }
+    }
+}
@@ -29,7 +29,8 @@ public class OpenApiConfig {
                                 .url("https://opensource.org/licenses/MIT")))
                 .addSecurityItem(new SecurityRequirement().addList("bearerAuth"))
                 .components(new Components()
-                        .addSecuritySchemes("bearerAuth", createAPIKeyScheme()));
+                        .addSecuritySchemes("bearerAuth", createAPIKeyScheme())
+                        .addSecuritySchemes("adminApiKey", createAdminKeyScheme()));
     }
 
     private SecurityScheme createAPIKeyScheme() {
@@ -38,4 +39,11 @@ public class OpenApiConfig {
                 .bearerFormat("JWT")
                 .scheme("bearer");
     }
+
+    private SecurityScheme createAdminKeyScheme() {
+        return new SecurityScheme()
+                .type(SecurityScheme.Type.APIKEY)
+                .in(SecurityScheme.In.HEADER)
+                .name("X-Admin-Key");
+    }
 }
@@ -1,14 +1,46 @@
 package com.mystictarot.backend.config;
 
+import com.mystictarot.backend.entity.enums.PaymentProvider;
+import com.mystictarot.backend.service.payment.http.PaymentHttpClients;
+import com.mystictarot.backend.service.payment.http.PaymentHttpSettings;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.core.env.Environment;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
 
 @Configuration
 public class PaymentConfig {
 
+    private static final String PREFIX = "payment.http.";
+
+    /**
+     * Per-provider HTTP clients. Every limit is read from payment.http.&lt;provider&gt;.* and falls back
+     * to payment.http.default.*, e.g. payment.http.stripe.read-timeout-ms.
+     */
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public PaymentHttpClients paymentHttpClients(Environment environment, MeterRegistry meterRegistry,
+                                                 ObservationRegistry observationRegistry) {
+        Map<PaymentProvider, PaymentHttpSettings> settings = new EnumMap<>(PaymentProvider.class);
+        for (PaymentProvider provider : PaymentProvider.values()) {
+            String key = provider.name().toLowerCase();
+            settings.put(provider, new PaymentHttpSettings(
+                    Duration.ofMillis(getLong(environment, key, "connect-timeout-ms", 2000)),
+                    Duration.ofMillis(getLong(environment, key, "read-timeout-ms", 10000)),
+                    Duration.ofMillis(getLong(environment, key, "total-timeout-ms", 15000)),
+                    (int) getLong(environment, key, "max-connections", 20),
+                    Duration.ofMillis(getLong(environment, key, "pool-acquire-timeout-ms", 1000)),
+                    Duration.ofMillis(getLong(environment, key, "keep-alive-ms", 30000))));
+        }
+        return new PaymentHttpClients(settings, meterRegistry, observationRegistry);
+    }
+
+    private static long getLong(Environment environment, String provider, String property, long defaultValue) {
+        Long fallback = environment.getProperty(PREFIX + "default." + property, Long.class, defaultValue);
+        return environment.getProperty(PREFIX + provider + "." + property, Long.class, fallback);
     }
 }
@@ -0,0 +1,12 @@
+package com.mystictarot.backend.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables @Scheduled background jobs
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -1,7 +1,13 @@
 package com.mystictarot.backend.config;
 
+import com.mystictarot.backend.security.AdminApiKeyFilter;
+import com.mystictarot.backend.security.IdempotencyFilter;
 import com.mystictarot.backend.security.JwtAuthenticationFilter;
+import com.mystictarot.backend.security.OffloadingPasswordEncoder;
+import com.mystictarot.backend.security.TrafficCaptureFilter;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -11,7 +17,6 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
@@ -21,10 +26,12 @@ import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 import org.springframework.beans.factory.annotation.Value;
 
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
 import java.util.stream.Collectors;
 
+@Slf4j
 @Configuration
 @EnableWebSecurity
 @EnableMethodSecurity
@@ -34,12 +41,30 @@ public class SecurityConfig {
     @Value("${app.cors.allowed-origins}")
     private String corsAllowedOrigins;
 
+    @Value("${app.security.password-hashing.bcrypt-strength:10}")
+    private int bcryptStrength;
+
+    @Value("${app.security.password-hashing.threads:0}")
+    private int passwordHashingThreads;
+
+    @Value("${app.security.password-hashing.queue-capacity:64}")
+    private int passwordHashingQueueCapacity;
+
+    @Value("${app.security.password-hashing.max-wait-ms:2000}")
+    private long passwordHashingMaxWaitMs;
+
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
     private final com.mystictarot.backend.security.RateLimitFilter rateLimitFilter;
+    private final IdempotencyFilter idempotencyFilter;
+    private final AdminApiKeyFilter adminApiKeyFilter;
+    private final TrafficCaptureFilter trafficCaptureFilter;
 
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        OffloadingPasswordEncoder encoder = new OffloadingPasswordEncoder(bcryptStrength, passwordHashingThreads,
+                passwordHashingQueueCapacity, Duration.ofMillis(passwordHashingMaxWaitMs));
+        log.info("BCrypt strength {} measured at {} ms per hash", bcryptStrength, encoder.measureHashMillis());
+        return encoder;
     }
 
     @Bean
@@ -62,15 +87,51 @@ public class SecurityConfig {
                         .requestMatchers("/payments/webhook/**", "/api/v1/payments/webhook/**").permitAll()
                         .requestMatchers("/payments/plans", "/api/v1/payments/plans").permitAll()
                         .requestMatchers("/tarot/cards", "/api/v1/tarot/cards").permitAll()
+                        .requestMatchers("/actuator/health", "/actuator/health/**").permitAll()
+                        .requestMatchers("/actuator/prometheus").hasRole("ADMIN")
+                        .requestMatchers("/admin/**", "/api/v1/admin/**").hasRole("ADMIN")
                         .requestMatchers("/swagger-ui/**", "/v3/api-docs/**", "/swagger-ui.html", "/api/v1/swagger-ui/**", "/api/v1/v3/api-docs/**").permitAll()
                         .anyRequest().authenticated()
                 )
                 .addFilterBefore(rateLimitFilter, org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter.class)
-                .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
+                .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
+                .addFilterAfter(adminApiKeyFilter, JwtAuthenticationFilter.class)
+                .addFilterAfter(trafficCaptureFilter, AdminApiKeyFilter.class)
+                .addFilterAfter(idempotencyFilter, TrafficCaptureFilter.class);
 
         return http.build();
     }
 
+    /**
+     * AdminApiKeyFilter only grants a role, so it must only run inside the security chain
+     */
+    @Bean
+    public FilterRegistrationBean<AdminApiKeyFilter> adminApiKeyFilterRegistration(AdminApiKeyFilter filter) {
+        FilterRegistrationBean<AdminApiKeyFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.setEnabled(false);
+        return registration;
+    }
+
+    /**
+     * IdempotencyFilter needs the authenticated user, so it must only run inside the security chain
+     */
+    @Bean
+    public FilterRegistrationBean<IdempotencyFilter> idempotencyFilterRegistration(IdempotencyFilter filter) {
+        FilterRegistrationBean<IdempotencyFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.setEnabled(false);
+        return registration;
+    }
+
+    /**
+     * TrafficCaptureFilter needs the authenticated user, so it must only run inside the security chain
+     */
+    @Bean
+    public FilterRegistrationBean<TrafficCaptureFilter> trafficCaptureFilterRegistration(TrafficCaptureFilter filter) {
+        FilterRegistrationBean<TrafficCaptureFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.setEnabled(false);
+        return registration;
+    }
+
     @Bean
     public CorsConfigurationSource corsConfigurationSource() {
         CorsConfiguration configuration = new CorsConfiguration();
@@ -81,7 +142,8 @@ public class SecurityConfig {
         configuration.setAllowedOrigins(origins);
         configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS", "PATCH"));
         configuration.setAllowedHeaders(List.of("*"));
-        configuration.setExposedHeaders(List.of("Authorization"));
+        configuration.setExposedHeaders(List.of("Authorization", "RateLimit-Limit", "RateLimit-Remaining", "RateLimit-Reset", "Retry-After",
+                IdempotencyFilter.REPLAYED_HEADER));
         configuration.setAllowCredentials(false);
         configuration.setMaxAge(3600L);
 
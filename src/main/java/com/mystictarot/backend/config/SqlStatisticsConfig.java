@@ -0,0 +1,47 @@
+package com.mystictarot.backend.config;
+
+import com.mystictarot.backend.service.sqlstats.RowCountingResultSetProxyLogicFactory;
+import com.mystictarot.backend.service.sqlstats.SqlStatisticsCollector;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.observation.boot.autoconfigure.ProxyDataSourceBuilderCustomizer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.util.List;
+
+/**
+ * Hooks {@link SqlStatisticsCollector} into the datasource-proxy wrapper that datasource-micrometer already puts
+ * around the connection pool, instead of stacking a second proxy. The collector is added there as a query
+ * listener (it is deliberately not a listener bean itself, so it cannot be registered twice); result sets are
+ * proxied with {@link RowCountingResultSetProxyLogicFactory} so rows can be counted without a method listener
+ * on every JDBC call. app.sql-stats.enabled is read when the DataSource is created rather than through a bean
+ * condition, so AOT-built images can still switch it off.
+ */
+@Configuration
+public class SqlStatisticsConfig {
+
+    @Bean
+    ProxyDataSourceBuilderCustomizer sqlStatisticsProxyCustomizer(ObjectProvider<SqlStatisticsCollector> collector,
+                                                                  Environment environment) {
+        return (builder, dataSource, beanName, dataSourceName) -> {
+            if (!environment.getProperty("app.sql-stats.enabled", Boolean.class, true)) {
+                return;
+            }
+            SqlStatisticsCollector statistics = collector.getObject();
+            builder.listener(new QueryExecutionListener() {
+                @Override
+                public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+                }
+
+                @Override
+                public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+                    statistics.afterQuery(execInfo, queryInfoList);
+                }
+            }).proxyResultSet(new RowCountingResultSetProxyLogicFactory(statistics));
+        };
+    }
+}
@@ -0,0 +1,25 @@
+package com.mystictarot.backend.config;
+
+import io.opentelemetry.exporter.logging.LoggingSpanExporter;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+/**
+ * Extra span exporter next to the OTLP one that Spring Boot configures from
+ * management.opentelemetry.tracing.export.otlp.*. With app.tracing.logging-exporter.enabled, finished spans
+ * are also written to the log (category io.opentelemetry.exporter.logging), for tests and local runs
+ * without a collector. Decided at runtime rather than with a bean condition, so AOT-built images can
+ * still switch it on.
+ */
+@Configuration
+public class TracingConfig {
+
+    @Bean
+    public SpanExporter loggingSpanExporter(@Value("${app.tracing.logging-exporter.enabled:false}") boolean enabled) {
+        return enabled ? LoggingSpanExporter.create() : SpanExporter.composite(List.of());
+    }
+}
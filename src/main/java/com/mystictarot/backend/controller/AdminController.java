@@ -0,0 +1,111 @@
+package com.mystictarot.backend.controller;
+
+import com.mystictarot.backend.dto.response.ProfilingRecordingDTO;
+import com.mystictarot.backend.service.TarotSheetImportService;
+import com.mystictarot.backend.service.profiling.FlightRecordingService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+@RestController
+@RequestMapping("/admin")
+@Tag(name = "Admin", description = "Operator APIs, authenticated with the X-Admin-Key header")
+@SecurityRequirement(name = "adminApiKey")
+public class AdminController {
+
+    private final TarotSheetImportService tarotSheetImportService;
+    private final FlightRecordingService flightRecordingService;
+    private final String tarotCsvUrl;
+
+    public AdminController(TarotSheetImportService tarotSheetImportService,
+                           FlightRecordingService flightRecordingService,
+                           @Value("${app.import.tarot.csv-url}") String tarotCsvUrl) {
+        this.tarotSheetImportService = tarotSheetImportService;
+        this.flightRecordingService = flightRecordingService;
+        this.tarotCsvUrl = tarotCsvUrl;
+    }
+
+    @PostMapping("/tarot/import")
+    @Operation(summary = "Re-import tarot deck", description = "Fetch the configured tarot sheet and apply changed rows. Unchanged sheets answer outcome=NOT_MODIFIED; a changed deck is pushed to every node's cache.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Import finished (see counts and deckVersion)"),
+            @ApiResponse(responseCode = "403", description = "Missing or wrong X-Admin-Key")
+    })
+    public ResponseEntity<TarotSheetImportService.ImportResult> importTarotDeck() {
+        return ResponseEntity.ok(tarotSheetImportService.runImport(tarotCsvUrl));
+    }
+
+    @PostMapping("/profiling/recordings")
+    @Operation(summary = "Start a Flight Recorder recording", description = "Starts an on-demand JFR recording with the default or profile settings. It stops by itself after durationSeconds (capped by app.profiling.max-duration-seconds). Only one can be open at a time.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Recording started"),
+            @ApiResponse(responseCode = "400", description = "Unknown settings or invalid duration"),
+            @ApiResponse(responseCode = "403", description = "Missing or wrong X-Admin-Key"),
+            @ApiResponse(responseCode = "409", description = "Another recording is still open")
+    })
+    public ResponseEntity<ProfilingRecordingDTO> startRecording(
+            @RequestParam(defaultValue = "profile") String settings,
+            @RequestParam(required = false) Long durationSeconds) {
+        return ResponseEntity.ok(flightRecordingService.start(settings, durationSeconds));
+    }
+
+    @GetMapping("/profiling/recordings")
+    @Operation(summary = "List open recordings", description = "On-demand recordings that have not been downloaded yet")
+    public ResponseEntity<List<ProfilingRecordingDTO>> listRecordings() {
+        return ResponseEntity.ok(flightRecordingService.list());
+    }
+
+    @PostMapping("/profiling/recordings/{id}/stop")
+    @Operation(summary = "Stop a recording and download it", description = "Stops the recording if it is still running, streams the .jfr file and discards the recording")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "The .jfr file"),
+            @ApiResponse(responseCode = "403", description = "Missing or wrong X-Admin-Key"),
+            @ApiResponse(responseCode = "404", description = "No open recording with this id")
+    })
+    public ResponseEntity<StreamingResponseBody> stopRecording(@PathVariable long id) {
+        return jfrFile(flightRecordingService.stop(id), "recording-" + id + ".jfr");
+    }
+
+    @GetMapping("/profiling/continuous")
+    @Operation(summary = "Download the always-on recording", description = "Snapshot of the continuous JFR recording started with the JVM (last hours of data); the recording keeps running")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "The .jfr file"),
+            @ApiResponse(responseCode = "403", description = "Missing or wrong X-Admin-Key"),
+            @ApiResponse(responseCode = "404", description = "The JVM was started without a continuous recording")
+    })
+    public ResponseEntity<StreamingResponseBody> dumpContinuousRecording() {
+        return jfrFile(flightRecordingService.dumpContinuous(), "continuous.jfr");
+    }
+
+    private static ResponseEntity<StreamingResponseBody> jfrFile(Path file, String filename) {
+        StreamingResponseBody body = out -> {
+            try {
+                Files.copy(file, out);
+            } finally {
+                Files.deleteIfExists(file);
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(filename).build().toString())
+                .body(body);
+    }
+}
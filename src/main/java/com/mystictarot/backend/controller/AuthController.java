@@ -1,16 +1,19 @@
 package com.mystictarot.backend.controller;
 
 import com.mystictarot.backend.dto.request.LoginRequestDTO;
+import com.mystictarot.backend.dto.request.RefreshTokenRequestDTO;
 import com.mystictarot.backend.dto.request.RegisterRequestDTO;
 import com.mystictarot.backend.dto.request.SocialLoginRequestDTO;
 import com.mystictarot.backend.dto.response.AuthResponseDTO;
 import com.mystictarot.backend.service.AuthService;
+import com.mystictarot.backend.util.RequestUtils;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
@@ -23,7 +26,7 @@ import org.springframework.web.bind.annotation.RestController;
 @RestController
 @RequestMapping("/auth")
 @RequiredArgsConstructor
-@Tag(name = "Authentication", description = "Authentication APIs for user registration, login, and social login")
+@Tag(name = "Authentication", description = "Authentication APIs for user registration, login, social login, token refresh and logout")
 public class AuthController {
 
     private final AuthService authService;
@@ -47,6 +50,11 @@ public class AuthController {
                     responseCode = "400",
                     description = "Invalid request data",
                     content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "503",
+                    description = "Password hashing capacity exhausted, retry after the Retry-After delay",
+                    content = @Content
             )
     })
     @PostMapping("/register")
@@ -57,7 +65,7 @@ public class AuthController {
 
     @Operation(
             summary = "Login user",
-            description = "Authenticates user with email and password, returns JWT token for subsequent API calls."
+            description = "Authenticates user with email and password, returns a short-lived JWT access token and a refresh token."
     )
     @ApiResponses(value = {
             @ApiResponse(
@@ -74,6 +82,11 @@ public class AuthController {
                     responseCode = "400",
                     description = "Invalid request data",
                     content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "503",
+                    description = "Password hashing capacity exhausted, retry after the Retry-After delay",
+                    content = @Content
             )
     })
     @PostMapping("/login")
@@ -103,4 +116,53 @@ public class AuthController {
         AuthResponseDTO response = authService.socialLogin(request);
         return ResponseEntity.ok(response);
     }
+
+    @Operation(
+            summary = "Refresh access token",
+            description = "Exchanges a refresh token for a new access token and a new refresh token. The presented refresh token can only be used once; reusing it revokes the whole session."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Token refreshed successfully",
+                    content = @Content(schema = @Schema(implementation = AuthResponseDTO.class))
+            ),
+            @ApiResponse(
+                    responseCode = "401",
+                    description = "Refresh token invalid, expired, revoked or reused",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Invalid request data",
+                    content = @Content
+            )
+    })
+    @PostMapping("/refresh")
+    public ResponseEntity<AuthResponseDTO> refresh(@Valid @RequestBody RefreshTokenRequestDTO request) {
+        AuthResponseDTO response = authService.refresh(request);
+        return ResponseEntity.ok(response);
+    }
+
+    @Operation(
+            summary = "Logout",
+            description = "Revokes the refresh token session and, if sent in the Authorization header, the current access token on all nodes."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "204",
+                    description = "Logged out",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Invalid request data",
+                    content = @Content
+            )
+    })
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@Valid @RequestBody RefreshTokenRequestDTO request, HttpServletRequest httpRequest) {
+        authService.logout(request, RequestUtils.getBearerToken(httpRequest));
+        return ResponseEntity.noContent().build();
+    }
 }
@@ -5,8 +5,10 @@ import com.mystictarot.backend.dto.response.CreateOrderResponseDTO;
 import com.mystictarot.backend.dto.response.PlanInfoDTO;
 import com.mystictarot.backend.service.PaymentOrderService;
 import com.mystictarot.backend.service.PaymentPlanService;
+import com.mystictarot.backend.service.payment.PlansDocument;
 import com.mystictarot.backend.util.SecurityUtils;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -15,11 +17,16 @@ import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
-import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/payments")
@@ -30,14 +37,28 @@ public class PaymentController {
     private final PaymentOrderService paymentOrderService;
     private final PaymentPlanService paymentPlanService;
 
+    @Value("${payment.catalog.cache-max-age-seconds:300}")
+    private long plansCacheMaxAgeSeconds;
+
     @GetMapping("/plans")
-    @Operation(summary = "Get purchasable plans with prices", description = "Returns list of plans (MONTHLY, UNLIMITED, RETAIL_5) with localized amount and currency. lang=vi or lang=vn → VND (Vietnam only); any other lang → USD. Default from payment.default-locale (vi). Public, no auth required.")
+    @Operation(summary = "Get purchasable plans with prices", description = "Returns list of plans (MONTHLY, UNLIMITED, RETAIL_5) with localized amount and currency from the plan_prices catalog. lang is matched exactly, then by language (en-US → en), then falls back to payment.fallback-locale (en). Default from payment.default-locale (vi). Supports If-None-Match. Public, no auth required.")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "List of plans", content = @Content(schema = @Schema(implementation = PlanInfoDTO.class)))
+            @ApiResponse(responseCode = "200", description = "List of plans", content = @Content(array = @ArraySchema(schema = @Schema(implementation = PlanInfoDTO.class)))),
+            @ApiResponse(responseCode = "304", description = "Not modified - ETag matches If-None-Match")
     })
-    public ResponseEntity<List<PlanInfoDTO>> getPlans(
-            @RequestParam(name = "lang", required = false) String lang) {
-        return ResponseEntity.ok(paymentPlanService.getPurchasablePlans(lang));
+    public ResponseEntity<byte[]> getPlans(
+            @RequestParam(name = "lang", required = false) String lang,
+            WebRequest webRequest) {
+        PlansDocument plans = paymentPlanService.getPlansDocument(lang);
+        CacheControl cacheControl = CacheControl.maxAge(plansCacheMaxAgeSeconds, TimeUnit.SECONDS).cachePublic();
+        if (webRequest.checkNotModified(plans.etag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(plans.etag()).cacheControl(cacheControl).build();
+        }
+        return ResponseEntity.ok()
+                .eTag(plans.etag())
+                .cacheControl(cacheControl)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(plans.body());
     }
 
     @PostMapping("/create-order")
@@ -1,10 +1,13 @@
 package com.mystictarot.backend.controller;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.mystictarot.backend.dto.webhook.MomoWebhookPayloadDTO;
 import com.mystictarot.backend.dto.webhook.ZaloPayCallbackDataDTO;
 import com.mystictarot.backend.dto.webhook.ZaloPayWebhookPayloadDTO;
+import com.mystictarot.backend.entity.enums.PaymentProvider;
 import com.mystictarot.backend.service.PaymentWebhookService;
+import com.mystictarot.backend.service.webhook.WebhookInboxService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
@@ -20,26 +23,28 @@ import org.springframework.web.bind.annotation.*;
 public class PaymentWebhookController {
 
     private final PaymentWebhookService paymentWebhookService;
+    private final WebhookInboxService webhookInboxService;
     private final ObjectMapper objectMapper;
 
     @PostMapping("/momo")
-    @Operation(summary = "Momo IPN callback", description = "Receives payment result from Momo. Signature verified server-side.")
+    @Operation(summary = "Momo IPN callback", description = "Receives payment result from Momo. Signature verified server-side; the event is queued and applied asynchronously.")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "204", description = "Processed successfully"),
+            @ApiResponse(responseCode = "204", description = "Accepted (or already received)"),
             @ApiResponse(responseCode = "400", description = "Invalid signature or payload")
     })
-    public ResponseEntity<Void> momoWebhook(@RequestBody MomoWebhookPayloadDTO payload) {
+    public ResponseEntity<Void> momoWebhook(@RequestBody MomoWebhookPayloadDTO payload) throws JsonProcessingException {
         if (!paymentWebhookService.verifyMomoSignature(payload)) {
             return ResponseEntity.badRequest().build();
         }
-        paymentWebhookService.handleMomoCallback(payload);
+        String eventId = payload.getRequestId() + ":" + payload.getResultCode();
+        webhookInboxService.accept(PaymentProvider.MOMO, eventId, objectMapper.writeValueAsString(payload));
         return ResponseEntity.noContent().build();
     }
 
     @PostMapping("/zalopay")
-    @Operation(summary = "ZaloPay callback", description = "Receives payment result from ZaloPay. MAC verified server-side.")
+    @Operation(summary = "ZaloPay callback", description = "Receives payment result from ZaloPay. MAC verified server-side; the event is queued and applied asynchronously.")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Processed successfully"),
+            @ApiResponse(responseCode = "200", description = "Accepted (or already received)"),
             @ApiResponse(responseCode = "400", description = "Invalid MAC or payload")
     })
     public ResponseEntity<String> zaloPayWebhook(@RequestBody ZaloPayWebhookPayloadDTO payload) {
@@ -49,7 +54,7 @@ public class PaymentWebhookController {
                 return ResponseEntity.badRequest().body("{\"return_code\":-1,\"return_message\":\"Invalid mac\"}");
             }
             ZaloPayCallbackDataDTO data = objectMapper.readValue(dataStr, ZaloPayCallbackDataDTO.class);
-            paymentWebhookService.handleZaloPayCallback(data);
+            webhookInboxService.accept(PaymentProvider.ZALOPAY, data.getAppTransId(), dataStr);
             return ResponseEntity.ok("{\"return_code\":1,\"return_message\":\"success\"}");
         } catch (Exception e) {
             return ResponseEntity.badRequest().body("{\"return_code\":-1,\"return_message\":\"" + e.getMessage() + "\"}");
@@ -57,16 +62,20 @@ public class PaymentWebhookController {
     }
 
     @PostMapping("/stripe")
-    @Operation(summary = "Stripe webhook", description = "Receives Stripe events (e.g. checkout.session.completed). Signature in header.")
+    @Operation(summary = "Stripe webhook", description = "Receives Stripe events (e.g. checkout.session.completed). Signature in header; the event is queued and applied asynchronously.")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "204", description = "Processed successfully"),
-            @ApiResponse(responseCode = "400", description = "Invalid signature")
+            @ApiResponse(responseCode = "204", description = "Accepted (or already received)"),
+            @ApiResponse(responseCode = "400", description = "Invalid signature or missing event id")
     })
-    public ResponseEntity<Void> stripeWebhook(@RequestBody String payload, @RequestHeader("Stripe-Signature") String stripeSignature) {
+    public ResponseEntity<Void> stripeWebhook(@RequestBody String payload, @RequestHeader("Stripe-Signature") String stripeSignature) throws JsonProcessingException {
         if (!paymentWebhookService.verifyStripeSignature(payload, stripeSignature)) {
             return ResponseEntity.badRequest().build();
         }
-        paymentWebhookService.handleStripeWebhook(payload);
+        String eventId = objectMapper.readTree(payload).path("id").asText("");
+        if (eventId.isBlank()) {
+            return ResponseEntity.badRequest().build();
+        }
+        webhookInboxService.accept(PaymentProvider.STRIPE, eventId, payload);
         return ResponseEntity.noContent().build();
     }
 }
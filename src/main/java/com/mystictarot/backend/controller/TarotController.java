@@ -6,6 +6,9 @@ import com.mystictarot.backend.dto.response.FollowUpResponseDTO;
 import com.mystictarot.backend.dto.response.InterpretResponseDTO;
 import com.mystictarot.backend.dto.response.TarotCardResponseDTO;
 import com.mystictarot.backend.service.TarotService;
+import com.mystictarot.backend.service.ratelimit.AiRateLimitService;
+import com.mystictarot.backend.service.ratelimit.RateLimitDecision;
+import com.mystictarot.backend.util.RequestUtils;
 import com.mystictarot.backend.util.SecurityUtils;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -14,6 +17,7 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
@@ -36,6 +40,7 @@ import java.util.UUID;
 public class TarotController {
 
     private final TarotService tarotService;
+    private final AiRateLimitService aiRateLimitService;
 
     @GetMapping("/cards")
     @Operation(summary = "Get tarot deck", description = "Returns all 78 tarot cards with localized name and description. Public, no auth. Use query param lang (e.g. vi, en); default from server config.")
@@ -56,12 +61,16 @@ public class TarotController {
             @ApiResponse(responseCode = "400", description = "Invalid request (wrong card count, invalid card IDs)"),
             @ApiResponse(responseCode = "401", description = "Unauthorized - Invalid or missing JWT token"),
             @ApiResponse(responseCode = "403", description = "Weekly reading limit exceeded"),
+            @ApiResponse(responseCode = "429", description = "AI request rate limit exceeded (see RateLimit-* and Retry-After headers)"),
             @ApiResponse(responseCode = "502", description = "AI service temporarily unavailable")
     })
-    public ResponseEntity<InterpretResponseDTO> interpret(@Valid @RequestBody InterpretRequestDTO request) {
+    public ResponseEntity<InterpretResponseDTO> interpret(@Valid @RequestBody InterpretRequestDTO request,
+                                                          HttpServletRequest httpRequest) {
         UUID userId = SecurityUtils.getCurrentUserId();
+        RateLimitDecision rateLimit = aiRateLimitService.consumeForInterpret(
+                userId, RequestUtils.getClientIp(httpRequest), request.getSpreadType());
         InterpretResponseDTO response = tarotService.interpretReading(userId, request);
-        return ResponseEntity.status(HttpStatus.OK).body(response);
+        return ResponseEntity.status(HttpStatus.OK).headers(rateLimit.toHeaders()).body(response);
     }
 
     @PostMapping("/follow-up")
@@ -73,11 +82,14 @@ public class TarotController {
             @ApiResponse(responseCode = "401", description = "Unauthorized - Invalid or missing JWT token"),
             @ApiResponse(responseCode = "403", description = "Insufficient credits for follow-up"),
             @ApiResponse(responseCode = "404", description = "Reading not found"),
+            @ApiResponse(responseCode = "429", description = "AI request rate limit exceeded (see RateLimit-* and Retry-After headers)"),
             @ApiResponse(responseCode = "502", description = "AI service temporarily unavailable")
     })
-    public ResponseEntity<FollowUpResponseDTO> followUp(@Valid @RequestBody FollowUpRequestDTO request) {
+    public ResponseEntity<FollowUpResponseDTO> followUp(@Valid @RequestBody FollowUpRequestDTO request,
+                                                        HttpServletRequest httpRequest) {
         UUID userId = SecurityUtils.getCurrentUserId();
+        RateLimitDecision rateLimit = aiRateLimitService.consumeForFollowUp(userId, RequestUtils.getClientIp(httpRequest));
         FollowUpResponseDTO response = tarotService.followUp(userId, request);
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok().headers(rateLimit.toHeaders()).body(response);
     }
 }
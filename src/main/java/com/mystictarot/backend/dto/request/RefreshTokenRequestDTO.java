@@ -0,0 +1,20 @@
+package com.mystictarot.backend.dto.request;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "Request DTO carrying a refresh token")
+public class RefreshTokenRequestDTO {
+
+    @Schema(description = "Refresh token returned by login, register or a previous refresh", example = "hQ2r5Yb0w6hVnS0eXo7u3m6o1J8kq9yX2c4vB7nA1dE")
+    @NotBlank(message = "Refresh token is required")
+    private String refreshToken;
+}
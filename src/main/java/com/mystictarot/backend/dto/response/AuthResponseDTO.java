@@ -17,9 +17,12 @@ import java.util.UUID;
 @Schema(description = "Response DTO containing authentication token and user information")
 public class AuthResponseDTO {
 
-    @Schema(description = "JWT authentication token", example = "eyJhbGciOiJIUzI1NiIsInR5cCI6IkpXVCJ9...")
+    @Schema(description = "Short-lived JWT access token", example = "eyJhbGciOiJIUzI1NiIsInR5cCI6IkpXVCJ9...")
     private String token;
 
+    @Schema(description = "Opaque refresh token, exchange it at /auth/refresh for a new token pair", example = "hQ2r5Yb0w6hVnS0eXo7u3m6o1J8kq9yX2c4vB7nA1dE")
+    private String refreshToken;
+
     @Schema(description = "User unique identifier", example = "123e4567-e89b-12d3-a456-426614174000")
     private UUID userId;
 
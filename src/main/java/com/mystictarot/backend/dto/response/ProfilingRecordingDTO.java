@@ -0,0 +1,35 @@
+package com.mystictarot.backend.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "On-demand Flight Recorder recording")
+public class ProfilingRecordingDTO {
+
+    @Schema(description = "Recording ID, used to stop it and download the .jfr file")
+    private long id;
+
+    @Schema(description = "JFR settings the recording runs with", example = "profile")
+    private String settings;
+
+    @Schema(description = "NEW, DELAYED, RUNNING, STOPPED or CLOSED")
+    private String state;
+
+    @Schema(description = "When the recording started")
+    private Instant startTime;
+
+    @Schema(description = "The recording stops by itself after this many seconds")
+    private long durationSeconds;
+
+    @Schema(description = "Oldest data is dropped beyond this size")
+    private long maxSizeBytes;
+}
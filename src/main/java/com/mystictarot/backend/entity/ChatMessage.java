@@ -1,6 +1,7 @@
 package com.mystictarot.backend.entity;
 
 import com.mystictarot.backend.entity.enums.ChatRole;
+import com.mystictarot.backend.entity.id.UuidV7;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
@@ -27,7 +28,7 @@ import java.util.UUID;
 public class ChatMessage {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidV7
     @Column(name = "id", updatable = false, nullable = false)
     private UUID id;
 
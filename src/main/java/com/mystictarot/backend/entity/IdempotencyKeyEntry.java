@@ -0,0 +1,64 @@
+package com.mystictarot.backend.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Database copy of an idempotency key, used only while Redis is unavailable.
+ * recordKey is the SHA-256 of user ID and client key, so it has a fixed length.
+ */
+@Entity
+@Table(name = "idempotency_keys",
+    indexes = {
+        @Index(name = "idx_idempotency_keys_expires_at", columnList = "expires_at")
+    },
+    uniqueConstraints = {
+        @UniqueConstraint(name = "uk_idempotency_keys_record_key", columnNames = {"record_key"})
+    }
+)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class IdempotencyKeyEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    @Column(name = "id", updatable = false, nullable = false)
+    private UUID id;
+
+    @Column(name = "record_key", nullable = false, length = 64)
+    @NotNull
+    private String recordKey;
+
+    @Column(name = "fingerprint", nullable = false, length = 64)
+    @NotNull
+    private String fingerprint;
+
+    @Column(name = "completed", nullable = false)
+    private boolean completed;
+
+    @Column(name = "response_status")
+    private Integer responseStatus;
+
+    @Column(name = "content_type", length = 255)
+    private String contentType;
+
+    @Column(name = "response_body")
+    private byte[] responseBody;
+
+    @Column(name = "expires_at", nullable = false)
+    @NotNull
+    private LocalDateTime expiresAt;
+
+    @Column(name = "created_at", nullable = false)
+    @NotNull
+    private LocalDateTime createdAt;
+}
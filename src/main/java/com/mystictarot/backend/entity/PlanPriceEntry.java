@@ -0,0 +1,73 @@
+package com.mystictarot.backend.entity;
+
+import com.mystictarot.backend.entity.enums.PlanType;
+import jakarta.persistence.*;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Price of a purchasable plan for one locale. The whole table is loaded into an in-memory snapshot;
+ * any insert, update or delete is picked up by the next refresh.
+ */
+@Entity
+@Table(name = "plan_prices",
+    uniqueConstraints = {
+        @UniqueConstraint(name = "uk_plan_prices_plan_locale", columnNames = {"plan_type", "locale"})
+    }
+)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PlanPriceEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    @Column(name = "id", updatable = false, nullable = false)
+    private UUID id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "plan_type", nullable = false)
+    @NotNull(message = "Plan type is required")
+    private PlanType planType;
+
+    @Column(name = "locale", nullable = false, length = 10)
+    @NotNull(message = "Locale is required")
+    @Size(max = 10, message = "Locale must not exceed 10 characters")
+    private String locale;
+
+    @Column(name = "amount", nullable = false, precision = 12, scale = 2)
+    @NotNull(message = "Amount is required")
+    @DecimalMin(value = "0.01", message = "Amount must be greater than 0")
+    private BigDecimal amount;
+
+    @Column(name = "currency", nullable = false, length = 3)
+    @NotNull(message = "Currency is required")
+    @Size(min = 3, max = 3, message = "Currency must be an ISO 4217 code")
+    private String currency;
+
+    @Column(name = "extra_credits")
+    private Integer extraCredits;
+
+    @Column(name = "sort_order", nullable = false)
+    @Builder.Default
+    private Integer sortOrder = 0;
+
+    @Column(name = "active", nullable = false)
+    @Builder.Default
+    private Boolean active = true;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
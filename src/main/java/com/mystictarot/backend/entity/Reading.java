@@ -2,6 +2,7 @@ package com.mystictarot.backend.entity;
 
 import com.mystictarot.backend.entity.enums.ReadingStatus;
 import com.mystictarot.backend.entity.enums.SpreadType;
+import com.mystictarot.backend.entity.id.UuidV7;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
@@ -36,7 +37,7 @@ import java.util.UUID;
 public class Reading {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidV7
     @Column(name = "id", updatable = false, nullable = false)
     private UUID id;
 
@@ -0,0 +1,64 @@
+package com.mystictarot.backend.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Refresh token entity. Only the SHA-256 hash of the token is stored; the raw value is handed to
+ * the client once. Each rotation creates a new row in the same family and marks the old one used,
+ * so presenting a used token again revokes the whole family.
+ */
+@Entity
+@Table(name = "refresh_tokens",
+    indexes = {
+        @Index(name = "idx_refresh_tokens_user_id", columnList = "user_id"),
+        @Index(name = "idx_refresh_tokens_family_id", columnList = "family_id"),
+        @Index(name = "idx_refresh_tokens_expires_at", columnList = "expires_at")
+    },
+    uniqueConstraints = {
+        @UniqueConstraint(name = "uk_refresh_tokens_token_hash", columnNames = {"token_hash"})
+    }
+)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RefreshToken {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    @Column(name = "id", updatable = false, nullable = false)
+    private UUID id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false, foreignKey = @ForeignKey(name = "fk_refresh_tokens_user"))
+    @NotNull(message = "User is required")
+    private User user;
+
+    @Column(name = "token_hash", nullable = false, length = 64)
+    @NotNull(message = "Token hash is required")
+    private String tokenHash;
+
+    @Column(name = "family_id", nullable = false)
+    @NotNull(message = "Family ID is required")
+    private UUID familyId;
+
+    @Column(name = "expires_at", nullable = false)
+    @NotNull(message = "Expiry is required")
+    private LocalDateTime expiresAt;
+
+    @Column(name = "revoked_at")
+    private LocalDateTime revokedAt;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
@@ -45,6 +45,12 @@ public class TarotCard {
     @NotNull(message = "Suit is required")
     private SuitType suit;
 
+    /**
+     * SHA-256 of the imported sheet row; the importer skips rows whose hash has not changed
+     */
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
     @CreationTimestamp
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
@@ -47,4 +47,10 @@ public class TarotCardTranslation {
 
     @Column(name = "description", columnDefinition = "TEXT")
     private String description;
+
+    /**
+     * SHA-256 of the imported name and description; the importer skips translations whose hash has not changed
+     */
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
 }
@@ -0,0 +1,43 @@
+package com.mystictarot.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Single-row bookkeeping for the tarot sheet import: the deck version that in-memory caches compare
+ * against, and the validators of the last imported sheet for conditional GET.
+ */
+@Entity
+@Table(name = "tarot_deck_state")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TarotDeckState {
+
+    public static final short SINGLETON_ID = 1;
+
+    @Id
+    @Column(name = "id", nullable = false, updatable = false)
+    private Short id;
+
+    @Column(name = "version", nullable = false)
+    private Long version;
+
+    @Column(name = "source_url", length = 2048)
+    private String sourceUrl;
+
+    @Column(name = "source_etag", length = 512)
+    private String sourceEtag;
+
+    @Column(name = "source_last_modified", length = 64)
+    private String sourceLastModified;
+
+    @Column(name = "imported_at")
+    private LocalDateTime importedAt;
+}
@@ -3,6 +3,7 @@ package com.mystictarot.backend.entity;
 import com.mystictarot.backend.entity.enums.PaymentProvider;
 import com.mystictarot.backend.entity.enums.PlanType;
 import com.mystictarot.backend.entity.enums.TransactionStatus;
+import com.mystictarot.backend.entity.id.UuidV7;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotNull;
@@ -26,6 +27,7 @@ import java.util.UUID;
     indexes = {
         @Index(name = "idx_transactions_user_id", columnList = "user_id"),
         @Index(name = "idx_transactions_status", columnList = "status"),
+        @Index(name = "idx_transactions_status_created_at", columnList = "status, created_at, id"),
         @Index(name = "idx_transactions_provider_transaction_id", columnList = "provider_transaction_id"),
         @Index(name = "idx_transactions_idempotency_key", columnList = "user_id, idempotency_key")
     },
@@ -41,7 +43,7 @@ import java.util.UUID;
 public class Transaction {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidV7
     @Column(name = "id", updatable = false, nullable = false)
     private UUID id;
 
@@ -83,6 +85,9 @@ public class Transaction {
     @Size(max = 2000)
     private String paymentUrl;
 
+    @Column(name = "last_reconciled_at")
+    private LocalDateTime lastReconciledAt;
+
     @CreationTimestamp
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
@@ -1,6 +1,7 @@
 package com.mystictarot.backend.entity;
 
 import com.mystictarot.backend.entity.enums.PlanType;
+import com.mystictarot.backend.entity.id.UuidV7;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.Min;
@@ -11,6 +12,7 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.DynamicUpdate;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDateTime;
@@ -19,11 +21,14 @@ import java.util.List;
 import java.util.UUID;
 
 /**
- * User entity representing application users
+ * User entity representing application users. Updates write only the changed columns, so a profile or
+ * password save cannot overwrite plan or credits changed meanwhile by the targeted updates in UserRepository.
  */
 @Entity
+@DynamicUpdate
 @Table(name = "users", indexes = {
-    @Index(name = "idx_users_email", columnList = "email", unique = true)
+    @Index(name = "idx_users_email", columnList = "email", unique = true),
+    @Index(name = "idx_users_plan_subscription_expiry", columnList = "plan, subscription_expiry, id")
 })
 @Data
 @NoArgsConstructor
@@ -32,7 +37,7 @@ import java.util.UUID;
 public class User {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidV7
     @Column(name = "id", updatable = false, nullable = false)
     private UUID id;
 
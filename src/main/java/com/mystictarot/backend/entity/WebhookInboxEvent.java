@@ -0,0 +1,72 @@
+package com.mystictarot.backend.entity;
+
+import com.mystictarot.backend.entity.enums.PaymentProvider;
+import com.mystictarot.backend.entity.enums.WebhookEventStatus;
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Verified payment provider callback waiting to be applied.
+ * Rows are inserted by the webhook endpoints (deduplicated by provider + event ID) and drained
+ * asynchronously by WebhookInboxWorker.
+ */
+@Entity
+@Table(name = "webhook_inbox",
+    indexes = {
+        @Index(name = "idx_webhook_inbox_status_next_attempt", columnList = "status, next_attempt_at")
+    },
+    uniqueConstraints = {
+        @UniqueConstraint(name = "uk_webhook_inbox_provider_event", columnNames = {"provider", "event_id"})
+    }
+)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class WebhookInboxEvent {
+
+    @Id
+    @Column(name = "id", updatable = false, nullable = false)
+    private UUID id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "provider", nullable = false)
+    @NotNull(message = "Provider is required")
+    private PaymentProvider provider;
+
+    @Column(name = "event_id", nullable = false, length = 255)
+    @NotNull(message = "Event ID is required")
+    private String eventId;
+
+    @Column(name = "payload", nullable = false, columnDefinition = "TEXT")
+    @NotNull(message = "Payload is required")
+    private String payload;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    @Builder.Default
+    private WebhookEventStatus status = WebhookEventStatus.PENDING;
+
+    @Column(name = "attempts", nullable = false)
+    @Builder.Default
+    private Integer attempts = 0;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    @Column(name = "received_at", nullable = false, updatable = false)
+    private LocalDateTime receivedAt;
+
+    @Column(name = "processed_at")
+    private LocalDateTime processedAt;
+}
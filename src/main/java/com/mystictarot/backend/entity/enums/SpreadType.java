@@ -4,9 +4,22 @@ package com.mystictarot.backend.entity.enums;
  * Types of tarot card spreads
  */
 public enum SpreadType {
-    THREE_CARDS,
-    CELTIC_CROSS,
-    DAILY_DRAW,
-    PAST_PRESENT_FUTURE,
-    RELATIONSHIP_SPREAD
+    THREE_CARDS(3),
+    CELTIC_CROSS(10),
+    DAILY_DRAW(1),
+    PAST_PRESENT_FUTURE(3),
+    RELATIONSHIP_SPREAD(2);
+
+    private final int cardCount;
+
+    SpreadType(int cardCount) {
+        this.cardCount = cardCount;
+    }
+
+    /**
+     * Number of cards a reading of this spread must contain
+     */
+    public int getCardCount() {
+        return cardCount;
+    }
 }
@@ -7,5 +7,7 @@ public enum TransactionStatus {
     PENDING,
     SUCCESS,
     FAILED,
-    CANCELLED
+    CANCELLED,
+    /** PENDING order that was never paid within the order expiry window */
+    EXPIRED
 }
@@ -0,0 +1,10 @@
+package com.mystictarot.backend.entity.enums;
+
+/**
+ * Processing status of a webhook inbox event
+ */
+public enum WebhookEventStatus {
+    PENDING,
+    PROCESSED,
+    DEAD
+}
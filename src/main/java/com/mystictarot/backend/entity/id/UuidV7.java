@@ -0,0 +1,18 @@
+package com.mystictarot.backend.entity.id;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Generates a time-ordered UUIDv7 (RFC 9562) for the annotated id on insert, in place of
+ * {@code @GeneratedValue(strategy = GenerationType.UUID)}. See {@link UuidV7Generator}.
+ */
+@IdGeneratorType(UuidV7Generator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface UuidV7 {
+}
@@ -0,0 +1,73 @@
+package com.mystictarot.backend.entity.id;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.EventTypeSets;
+
+import java.util.EnumSet;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * UUIDv7 (RFC 9562): 48-bit Unix millisecond timestamp, version 7, a 12-bit counter, variant, then 62 random bits.
+ * Postgres compares uuid values bytewise, so new keys are appended at the right edge of the primary key index
+ * instead of landing on a random page, as random v4 keys do. This avoids page splits and keeps the recently
+ * written part of the index in cache.
+ * <p>
+ * Ids from this JVM are strictly increasing. The counter (method 1 in RFC 9562 section 6.2) starts at a random
+ * value below 2048 each millisecond. It carries into the timestamp when more than 2048 ids are needed in one
+ * millisecond. When the clock steps back, the last timestamp is kept. Across nodes, ids are ordered to the
+ * millisecond.
+ */
+public class UuidV7Generator implements BeforeExecutionGenerator {
+
+    private static final int COUNTER_BITS = 12;
+    private static final long COUNTER_MASK = (1L << COUNTER_BITS) - 1;
+    private static final int COUNTER_SEED_BOUND = 1 << (COUNTER_BITS - 1);
+    private static final long TIMESTAMP_MASK = (1L << 48) - 1;
+
+    /**
+     * Last issued (timestamp << 12 | counter)
+     */
+    private static final AtomicLong LAST = new AtomicLong();
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue,
+                           EventType eventType) {
+        return generate();
+    }
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return EventTypeSets.INSERT_ONLY;
+    }
+
+    /**
+     * Next UUIDv7, also for rows inserted without Hibernate
+     */
+    public static UUID generate() {
+        long millis = System.currentTimeMillis();
+        int seed = ThreadLocalRandom.current().nextInt(COUNTER_SEED_BOUND);
+        long state = LAST.updateAndGet(last -> {
+            long fresh = (millis << COUNTER_BITS) | seed;
+            return fresh > last ? fresh : last + 1;
+        });
+        long mostSigBits = ((state >>> COUNTER_BITS) & TIMESTAMP_MASK) << 16
+                | 0x7000L
+                | (state & COUNTER_MASK);
+        long leastSigBits = (ThreadLocalRandom.current().nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(mostSigBits, leastSigBits);
+    }
+
+    /**
+     * Creation time embedded in a UUIDv7, in Unix milliseconds
+     */
+    public static long timestampMillis(UUID uuid) {
+        if (uuid.version() != 7) {
+            throw new IllegalArgumentException("Not a version 7 UUID: " + uuid);
+        }
+        return uuid.getMostSignificantBits() >>> 16;
+    }
+}
@@ -0,0 +1,21 @@
+package com.mystictarot.backend.exception;
+
+import com.mystictarot.backend.service.ratelimit.RateLimitDecision;
+
+/**
+ * Thrown when a caller has exhausted its AI request budget.
+ * This exception should be mapped to HTTP 429 TOO_MANY_REQUESTS with RateLimit headers
+ */
+public class RateLimitExceededException extends RuntimeException {
+
+    private final RateLimitDecision decision;
+
+    public RateLimitExceededException(RateLimitDecision decision) {
+        super("Too many AI requests. Try again in " + Math.max(1, decision.retryAfterSeconds()) + " seconds.");
+        this.decision = decision;
+    }
+
+    public RateLimitDecision getDecision() {
+        return decision;
+    }
+}
@@ -0,0 +1,16 @@
+package com.mystictarot.backend.exception;
+
+/**
+ * Thrown when a bounded worker pool is saturated and the request is shed instead of queued.
+ * This exception should be mapped to HTTP 503 SERVICE_UNAVAILABLE
+ */
+public class ServiceBusyException extends RuntimeException {
+
+    public ServiceBusyException(String message) {
+        super(message);
+    }
+
+    public ServiceBusyException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,81 @@
+package com.mystictarot.backend.repository;
+
+import com.mystictarot.backend.entity.IdempotencyKeyEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Repository interface for IdempotencyKeyEntry entity
+ */
+@Repository
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKeyEntry, UUID> {
+
+    /**
+     * Insert an in-flight marker unless the key is already taken
+     * @return 1 if inserted, 0 if the key exists
+     */
+    @Modifying
+    @Query(value = "INSERT INTO idempotency_keys (id, record_key, fingerprint, completed, expires_at, created_at) " +
+            "VALUES (:id, :recordKey, :fingerprint, FALSE, :expiresAt, :now) " +
+            "ON CONFLICT (record_key) DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("id") UUID id,
+                       @Param("recordKey") String recordKey,
+                       @Param("fingerprint") String fingerprint,
+                       @Param("expiresAt") LocalDateTime expiresAt,
+                       @Param("now") LocalDateTime now);
+
+    /**
+     * Find a key that has not expired yet
+     * @param recordKey hashed key
+     * @param now current time
+     * @return Optional entry
+     */
+    Optional<IdempotencyKeyEntry> findByRecordKeyAndExpiresAtAfter(String recordKey, LocalDateTime now);
+
+    /**
+     * Store the response of the request that owns the key
+     * @param owner id of the in-flight row the caller inserted
+     * @return number of rows updated, 0 if the key no longer belongs to the caller
+     */
+    @Modifying
+    @Query("UPDATE IdempotencyKeyEntry e SET e.completed = TRUE, e.responseStatus = :status, e.contentType = :contentType, " +
+            "e.responseBody = :body, e.expiresAt = :expiresAt WHERE e.recordKey = :recordKey AND e.id = :owner AND e.completed = FALSE")
+    int complete(@Param("recordKey") String recordKey,
+                 @Param("owner") UUID owner,
+                 @Param("status") int status,
+                 @Param("contentType") String contentType,
+                 @Param("body") byte[] body,
+                 @Param("expiresAt") LocalDateTime expiresAt);
+
+    /**
+     * Delete a key so it can be claimed again
+     * @param owner id of the in-flight row the caller inserted
+     * @return number of rows deleted, 0 if the key no longer belongs to the caller
+     */
+    @Modifying
+    @Query("DELETE FROM IdempotencyKeyEntry e WHERE e.recordKey = :recordKey AND e.id = :owner AND e.completed = FALSE")
+    int deleteByRecordKeyAndOwner(@Param("recordKey") String recordKey, @Param("owner") UUID owner);
+
+    /**
+     * Delete a key only if it has expired
+     * @return number of rows deleted
+     */
+    @Modifying
+    @Query("DELETE FROM IdempotencyKeyEntry e WHERE e.recordKey = :recordKey AND e.expiresAt <= :now")
+    int deleteExpired(@Param("recordKey") String recordKey, @Param("now") LocalDateTime now);
+
+    /**
+     * Delete all expired keys
+     * @return number of rows deleted
+     */
+    @Modifying
+    @Query("DELETE FROM IdempotencyKeyEntry e WHERE e.expiresAt <= :now")
+    int deleteAllExpired(@Param("now") LocalDateTime now);
+}
@@ -0,0 +1,31 @@
+package com.mystictarot.backend.repository;
+
+import com.mystictarot.backend.entity.PlanPriceEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Repository interface for PlanPriceEntry entity
+ */
+@Repository
+public interface PlanPriceRepository extends JpaRepository<PlanPriceEntry, UUID> {
+
+    /**
+     * Find all active prices in display order
+     * @return active plan prices
+     */
+    List<PlanPriceEntry> findByActiveTrueOrderBySortOrderAsc();
+
+    /**
+     * Latest modification time of any row; together with count() this detects catalog changes cheaply
+     * @return Optional latest updated_at
+     */
+    @Query("SELECT MAX(p.updatedAt) FROM PlanPriceEntry p")
+    Optional<LocalDateTime> findLatestUpdate();
+}
@@ -0,0 +1,56 @@
+package com.mystictarot.backend.repository;
+
+import com.mystictarot.backend.entity.RefreshToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Repository interface for RefreshToken entity
+ */
+@Repository
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, UUID> {
+
+    /**
+     * Find refresh token by the SHA-256 hash of its raw value
+     * @param tokenHash hex encoded SHA-256 hash
+     * @return Optional RefreshToken
+     */
+    Optional<RefreshToken> findByTokenHash(String tokenHash);
+
+    /**
+     * Mark a refresh token as used, only if nobody else has used it yet.
+     * Concurrent rotations of the same token race on this update; only one sees 1.
+     * @param id refresh token ID
+     * @param now revocation timestamp
+     * @return number of rows updated (0 if the token was already used or revoked)
+     */
+    @Modifying
+    @Query("UPDATE RefreshToken t SET t.revokedAt = :now WHERE t.id = :id AND t.revokedAt IS NULL")
+    int markUsed(@Param("id") UUID id, @Param("now") LocalDateTime now);
+
+    /**
+     * Revoke every still-active token of a rotation family
+     * @param familyId family ID shared by all rotations of one login
+     * @param now revocation timestamp
+     * @return number of tokens revoked
+     */
+    @Modifying
+    @Query("UPDATE RefreshToken t SET t.revokedAt = :now WHERE t.familyId = :familyId AND t.revokedAt IS NULL")
+    int revokeFamily(@Param("familyId") UUID familyId, @Param("now") LocalDateTime now);
+
+    /**
+     * Delete refresh tokens that expired before the given time
+     * @param before expiry cutoff
+     * @return number of tokens deleted
+     */
+    @Modifying
+    @Query("DELETE FROM RefreshToken t WHERE t.expiresAt < :before")
+    int deleteExpiredBefore(@Param("before") LocalDateTime before);
+}
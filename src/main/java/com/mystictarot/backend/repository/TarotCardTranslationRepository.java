@@ -17,5 +17,10 @@ public interface TarotCardTranslationRepository extends JpaRepository<TarotCardT
     @Query("SELECT t FROM TarotCardTranslation t JOIN FETCH t.tarotCard WHERE t.locale = :locale ORDER BY t.tarotCard.cardNumber ASC")
     List<TarotCardTranslation> findAllByLocaleOrderByTarotCard_CardNumberAsc(@Param("locale") String locale);
 
+    long countByLocale(String locale);
+
+    @Query("SELECT t FROM TarotCardTranslation t JOIN FETCH t.tarotCard")
+    List<TarotCardTranslation> findAllWithCard();
+
     List<TarotCardTranslation> findByTarotCard_IdInAndLocale(List<Integer> cardIds, String locale);
 }
@@ -0,0 +1,51 @@
+package com.mystictarot.backend.repository;
+
+import com.mystictarot.backend.entity.TarotDeckState;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+/**
+ * Repository interface for TarotDeckState entity
+ */
+@Repository
+public interface TarotDeckStateRepository extends JpaRepository<TarotDeckState, Short> {
+
+    /**
+     * Create the state row with version 0 if it does not exist yet
+     * @return number of rows inserted (0 or 1)
+     */
+    @Modifying
+    @Query(value = "INSERT INTO tarot_deck_state (id, version) VALUES (1, 0) ON CONFLICT (id) DO NOTHING",
+            nativeQuery = true)
+    int insertIfAbsent();
+
+    /**
+     * Try to take a Postgres transaction-scoped advisory lock; released automatically on commit/rollback
+     * @param key lock key
+     * @return true if this transaction now holds the lock
+     */
+    @Query(value = "SELECT pg_try_advisory_xact_lock(:key)", nativeQuery = true)
+    boolean tryAdvisoryXactLock(@Param("key") long key);
+
+    /**
+     * Lock the state row for the rest of the transaction
+     * @return Optional state row
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM TarotDeckState s WHERE s.id = 1")
+    Optional<TarotDeckState> findForUpdate();
+
+    /**
+     * Current deck version, read by every node to detect a missed change notification
+     * @return Optional deck version
+     */
+    @Query("SELECT s.version FROM TarotDeckState s WHERE s.id = 1")
+    Optional<Long> findCurrentVersion();
+}
@@ -4,9 +4,16 @@ import com.mystictarot.backend.entity.Transaction;
 import com.mystictarot.backend.entity.enums.TransactionStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -17,6 +24,17 @@ import java.util.UUID;
 @Repository
 public interface TransactionRepository extends JpaRepository<Transaction, UUID> {
 
+    /**
+     * Find transaction by ID together with its user.
+     * Webhook and reconciliation processing apply the plan to the user right after the lookup,
+     * so the user is joined here instead of being loaded lazily in a second query.
+     * @param id transaction ID
+     * @return Optional Transaction with user loaded
+     */
+    @Override
+    @EntityGraph(attributePaths = "user")
+    Optional<Transaction> findById(UUID id);
+
     /**
      * Find all transactions by user ID with pagination
      * @param userId user ID
@@ -35,10 +53,11 @@ public interface TransactionRepository extends JpaRepository<Transaction, UUID>
 
     /**
      * Find transaction by provider transaction ID
-     * Used for webhook processing to avoid duplicate processing
+     * Used for webhook processing to avoid duplicate processing; the user is joined as for findById
      * @param providerTransactionId provider transaction ID
-     * @return Optional Transaction
+     * @return Optional Transaction with user loaded
      */
+    @EntityGraph(attributePaths = "user")
     Optional<Transaction> findByProviderTransactionId(String providerTransactionId);
 
     /**
@@ -55,4 +74,104 @@ public interface TransactionRepository extends JpaRepository<Transaction, UUID>
      * @return Optional Transaction
      */
     Optional<Transaction> findByUser_IdAndIdempotencyKey(UUID userId, String idempotencyKey);
+
+    /**
+     * Mark a transaction SUCCESS unless it already is. Concurrent or repeated callbacks race on this
+     * update and only the one that sees 1 may grant the entitlement.
+     * @param id transaction ID
+     * @return 1 if the status changed, 0 if it was already SUCCESS
+     */
+    @Modifying
+    @Query("UPDATE Transaction t SET t.status = com.mystictarot.backend.entity.enums.TransactionStatus.SUCCESS, t.updatedAt = CURRENT_TIMESTAMP " +
+            "WHERE t.id = :id AND t.status <> com.mystictarot.backend.entity.enums.TransactionStatus.SUCCESS")
+    int markSuccessIfNotAlready(@Param("id") UUID id);
+
+    /**
+     * Mark a PENDING transaction FAILED
+     * @param id transaction ID
+     * @return 1 if the status changed, 0 otherwise
+     */
+    @Modifying
+    @Query("UPDATE Transaction t SET t.status = com.mystictarot.backend.entity.enums.TransactionStatus.FAILED, t.updatedAt = CURRENT_TIMESTAMP " +
+            "WHERE t.id = :id AND t.status = com.mystictarot.backend.entity.enums.TransactionStatus.PENDING")
+    int markFailedIfPending(@Param("id") UUID id);
+
+    /**
+     * Attach the provider order to a PENDING transaction once the provider call has returned
+     * @param id transaction ID
+     * @param providerTransactionId provider-side order/session ID
+     * @param paymentUrl URL the client is redirected to
+     * @return 1 if the transaction was updated, 0 if it is no longer PENDING
+     */
+    @Modifying
+    @Query("UPDATE Transaction t SET t.providerTransactionId = :providerTransactionId, t.paymentUrl = :paymentUrl, " +
+            "t.updatedAt = CURRENT_TIMESTAMP " +
+            "WHERE t.id = :id AND t.status = com.mystictarot.backend.entity.enums.TransactionStatus.PENDING")
+    int recordProviderOrder(@Param("id") UUID id,
+                            @Param("providerTransactionId") String providerTransactionId,
+                            @Param("paymentUrl") String paymentUrl);
+
+    /**
+     * Mark a PENDING transaction FAILED and free its idempotency key, so the client can retry
+     * the same checkout with the same key after the provider rejected the order
+     * @param id transaction ID
+     * @return 1 if the status changed, 0 otherwise
+     */
+    @Modifying
+    @Query("UPDATE Transaction t SET t.status = com.mystictarot.backend.entity.enums.TransactionStatus.FAILED, " +
+            "t.idempotencyKey = NULL, t.updatedAt = CURRENT_TIMESTAMP " +
+            "WHERE t.id = :id AND t.status = com.mystictarot.backend.entity.enums.TransactionStatus.PENDING")
+    int markFailedAndReleaseIdempotencyKey(@Param("id") UUID id);
+
+    /**
+     * Expire the oldest PENDING transactions created before the cutoff, one keyset-ordered chunk at a time.
+     * Rows locked by an in-flight createOrder/webhook update are skipped and picked up by a later chunk.
+     * The idempotency key is released so a retry with the same key starts a new checkout.
+     * @param cutoff transactions created before this instant are expired
+     * @param limit maximum number of rows to update
+     * @return number of rows expired
+     */
+    @Modifying
+    @Query(value = "WITH due AS (" +
+            "SELECT id FROM transactions WHERE status = 'PENDING' AND created_at < :cutoff " +
+            "ORDER BY created_at, id LIMIT :limit FOR UPDATE SKIP LOCKED) " +
+            "UPDATE transactions t SET status = 'EXPIRED', idempotency_key = NULL, updated_at = CURRENT_TIMESTAMP " +
+            "FROM due WHERE t.id = due.id", nativeQuery = true)
+    int expirePendingCreatedBefore(@Param("cutoff") LocalDateTime cutoff, @Param("limit") int limit);
+
+    /**
+     * Unsettled orders that already exist at the provider, for status reconciliation: never reconciled first,
+     * then least recently reconciled, oldest first within each
+     * @param statuses statuses still worth asking the provider about
+     * @param createdAfter lower bound of the lookback window
+     * @param createdBefore only orders older than this (i.e. past their normal payment window)
+     * @param pageable batch size
+     * @return candidate transactions
+     */
+    @Query("SELECT t FROM Transaction t WHERE t.status IN :statuses AND t.paymentUrl IS NOT NULL " +
+            "AND t.createdAt > :createdAfter AND t.createdAt < :createdBefore " +
+            "ORDER BY t.lastReconciledAt ASC NULLS FIRST, t.createdAt, t.id")
+    List<Transaction> findReconciliationCandidates(@Param("statuses") Collection<TransactionStatus> statuses,
+                                                   @Param("createdAfter") LocalDateTime createdAfter,
+                                                   @Param("createdBefore") LocalDateTime createdBefore,
+                                                   Pageable pageable);
+
+    /**
+     * Record that the provider is being asked about these orders, moving them behind the rest of the backlog
+     * @param ids transaction IDs
+     * @param now reconciliation time
+     * @return number of rows updated
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE Transaction t SET t.lastReconciledAt = :now WHERE t.id IN :ids")
+    int markReconciled(@Param("ids") Collection<UUID> ids, @Param("now") LocalDateTime now);
+
+    /**
+     * Try to take a Postgres transaction-scoped advisory lock; released automatically on commit/rollback
+     * @param key lock key
+     * @return true if this transaction now holds the lock
+     */
+    @Query(value = "SELECT pg_try_advisory_xact_lock(:key)", nativeQuery = true)
+    boolean tryAdvisoryXactLock(@Param("key") long key);
 }
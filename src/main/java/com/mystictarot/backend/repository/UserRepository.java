@@ -1,9 +1,16 @@
 package com.mystictarot.backend.repository;
 
 import com.mystictarot.backend.entity.User;
+import com.mystictarot.backend.entity.enums.PlanType;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -26,4 +33,68 @@ public interface UserRepository extends JpaRepository<User, UUID> {
      * @return true if exists
      */
     boolean existsByEmail(String email);
+
+    /**
+     * Find only the plan of a user (lightweight lookup for rate limiting)
+     * @param id user ID
+     * @return Optional PlanType
+     */
+    @Query("SELECT u.plan FROM User u WHERE u.id = :id")
+    Optional<PlanType> findPlanById(@Param("id") UUID id);
+
+    /**
+     * Find user and lock the row for the rest of the transaction
+     * @param id user ID
+     * @return Optional User
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT u FROM User u WHERE u.id = :id")
+    Optional<User> findByIdForUpdate(@Param("id") UUID id);
+
+    /**
+     * Spend one extra credit if the user still has one
+     * @param id user ID
+     * @return 1 if a credit was spent, 0 if the user had none left
+     */
+    @Modifying
+    @Query(value = "UPDATE users SET extra_credits = extra_credits - 1, updated_at = CURRENT_TIMESTAMP " +
+            "WHERE id = :id AND extra_credits >= 1", nativeQuery = true)
+    int spendExtraCredit(@Param("id") UUID id);
+
+    /**
+     * Add purchased extra credits in place, so a concurrent spend is never overwritten
+     * @param id user ID
+     * @param credits number of credits to add
+     * @return number of users updated
+     */
+    @Modifying
+    @Query(value = "UPDATE users SET extra_credits = extra_credits + :credits, updated_at = CURRENT_TIMESTAMP " +
+            "WHERE id = :id", nativeQuery = true)
+    int addExtraCredits(@Param("id") UUID id, @Param("credits") int credits);
+
+    /**
+     * Set the plan and its expiry without touching any other column
+     * @param id user ID
+     * @param plan new plan
+     * @param expiry subscription expiry, or null for none
+     * @return number of users updated
+     */
+    @Modifying
+    @Query("UPDATE User u SET u.plan = :plan, u.subscriptionExpiry = :expiry, u.updatedAt = CURRENT_TIMESTAMP WHERE u.id = :id")
+    int updatePlan(@Param("id") UUID id, @Param("plan") PlanType plan, @Param("expiry") LocalDateTime expiry);
+
+    /**
+     * Downgrade users whose paid subscription lapsed before the given time back to FREE,
+     * oldest expiry first, in chunks of at most limit rows
+     * @param now subscriptions expiring before this instant are downgraded
+     * @param limit maximum number of rows to update
+     * @return number of users downgraded
+     */
+    @Modifying
+    @Query(value = "WITH due AS (" +
+            "SELECT id FROM users WHERE plan IN ('MONTHLY', 'UNLIMITED') AND subscription_expiry < :now " +
+            "ORDER BY subscription_expiry, id LIMIT :limit FOR UPDATE SKIP LOCKED) " +
+            "UPDATE users u SET plan = 'FREE', subscription_expiry = NULL, updated_at = CURRENT_TIMESTAMP " +
+            "FROM due WHERE u.id = due.id", nativeQuery = true)
+    int downgradeLapsedSubscriptions(@Param("now") LocalDateTime now, @Param("limit") int limit);
 }
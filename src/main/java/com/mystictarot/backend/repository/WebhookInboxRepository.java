@@ -0,0 +1,65 @@
+package com.mystictarot.backend.repository;
+
+import com.mystictarot.backend.entity.WebhookInboxEvent;
+import com.mystictarot.backend.entity.enums.WebhookEventStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Repository interface for WebhookInboxEvent entity
+ */
+@Repository
+public interface WebhookInboxRepository extends JpaRepository<WebhookInboxEvent, UUID> {
+
+    /**
+     * Insert an event unless the same (provider, event_id) is already stored.
+     * Provider retries of an event we already have become no-ops instead of constraint violations.
+     * @return 1 if inserted, 0 if it was a duplicate
+     */
+    @Modifying
+    @Query(value = "INSERT INTO webhook_inbox (id, provider, event_id, payload, status, attempts, next_attempt_at, received_at) " +
+            "VALUES (:id, :provider, :eventId, :payload, 'PENDING', 0, :now, :now) " +
+            "ON CONFLICT (provider, event_id) DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("id") UUID id,
+                       @Param("provider") String provider,
+                       @Param("eventId") String eventId,
+                       @Param("payload") String payload,
+                       @Param("now") LocalDateTime now);
+
+    /**
+     * Lock a batch of due events, skipping rows another worker has already locked
+     * @param now current time
+     * @param limit maximum batch size
+     * @return IDs of the locked events, oldest first
+     */
+    @Query(value = "SELECT id FROM webhook_inbox " +
+            "WHERE status = 'PENDING' AND next_attempt_at <= :now " +
+            "ORDER BY next_attempt_at " +
+            "LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<UUID> lockDueEventIds(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    /**
+     * Lease events to the current worker: count the attempt and push next_attempt_at out so
+     * no other worker claims them while they are processed. If the worker dies the lease expires.
+     * @return number of events leased
+     */
+    @Modifying
+    @Query("UPDATE WebhookInboxEvent e SET e.attempts = e.attempts + 1, e.nextAttemptAt = :leaseUntil WHERE e.id IN :ids")
+    int lease(@Param("ids") Collection<UUID> ids, @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    /**
+     * Delete processed events older than the cutoff
+     * @return number of events deleted
+     */
+    @Modifying
+    @Query("DELETE FROM WebhookInboxEvent e WHERE e.status = :status AND e.processedAt < :before")
+    int deleteByStatusAndProcessedAtBefore(@Param("status") WebhookEventStatus status, @Param("before") LocalDateTime before);
+}
@@ -1,40 +1,101 @@
 package com.mystictarot.backend.runner;
 
 import com.mystictarot.backend.service.TarotSheetImportService;
+import com.mystictarot.backend.service.deck.TarotDeckHealthIndicator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.CommandLineRunner;
-import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
-import org.springframework.core.annotation.Order;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
 
+/**
+ * Imports the tarot sheet in the background once the application is up, so a slow or unreachable
+ * sheet never blocks or fails startup. Readiness is gated separately by {@link TarotDeckHealthIndicator}.
+ * Failed attempts are retried with backoff while the database has no valid deck; if it already has one,
+ * the node keeps serving it and the scheduled refresh tries again later.
+ * The enabled flag is checked at runtime rather than with a bean condition, which AOT processing would
+ * fix at image build time.
+ */
 @Component
-@Order(Integer.MAX_VALUE - 100)
-@ConditionalOnProperty(name = "app.import.tarot.enabled", havingValue = "true")
-public class TarotSheetImportRunner implements CommandLineRunner {
+public class TarotSheetImportRunner implements DisposableBean {
 
     private static final Logger log = LoggerFactory.getLogger(TarotSheetImportRunner.class);
 
     private final TarotSheetImportService tarotSheetImportService;
+    private final TarotDeckHealthIndicator tarotDeckHealthIndicator;
     private final String csvUrl;
+    private final long initialBackoffMs;
+    private final long maxBackoffMs;
+    private volatile Thread worker;
+
+    @Value("${app.import.tarot.enabled:false}")
+    private boolean enabled;
 
     public TarotSheetImportRunner(TarotSheetImportService tarotSheetImportService,
-                                  @Value("${app.import.tarot.csv-url}") String csvUrl) {
+                                  TarotDeckHealthIndicator tarotDeckHealthIndicator,
+                                  @Value("${app.import.tarot.csv-url}") String csvUrl,
+                                  @Value("${app.import.tarot.retry-initial-backoff-ms:5000}") long initialBackoffMs,
+                                  @Value("${app.import.tarot.retry-max-backoff-ms:300000}") long maxBackoffMs) {
         this.tarotSheetImportService = tarotSheetImportService;
+        this.tarotDeckHealthIndicator = tarotDeckHealthIndicator;
         this.csvUrl = csvUrl;
+        this.initialBackoffMs = initialBackoffMs;
+        this.maxBackoffMs = maxBackoffMs;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startImport() {
+        if (!enabled) {
+            return;
+        }
+        Thread thread = new Thread(this::importWithRetry, "tarot-import");
+        thread.setDaemon(true);
+        worker = thread;
+        thread.start();
+    }
+
+    void importWithRetry() {
+        log.info("Tarot import enabled: streaming CSV from configured source in the background");
+        long backoff = initialBackoffMs;
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                logResult(tarotSheetImportService.runImport(csvUrl));
+                return;
+            } catch (RuntimeException e) {
+                if (tarotDeckHealthIndicator.isDeckValid()) {
+                    log.error("Tarot import failed; keeping the existing deck", e);
+                    return;
+                }
+                log.error("Tarot import failed and no valid deck exists yet, retrying in {} ms", backoff, e);
+            }
+            try {
+                Thread.sleep(backoff);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            backoff = Math.min(backoff * 2, maxBackoffMs);
+        }
+    }
+
+    private void logResult(TarotSheetImportService.ImportResult result) {
+        switch (result.outcome()) {
+            case NOT_MODIFIED -> log.info("Tarot import skipped: sheet not modified, deck version {}", result.deckVersion());
+            case LOCKED_ELSEWHERE -> log.info("Tarot import skipped: another node is importing");
+            case IMPORTED -> log.info("Tarot import completed in {}ms: deck version={}, cards upserted={} (unchanged {}), "
+                            + "translations upserted={} (unchanged {}), rows skipped={}",
+                    result.totalMillis(), result.deckVersion(), result.cardsUpserted(), result.cardsUnchanged(),
+                    result.translationsUpserted(), result.translationsUnchanged(), result.rowsSkipped());
+        }
     }
 
     @Override
-    public void run(String... args) {
-        log.info("Tarot import enabled: fetching CSV from configured URL and upserting tarot_cards + tarot_card_translations");
-        try {
-            TarotSheetImportService.ImportResult result = tarotSheetImportService.runImport(csvUrl);
-            log.info("Tarot import completed: cards upserted={}, translations upserted={}, rows skipped={}",
-                    result.cardsUpserted(), result.translationsUpserted(), result.rowsSkipped());
-        } catch (Exception e) {
-            log.error("Tarot import failed", e);
-            throw new RuntimeException(e);
+    public void destroy() {
+        Thread thread = worker;
+        if (thread != null) {
+            thread.interrupt();
         }
     }
 }
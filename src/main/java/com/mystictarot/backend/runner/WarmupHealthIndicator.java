@@ -0,0 +1,22 @@
+package com.mystictarot.backend.runner;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.health.contributor.Health;
+import org.springframework.boot.health.contributor.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Readiness check: OUT_OF_SERVICE until {@link WarmupRunner} has finished, so the load balancer only
+ * sends traffic to a node whose pools, connections and hot paths are warm
+ */
+@Component
+@RequiredArgsConstructor
+public class WarmupHealthIndicator implements HealthIndicator {
+
+    private final WarmupRunner warmupRunner;
+
+    @Override
+    public Health health() {
+        return warmupRunner.isComplete() ? Health.up().build() : Health.outOfService().build();
+    }
+}
@@ -0,0 +1,286 @@
+package com.mystictarot.backend.runner;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mystictarot.backend.dto.request.CardDTO;
+import com.mystictarot.backend.dto.request.InterpretRequestDTO;
+import com.mystictarot.backend.dto.response.ChatMessageItemDTO;
+import com.mystictarot.backend.dto.response.ReadingDetailDTO;
+import com.mystictarot.backend.dto.response.ReadingHistoryItemDTO;
+import com.mystictarot.backend.entity.enums.CardOrientation;
+import com.mystictarot.backend.entity.enums.ChatRole;
+import com.mystictarot.backend.entity.enums.PaymentProvider;
+import com.mystictarot.backend.entity.enums.SpreadType;
+import com.mystictarot.backend.service.GeminiService;
+import com.mystictarot.backend.service.JwtTokenProvider;
+import com.mystictarot.backend.service.TarotService;
+import com.mystictarot.backend.service.payment.http.PaymentHttpClients;
+import com.mystictarot.backend.util.LocaleUtil;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.support.ServletRequestHandledEvent;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Warm-up phase between startup and readiness. Once the application is up, synthetic traffic runs through
+ * the main request paths (deck, JWT verification, interpret with a canned Gemini response, history
+ * serialization) so classes are loaded, the JIT has profiles and Jackson has built its serializers, and the
+ * database pool, Redis and outbound provider connections are opened ahead of time.
+ * {@link WarmupHealthIndicator} keeps readiness OUT_OF_SERVICE until this finishes. Each step is best effort:
+ * a failing step is logged and skipped, and max-duration-ms bounds the whole phase.
+ */
+@Component
+public class WarmupRunner implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(WarmupRunner.class);
+
+    private static final UUID WARMUP_USER_ID = new UUID(0, 0);
+    private static final String WARMUP_KEY = "warmup:ping";
+    private static final String CANNED_GEMINI_RESPONSE =
+            "{\"candidates\":[{\"content\":{\"parts\":[{\"text\":\"Warm-up interpretation.\"}]}}]}";
+
+    private final TarotService tarotService;
+    private final GeminiService geminiService;
+    private final JwtTokenProvider jwtTokenProvider;
+    private final PaymentHttpClients paymentHttpClients;
+    private final DataSource dataSource;
+    private final StringRedisTemplate redisTemplate;
+    private final LocaleUtil localeUtil;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.warmup.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.warmup.iterations:200}")
+    private int iterations;
+
+    @Value("${app.warmup.max-duration-ms:30000}")
+    private long maxDurationMs;
+
+    @Value("${app.warmup.db-connections:${spring.datasource.hikari.maximum-pool-size:10}}")
+    private int dbConnections;
+
+    @Value("${payment.stripe.api-base:https://api.stripe.com/v1}")
+    private String stripeApiBase;
+
+    @Value("${payment.stripe.secret-key:}")
+    private String stripeSecretKey;
+
+    @Value("${payment.momo.endpoint:}")
+    private String momoEndpoint;
+
+    @Value("${payment.zalopay.endpoint:}")
+    private String zaloPayEndpoint;
+
+    private volatile boolean complete;
+    private volatile long deadlineNanos;
+    private volatile long completedAtNanos;
+    private volatile Thread worker;
+    private final AtomicBoolean firstRequestReported = new AtomicBoolean();
+
+    public WarmupRunner(TarotService tarotService,
+                        GeminiService geminiService,
+                        JwtTokenProvider jwtTokenProvider,
+                        PaymentHttpClients paymentHttpClients,
+                        DataSource dataSource,
+                        StringRedisTemplate redisTemplate,
+                        LocaleUtil localeUtil,
+                        ObjectMapper objectMapper,
+                        MeterRegistry meterRegistry) {
+        this.tarotService = tarotService;
+        this.geminiService = geminiService;
+        this.jwtTokenProvider = jwtTokenProvider;
+        this.paymentHttpClients = paymentHttpClients;
+        this.dataSource = dataSource;
+        this.redisTemplate = redisTemplate;
+        this.localeUtil = localeUtil;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startWarmup() {
+        if (!enabled) {
+            markComplete();
+            return;
+        }
+        Thread thread = new Thread(this::runWarmup, "warmup");
+        thread.setDaemon(true);
+        worker = thread;
+        thread.start();
+    }
+
+    public boolean isComplete() {
+        return complete;
+    }
+
+    void runWarmup() {
+        long started = System.nanoTime();
+        deadlineNanos = started + TimeUnit.MILLISECONDS.toNanos(maxDurationMs);
+        Map<String, Long> stepMillis = new LinkedHashMap<>();
+        try {
+            step("connections", stepMillis, this::openConnections);
+            step("outbound", stepMillis, this::preconnectOutbound);
+            step("deck", stepMillis, () -> repeat(this::serveDeck));
+            step("jwt", stepMillis, () -> repeat(this::verifyToken));
+            step("interpret", stepMillis, () -> repeat(this::interpret));
+            step("history", stepMillis, () -> repeat(this::serializeHistory));
+        } finally {
+            long totalMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+            meterRegistry.timer("app.warmup.duration").record(totalMillis, TimeUnit.MILLISECONDS);
+            markComplete();
+            log.info("Warm-up finished in {} ms, accepting traffic (steps: {})", totalMillis, stepMillis);
+        }
+    }
+
+    /**
+     * Reports the latency of the first real request once warm-up is over (health probes excluded)
+     */
+    @EventListener
+    public void onRequestHandled(ServletRequestHandledEvent event) {
+        if (!complete || event.getRequestUrl().contains("/actuator/")
+                || !firstRequestReported.compareAndSet(false, true)) {
+            return;
+        }
+        meterRegistry.timer("app.warmup.first.request").record(event.getProcessingTimeMillis(), TimeUnit.MILLISECONDS);
+        log.info("First request after warm-up: {} {} -> {} in {} ms ({} ms after readiness)",
+                event.getMethod(), event.getRequestUrl(), event.getStatusCode(), event.getProcessingTimeMillis(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - completedAtNanos));
+    }
+
+    private void markComplete() {
+        completedAtNanos = System.nanoTime();
+        complete = true;
+    }
+
+    private void step(String name, Map<String, Long> stepMillis, WarmupStep step) {
+        if (Thread.currentThread().isInterrupted() || System.nanoTime() > deadlineNanos) {
+            log.warn("Warm-up step {} skipped: max duration of {} ms reached", name, maxDurationMs);
+            return;
+        }
+        long started = System.nanoTime();
+        try {
+            step.run();
+        } catch (Exception e) {
+            log.warn("Warm-up step {} failed: {}", name, e.getMessage());
+        }
+        stepMillis.put(name, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+    }
+
+    private void repeat(WarmupStep step) throws Exception {
+        for (int i = 0; i < iterations && System.nanoTime() < deadlineNanos; i++) {
+            step.run();
+        }
+    }
+
+    /**
+     * Fill the Hikari pool up to its maximum (connections above minimum-idle stay until idle-timeout)
+     * and open the Redis connection
+     */
+    private void openConnections() throws Exception {
+        List<Connection> held = new ArrayList<>();
+        try {
+            for (int i = 0; i < dbConnections; i++) {
+                Connection connection = dataSource.getConnection();
+                held.add(connection);
+                connection.isValid(2);
+            }
+        } finally {
+            for (Connection connection : held) {
+                connection.close();
+            }
+        }
+        redisTemplate.hasKey(WARMUP_KEY);
+    }
+
+    private void preconnectOutbound() {
+        geminiService.preconnect();
+        if (stripeSecretKey != null && !stripeSecretKey.isBlank()) {
+            paymentHttpClients.preconnect(PaymentProvider.STRIPE, stripeApiBase);
+        }
+        paymentHttpClients.preconnect(PaymentProvider.MOMO, momoEndpoint);
+        paymentHttpClients.preconnect(PaymentProvider.ZALOPAY, zaloPayEndpoint);
+    }
+
+    private void serveDeck() throws Exception {
+        for (String locale : localeUtil.getSupportedLocales()) {
+            objectMapper.writeValueAsBytes(tarotService.getDeck(locale));
+        }
+    }
+
+    private void verifyToken() {
+        String token = jwtTokenProvider.generateToken(WARMUP_USER_ID, "warmup@localhost");
+        if (jwtTokenProvider.validateToken(token)) {
+            jwtTokenProvider.getUserIdFromToken(token);
+        }
+    }
+
+    private void interpret() throws Exception {
+        InterpretRequestDTO request = InterpretRequestDTO.builder()
+                .question("What should I focus on today?")
+                .spreadType(SpreadType.PAST_PRESENT_FUTURE)
+                .cards(List.of(new CardDTO(1, CardOrientation.UPRIGHT), new CardDTO(2, CardOrientation.REVERSED),
+                        new CardDTO(3, CardOrientation.UPRIGHT)))
+                .lang(localeUtil.getDefaultLocale())
+                .build();
+        objectMapper.writeValueAsBytes(tarotService.dryRunInterpretation(request, CANNED_GEMINI_RESPONSE));
+    }
+
+    private void serializeHistory() throws Exception {
+        LocalDateTime now = LocalDateTime.now();
+        UUID readingId = UUID.randomUUID();
+        ReadingHistoryItemDTO item = ReadingHistoryItemDTO.builder()
+                .id(readingId)
+                .question("What should I focus on today?")
+                .spreadType(SpreadType.PAST_PRESENT_FUTURE)
+                .createdAt(now)
+                .build();
+        objectMapper.writeValueAsBytes(new PageImpl<>(List.of(item), PageRequest.of(0, 20), 1));
+        objectMapper.writeValueAsBytes(ReadingDetailDTO.builder()
+                .id(readingId)
+                .question(item.getQuestion())
+                .spreadType(item.getSpreadType())
+                .cardsJson("[]")
+                .interpretationText("Warm-up interpretation.")
+                .createdAt(now)
+                .chatMessages(List.of(ChatMessageItemDTO.builder()
+                        .id(UUID.randomUUID())
+                        .role(ChatRole.AI)
+                        .content("Warm-up answer.")
+                        .createdAt(now)
+                        .build()))
+                .build());
+    }
+
+    @Override
+    public void destroy() {
+        Thread thread = worker;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    @FunctionalInterface
+    private interface WarmupStep {
+        void run() throws Exception;
+    }
+}
@@ -0,0 +1,53 @@
+package com.mystictarot.backend.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.List;
+
+/**
+ * Authenticates operator calls to /admin/** and the Prometheus scrape endpoint with a shared key in the
+ * X-Admin-Key header and grants ROLE_ADMIN. With app.admin.api-key unset, both stay closed.
+ */
+@Component
+public class AdminApiKeyFilter extends OncePerRequestFilter {
+
+    public static final String ADMIN_KEY_HEADER = "X-Admin-Key";
+    public static final String ROLE_ADMIN = "ROLE_ADMIN";
+
+    private final byte[] apiKey;
+
+    public AdminApiKeyFilter(@Value("${app.admin.api-key:}") String apiKey) {
+        this.apiKey = apiKey.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return !(path.startsWith("/admin/") || path.startsWith("/api/v1/admin/")
+                || path.equals("/actuator/prometheus"));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String provided = request.getHeader(ADMIN_KEY_HEADER);
+        if (apiKey.length > 0 && provided != null
+                && MessageDigest.isEqual(apiKey, provided.getBytes(StandardCharsets.UTF_8))) {
+            SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                    "admin", null, List.of(new SimpleGrantedAuthority(ROLE_ADMIN))));
+        }
+        filterChain.doFilter(request, response);
+    }
+}
@@ -0,0 +1,64 @@
+package com.mystictarot.backend.security;
+
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Request whose body has already been read into memory, so filters can inspect it and controllers can still read it
+ */
+final class CachedBodyRequestWrapper extends HttpServletRequestWrapper {
+
+    private final byte[] cachedBody;
+
+    CachedBodyRequestWrapper(HttpServletRequest request, byte[] cachedBody) {
+        super(request);
+        this.cachedBody = cachedBody != null ? cachedBody : new byte[0];
+    }
+
+    byte[] getCachedBody() {
+        return cachedBody;
+    }
+
+    @Override
+    public ServletInputStream getInputStream() {
+        return new ServletInputStream() {
+            private final ByteArrayInputStream stream = new ByteArrayInputStream(cachedBody);
+
+            @Override
+            public boolean isFinished() {
+                return stream.available() == 0;
+            }
+
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public int read() {
+                return stream.read();
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) {
+                return stream.read(b, off, len);
+            }
+
+            @Override
+            public void setReadListener(ReadListener readListener) {
+            }
+        };
+    }
+
+    @Override
+    public BufferedReader getReader() {
+        return new BufferedReader(new InputStreamReader(new ByteArrayInputStream(cachedBody), StandardCharsets.UTF_8));
+    }
+}
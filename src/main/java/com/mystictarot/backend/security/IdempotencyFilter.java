@@ -0,0 +1,175 @@
+package com.mystictarot.backend.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mystictarot.backend.exception.GlobalExceptionHandler.ErrorResponse;
+import com.mystictarot.backend.service.idempotency.IdempotencyService;
+import com.mystictarot.backend.service.idempotency.IdempotencyService.Claim;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Set;
+
+/**
+ * Honours the Idempotency-Key header on authenticated mutating requests. The first request with a key
+ * runs and its response is stored; retries with the same key and body get that response back
+ * (marked Idempotent-Replayed) without re-running the handler, so a retried /tarot/interpret does not
+ * call Gemini or charge quota twice. 5xx and transient 4xx (408, 409, 429) responses are not stored,
+ * so the client can retry them. Bodies above max-request-bytes are rejected with 413 before anything is claimed.
+ * Registered inside the security chain after JWT authentication, since keys are scoped per user.
+ */
+@Component
+@RequiredArgsConstructor
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final Set<String> MUTATING_METHODS = Set.of("POST", "PUT", "PATCH", "DELETE");
+    private static final Set<Integer> RETRYABLE_CLIENT_ERRORS = Set.of(408, 409, 429);
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyService idempotencyService;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.idempotency.max-response-bytes:262144}")
+    private int maxResponseBytes;
+
+    @Value("${app.idempotency.max-request-bytes:65536}")
+    private int maxRequestBytes;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !MUTATING_METHODS.contains(request.getMethod()) || request.getHeader(IDEMPOTENCY_KEY_HEADER) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String userId = currentUserId();
+        if (userId == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        String clientKey = request.getHeader(IDEMPOTENCY_KEY_HEADER).trim();
+        if (clientKey.isEmpty() || clientKey.length() > MAX_KEY_LENGTH) {
+            writeError(response, HttpStatus.BAD_REQUEST, "Idempotency-Key must be 1-" + MAX_KEY_LENGTH + " characters");
+            return;
+        }
+        byte[] body = readBody(request);
+        if (body == null) {
+            writeError(response, HttpStatus.CONTENT_TOO_LARGE,
+                    "Requests with an Idempotency-Key must not exceed " + maxRequestBytes + " bytes");
+            return;
+        }
+        CachedBodyRequestWrapper cachedRequest = new CachedBodyRequestWrapper(request, body);
+        String recordKey = sha256Hex(userId + ':' + clientKey);
+        String fingerprint = sha256Hex(request.getMethod() + ' ' + request.getRequestURI() + '\n',
+                cachedRequest.getCachedBody());
+
+        Claim claim = idempotencyService.claim(recordKey, fingerprint);
+        switch (claim.outcome()) {
+            case REPLAY -> replay(claim, response);
+            case MISMATCH -> writeError(response, HttpStatus.UNPROCESSABLE_CONTENT,
+                    "Idempotency-Key was already used for a different request");
+            case IN_PROGRESS -> writeError(response, HttpStatus.CONFLICT,
+                    "A request with this Idempotency-Key is still being processed");
+            case ACQUIRED -> execute(claim, cachedRequest, response, filterChain);
+        }
+    }
+
+    /**
+     * The body is buffered to fingerprint it, so it is capped: by Content-Length when declared,
+     * and by a bounded read otherwise (chunked uploads)
+     * @return the body, or null if it exceeds max-request-bytes
+     */
+    private byte[] readBody(HttpServletRequest request) throws IOException {
+        if (request.getContentLengthLong() > maxRequestBytes) {
+            return null;
+        }
+        byte[] body = request.getInputStream().readNBytes(maxRequestBytes + 1);
+        return body.length > maxRequestBytes ? null : body;
+    }
+
+    private void execute(Claim claim, HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        ContentCachingResponseWrapper cachedResponse = new ContentCachingResponseWrapper(response);
+        try {
+            filterChain.doFilter(request, cachedResponse);
+        } catch (ServletException | IOException | RuntimeException e) {
+            idempotencyService.release(claim);
+            throw e;
+        }
+        int status = cachedResponse.getStatus();
+        if (status >= 500 || RETRYABLE_CLIENT_ERRORS.contains(status) || cachedResponse.getContentSize() > maxResponseBytes) {
+            idempotencyService.release(claim);
+        } else {
+            idempotencyService.complete(claim, status, cachedResponse.getContentType(), cachedResponse.getContentAsByteArray());
+        }
+        cachedResponse.copyBodyToResponse();
+    }
+
+    private void replay(Claim claim, HttpServletResponse response) throws IOException {
+        response.setStatus(claim.entry().status());
+        if (claim.entry().contentType() != null) {
+            response.setContentType(claim.entry().contentType());
+        }
+        response.setHeader(REPLAYED_HEADER, "true");
+        byte[] body = claim.entry().body();
+        if (body != null) {
+            response.setContentLength(body.length);
+            response.getOutputStream().write(body);
+        }
+    }
+
+    private void writeError(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        ErrorResponse error = ErrorResponse.builder()
+                .status(status.value())
+                .error(status.getReasonPhrase())
+                .message(message)
+                .timestamp(LocalDateTime.now())
+                .build();
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), error);
+    }
+
+    private static String currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated()
+                && authentication.getPrincipal() instanceof UserDetails userDetails) {
+            return userDetails.getUsername();
+        }
+        return null;
+    }
+
+    private static String sha256Hex(String prefix, byte[]... parts) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(prefix.getBytes(StandardCharsets.UTF_8));
+            for (byte[] part : parts) {
+                digest.update(part);
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
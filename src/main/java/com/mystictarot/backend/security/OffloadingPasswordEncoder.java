@@ -0,0 +1,124 @@
+package com.mystictarot.backend.security;
+
+import com.mystictarot.backend.exception.ServiceBusyException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * BCrypt encoder that runs every hash on a dedicated, bounded pool instead of the request thread.
+ * The pool is sized to the CPU cores with a short queue: when a login burst fills it, callers get a
+ * fast {@link ServiceBusyException} (HTTP 503) rather than piling up and starving the rest of the API.
+ * {@link #upgradeEncoding(String)} reports hashes whose cost differs from the configured strength so
+ * they can be re-hashed transparently on the next successful login.
+ */
+@Slf4j
+public class OffloadingPasswordEncoder implements PasswordEncoder, DisposableBean {
+
+    private static final Pattern BCRYPT_COST = Pattern.compile("^\\$2[abxy]?\\$(\\d{2})\\$");
+
+    private final PasswordEncoder delegate;
+    private final int strength;
+    private final long maxWaitMs;
+    private final ThreadPoolExecutor executor;
+
+    public OffloadingPasswordEncoder(int strength, int threads, int queueCapacity, Duration maxWait) {
+        this(new BCryptPasswordEncoder(strength), strength, threads, queueCapacity, maxWait);
+    }
+
+    OffloadingPasswordEncoder(PasswordEncoder delegate, int strength, int threads, int queueCapacity, Duration maxWait) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.delegate = delegate;
+        this.strength = strength;
+        this.maxWaitMs = maxWait.toMillis();
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        log.info("Password hashing pool: threads={}, queueCapacity={}, maxWaitMs={}, bcryptStrength={}",
+                poolSize, queueCapacity, maxWaitMs, strength);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return submit(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return submit(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    /**
+     * True when the stored hash was produced with a different BCrypt cost than the configured one
+     */
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        if (encodedPassword == null) {
+            return false;
+        }
+        Matcher matcher = BCRYPT_COST.matcher(encodedPassword);
+        return matcher.find() && Integer.parseInt(matcher.group(1)) != strength;
+    }
+
+    /**
+     * Measure one hash at the configured cost, so strength can be tuned against real latency
+     * @return hash duration in milliseconds
+     */
+    public long measureHashMillis() {
+        long start = System.nanoTime();
+        encode("calibration-" + System.nanoTime());
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+
+    private <T> T submit(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            log.warn("Password hashing pool saturated: active={}, queued={}", executor.getActiveCount(), executor.getQueue().size());
+            throw new ServiceBusyException("Authentication service is busy. Please retry shortly.", e);
+        }
+        try {
+            return future.get(maxWaitMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            log.warn("Password hashing timed out after {} ms", maxWaitMs);
+            throw new ServiceBusyException("Authentication service is busy. Please retry shortly.", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            throw new ServiceBusyException("Interrupted while waiting for password hashing", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException re) {
+                throw re;
+            }
+            throw new IllegalStateException("Password hashing failed", cause);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+}
@@ -1,5 +1,9 @@
 package com.mystictarot.backend.security;
 
+import com.mystictarot.backend.service.ratelimit.AiRateLimitService;
+import com.mystictarot.backend.util.RequestUtils;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -27,23 +31,35 @@ public class RateLimitFilter extends OncePerRequestFilter {
     @Value("${app.rate-limit.auth-max-per-minute:20}")
     private int authMaxPerMinute;
 
+    private final Counter allowed;
+    private final Counter rejected;
+
+    public RateLimitFilter(MeterRegistry meterRegistry) {
+        this.allowed = meterRegistry.counter(AiRateLimitService.DECISIONS_METRIC, "limiter", "auth", "plan", "NONE",
+                "result", "ALLOWED");
+        this.rejected = meterRegistry.counter(AiRateLimitService.DECISIONS_METRIC, "limiter", "auth", "plan", "NONE",
+                "result", "REJECTED");
+    }
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
         String path = request.getRequestURI();
         if (path != null && path.startsWith(RATE_LIMIT_PREFIX)) {
-            String key = getClientKey(request);
+            String key = RequestUtils.getClientIp(request);
             if (!allowRequest(key)) {
+                rejected.increment();
                 response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
                 response.getWriter().write("{\"error\":\"Too many requests. Try again later.\"}");
                 response.setContentType("application/json");
                 return;
             }
+            allowed.increment();
         }
         filterChain.doFilter(request, response);
     }
 
-    private boolean allowRequest(String key) {
+    boolean allowRequest(String key) {
         long now = System.currentTimeMillis();
         windowStart.putIfAbsent(key, now);
         requestCounts.putIfAbsent(key, new AtomicInteger(0));
@@ -54,12 +70,4 @@ public class RateLimitFilter extends OncePerRequestFilter {
         }
         return requestCounts.get(key).incrementAndGet() <= authMaxPerMinute;
     }
-
-    private String getClientKey(HttpServletRequest request) {
-        String xff = request.getHeader("X-Forwarded-For");
-        if (xff != null && !xff.isBlank()) {
-            return xff.split(",")[0].trim();
-        }
-        return request.getRemoteAddr() != null ? request.getRemoteAddr() : "unknown";
-    }
 }
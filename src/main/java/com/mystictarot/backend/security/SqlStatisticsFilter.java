@@ -0,0 +1,115 @@
+package com.mystictarot.backend.security;
+
+import com.mystictarot.backend.service.sqlstats.RequestSqlStatistics;
+import com.mystictarot.backend.service.sqlstats.SqlStatisticsCollector;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Collects per-request JDBC statistics (statement count, JDBC time, rows read) and records them per endpoint
+ * in {@value #STATEMENTS_METRIC}, {@value #TIME_METRIC} and {@value #ROWS_METRIC}, tagged like
+ * http.server.requests. Requests over app.sql-stats.log-statements-threshold or log-time-threshold-ms are
+ * logged. Runs ahead of the security filter chain so the user lookup done for the JWT is included.
+ * Meters are registered on the first request to each method and endpoint pattern and reused afterwards.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 2)
+public class SqlStatisticsFilter extends OncePerRequestFilter {
+
+    static final String STATEMENTS_METRIC = "sql.request.statements";
+    static final String TIME_METRIC = "sql.request.time";
+    static final String ROWS_METRIC = "sql.request.rows";
+
+    private final SqlStatisticsCollector collector;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Map<String, EndpointMeters>> metersByMethod = new ConcurrentHashMap<>();
+
+    @Value("${app.sql-stats.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.sql-stats.log-statements-threshold:20}")
+    private int logStatementsThreshold;
+
+    @Value("${app.sql-stats.log-time-threshold-ms:500}")
+    private long logTimeThresholdMs;
+
+    public SqlStatisticsFilter(SqlStatisticsCollector collector, MeterRegistry meterRegistry) {
+        this.collector = collector;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RequestSqlStatistics statistics = collector.begin(request.getMethod() + " " + request.getRequestURI());
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            collector.end();
+            record(request, response, statistics);
+        }
+    }
+
+    private void record(HttpServletRequest request, HttpServletResponse response, RequestSqlStatistics statistics) {
+        if (statistics.getStatements() == 0) {
+            return;
+        }
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+        String method = request.getMethod();
+
+        EndpointMeters meters = metersByMethod.computeIfAbsent(method, m -> new ConcurrentHashMap<>())
+                .computeIfAbsent(uri, u -> registerMeters(method, u));
+        meters.statements().record(statistics.getStatements());
+        meters.time().record(Duration.ofMillis(statistics.getJdbcTimeMs()));
+        meters.rows().record(statistics.getRows());
+
+        if (statistics.getStatements() > logStatementsThreshold || statistics.getJdbcTimeMs() > logTimeThresholdMs) {
+            log.warn("SQL-heavy request: {} {} status={} statements={} jdbcTimeMs={} rows={}",
+                    method, uri, response.getStatus(), statistics.getStatements(), statistics.getJdbcTimeMs(),
+                    statistics.getRows());
+        }
+    }
+
+    private EndpointMeters registerMeters(String method, String uri) {
+        return new EndpointMeters(
+                DistributionSummary.builder(STATEMENTS_METRIC)
+                        .description("SQL statements executed per HTTP request")
+                        .tags("method", method, "uri", uri)
+                        .register(meterRegistry),
+                Timer.builder(TIME_METRIC)
+                        .description("JDBC execution time per HTTP request")
+                        .tags("method", method, "uri", uri)
+                        .register(meterRegistry),
+                DistributionSummary.builder(ROWS_METRIC)
+                        .description("Result set rows read per HTTP request")
+                        .tags("method", method, "uri", uri)
+                        .register(meterRegistry));
+    }
+
+    private record EndpointMeters(DistributionSummary statements, Timer time, DistributionSummary rows) {
+    }
+}
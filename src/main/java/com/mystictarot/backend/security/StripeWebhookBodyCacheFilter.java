@@ -1,19 +1,12 @@
 package com.mystictarot.backend.security;
 
-import jakarta.servlet.ReadListener;
-import jakarta.servlet.ServletInputStream;
 import jakarta.servlet.http.HttpServletRequest;
-import jakarta.servlet.http.HttpServletRequestWrapper;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
-import java.io.BufferedReader;
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.nio.charset.StandardCharsets;
 
 @Component
 @Order(0)
@@ -33,45 +26,4 @@ public class StripeWebhookBodyCacheFilter extends OncePerRequestFilter {
         byte[] body = request.getInputStream().readAllBytes();
         filterChain.doFilter(new CachedBodyRequestWrapper(request, body), response);
     }
-
-    private static final class CachedBodyRequestWrapper extends HttpServletRequestWrapper {
-
-        private final byte[] cachedBody;
-
-        CachedBodyRequestWrapper(HttpServletRequest request, byte[] cachedBody) {
-            super(request);
-            this.cachedBody = cachedBody != null ? cachedBody : new byte[0];
-        }
-
-        @Override
-        public ServletInputStream getInputStream() {
-            return new ServletInputStream() {
-                private final ByteArrayInputStream stream = new ByteArrayInputStream(cachedBody);
-
-                @Override
-                public boolean isFinished() {
-                    return stream.available() == 0;
-                }
-
-                @Override
-                public boolean isReady() {
-                    return true;
-                }
-
-                @Override
-                public int read() {
-                    return stream.read();
-                }
-
-                @Override
-                public void setReadListener(ReadListener readListener) {
-                }
-            };
-        }
-
-        @Override
-        public BufferedReader getReader() {
-            return new BufferedReader(new InputStreamReader(new ByteArrayInputStream(cachedBody), StandardCharsets.UTF_8));
-        }
-    }
 }
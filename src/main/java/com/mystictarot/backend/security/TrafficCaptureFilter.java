@@ -0,0 +1,77 @@
+package com.mystictarot.backend.security;
+
+import com.mystictarot.backend.service.capture.TrafficCaptureRecord;
+import com.mystictarot.backend.service.capture.TrafficCaptureRecord.Shape;
+import com.mystictarot.backend.service.capture.TrafficCaptureService;
+import com.mystictarot.backend.service.capture.TrafficCaptureService.Arrival;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records each request's endpoint, status, timing and arrival gap, plus the body shape set by
+ * TrafficCaptureBodyAdvice, when app.traffic-capture.enabled is on. Admin and actuator calls are left out.
+ * Registered inside the security chain after JWT authentication, since the pseudonymous caller id is
+ * derived from the authenticated user.
+ */
+@Component
+@RequiredArgsConstructor
+public class TrafficCaptureFilter extends OncePerRequestFilter {
+
+    private static final String UNKNOWN_ENDPOINT = "UNKNOWN";
+
+    private final TrafficCaptureService trafficCaptureService;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getServletPath();
+        return !trafficCaptureService.isEnabled() || path.startsWith("/admin") || path.startsWith("/actuator");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Arrival arrival = trafficCaptureService.arrive();
+        long started = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            long durationMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            Shape shape = request.getAttribute(TrafficCaptureService.SHAPE_ATTRIBUTE) instanceof Shape s ? s : null;
+            String userId = currentUserId();
+            trafficCaptureService.record(new TrafficCaptureRecord(
+                    arrival.offsetMs(),
+                    arrival.gapMs(),
+                    userId != null ? trafficCaptureService.clientId(userId) : null,
+                    request.getMethod(),
+                    pattern != null ? pattern.toString() : UNKNOWN_ENDPOINT,
+                    response.getStatus(),
+                    durationMs,
+                    shape != null ? shape.spreadType() : null,
+                    shape != null ? shape.cardCount() : null,
+                    shape != null ? shape.questionLength() : null,
+                    shape != null ? shape.locale() : null));
+        }
+    }
+
+    private static String currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated()
+                && authentication.getPrincipal() instanceof UserDetails userDetails) {
+            return userDetails.getUsername();
+        }
+        return null;
+    }
+}
@@ -1,12 +1,14 @@
 package com.mystictarot.backend.service;
 
 import com.mystictarot.backend.dto.request.LoginRequestDTO;
+import com.mystictarot.backend.dto.request.RefreshTokenRequestDTO;
 import com.mystictarot.backend.dto.request.RegisterRequestDTO;
 import com.mystictarot.backend.dto.request.SocialLoginRequestDTO;
 import com.mystictarot.backend.dto.response.AuthResponseDTO;
 import com.mystictarot.backend.entity.User;
 import com.mystictarot.backend.entity.enums.PlanType;
 import com.mystictarot.backend.repository.UserRepository;
+import com.mystictarot.backend.service.token.RefreshTokenService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.BadCredentialsException;
@@ -24,6 +26,7 @@ public class AuthService {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final JwtTokenProvider jwtTokenProvider;
+    private final RefreshTokenService refreshTokenService;
 
     @Transactional
     public AuthResponseDTO register(RegisterRequestDTO request) {
@@ -46,7 +49,7 @@ public class AuthService {
         String token = jwtTokenProvider.generateToken(savedUser.getId(), savedUser.getEmail());
 
         log.info("User registered successfully: userId={}, email={}", savedUser.getId(), savedUser.getEmail());
-        return buildAuthResponse(savedUser, token);
+        return buildAuthResponse(savedUser, token, refreshTokenService.issue(savedUser));
     }
 
     public AuthResponseDTO login(LoginRequestDTO request) {
@@ -62,10 +65,11 @@ public class AuthService {
             log.warn("Login failed: Invalid password for email - {}", request.getEmail());
             throw new BadCredentialsException("Invalid email or password");
         }
+        rehashIfCostChanged(user, request.getPassword());
 
         String token = jwtTokenProvider.generateToken(user.getId(), user.getEmail());
         log.info("User logged in successfully: userId={}, email={}", user.getId(), user.getEmail());
-        return buildAuthResponse(user, token);
+        return buildAuthResponse(user, token, refreshTokenService.issue(user));
     }
 
     @Transactional
@@ -96,12 +100,53 @@ public class AuthService {
 
         String token = jwtTokenProvider.generateToken(user.getId(), user.getEmail());
         log.info("Social login successful: userId={}, email={}, provider={}", user.getId(), user.getEmail(), request.getProvider());
-        return buildAuthResponse(user, token);
+        return buildAuthResponse(user, token, refreshTokenService.issue(user));
     }
 
-    private AuthResponseDTO buildAuthResponse(User user, String token) {
+    /**
+     * Exchange a refresh token for a new access token and a rotated refresh token
+     * @throws BadCredentialsException if the refresh token is invalid or reused
+     */
+    @Transactional(noRollbackFor = BadCredentialsException.class)
+    public AuthResponseDTO refresh(RefreshTokenRequestDTO request) {
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(request.getRefreshToken());
+        User user = rotation.user();
+        String token = jwtTokenProvider.generateToken(user.getId(), user.getEmail());
+        log.info("Token refreshed: userId={}", user.getId());
+        return buildAuthResponse(user, token, rotation.refreshToken());
+    }
+
+    /**
+     * Revoke the refresh token family and, when present, the current access token
+     * @param request refresh token to revoke
+     * @param accessToken current access token, may be null
+     */
+    @Transactional
+    public void logout(RefreshTokenRequestDTO request, String accessToken) {
+        refreshTokenService.revoke(request.getRefreshToken());
+        if (accessToken != null) {
+            jwtTokenProvider.revokeToken(accessToken);
+        }
+        log.info("User logged out");
+    }
+
+    /**
+     * Re-hash the password with the currently configured BCrypt cost after a successful login,
+     * so cost changes roll out without forcing password resets
+     */
+    private void rehashIfCostChanged(User user, String rawPassword) {
+        if (!passwordEncoder.upgradeEncoding(user.getPasswordHash())) {
+            return;
+        }
+        user.setPasswordHash(passwordEncoder.encode(rawPassword));
+        userRepository.save(user);
+        log.info("Password re-hashed with current BCrypt cost: userId={}", user.getId());
+    }
+
+    private AuthResponseDTO buildAuthResponse(User user, String token, String refreshToken) {
         return AuthResponseDTO.builder()
                 .token(token)
+                .refreshToken(refreshToken)
                 .userId(user.getId())
                 .email(user.getEmail())
                 .name(user.getName())
@@ -1,19 +1,29 @@
 package com.mystictarot.backend.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.mystictarot.backend.entity.enums.SpreadType;
 import com.mystictarot.backend.exception.GeminiServiceException;
+import com.mystictarot.backend.service.profiling.GeminiCallEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatusCode;
 import org.springframework.http.MediaType;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestClientResponseException;
 
+import java.net.URI;
+import java.net.http.HttpClient;
 import java.time.Duration;
 import java.util.List;
 import java.util.Map;
@@ -24,8 +34,12 @@ import java.util.Map;
 public class GeminiService {
 
     private static final String API_KEY_HEADER = "x-goog-api-key";
+    static final String CALLS_METRIC = "gemini.calls";
+    static final String RETRIES_METRIC = "gemini.retries";
 
     private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final ObservationRegistry observationRegistry;
 
     @Value("${gemini.api-key}")
     private String apiKey;
@@ -49,29 +63,63 @@ public class GeminiService {
     private long retryMaxDelay;
 
     private RestClient restClient;
+    private String model;
 
+    /**
+     * java.net.http.HttpClient instead of HttpURLConnection: its keep-alive cache synchronizes around
+     * socket I/O, which pins virtual threads for the whole Gemini call on JDK 21.
+     */
     @jakarta.annotation.PostConstruct
     void initRestClient() {
-        org.springframework.http.client.SimpleClientHttpRequestFactory factory =
-                new org.springframework.http.client.SimpleClientHttpRequestFactory();
-        factory.setConnectTimeout(Duration.ofMillis(connectTimeout));
+        model = modelOf(baseUrl);
+        HttpClient httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofMillis(connectTimeout))
+                .build();
+        JdkClientHttpRequestFactory factory = new JdkClientHttpRequestFactory(httpClient);
         factory.setReadTimeout(Duration.ofMillis(readTimeout));
         this.restClient = RestClient.builder()
                 .requestFactory(factory)
                 .baseUrl(baseUrl)
                 .defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
                 .defaultHeader(API_KEY_HEADER, apiKey)
+                .observationRegistry(observationRegistry)
                 .build();
     }
 
     public String generateInterpretation(String question, SpreadType spreadType, String cardsDescriptionForPrompt, String responseLocale) {
         String prompt = buildInterpretationPrompt(question, spreadType, cardsDescriptionForPrompt, responseLocale);
-        return callGeminiWithRetry(prompt);
+        return callGeminiWithRetry("interpret", prompt);
     }
 
     public String generateFollowUpResponse(String readingContext, String userMessage) {
         String prompt = buildFollowUpPrompt(readingContext, userMessage);
-        return callGeminiWithRetry(prompt);
+        return callGeminiWithRetry("follow_up", prompt);
+    }
+
+    /**
+     * Interpretation path with a canned response body in place of the HTTP call, for the startup warm-up:
+     * the prompt and request body are built and the response parsed exactly as for a real call
+     */
+    public String interpretWithResponse(String question, SpreadType spreadType, String cardsDescriptionForPrompt,
+                                        String responseLocale, String responseBody) {
+        String prompt = buildInterpretationPrompt(question, spreadType, cardsDescriptionForPrompt, responseLocale);
+        try {
+            objectMapper.writeValueAsBytes(requestBody(prompt));
+        } catch (JsonProcessingException e) {
+            throw new GeminiServiceException("Failed to serialize Gemini request", e);
+        }
+        return extractTextFromResponse(responseBody);
+    }
+
+    /**
+     * Open the connection to Gemini (DNS, TCP, TLS) before the first real call. Any HTTP status will do.
+     */
+    public void preconnect() {
+        try {
+            restClient.head().uri(URI.create(baseUrl)).retrieve().toBodilessEntity();
+        } catch (RestClientException e) {
+            log.debug("Gemini preconnect: {}", e.getMessage());
+        }
     }
 
     private String buildInterpretationPrompt(String question, SpreadType spreadType, String cardsDescriptionForPrompt, String responseLocale) {
@@ -107,49 +155,115 @@ public class GeminiService {
                 .formatted(readingContext, userMessage);
     }
 
-    private String callGeminiWithRetry(String prompt) {
-        Map<String, Object> body = Map.of(
+    private static Map<String, Object> requestBody(String prompt) {
+        return Map.of(
                 "contents", List.of(
                         Map.of("parts", List.of(Map.of("text", prompt)))
                 ));
-        Exception lastException = null;
-        long delay = retryInitialDelay;
-        for (int attempt = 0; attempt <= maxRetries; attempt++) {
-            try {
-                return doCallGemini(body);
-            } catch (Exception e) {
-                lastException = e;
-                if (e instanceof RestClientResponseException re && re.getStatusCode().is4xxClientError()) {
-                    throw new GeminiServiceException("Gemini API client error: " + e.getMessage(), e);
-                }
-                log.warn("Gemini API call attempt {} failed: {}", attempt + 1, e.getMessage());
-                if (attempt < maxRetries) {
-                    try {
-                        Thread.sleep(delay);
-                    } catch (InterruptedException ie) {
-                        Thread.currentThread().interrupt();
-                        throw new GeminiServiceException("Interrupted while retrying Gemini API", ie);
+    }
+
+    /**
+     * Records the whole call, retries included, as the {@value #CALLS_METRIC} timer tagged by operation, model
+     * and outcome (SUCCESS, CLIENT_ERROR, EXHAUSTED, INTERRUPTED), and each retry in {@value #RETRIES_METRIC}.
+     * Traced as a gemini.generate span; every attempt is a child HTTP client span and retries are span events.
+     * Also emitted as a {@link GeminiCallEvent} for Flight Recorder.
+     */
+    private String callGeminiWithRetry(String operation, String prompt) {
+        Map<String, Object> body = requestBody(prompt);
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "EXHAUSTED";
+        GeminiCallEvent event = new GeminiCallEvent();
+        event.begin();
+        Observation observation = Observation.createNotStarted("gemini.generate", observationRegistry)
+                .lowCardinalityKeyValue("operation", operation)
+                .lowCardinalityKeyValue("model", model)
+                .start();
+        try (Observation.Scope scope = observation.openScope()) {
+            Exception lastException = null;
+            long delay = retryInitialDelay;
+            for (int attempt = 0; attempt <= maxRetries; attempt++) {
+                event.attempts = attempt + 1;
+                event.httpStatus = 0;
+                try {
+                    String text = doCallGemini(body, event);
+                    outcome = "SUCCESS";
+                    return text;
+                } catch (Exception e) {
+                    lastException = e;
+                    if (e instanceof RestClientResponseException re) {
+                        event.httpStatus = re.getStatusCode().value();
+                    }
+                    if (e instanceof RestClientResponseException re && re.getStatusCode().is4xxClientError()) {
+                        outcome = "CLIENT_ERROR";
+                        throw new GeminiServiceException("Gemini API client error: " + e.getMessage(), e);
+                    }
+                    log.warn("Gemini API call attempt {} failed: {}", attempt + 1, e.getMessage());
+                    if (attempt < maxRetries) {
+                        meterRegistry.counter(RETRIES_METRIC, "operation", operation, "model", model).increment();
+                        observation.event(Observation.Event.of("gemini.retry", "retry after attempt " + (attempt + 1)));
+                        try {
+                            Thread.sleep(delay);
+                        } catch (InterruptedException ie) {
+                            Thread.currentThread().interrupt();
+                            outcome = "INTERRUPTED";
+                            throw new GeminiServiceException("Interrupted while retrying Gemini API", ie);
+                        }
+                        delay = Math.min(delay * 2, retryMaxDelay);
                     }
-                    delay = Math.min(delay * 2, retryMaxDelay);
                 }
             }
+            throw new GeminiServiceException("Gemini API failed after " + (maxRetries + 1) + " attempts", lastException);
+        } catch (RuntimeException e) {
+            observation.error(e);
+            throw e;
+        } finally {
+            observation.lowCardinalityKeyValue("outcome", outcome).stop();
+            event.end();
+            if (event.shouldCommit()) {
+                event.operation = operation;
+                event.model = model;
+                event.promptChars = prompt.length();
+                event.outcome = outcome;
+                event.commit();
+            }
+            sample.stop(Timer.builder(CALLS_METRIC)
+                    .description("Gemini generateContent calls including retries")
+                    .tag("operation", operation)
+                    .tag("model", model)
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * Model name from a .../models/{model}:generateContent URL
+     */
+    static String modelOf(String url) {
+        int start = url.indexOf("/models/");
+        if (start < 0) {
+            return "unknown";
         }
-        throw new GeminiServiceException("Gemini API failed after " + (maxRetries + 1) + " attempts", lastException);
+        start += "/models/".length();
+        int end = url.indexOf(':', start);
+        return end > start ? url.substring(start, end) : url.substring(start);
     }
 
-    private String doCallGemini(Map<String, Object> body) {
+    private String doCallGemini(Map<String, Object> body, GeminiCallEvent event) {
         String responseBody = restClient.post()
                 .body(body)
                 .retrieve()
                 .onStatus(HttpStatusCode::is5xxServerError, (req, res) -> {
+                    event.httpStatus = res.getStatusCode().value();
                     throw new GeminiServiceException("Gemini API returned " + res.getStatusCode());
                 })
                 .body(String.class);
+        event.httpStatus = 200;
 
         return extractTextFromResponse(responseBody);
     }
 
-    private String extractTextFromResponse(String responseBody) {
+    String extractTextFromResponse(String responseBody) {
         try {
             JsonNode root = objectMapper.readTree(responseBody);
             JsonNode candidates = root.path("candidates");
@@ -1,11 +1,14 @@
 package com.mystictarot.backend.service;
 
+import com.mystictarot.backend.service.token.TokenRevocationService;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.security.Keys;
 import io.jsonwebtoken.security.SignatureException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
@@ -13,6 +16,9 @@ import org.springframework.stereotype.Service;
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.function.Function;
 
@@ -20,6 +26,14 @@ import java.util.function.Function;
 @Service
 public class JwtTokenProvider {
 
+    static final String VERIFICATION_METRIC = "jwt.verification";
+    private static final List<String> OUTCOMES =
+            List.of("VALID", "EXPIRED", "REVOKED", "MALFORMED", "INVALID_SIGNATURE", "ERROR");
+
+    private final TokenRevocationService tokenRevocationService;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Timer> verificationTimers = new HashMap<>();
+
     @Value("${jwt.secret}")
     private String jwtSecret;
 
@@ -32,6 +46,18 @@ public class JwtTokenProvider {
     @Value("${jwt.audience:MysticTarotFrontend}")
     private String jwtAudience;
 
+    public JwtTokenProvider(TokenRevocationService tokenRevocationService, MeterRegistry meterRegistry) {
+        this.tokenRevocationService = tokenRevocationService;
+        this.meterRegistry = meterRegistry;
+        for (String outcome : OUTCOMES) {
+            verificationTimers.put(outcome, Timer.builder(VERIFICATION_METRIC)
+                    .description("Access token signature, expiry and revocation checks")
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+    }
+
     private SecretKey getSigningKey() {
         return Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
     }
@@ -41,6 +67,7 @@ public class JwtTokenProvider {
         Date expiryDate = new Date(now.getTime() + jwtExpiration);
 
         return Jwts.builder()
+                .setId(UUID.randomUUID().toString())
                 .setSubject(userId.toString())
                 .claim("email", email)
                 .setIssuer(jwtIssuer)
@@ -60,6 +87,10 @@ public class JwtTokenProvider {
         return getClaimFromToken(token, claims -> claims.get("email", String.class));
     }
 
+    public String getTokenIdFromToken(String token) {
+        return getClaimFromToken(token, Claims::getId);
+    }
+
     public Date getExpirationDateFromToken(String token) {
         return getClaimFromToken(token, Claims::getExpiration);
     }
@@ -79,22 +110,52 @@ public class JwtTokenProvider {
                 .getBody();
     }
 
+    /**
+     * Timed as {@value #VERIFICATION_METRIC}, tagged with the outcome
+     * (VALID, EXPIRED, REVOKED, MALFORMED, INVALID_SIGNATURE, ERROR)
+     */
     public Boolean validateToken(String token) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "ERROR";
         try {
             Claims claims = getAllClaimsFromToken(token);
-            return !isTokenExpired(claims);
+            if (tokenRevocationService.isRevoked(claims.getId())) {
+                log.debug("Revoked JWT token presented: jti={}", claims.getId());
+                outcome = "REVOKED";
+                return false;
+            }
+            boolean valid = !isTokenExpired(claims);
+            outcome = valid ? "VALID" : "EXPIRED";
+            return valid;
         } catch (ExpiredJwtException e) {
             log.warn("JWT token expired: {}", e.getMessage());
+            outcome = "EXPIRED";
             return false;
         } catch (MalformedJwtException e) {
             log.warn("Malformed JWT token: {}", e.getMessage());
+            outcome = "MALFORMED";
             return false;
         } catch (SignatureException e) {
             log.warn("Invalid JWT signature: {}", e.getMessage());
+            outcome = "INVALID_SIGNATURE";
             return false;
         } catch (Exception e) {
             log.error("Error validating JWT token: {}", e.getMessage());
             return false;
+        } finally {
+            sample.stop(verificationTimers.get(outcome));
+        }
+    }
+
+    /**
+     * Revoke an access token until it expires. Invalid or expired tokens are ignored.
+     */
+    public void revokeToken(String token) {
+        try {
+            Claims claims = getAllClaimsFromToken(token);
+            tokenRevocationService.revoke(claims.getId(), claims.getExpiration().getTime());
+        } catch (Exception e) {
+            log.debug("Skipping revocation of invalid JWT token: {}", e.getMessage());
         }
     }
 
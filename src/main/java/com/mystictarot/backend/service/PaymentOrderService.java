@@ -4,6 +4,7 @@ import com.mystictarot.backend.dto.request.CreateOrderRequestDTO;
 import com.mystictarot.backend.dto.response.CreateOrderResponseDTO;
 import com.mystictarot.backend.entity.Transaction;
 import com.mystictarot.backend.entity.User;
+import com.mystictarot.backend.entity.enums.PaymentProvider;
 import com.mystictarot.backend.entity.enums.PlanType;
 import com.mystictarot.backend.exception.InvalidPaymentException;
 import com.mystictarot.backend.exception.ResourceNotFoundException;
@@ -12,15 +13,21 @@ import com.mystictarot.backend.repository.UserRepository;
 import com.mystictarot.backend.service.payment.CreateOrderCommand;
 import com.mystictarot.backend.service.payment.CreateOrderResult;
 import com.mystictarot.backend.service.payment.PaymentServiceFactory;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class PaymentOrderService {
@@ -29,11 +36,18 @@ public class PaymentOrderService {
     private final TransactionRepository transactionRepository;
     private final PaymentServiceFactory paymentServiceFactory;
     private final PaymentPlanService paymentPlanService;
+    private final PlatformTransactionManager transactionManager;
+    private final ObservationRegistry observationRegistry;
 
     @Value("${payment.order-expiry-minutes:15}")
     private int orderExpiryMinutes;
 
-    @Transactional
+    /**
+     * Create a provider order in three steps so no DB connection is held while the provider is called:
+     * reserve a PENDING transaction and commit, call the provider, then record the payment URL in a short update.
+     * A repeated idempotency key returns the stored order, or 409 while the first request is still in flight.
+     * The steps are traced as payment.order.reserve, payment.order.provider and payment.order.record spans.
+     */
     public CreateOrderResponseDTO createOrder(UUID userId, CreateOrderRequestDTO request) {
         if (request.getPlanType() == PlanType.FREE) {
             throw new InvalidPaymentException("Cannot create order for FREE plan");
@@ -43,40 +57,17 @@ public class PaymentOrderService {
         var planPrice = paymentPlanService.getPlanPrice(request.getPlanType(), request.getLang());
         BigDecimal amount = planPrice.amount();
         String currency = planPrice.currency();
-        Transaction transaction;
-        if (request.getIdempotencyKey() != null && !request.getIdempotencyKey().isBlank()) {
-            var existing = transactionRepository.findByUser_IdAndIdempotencyKey(userId, request.getIdempotencyKey());
-            if (existing.isPresent()) {
-                Transaction t = existing.get();
-                if (t.getPaymentUrl() != null) {
-                    LocalDateTime expiresAt = t.getCreatedAt().plusMinutes(orderExpiryMinutes);
-                    return CreateOrderResponseDTO.builder()
-                            .transactionId(t.getId())
-                            .paymentUrl(t.getPaymentUrl())
-                            .expiresAt(expiresAt)
-                            .build();
-                }
-                transaction = t;
-            } else {
-                transaction = Transaction.builder()
-                        .user(user)
-                        .amount(amount)
-                        .planType(request.getPlanType())
-                        .provider(request.getProvider())
-                        .idempotencyKey(request.getIdempotencyKey())
-                        .build();
-                transaction = transactionRepository.save(transaction);
-            }
-        } else {
-            transaction = Transaction.builder()
-                .user(user)
-                .amount(amount)
-                .planType(request.getPlanType())
-                .provider(request.getProvider())
-                .idempotencyKey(request.getIdempotencyKey())
-                .build();
-            transaction = transactionRepository.save(transaction);
+
+        Transaction transaction = Observation.createNotStarted("payment.order.reserve", observationRegistry)
+                .observe(() -> reserve(user, request, amount));
+        if (transaction.getPaymentUrl() != null) {
+            return CreateOrderResponseDTO.builder()
+                    .transactionId(transaction.getId())
+                    .paymentUrl(transaction.getPaymentUrl())
+                    .expiresAt(transaction.getCreatedAt().plusMinutes(orderExpiryMinutes))
+                    .build();
         }
+
         CreateOrderCommand command = CreateOrderCommand.builder()
                 .planType(request.getPlanType())
                 .amount(amount)
@@ -86,14 +77,20 @@ public class PaymentOrderService {
                 .idempotencyKey(request.getIdempotencyKey())
                 .orderId(transaction.getId().toString())
                 .build();
-        CreateOrderResult result = paymentServiceFactory.getService(request.getProvider())
-                .createOrder(transaction, command);
+        CreateOrderResult result = callProvider(transaction, request.getProvider(), command);
         if (!result.isSuccess()) {
+            releaseFailed(transaction.getId());
             throw new InvalidPaymentException(result.getErrorMessage() != null ? result.getErrorMessage() : "Payment provider error");
         }
-        transaction.setProviderTransactionId(result.getProviderTransactionId());
-        transaction.setPaymentUrl(result.getPaymentUrl());
-        transactionRepository.save(transaction);
+
+        Integer updated = Observation.createNotStarted("payment.order.record", observationRegistry)
+                .observe(() -> transactionTemplate().execute(status -> transactionRepository.recordProviderOrder(
+                        transaction.getId(), result.getProviderTransactionId(), result.getPaymentUrl())));
+        if (updated == null || updated == 0) {
+            log.warn("Transaction {} left PENDING before provider order {} was recorded",
+                    transaction.getId(), result.getProviderTransactionId());
+            throw new InvalidPaymentException("Payment order is no longer pending, please start a new checkout");
+        }
         LocalDateTime expiresAt = LocalDateTime.now().plusMinutes(orderExpiryMinutes);
         return CreateOrderResponseDTO.builder()
                 .transactionId(transaction.getId())
@@ -102,4 +99,64 @@ public class PaymentOrderService {
                 .build();
     }
 
+    private CreateOrderResult callProvider(Transaction transaction, PaymentProvider provider, CreateOrderCommand command) {
+        try {
+            return Observation.createNotStarted("payment.order.provider", observationRegistry)
+                    .lowCardinalityKeyValue("provider", String.valueOf(provider))
+                    .observe(() -> paymentServiceFactory.getService(provider).createOrder(transaction, command));
+        } catch (RuntimeException e) {
+            releaseFailed(transaction.getId());
+            throw e;
+        }
+    }
+
+    /**
+     * Insert the PENDING transaction in its own committed transaction, or return the one already stored
+     * for this idempotency key. Concurrent inserts with the same key race on uk_transactions_user_idempotency;
+     * the loser re-reads the winner's row.
+     */
+    private Transaction reserve(User user, CreateOrderRequestDTO request, BigDecimal amount) {
+        String idempotencyKey = request.getIdempotencyKey();
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return transactionTemplate().execute(status -> transactionRepository.save(newTransaction(user, request, amount)));
+        }
+        try {
+            return transactionTemplate().execute(status -> transactionRepository
+                    .findByUser_IdAndIdempotencyKey(user.getId(), idempotencyKey)
+                    .map(this::requireCompleted)
+                    .orElseGet(() -> transactionRepository.saveAndFlush(newTransaction(user, request, amount))));
+        } catch (DataIntegrityViolationException e) {
+            return transactionTemplate().execute(status -> transactionRepository
+                    .findByUser_IdAndIdempotencyKey(user.getId(), idempotencyKey)
+                    .map(this::requireCompleted)
+                    .orElseThrow(() -> e));
+        }
+    }
+
+    private Transaction requireCompleted(Transaction existing) {
+        if (existing.getPaymentUrl() == null) {
+            throw new IllegalArgumentException("An order with this idempotency key is already being created");
+        }
+        return existing;
+    }
+
+    private Transaction newTransaction(User user, CreateOrderRequestDTO request, BigDecimal amount) {
+        return Transaction.builder()
+                .user(user)
+                .amount(amount)
+                .planType(request.getPlanType())
+                .provider(request.getProvider())
+                .idempotencyKey(request.getIdempotencyKey())
+                .build();
+    }
+
+    private void releaseFailed(UUID transactionId) {
+        transactionTemplate().executeWithoutResult(status ->
+                transactionRepository.markFailedAndReleaseIdempotencyKey(transactionId));
+    }
+
+    private TransactionTemplate transactionTemplate() {
+        return new TransactionTemplate(transactionManager);
+    }
+
 }
@@ -1,126 +1,195 @@
 package com.mystictarot.backend.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.mystictarot.backend.dto.response.PlanInfoDTO;
+import com.mystictarot.backend.entity.PlanPriceEntry;
 import com.mystictarot.backend.entity.enums.PlanType;
 import com.mystictarot.backend.exception.InvalidPaymentException;
+import com.mystictarot.backend.repository.PlanPriceRepository;
+import com.mystictarot.backend.service.payment.PlanCatalog;
 import com.mystictarot.backend.service.payment.PlanPrice;
-import lombok.RequiredArgsConstructor;
+import com.mystictarot.backend.service.payment.PlansDocument;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
-
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Plan prices per locale, served from an immutable snapshot of the plan_prices table.
+ * The snapshot is rebuilt when the table's row count or latest updated_at changes.
+ * Lookups are counted in cache.gets (cache=plan_catalog, result=hit|miss).
+ */
+@Slf4j
 @Service
-@RequiredArgsConstructor
 public class PaymentPlanService {
 
-    @Value("${payment.plans.monthly.amount:199000}")
-    private long monthlyAmount;
-
-    @Value("${payment.plans.monthly.currency:VND}")
-    private String monthlyCurrency;
-
-    @Value("${payment.plans.unlimited.amount:399000}")
-    private long unlimitedAmount;
-
-    @Value("${payment.plans.unlimited.currency:VND}")
-    private String unlimitedCurrency;
+    private static final List<PlanType> SEEDED_PLANS = List.of(PlanType.MONTHLY, PlanType.UNLIMITED, PlanType.RETAIL_5);
 
-    @Value("${payment.plans.retail_5.amount:19000}")
-    private long retail5Amount;
+    private final PlanPriceRepository planPriceRepository;
+    private final ObjectMapper objectMapper;
+    private final Environment environment;
+    private final Counter catalogHits;
+    private final Counter catalogMisses;
 
-    @Value("${payment.plans.retail_5.currency:VND}")
-    private String retail5Currency;
-
-    @Value("${payment.plans.retail_5.extra-credits:5}")
-    private int retail5ExtraCredits;
-
-    @Value("${payment.locales.en.monthly.amount:19.99}")
-    private double enMonthlyAmount;
+    @Value("${payment.default-locale:vi}")
+    private String defaultLocale;
 
-    @Value("${payment.locales.en.monthly.currency:USD}")
-    private String enMonthlyCurrency;
+    @Value("${payment.fallback-locale:en}")
+    private String fallbackLocale;
+
+    private final ReentrantLock reloadLock = new ReentrantLock();
+    private volatile PlanCatalog catalog;
+    private volatile long loadedCount = -1;
+    private volatile LocalDateTime loadedLatestUpdate;
+
+    public PaymentPlanService(PlanPriceRepository planPriceRepository, ObjectMapper objectMapper,
+                              Environment environment, MeterRegistry meterRegistry) {
+        this.planPriceRepository = planPriceRepository;
+        this.objectMapper = objectMapper;
+        this.environment = environment;
+        this.catalogHits = meterRegistry.counter("cache.gets", "cache", "plan_catalog", "result", "hit");
+        this.catalogMisses = meterRegistry.counter("cache.gets", "cache", "plan_catalog", "result", "miss");
+    }
 
-    @Value("${payment.locales.en.unlimited.amount:39.99}")
-    private double enUnlimitedAmount;
+    /**
+     * Runs once the context is refreshed rather than at bean creation, so the CDS training run in the
+     * image build (which exits on refresh) never needs a database. Lookups before then load on demand.
+     */
+    @EventListener(ContextRefreshedEvent.class)
+    public void init() {
+        if (planPriceRepository.count() == 0) {
+            seedFromProperties();
+        }
+        reload();
+    }
 
-    @Value("${payment.locales.en.unlimited.currency:USD}")
-    private String enUnlimitedCurrency;
+    public List<PlanInfoDTO> getPurchasablePlans(String languageCode) {
+        PlanCatalog current = currentCatalog();
+        return current.plans(resolveLocale(current, languageCode));
+    }
 
-    @Value("${payment.locales.en.retail_5.amount:1.99}")
-    private double enRetail5Amount;
+    /**
+     * Serialized plan list for the /payments/plans response, with its ETag
+     */
+    public PlansDocument getPlansDocument(String languageCode) {
+        PlanCatalog current = currentCatalog();
+        return current.document(resolveLocale(current, languageCode));
+    }
 
-    @Value("${payment.locales.en.retail_5.currency:USD}")
-    private String enRetail5Currency;
+    public PlanPrice getPlanPrice(PlanType planType, String languageCode) {
+        PlanCatalog current = currentCatalog();
+        PlanPrice price = current.price(resolveLocale(current, languageCode), planType);
+        if (price == null) {
+            throw new InvalidPaymentException("Invalid plan type for payment: " + planType);
+        }
+        return price;
+    }
 
-    @Value("${payment.locales.en.retail_5.extra-credits:5}")
-    private int enRetail5ExtraCredits;
+    /**
+     * Credits granted by a plan, as configured for the default locale (orders do not record their locale)
+     * @return credits, or null if the catalog grants none for this plan
+     */
+    public Integer getExtraCredits(PlanType planType) {
+        PlanCatalog current = currentCatalog();
+        return current.extraCredits(resolveLocale(current, null), planType);
+    }
 
-    @Value("${payment.default-locale:vi}")
-    private String defaultLocale;
+    private PlanCatalog currentCatalog() {
+        PlanCatalog current = catalog;
+        if (current == null) {
+            catalogMisses.increment();
+            init();
+            return catalog;
+        }
+        catalogHits.increment();
+        return current;
+    }
 
-    public List<PlanInfoDTO> getPurchasablePlans(String languageCode) {
-        String locale = normalizeLocale(languageCode);
-        if (isVietnamLocale(locale)) {
-            return buildPlanList((double) monthlyAmount, monthlyCurrency, (double) unlimitedAmount, unlimitedCurrency,
-                    (double) retail5Amount, retail5Currency, retail5ExtraCredits);
+    @Scheduled(fixedDelayString = "${payment.catalog.refresh-interval-ms:30000}",
+            initialDelayString = "${payment.catalog.refresh-interval-ms:30000}")
+    public void refreshIfChanged() {
+        long count = planPriceRepository.count();
+        LocalDateTime latestUpdate = planPriceRepository.findLatestUpdate().orElse(null);
+        if (count != loadedCount || !Objects.equals(latestUpdate, loadedLatestUpdate)) {
+            reload();
         }
-        return buildPlanList(enMonthlyAmount, enMonthlyCurrency, enUnlimitedAmount, enUnlimitedCurrency,
-                enRetail5Amount, enRetail5Currency, enRetail5ExtraCredits);
     }
 
-    public PlanPrice getPlanPrice(PlanType planType, String languageCode) {
-        String locale = normalizeLocale(languageCode);
-        if (isVietnamLocale(locale)) {
-            return switch (planType) {
-                case MONTHLY -> new PlanPrice(BigDecimal.valueOf(monthlyAmount), monthlyCurrency);
-                case UNLIMITED -> new PlanPrice(BigDecimal.valueOf(unlimitedAmount), unlimitedCurrency);
-                case RETAIL_5 -> new PlanPrice(BigDecimal.valueOf(retail5Amount), retail5Currency);
-                default -> throw new InvalidPaymentException("Invalid plan type for payment: " + planType);
-            };
+    /**
+     * Rebuild the snapshot from the database and swap it in atomically.
+     * Uses a ReentrantLock rather than synchronized: the queries would otherwise pin a virtual thread.
+     */
+    public void reload() {
+        reloadLock.lock();
+        try {
+            long count = planPriceRepository.count();
+            LocalDateTime latestUpdate = planPriceRepository.findLatestUpdate().orElse(null);
+            List<PlanPriceEntry> entries = planPriceRepository.findByActiveTrueOrderBySortOrderAsc();
+            catalog = PlanCatalog.of(entries, objectMapper);
+            loadedCount = count;
+            loadedLatestUpdate = latestUpdate;
+            log.info("Loaded plan catalog: {} active prices", entries.size());
+        } finally {
+            reloadLock.unlock();
         }
-        return switch (planType) {
-            case MONTHLY -> new PlanPrice(BigDecimal.valueOf(enMonthlyAmount), enMonthlyCurrency);
-            case UNLIMITED -> new PlanPrice(BigDecimal.valueOf(enUnlimitedAmount), enUnlimitedCurrency);
-            case RETAIL_5 -> new PlanPrice(BigDecimal.valueOf(enRetail5Amount), enRetail5Currency);
-            default -> throw new InvalidPaymentException("Invalid plan type for payment: " + planType);
-        };
     }
 
-    private static boolean isVietnamLocale(String locale) {
-        return "vi".equalsIgnoreCase(locale) || "vn".equalsIgnoreCase(locale);
+    /**
+     * Exact locale if priced, else its language part (en-US -> en), else the fallback locale
+     */
+    private String resolveLocale(PlanCatalog current, String languageCode) {
+        String locale = current.matchLocale(languageCode == null || languageCode.isBlank() ? defaultLocale : languageCode);
+        return locale != null ? locale : fallbackLocale;
     }
 
-    private String normalizeLocale(String languageCode) {
-        if (languageCode == null || languageCode.isBlank()) {
-            return defaultLocale != null ? defaultLocale : "vi";
+    /**
+     * First start against an empty plan_prices table: copy the prices that used to live in
+     * payment.plans.* (vi, vn) and payment.locales.en.* so checkout keeps working
+     */
+    private void seedFromProperties() {
+        List<PlanPriceEntry> entries = new ArrayList<>();
+        for (String locale : List.of("vi", "vn")) {
+            addSeed(entries, locale, "payment.plans.");
+        }
+        addSeed(entries, "en", "payment.locales.en.");
+        try {
+            planPriceRepository.saveAll(entries);
+            log.info("Seeded plan_prices with {} rows from configuration", entries.size());
+        } catch (DataIntegrityViolationException e) {
+            log.info("plan_prices was seeded concurrently by another instance");
         }
-        return languageCode.trim();
     }
 
-    private List<PlanInfoDTO> buildPlanList(double monthlyAmount, String monthlyCurrency,
-                                            double unlimitedAmount, String unlimitedCurrency,
-                                            double retail5Amount, String retail5Currency, int retail5ExtraCredits) {
-        return List.of(
-                PlanInfoDTO.builder()
-                        .planType(PlanType.MONTHLY)
-                        .amount(monthlyAmount)
-                        .currency(monthlyCurrency)
-                        .extraCredits(null)
-                        .build(),
-                PlanInfoDTO.builder()
-                        .planType(PlanType.UNLIMITED)
-                        .amount(unlimitedAmount)
-                        .currency(unlimitedCurrency)
-                        .extraCredits(null)
-                        .build(),
-                PlanInfoDTO.builder()
-                        .planType(PlanType.RETAIL_5)
-                        .amount(retail5Amount)
-                        .currency(retail5Currency)
-                        .extraCredits(retail5ExtraCredits)
-                        .build()
-        );
+    private void addSeed(List<PlanPriceEntry> entries, String locale, String prefix) {
+        for (int i = 0; i < SEEDED_PLANS.size(); i++) {
+            PlanType plan = SEEDED_PLANS.get(i);
+            String key = prefix + plan.name().toLowerCase() + ".";
+            String amount = environment.getProperty(key + "amount");
+            String currency = environment.getProperty(key + "currency");
+            if (amount == null || currency == null) {
+                continue;
+            }
+            entries.add(PlanPriceEntry.builder()
+                    .planType(plan)
+                    .locale(locale)
+                    .amount(new BigDecimal(amount))
+                    .currency(currency.toUpperCase())
+                    .extraCredits(environment.getProperty(key + "extra-credits", Integer.class))
+                    .sortOrder(i)
+                    .build());
+        }
     }
 }
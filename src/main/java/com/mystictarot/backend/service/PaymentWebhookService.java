@@ -4,12 +4,13 @@ import com.mystictarot.backend.dto.webhook.MomoWebhookPayloadDTO;
 import com.mystictarot.backend.dto.webhook.ZaloPayCallbackDataDTO;
 import com.mystictarot.backend.dto.webhook.ZaloPayWebhookPayloadDTO;
 import com.mystictarot.backend.entity.Transaction;
-import com.mystictarot.backend.entity.User;
 import com.mystictarot.backend.entity.enums.PlanType;
-import com.mystictarot.backend.entity.enums.TransactionStatus;
 import com.mystictarot.backend.exception.InvalidPaymentException;
 import com.mystictarot.backend.repository.TransactionRepository;
 import com.mystictarot.backend.repository.UserRepository;
+import com.mystictarot.backend.service.payment.ProviderOrderStatus;
+import com.mystictarot.backend.service.payment.signing.HmacSha256Signer;
+import com.mystictarot.backend.service.payment.signing.SignaturePayloads;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
@@ -18,9 +19,6 @@ import org.springframework.transaction.annotation.Transactional;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
-import javax.crypto.Mac;
-import javax.crypto.spec.SecretKeySpec;
-import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.Optional;
 import java.util.UUID;
@@ -30,7 +28,6 @@ import java.util.UUID;
 public class PaymentWebhookService {
 
     private static final int MOMO_SUCCESS_CODE = 0;
-    private static final int RETAIL_5_CREDITS = 5;
     private static final int MONTHLY_DAYS = 30;
     private static final int UNLIMITED_YEARS = 100;
     private static final int STRIPE_SIGNATURE_TOLERANCE_SECONDS = 300;
@@ -39,6 +36,7 @@ public class PaymentWebhookService {
     private final TransactionRepository transactionRepository;
     private final UserRepository userRepository;
     private final ObjectMapper objectMapper;
+    private final PaymentPlanService paymentPlanService;
 
     @Value("${payment.momo.secret-key}")
     private String momoSecretKey;
@@ -60,45 +58,16 @@ public class PaymentWebhookService {
             }
         }
         Transaction transaction = byProvider.orElseThrow(() -> new InvalidPaymentException("Transaction not found: " + orderId));
-        if (transaction.getStatus() == TransactionStatus.SUCCESS) {
-            return;
-        }
         if (payload.getResultCode() == null || payload.getResultCode() != MOMO_SUCCESS_CODE) {
-            transaction.setStatus(TransactionStatus.FAILED);
-            transactionRepository.save(transaction);
+            transactionRepository.markFailedIfPending(transaction.getId());
             return;
         }
-        transaction.setStatus(TransactionStatus.SUCCESS);
-        transactionRepository.save(transaction);
-        applySubscription(transaction);
+        grantOnce(transaction);
     }
 
     public boolean verifyMomoSignature(MomoWebhookPayloadDTO payload) {
-        String extraData = payload.getExtraData() != null ? payload.getExtraData() : "";
-        String message = payload.getMessage() != null ? payload.getMessage() : "";
-        String orderId = payload.getOrderId() != null ? payload.getOrderId() : "";
-        String orderInfo = payload.getOrderInfo() != null ? payload.getOrderInfo() : "";
-        String orderType = payload.getOrderType() != null ? payload.getOrderType() : "";
-        String partnerCode = payload.getPartnerCode() != null ? payload.getPartnerCode() : "";
-        String payType = payload.getPayType() != null ? payload.getPayType() : "";
-        String requestId = payload.getRequestId() != null ? payload.getRequestId() : "";
-        Long responseTime = payload.getResponseTime();
-        Integer resultCode = payload.getResultCode();
-        Long transId = payload.getTransId();
-        String raw = "amount=" + payload.getAmount() +
-                "&extraData=" + extraData +
-                "&message=" + message +
-                "&orderId=" + orderId +
-                "&orderInfo=" + orderInfo +
-                "&orderType=" + orderType +
-                "&partnerCode=" + partnerCode +
-                "&payType=" + payType +
-                "&requestId=" + requestId +
-                "&responseTime=" + (responseTime != null ? responseTime : "") +
-                "&resultCode=" + (resultCode != null ? resultCode : "") +
-                "&transId=" + (transId != null ? transId : "");
-        String sign = signHmacSha256(raw, momoSecretKey);
-        return sign != null && sign.equalsIgnoreCase(payload.getSignature());
+        HmacSha256Signer signer = HmacSha256Signer.forKey(momoSecretKey);
+        return signer != null && signer.verifyHex(payload.getSignature(), SignaturePayloads.momoIpn(payload));
     }
 
     @Transactional
@@ -106,17 +75,12 @@ public class PaymentWebhookService {
         String appTransId = data.getAppTransId();
         Transaction transaction = transactionRepository.findByProviderTransactionId(appTransId)
                 .orElseThrow(() -> new InvalidPaymentException("Transaction not found: " + appTransId));
-        if (transaction.getStatus() == TransactionStatus.SUCCESS) {
-            return;
-        }
-        transaction.setStatus(TransactionStatus.SUCCESS);
-        transactionRepository.save(transaction);
-        applySubscription(transaction);
+        grantOnce(transaction);
     }
 
     public boolean verifyZaloPayMac(ZaloPayWebhookPayloadDTO payload, String dataStr) {
-        String mac = signHmacSha256(dataStr, zaloPayKey2);
-        return mac != null && mac.equalsIgnoreCase(payload.getMac());
+        HmacSha256Signer signer = HmacSha256Signer.forKey(zaloPayKey2);
+        return signer != null && dataStr != null && signer.verifyHex(payload.getMac(), dataStr);
     }
 
     public boolean verifyStripeSignature(String payload, String stripeSignature) {
@@ -151,9 +115,7 @@ public class PaymentWebhookService {
         if (Math.abs(now - t) > STRIPE_SIGNATURE_TOLERANCE_SECONDS) {
             return false;
         }
-        String signedPayload = timestamp + "." + payload;
-        String expected = signHmacSha256(signedPayload, stripeWebhookSecret);
-        return expected != null && expected.equalsIgnoreCase(v1);
+        return HmacSha256Signer.forKey(stripeWebhookSecret).verifyHex(v1, timestamp, ".", payload);
     }
 
     @Transactional
@@ -184,40 +146,57 @@ public class PaymentWebhookService {
         }
         Transaction transaction = transactionRepository.findById(transactionId)
                 .orElseThrow(() -> new InvalidPaymentException("Transaction not found: " + clientReferenceId));
-        if (transaction.getStatus() == TransactionStatus.SUCCESS) {
+        grantOnce(transaction);
+    }
+
+    /**
+     * Apply an order status obtained by polling the provider, through the same idempotent path as webhooks
+     * @param transactionId transaction ID
+     * @param status status reported by the provider
+     */
+    @Transactional
+    public void applyProviderStatus(UUID transactionId, ProviderOrderStatus status) {
+        if (status == ProviderOrderStatus.FAILED) {
+            transactionRepository.markFailedIfPending(transactionId);
+            return;
+        }
+        if (status != ProviderOrderStatus.PAID) {
+            return;
+        }
+        Transaction transaction = transactionRepository.findById(transactionId)
+                .orElseThrow(() -> new InvalidPaymentException("Transaction not found: " + transactionId));
+        grantOnce(transaction);
+    }
+
+    /**
+     * Flip the transaction to SUCCESS with a conditional update and apply the plan only if this call
+     * made the change, so redelivered or concurrently processed callbacks never grant twice
+     */
+    private void grantOnce(Transaction transaction) {
+        if (transactionRepository.markSuccessIfNotAlready(transaction.getId()) == 0) {
             return;
         }
-        transaction.setStatus(TransactionStatus.SUCCESS);
-        transactionRepository.save(transaction);
         applySubscription(transaction);
     }
 
+    /**
+     * Targeted updates rather than a read-modify-write of the user, so a concurrent credit spend or
+     * subscription sweep is not overwritten. Credit packs grant the extra_credits of the plan catalog; if the
+     * catalog has none, the grant fails and rolls back so the callback is retried once it is fixed.
+     */
     private void applySubscription(Transaction transaction) {
-        User user = transaction.getUser();
+        UUID userId = transaction.getUser().getId();
         PlanType planType = transaction.getPlanType();
         if (planType == PlanType.RETAIL_5) {
-            user.setExtraCredits((user.getExtraCredits() != null ? user.getExtraCredits() : 0) + RETAIL_5_CREDITS);
+            Integer credits = paymentPlanService.getExtraCredits(planType);
+            if (credits == null) {
+                throw new IllegalStateException("No extra_credits in the plan catalog for " + planType);
+            }
+            userRepository.addExtraCredits(userId, credits);
         } else if (planType == PlanType.MONTHLY) {
-            user.setPlan(PlanType.MONTHLY);
-            user.setSubscriptionExpiry(LocalDateTime.now().plusDays(MONTHLY_DAYS));
+            userRepository.updatePlan(userId, PlanType.MONTHLY, LocalDateTime.now().plusDays(MONTHLY_DAYS));
         } else if (planType == PlanType.UNLIMITED) {
-            user.setPlan(PlanType.UNLIMITED);
-            user.setSubscriptionExpiry(LocalDateTime.now().plusYears(UNLIMITED_YEARS));
-        }
-        userRepository.save(user);
-    }
-
-    private static String signHmacSha256(String data, String key) {
-        if (key == null || key.isBlank()) return null;
-        try {
-            Mac mac = Mac.getInstance("HmacSHA256");
-            mac.init(new SecretKeySpec(key.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
-            byte[] hash = mac.doFinal(data.getBytes(StandardCharsets.UTF_8));
-            StringBuilder sb = new StringBuilder();
-            for (byte b : hash) sb.append(String.format("%02x", b));
-            return sb.toString();
-        } catch (Exception e) {
-            return null;
+            userRepository.updatePlan(userId, PlanType.UNLIMITED, LocalDateTime.now().plusYears(UNLIMITED_YEARS));
         }
     }
 }
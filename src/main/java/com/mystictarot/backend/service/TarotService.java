@@ -26,36 +26,37 @@ import com.mystictarot.backend.repository.ReadingRepository;
 import com.mystictarot.backend.repository.TarotCardRepository;
 import com.mystictarot.backend.repository.TarotCardTranslationRepository;
 import com.mystictarot.backend.repository.UserRepository;
+import com.mystictarot.backend.service.deck.TarotDeckCache;
+import com.mystictarot.backend.service.profiling.TarotPhaseEvent;
 import com.mystictarot.backend.util.LocaleUtil;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.DayOfWeek;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
 import java.util.ArrayList;
-import java.util.Comparator;
+import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class TarotService {
 
-    private static final Map<SpreadType, Integer> EXPECTED_CARD_COUNT = Map.of(
-            SpreadType.THREE_CARDS, 3,
-            SpreadType.CELTIC_CROSS, 10,
-            SpreadType.DAILY_DRAW, 1,
-            SpreadType.PAST_PRESENT_FUTURE, 3,
-            SpreadType.RELATIONSHIP_SPREAD, 2
-    );
+    static final String QUOTA_METRIC = "tarot.quota.checks";
+    static final String CREDITS_METRIC = "tarot.credits.deducted";
 
     private final UserRepository userRepository;
     private final ReadingRepository readingRepository;
@@ -63,8 +64,13 @@ public class TarotService {
     private final TarotCardRepository tarotCardRepository;
     private final TarotCardTranslationRepository tarotCardTranslationRepository;
     private final GeminiService geminiService;
+    private final TarotDeckCache tarotDeckCache;
     private final LocaleUtil localeUtil;
     private final ObjectMapper objectMapper;
+    private final PlatformTransactionManager transactionManager;
+    private final ObservationRegistry observationRegistry;
+    private final Map<PlanType, Map<QuotaResult, Counter>> quotaCounters = new EnumMap<>(PlanType.class);
+    private final Map<String, Counter> creditCounters;
 
     @Value("${subscription.plan.limits.free:3}")
     private Integer freePlanLimit;
@@ -75,125 +81,228 @@ public class TarotService {
     @Value("${subscription.plan.limits.retail5:5}")
     private Integer retail5PlanLimit;
 
-    @Transactional
-    public InterpretResponseDTO interpretReading(UUID userId, InterpretRequestDTO request) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("User", userId));
+    public TarotService(UserRepository userRepository,
+                        ReadingRepository readingRepository,
+                        ChatMessageRepository chatMessageRepository,
+                        TarotCardRepository tarotCardRepository,
+                        TarotCardTranslationRepository tarotCardTranslationRepository,
+                        GeminiService geminiService,
+                        TarotDeckCache tarotDeckCache,
+                        LocaleUtil localeUtil,
+                        ObjectMapper objectMapper,
+                        PlatformTransactionManager transactionManager,
+                        MeterRegistry meterRegistry,
+                        ObservationRegistry observationRegistry) {
+        this.userRepository = userRepository;
+        this.readingRepository = readingRepository;
+        this.chatMessageRepository = chatMessageRepository;
+        this.tarotCardRepository = tarotCardRepository;
+        this.tarotCardTranslationRepository = tarotCardTranslationRepository;
+        this.geminiService = geminiService;
+        this.tarotDeckCache = tarotDeckCache;
+        this.localeUtil = localeUtil;
+        this.objectMapper = objectMapper;
+        this.transactionManager = transactionManager;
+        this.observationRegistry = observationRegistry;
+        for (PlanType plan : PlanType.values()) {
+            Map<QuotaResult, Counter> byResult = new EnumMap<>(QuotaResult.class);
+            for (QuotaResult result : QuotaResult.values()) {
+                byResult.put(result, meterRegistry.counter(QUOTA_METRIC, "plan", plan.name(), "result", result.name()));
+            }
+            quotaCounters.put(plan, byResult);
+        }
+        this.creditCounters = Map.of(
+                "interpret", meterRegistry.counter(CREDITS_METRIC, "operation", "interpret"),
+                "follow_up", meterRegistry.counter(CREDITS_METRIC, "operation", "follow_up"));
+    }
 
-        validateInterpretRequest(request);
-        validateReadingQuota(userId, user);
+    /**
+     * Runs in three steps so no database connection is held while Gemini answers (up to a minute):
+     * validate and build the prompt in a read-only transaction, call Gemini with no transaction,
+     * then store the reading in a short write transaction. The store step locks the user row and checks the
+     * quota again, so concurrent requests cannot both take the last free reading or the last extra credit.
+     * Each step is traced as a tarot.interpret.* span, with card lookup, quota check and prompt building
+     * as children of the prepare span.
+     */
+    public InterpretResponseDTO interpretReading(UUID userId, InterpretRequestDTO request) {
+        PreparedInterpret prepared = observe("tarot.interpret.prepare", () -> readOnlyTransaction().execute(status -> {
+            User user = userRepository.findById(userId)
+                    .orElseThrow(() -> new ResourceNotFoundException("User", userId));
+            observe("tarot.interpret.cards", () -> validateInterpretRequest(request));
+            observe("tarot.interpret.quota", () -> validateReadingQuota(userId, user));
+            String locale = localeUtil.resolve(request.getLang());
+            return observe("tarot.interpret.prompt", () -> new PreparedInterpret(serializeCardsToJson(request.getCards()),
+                    buildCardsDescriptionForPrompt(request.getCards(), locale), locale));
+        }));
 
-        String locale = localeUtil.resolve(request.getLang());
-        String cardsJson = serializeCardsToJson(request.getCards());
-        String cardsDescription = buildCardsDescriptionForPrompt(request.getCards(), locale);
         String interpretation = geminiService.generateInterpretation(
-                request.getQuestion(), request.getSpreadType(), cardsDescription, locale);
-
-        Reading reading = Reading.builder()
-                .user(user)
-                .question(request.getQuestion().trim())
-                .spreadType(request.getSpreadType())
-                .cardsJson(cardsJson)
-                .interpretationText(interpretation)
-                .status(ReadingStatus.ACTIVE)
-                .build();
-        reading = readingRepository.save(reading);
-        deductExtraCreditIfUsedForInterpret(userId, user);
-        log.info("Reading created: readingId={}, userId={}", reading.getId(), userId);
+                request.getQuestion(), request.getSpreadType(), prepared.cardsDescription(), prepared.locale());
 
-        return InterpretResponseDTO.builder()
-                .readingId(reading.getId())
-                .interpretation(interpretation)
-                .build();
+        return observe("tarot.interpret.store", () -> writeTransaction().execute(status -> {
+            User user = userRepository.findByIdForUpdate(userId)
+                    .orElseThrow(() -> new ResourceNotFoundException("User", userId));
+            QuotaResult quota = requireReadingQuota(userId, user);
+            Reading reading = Reading.builder()
+                    .user(user)
+                    .question(request.getQuestion().trim())
+                    .spreadType(request.getSpreadType())
+                    .cardsJson(prepared.cardsJson())
+                    .interpretationText(interpretation)
+                    .status(ReadingStatus.ACTIVE)
+                    .build();
+            reading = readingRepository.save(reading);
+            if (quota == QuotaResult.EXTRA_CREDIT) {
+                spendExtraCredit(userId, "interpret");
+            }
+            log.info("Reading created: readingId={}, userId={}", reading.getId(), userId);
+
+            return InterpretResponseDTO.builder()
+                    .readingId(reading.getId())
+                    .interpretation(interpretation)
+                    .build();
+        }));
     }
 
-    @Transactional
+    /**
+     * Same split as interpretReading; the credit is spent with a conditional update in the store step,
+     * which fails with InsufficientCreditsException if another request used the last one while Gemini was answering.
+     */
     public FollowUpResponseDTO followUp(UUID userId, FollowUpRequestDTO request) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("User", userId));
+        PreparedFollowUp prepared = observe("tarot.follow_up.prepare", () -> readOnlyTransaction().execute(status -> {
+            User user = userRepository.findById(userId)
+                    .orElseThrow(() -> new ResourceNotFoundException("User", userId));
+            requireCredit(user);
 
-        if (user.getExtraCredits() == null || user.getExtraCredits() < 1) {
-            throw new InsufficientCreditsException("Insufficient credits for follow-up. Purchase extra credits to continue.");
-        }
+            Reading reading = readingRepository.findByIdAndUserId(request.getReadingId(), userId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Reading", request.getReadingId()));
 
-        Reading reading = readingRepository.findByIdAndUserId(request.getReadingId(), userId)
-                .orElseThrow(() -> new ResourceNotFoundException("Reading", request.getReadingId()));
+            if (reading.getStatus() != ReadingStatus.ACTIVE) {
+                throw new ValidationException("This reading is no longer available for follow-up.");
+            }
 
-        if (reading.getStatus() != ReadingStatus.ACTIVE) {
-            throw new ValidationException("This reading is no longer available for follow-up.");
-        }
+            List<ChatMessage> existingMessages = chatMessageRepository.findByReadingIdOrderByCreatedAtAsc(reading.getId());
+            return new PreparedFollowUp(reading, buildFollowUpContext(reading, existingMessages));
+        }));
 
-        List<ChatMessage> existingMessages = chatMessageRepository.findByReadingIdOrderByCreatedAtAsc(reading.getId());
-        String context = buildFollowUpContext(reading, existingMessages);
-        String aiResponse = geminiService.generateFollowUpResponse(context, request.getMessage().trim());
+        String aiResponse = geminiService.generateFollowUpResponse(prepared.context(), request.getMessage().trim());
 
-        ChatMessage userMsg = ChatMessage.builder()
-                .reading(reading)
-                .role(ChatRole.USER)
-                .content(request.getMessage().trim())
-                .build();
-        ChatMessage aiMsg = ChatMessage.builder()
-                .reading(reading)
-                .role(ChatRole.AI)
-                .content(aiResponse)
-                .build();
-        chatMessageRepository.save(userMsg);
-        chatMessageRepository.save(aiMsg);
+        return observe("tarot.follow_up.store", () -> writeTransaction().execute(status -> {
+            spendExtraCredit(userId, "follow_up");
+            Reading reading = prepared.reading();
 
-        user.setExtraCredits(user.getExtraCredits() - 1);
-        userRepository.save(user);
-        log.info("Follow-up completed: readingId={}, userId={}, creditsRemaining={}", reading.getId(), userId, user.getExtraCredits());
+            ChatMessage userMsg = ChatMessage.builder()
+                    .reading(reading)
+                    .role(ChatRole.USER)
+                    .content(request.getMessage().trim())
+                    .build();
+            ChatMessage aiMsg = ChatMessage.builder()
+                    .reading(reading)
+                    .role(ChatRole.AI)
+                    .content(aiResponse)
+                    .build();
+            chatMessageRepository.save(userMsg);
+            chatMessageRepository.save(aiMsg);
+            log.info("Follow-up completed: readingId={}, userId={}", reading.getId(), userId);
 
-        return FollowUpResponseDTO.builder()
-                .content(aiResponse)
+            return FollowUpResponseDTO.builder()
+                    .content(aiResponse)
+                    .build();
+        }));
+    }
+
+    /**
+     * Interpret path for a sample request with Gemini replaced by a canned response body, used by the
+     * startup warm-up: validation, card lookup, prompt building and parsing run as usual, but no user
+     * is involved and nothing is stored.
+     */
+    public InterpretResponseDTO dryRunInterpretation(InterpretRequestDTO request, String geminiResponseBody) {
+        PreparedInterpret prepared = readOnlyTransaction().execute(status -> {
+            validateInterpretRequest(request);
+            String locale = localeUtil.resolve(request.getLang());
+            return new PreparedInterpret(serializeCardsToJson(request.getCards()),
+                    buildCardsDescriptionForPrompt(request.getCards(), locale), locale);
+        });
+        String interpretation = geminiService.interpretWithResponse(request.getQuestion(), request.getSpreadType(),
+                prepared.cardsDescription(), prepared.locale(), geminiResponseBody);
+        return InterpretResponseDTO.builder()
+                .interpretation(interpretation)
                 .build();
     }
 
-    @Transactional(readOnly = true)
     public List<TarotCardResponseDTO> getDeck(String lang) {
-        String locale = localeUtil.resolve(lang);
-        List<TarotCardTranslation> primary = tarotCardTranslationRepository.findAllByLocaleOrderByTarotCard_CardNumberAsc(locale);
-        String defaultLocale = localeUtil.getDefaultLocale();
-        List<TarotCardTranslation> fallback = locale.equals(defaultLocale)
-                ? List.of()
-                : tarotCardTranslationRepository.findAllByLocaleOrderByTarotCard_CardNumberAsc(defaultLocale);
-        fallback.stream()
-                .collect(Collectors.toMap(t -> t.getTarotCard().getId(), t -> t));
-        List<TarotCardResponseDTO> result = new ArrayList<>();
-        for (TarotCardTranslation t : primary) {
-            TarotCard card = t.getTarotCard();
-            result.add(TarotCardResponseDTO.builder()
-                    .id(card.getId())
-                    .cardNumber(card.getCardNumber())
-                    .suit(card.getSuit())
-                    .name(t.getName())
-                    .description(t.getDescription())
-                    .imageUrl(card.getImageUrl())
-                    .build());
+        return tarotDeckCache.getDeck(localeUtil.resolve(lang));
+    }
+
+    private record PreparedInterpret(String cardsJson, String cardsDescription, String locale) {
+    }
+
+    private record PreparedFollowUp(Reading reading, String context) {
+    }
+
+    private enum QuotaResult {
+        UNLIMITED, WITHIN_LIMIT, EXTRA_CREDIT, REJECTED
+    }
+
+    private static void requireCredit(User user) {
+        if (user.getExtraCredits() == null || user.getExtraCredits() < 1) {
+            throw new InsufficientCreditsException("Insufficient credits for follow-up. Purchase extra credits to continue.");
+        }
+    }
+
+    /**
+     * Spends one extra credit with a conditional update, so two requests cannot both spend the last one
+     */
+    private void spendExtraCredit(UUID userId, String operation) {
+        if (userRepository.spendExtraCredit(userId) == 0) {
+            throw new InsufficientCreditsException("Insufficient credits for " + operation.replace('_', '-')
+                    + ". Purchase extra credits to continue.");
         }
-        for (TarotCardTranslation t : fallback) {
-            int cardId = t.getTarotCard().getId();
-            if (primary.stream().noneMatch(p -> p.getTarotCard().getId() == cardId)) {
-                TarotCard card = t.getTarotCard();
-                result.add(TarotCardResponseDTO.builder()
-                        .id(card.getId())
-                        .cardNumber(card.getCardNumber())
-                        .suit(card.getSuit())
-                        .name(t.getName())
-                        .description(t.getDescription())
-                        .imageUrl(card.getImageUrl())
-                        .build());
+        countCreditDeducted(operation);
+    }
+
+    /**
+     * Runs a step as a span and a {@link TarotPhaseEvent} of the same name
+     */
+    private <T> T observe(String name, Supplier<T> step) {
+        TarotPhaseEvent event = new TarotPhaseEvent();
+        event.begin();
+        try {
+            return Observation.createNotStarted(name, observationRegistry).observe(step);
+        } catch (RuntimeException e) {
+            event.failed = true;
+            throw e;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.phase = name;
+                event.commit();
             }
         }
-        result.sort(Comparator.comparing(TarotCardResponseDTO::getId));
-        return result;
+    }
+
+    private void observe(String name, Runnable step) {
+        observe(name, () -> {
+            step.run();
+            return null;
+        });
+    }
+
+    private TransactionTemplate readOnlyTransaction() {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(true);
+        return template;
+    }
+
+    private TransactionTemplate writeTransaction() {
+        return new TransactionTemplate(transactionManager);
     }
 
     private void validateInterpretRequest(InterpretRequestDTO request) {
-        Integer expected = EXPECTED_CARD_COUNT.get(request.getSpreadType());
-        if (expected == null) {
-            throw new ValidationException("Invalid spread type: " + request.getSpreadType());
+        SpreadType spreadType = request.getSpreadType();
+        if (spreadType == null) {
+            throw new ValidationException("Invalid spread type: " + spreadType);
         }
+        int expected = spreadType.getCardCount();
         List<CardDTO> cards = request.getCards();
         if (cards == null || cards.size() != expected) {
             throw new ValidationException(
@@ -206,35 +315,47 @@ public class TarotService {
         }
     }
 
+    /**
+     * Counted in {@value #QUOTA_METRIC} by plan and result (UNLIMITED, WITHIN_LIMIT, EXTRA_CREDIT, REJECTED)
+     */
     private void validateReadingQuota(UUID userId, User user) {
-        PlanType plan = user.getPlan();
-        Integer limit = getWeeklyReadingsLimit(plan);
+        QuotaResult result;
+        try {
+            result = requireReadingQuota(userId, user);
+        } catch (ReadingLimitExceededException e) {
+            countQuotaCheck(user.getPlan(), QuotaResult.REJECTED);
+            throw e;
+        }
+        countQuotaCheck(user.getPlan(), result);
+    }
+
+    /**
+     * Decides how the next reading is paid for: within the weekly limit, or with an extra credit once the limit is reached
+     */
+    private QuotaResult requireReadingQuota(UUID userId, User user) {
+        Integer limit = getWeeklyReadingsLimit(user.getPlan());
         if (limit != null && limit < 0) {
-            return;
+            return QuotaResult.UNLIMITED;
         }
         LocalDateTime weekStart = getStartOfCurrentWeek();
         long used = readingRepository.countWeeklyReadingsByUserId(userId, ReadingStatus.ACTIVE, weekStart);
         if (limit != null && used >= limit) {
             Integer extra = user.getExtraCredits();
             if (extra != null && extra >= 1) {
-                return;
+                return QuotaResult.EXTRA_CREDIT;
             }
             throw new ReadingLimitExceededException(
                     "Weekly reading limit reached (" + used + "/" + limit + "). Upgrade your plan or wait until next week.");
         }
+        return QuotaResult.WITHIN_LIMIT;
     }
 
-    private void deductExtraCreditIfUsedForInterpret(UUID userId, User user) {
-        Integer limit = getWeeklyReadingsLimit(user.getPlan());
-        if (limit == null || limit < 0) {
-            return;
-        }
-        LocalDateTime weekStart = getStartOfCurrentWeek();
-        long used = readingRepository.countWeeklyReadingsByUserId(userId, ReadingStatus.ACTIVE, weekStart);
-        if (used >= limit && user.getExtraCredits() != null && user.getExtraCredits() >= 1) {
-            user.setExtraCredits(user.getExtraCredits() - 1);
-            userRepository.save(user);
-        }
+    private void countQuotaCheck(PlanType plan, QuotaResult result) {
+        quotaCounters.get(plan).get(result).increment();
+    }
+
+    private void countCreditDeducted(String operation) {
+        creditCounters.get(operation).increment();
     }
 
     private Integer getWeeklyReadingsLimit(PlanType plan) {
@@ -265,7 +386,7 @@ public class TarotService {
         }
     }
 
-    private String buildCardsDescriptionForPrompt(List<CardDTO> cards, String locale) {
+    String buildCardsDescriptionForPrompt(List<CardDTO> cards, String locale) {
         List<Integer> cardIds = cards.stream().map(CardDTO::getId).toList();
         List<TarotCardTranslation> translations = tarotCardTranslationRepository.findByTarotCard_IdInAndLocale(cardIds, locale);
         String defaultLocale = localeUtil.getDefaultLocale();
@@ -297,7 +418,7 @@ public class TarotService {
         return sb.toString();
     }
 
-    private String buildFollowUpContext(Reading reading, List<ChatMessage> messages) {
+    String buildFollowUpContext(Reading reading, List<ChatMessage> messages) {
         StringBuilder sb = new StringBuilder();
         sb.append("Question: ").append(reading.getQuestion()).append("\n");
         sb.append("Initial interpretation: ").append(reading.getInterpretationText()).append("\n");
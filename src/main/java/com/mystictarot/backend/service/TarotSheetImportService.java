@@ -1,143 +1,368 @@
 package com.mystictarot.backend.service;
 
-import com.mystictarot.backend.entity.TarotCard;
-import com.mystictarot.backend.entity.TarotCardTranslation;
+import com.mystictarot.backend.entity.TarotDeckState;
 import com.mystictarot.backend.entity.enums.SuitType;
-import com.mystictarot.backend.repository.TarotCardRepository;
-import com.mystictarot.backend.repository.TarotCardTranslationRepository;
+import com.mystictarot.backend.repository.TarotDeckStateRepository;
+import com.mystictarot.backend.service.deck.TarotDeckCache;
+import com.mystictarot.backend.service.profiling.TarotImportBatchEvent;
 import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.CSVParser;
 import org.apache.commons.csv.CSVRecord;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.io.StringReader;
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
 
+/**
+ * Imports tarot cards and their translations from the published Google Sheet (or a local CSV file).
+ * The CSV is parsed as a stream and written with JDBC batch upserts, so a run costs a handful of
+ * round trips per batch instead of two queries per card and per translation.
+ * Imports are incremental: the sheet is fetched with a conditional GET, and rows whose content hash
+ * matches the stored one are not written. When anything changed, the deck version is bumped and
+ * published after commit so every node swaps its deck cache.
+ * The sheet is fetched and parsed before any transaction starts; only the compare-and-write step holds
+ * a connection and the import lock.
+ */
 @Service
 public class TarotSheetImportService {
 
     private static final Logger log = LoggerFactory.getLogger(TarotSheetImportService.class);
     private static final int HEADER_ROWS = 2;
     private static final int MIN_COLUMNS = 18;
+    private static final int SNIFF_BYTES = 8192;
     private static final String[] LOCALES = {"vi", "en", "zh", "fr", "it"};
 
-    private final TarotCardRepository tarotCardRepository;
-    private final TarotCardTranslationRepository tarotCardTranslationRepository;
+    static final long IMPORT_LOCK_KEY = 0x4d54_0003L;
 
-    public TarotSheetImportService(TarotCardRepository tarotCardRepository,
-                                  TarotCardTranslationRepository tarotCardTranslationRepository) {
-        this.tarotCardRepository = tarotCardRepository;
-        this.tarotCardTranslationRepository = tarotCardTranslationRepository;
+    private static final DateTimeFormatter HTTP_DATE = DateTimeFormatter.RFC_1123_DATE_TIME.withZone(ZoneOffset.UTC);
+
+    static final String UPSERT_CARD_SQL = """
+            INSERT INTO tarot_cards (id, card_number, suit, image_url, content_hash, created_at)
+            VALUES (?, ?, ?, ?, ?, now())
+            ON CONFLICT (id) DO UPDATE SET
+                card_number = EXCLUDED.card_number,
+                suit = EXCLUDED.suit,
+                image_url = EXCLUDED.image_url,
+                content_hash = EXCLUDED.content_hash
+            WHERE tarot_cards.content_hash IS DISTINCT FROM EXCLUDED.content_hash
+            """;
+
+    static final String UPSERT_TRANSLATION_SQL = """
+            INSERT INTO tarot_card_translations (card_id, locale, name, description, content_hash)
+            VALUES (?, ?, ?, ?, ?)
+            ON CONFLICT (card_id, locale) DO UPDATE SET
+                name = EXCLUDED.name,
+                description = EXCLUDED.description,
+                content_hash = EXCLUDED.content_hash
+            WHERE tarot_card_translations.content_hash IS DISTINCT FROM EXCLUDED.content_hash
+            """;
+
+    static final String CARD_HASHES_SQL = "SELECT id, content_hash FROM tarot_cards";
+    static final String TRANSLATION_HASHES_SQL = "SELECT card_id, locale, content_hash FROM tarot_card_translations";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TarotDeckStateRepository tarotDeckStateRepository;
+    private final TarotDeckCache tarotDeckCache;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final HttpClient httpClient;
+    private final Duration requestTimeout;
+
+    public TarotSheetImportService(JdbcTemplate jdbcTemplate,
+                                   TarotDeckStateRepository tarotDeckStateRepository,
+                                   TarotDeckCache tarotDeckCache,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${app.import.tarot.batch-size:100}") int batchSize,
+                                   @Value("${app.import.tarot.connect-timeout-ms:10000}") long connectTimeoutMs,
+                                   @Value("${app.import.tarot.request-timeout-ms:30000}") long requestTimeoutMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.tarotDeckStateRepository = tarotDeckStateRepository;
+        this.tarotDeckCache = tarotDeckCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = Math.max(1, batchSize);
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+        this.requestTimeout = Duration.ofMillis(requestTimeoutMs);
+    }
+
+    /**
+     * Import the sheet if it changed since the last run. Only one node writes at a time: the others
+     * (e.g. new pods in a rolling deploy) get LOCKED_ELSEWHERE instead of queueing.
+     * @param source http(s) URL of the published CSV, or a local file path (optionally file: URI)
+     */
+    public ImportResult runImport(String source) {
+        long started = System.nanoTime();
+        TarotDeckState current = tarotDeckStateRepository.findById(TarotDeckState.SINGLETON_ID).orElse(null);
+        boolean sameSource = current != null && source.equals(current.getSourceUrl());
+        ParsedSheet sheet = fetchAndParse(source, sameSource ? current.getSourceEtag() : null,
+                sameSource ? current.getSourceLastModified() : null, started);
+        if (sheet == null) {
+            long elapsed = (System.nanoTime() - started) / 1_000_000;
+            log.info("Tarot import: source not modified since {} (deck version {})", current.getImportedAt(), current.getVersion());
+            return ImportResult.skipped(Outcome.NOT_MODIFIED, current.getVersion(), elapsed);
+        }
+
+        ImportResult result = transactionTemplate.execute(status -> write(source, sheet, started));
+        if (result.outcome() == Outcome.IMPORTED && (result.cardsUpserted() > 0 || result.translationsUpserted() > 0)) {
+            tarotDeckCache.publish(result.deckVersion());
+        }
+        if (result.outcome() == Outcome.IMPORTED) {
+            log.info("Tarot import timings: fetch={}ms, parse={}ms, cards write={}ms, translations write={}ms, total={}ms",
+                    result.fetchMillis(), result.parseMillis(), result.cardWriteMillis(),
+                    result.translationWriteMillis(), result.totalMillis());
+        }
+        return result;
     }
 
-    @Transactional
-    public ImportResult runImport(String csvUrl) {
-        String csv;
+    /**
+     * Fetch the source and parse every row, with no transaction open
+     * @return the parsed rows, or null if the source has not changed
+     */
+    private ParsedSheet fetchAndParse(String source, String etag, String lastModified, long started) {
+        SourceResponse response;
         try {
-            csv = fetchCsv(csvUrl);
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to fetch CSV from URL", e);
-        }
-        List<CSVRecord> rows = parseCsv(csv);
-        int dataRowCount = Math.max(0, rows.size() - HEADER_ROWS);
-        log.info("Tarot import: CSV parsed, total rows={}, data rows={}, first data row columns={}",
-                rows.size(), dataRowCount,
-                dataRowCount > 0 ? rows.get(HEADER_ROWS).size() : 0);
-        int cardsUpserted = 0;
-        int translationsUpserted = 0;
-        int rowsSkipped = 0;
-        for (int i = HEADER_ROWS; i < rows.size(); i++) {
-            CSVRecord record = rows.get(i);
-            if (record.size() < MIN_COLUMNS) {
-                log.warn("Tarot import: row {} skipped, column count={} (need >= {})", i + 1, record.size(), MIN_COLUMNS);
-                rowsSkipped++;
-                continue;
-            }
-            Integer cardNumber = parseCardNumber(record.get(0));
-            if (cardNumber == null || cardNumber < 0 || cardNumber > 77) {
-                log.warn("Tarot import: row {} skipped, invalid card_number='{}'", i + 1, record.get(0));
-                rowsSkipped++;
-                continue;
-            }
-            SuitType suit = mapSuit(record.get(1));
-            if (suit == null) {
-                log.warn("Tarot import: row {} skipped, suit not mapped='{}'", i + 1, record.get(1));
-                rowsSkipped++;
-                continue;
-            }
-            String imageUrl = nullOrTrim(record.get(2));
-            int id = cardNumber + 1;
-            TarotCard card = upsertCard(id, cardNumber, suit, imageUrl);
-            cardsUpserted++;
-            if (cardsUpserted == 1 || cardsUpserted % 20 == 0) {
-                log.info("Tarot import progress: card {}/{} (id={}, {})", cardsUpserted, dataRowCount, id, record.get(4));
+            response = openSource(source, etag, lastModified);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to fetch tarot CSV", e);
+        }
+        if (response == null) {
+            return null;
+        }
+        try (InputStream in = response.body()) {
+            BufferedInputStream buffered = new BufferedInputStream(in, SNIFF_BYTES);
+            char delimiter = sniffDelimiter(buffered);
+            long fetchNanos = System.nanoTime() - started;
+
+            try (Reader reader = new InputStreamReader(buffered, StandardCharsets.UTF_8);
+                 CSVParser parser = CSVFormat.DEFAULT.builder()
+                         .setDelimiter(delimiter)
+                         .setSkipHeaderRecord(false)
+                         .setIgnoreEmptyLines(false)
+                         .build()
+                         .parse(reader)) {
+                long parseStarted = System.nanoTime();
+                List<SheetRow> rows = new ArrayList<>();
+                int rowsSkipped = 0;
+                for (CSVRecord record : parser) {
+                    long rowNumber = record.getRecordNumber();
+                    if (rowNumber <= HEADER_ROWS) {
+                        continue;
+                    }
+                    SheetRow row = parseRow(rowNumber, record);
+                    if (row == null) {
+                        rowsSkipped++;
+                    } else {
+                        rows.add(row);
+                    }
+                }
+                return new ParsedSheet(rows, rowsSkipped, response.etag(), response.lastModified(),
+                        fetchNanos, System.nanoTime() - parseStarted);
             }
-            for (int locIdx = 0; locIdx < LOCALES.length; locIdx++) {
-                int base = 3 + locIdx * 3;
-                String name = nullOrTrim(record.get(base + 1));
-                if (name == null || name.isEmpty()) continue;
-                String description = nullOrTrim(record.get(base + 2));
-                upsertTranslation(card, LOCALES[locIdx], name, description);
-                translationsUpserted++;
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read tarot CSV", e);
+        }
+    }
+
+    /**
+     * Take the import lock, compare the parsed rows with the stored hashes and write what changed
+     */
+    private ImportResult write(String source, ParsedSheet sheet, long started) {
+        tarotDeckStateRepository.insertIfAbsent();
+        if (!tarotDeckStateRepository.tryAdvisoryXactLock(IMPORT_LOCK_KEY)) {
+            log.info("Tarot import: another node is importing, skipping");
+            return ImportResult.skipped(Outcome.LOCKED_ELSEWHERE, -1, (System.nanoTime() - started) / 1_000_000);
+        }
+        TarotDeckState state = tarotDeckStateRepository.findForUpdate()
+                .orElseThrow(() -> new IllegalStateException("tarot_deck_state row missing"));
+
+        ImportBatch batch = new ImportBatch(loadCardHashes(), loadTranslationHashes());
+        batch.rowsSkipped = sheet.rowsSkipped();
+        batch.fetchNanos = sheet.fetchNanos();
+        batch.parseNanos = sheet.parseNanos();
+        for (SheetRow row : sheet.rows()) {
+            batch.add(row);
+            if (batch.rowsPending >= batchSize) {
+                flush(batch);
             }
         }
-        return new ImportResult(cardsUpserted, translationsUpserted, rowsSkipped);
+        flush(batch);
+
+        boolean changed = batch.cardsUpserted > 0 || batch.translationsUpserted > 0;
+        long version = changed ? state.getVersion() + 1 : state.getVersion();
+        state.setVersion(version);
+        state.setSourceUrl(source);
+        state.setSourceEtag(sheet.etag());
+        state.setSourceLastModified(sheet.lastModified());
+        state.setImportedAt(LocalDateTime.now());
+        tarotDeckStateRepository.save(state);
+        return batch.result(version, System.nanoTime() - started);
     }
 
-    private String fetchCsv(String csvUrl) throws Exception {
-        HttpClient client = HttpClient.newBuilder()
-                .followRedirects(HttpClient.Redirect.NORMAL)
-                .build();
-        HttpRequest request = HttpRequest.newBuilder()
+    private Map<Integer, String> loadCardHashes() {
+        Map<Integer, String> hashes = new HashMap<>();
+        jdbcTemplate.query(CARD_HASHES_SQL, (RowCallbackHandler) rs -> hashes.put(rs.getInt(1), rs.getString(2)));
+        return hashes;
+    }
+
+    private Map<String, String> loadTranslationHashes() {
+        Map<String, String> hashes = new HashMap<>();
+        jdbcTemplate.query(TRANSLATION_HASHES_SQL,
+                (RowCallbackHandler) rs -> hashes.put(rs.getInt(1) + ":" + rs.getString(2), rs.getString(3)));
+        return hashes;
+    }
+
+    private void flush(ImportBatch batch) {
+        batch.rowsPending = 0;
+        if (batch.cards.isEmpty() && batch.translations.isEmpty()) {
+            return;
+        }
+        TarotImportBatchEvent event = new TarotImportBatchEvent();
+        event.begin();
+        // Cards first: translations reference them through the card_id foreign key
+        long t0 = System.nanoTime();
+        List<CardRow> cards = new ArrayList<>(batch.cards.values());
+        if (!cards.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPSERT_CARD_SQL, cards, cards.size(), (ps, card) -> {
+                ps.setInt(1, card.id());
+                ps.setInt(2, card.cardNumber());
+                ps.setString(3, card.suit().name());
+                ps.setString(4, card.imageUrl());
+                ps.setString(5, card.contentHash());
+            });
+        }
+        long t1 = System.nanoTime();
+        List<TranslationRow> translations = new ArrayList<>(batch.translations.values());
+        if (!translations.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPSERT_TRANSLATION_SQL, translations, translations.size(), (ps, translation) -> {
+                ps.setInt(1, translation.cardId());
+                ps.setString(2, translation.locale());
+                ps.setString(3, translation.name());
+                ps.setString(4, translation.description());
+                ps.setString(5, translation.contentHash());
+            });
+        }
+        long t2 = System.nanoTime();
+        event.end();
+        if (event.shouldCommit()) {
+            event.cards = cards.size();
+            event.translations = translations.size();
+            event.commit();
+        }
+        batch.cardWriteNanos += t1 - t0;
+        batch.translationWriteNanos += t2 - t1;
+        batch.cardsUpserted += cards.size();
+        batch.translationsUpserted += translations.size();
+        log.info("Tarot import progress: {} cards, {} translations written", batch.cardsUpserted, batch.translationsUpserted);
+        batch.cards.clear();
+        batch.translations.clear();
+    }
+
+    /**
+     * Open the source, sending the stored validators so an unchanged sheet costs a 304 and no parsing.
+     * Local files use their modification time as Last-Modified.
+     * @return the body and its validators, or null if the source has not changed
+     */
+    private SourceResponse openSource(String source, String etag, String lastModified) throws IOException {
+        if (source.startsWith("http://") || source.startsWith("https://")) {
+            return openHttp(source, etag, lastModified);
+        }
+        Path path = source.startsWith("file:") ? Path.of(URI.create(source)) : Path.of(source);
+        String modified = HTTP_DATE.format(Files.getLastModifiedTime(path).toInstant());
+        if (modified.equals(lastModified)) {
+            return null;
+        }
+        return new SourceResponse(Files.newInputStream(path), null, modified);
+    }
+
+    private SourceResponse openHttp(String csvUrl, String etag, String lastModified) throws IOException {
+        HttpRequest.Builder request = HttpRequest.newBuilder()
                 .uri(URI.create(csvUrl))
+                .timeout(requestTimeout)
                 .header("User-Agent", "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/120.0.0.0 Safari/537.36")
                 .header("Accept", "text/csv,text/plain,*/*")
-                .GET()
-                .build();
-        HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
-        String body = new String(response.body(), StandardCharsets.UTF_8);
+                .GET();
+        if (etag != null) {
+            request.header("If-None-Match", etag);
+        }
+        if (lastModified != null) {
+            request.header("If-Modified-Since", lastModified);
+        }
+        HttpResponse<InputStream> response;
+        try {
+            response = httpClient.send(request.build(), HttpResponse.BodyHandlers.ofInputStream());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while fetching CSV", e);
+        }
+        if (response.statusCode() == 304) {
+            response.body().close();
+            return null;
+        }
         if (response.statusCode() != 200) {
+            response.body().close();
             throw new RuntimeException("CSV fetch failed: HTTP " + response.statusCode());
         }
-        if (body.trim().startsWith("<!") || body.trim().startsWith("<html")) {
-            log.warn("Tarot import: response looks like HTML, not CSV. Check URL and access (Publish to web).");
-            throw new RuntimeException("Server returned HTML instead of CSV - check URL and Publish to web settings");
-        }
-        return body;
+        return new SourceResponse(response.body(),
+                response.headers().firstValue("ETag").orElse(null),
+                response.headers().firstValue("Last-Modified").orElse(null));
     }
 
-    private List<CSVRecord> parseCsv(String csv) {
-        List<CSVRecord> rows = parseCsvWithDelimiter(csv, ',');
-        if (rows.size() > HEADER_ROWS && rows.get(HEADER_ROWS).size() == 1) {
-            log.info("Tarot import: comma delimiter gave 1 column, retrying with semicolon (Google Sheets locale)");
-            rows = parseCsvWithDelimiter(csv, ';');
+    /**
+     * Peek at the start of the stream without consuming it: reject HTML (sheet not published) and pick the
+     * delimiter from the header line, since Google Sheets exports with ';' in some locales.
+     */
+    static char sniffDelimiter(BufferedInputStream in) throws IOException {
+        in.mark(SNIFF_BYTES);
+        byte[] head = in.readNBytes(SNIFF_BYTES);
+        in.reset();
+        String text = new String(head, StandardCharsets.UTF_8).stripLeading();
+        if (text.startsWith("<!") || text.startsWith("<html")) {
+            log.warn("Tarot import: response looks like HTML, not CSV. Check URL and access (Publish to web).");
+            throw new RuntimeException("Server returned HTML instead of CSV - check URL and Publish to web settings");
         }
-        return rows;
-    }
-
-    private List<CSVRecord> parseCsvWithDelimiter(String csv, char delimiter) {
-        try (StringReader reader = new StringReader(csv);
-             CSVParser parser = new CSVParser(reader, CSVFormat.DEFAULT.builder()
-                     .setDelimiter(delimiter)
-                     .setSkipHeaderRecord(false)
-                     .setIgnoreEmptyLines(false)
-                     .build())) {
-            return parser.getRecords();
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to parse CSV", e);
+        int lineEnd = text.indexOf('\n');
+        String firstLine = lineEnd >= 0 ? text.substring(0, lineEnd) : text;
+        long commas = firstLine.chars().filter(c -> c == ',').count();
+        long semicolons = firstLine.chars().filter(c -> c == ';').count();
+        if (semicolons > commas) {
+            log.info("Tarot import: header uses ';' as delimiter (Google Sheets locale)");
+            return ';';
         }
+        return ',';
     }
 
-    private Integer parseCardNumber(String value) {
+    private static Integer parseCardNumber(String value) {
         if (value == null || value.isBlank()) return null;
         try {
             return Integer.parseInt(value.trim());
@@ -162,42 +387,139 @@ public class TarotSheetImportService {
         return s.trim();
     }
 
-    private TarotCard upsertCard(int id, int cardNumber, SuitType suit, String imageUrl) {
-        Optional<TarotCard> existing = tarotCardRepository.findById(id);
-        TarotCard card;
-        if (existing.isPresent()) {
-            card = existing.get();
-            card.setCardNumber(cardNumber);
-            card.setSuit(suit);
-            card.setImageUrl(imageUrl);
-        } else {
-            card = TarotCard.builder()
-                    .id(id)
-                    .cardNumber(cardNumber)
-                    .suit(suit)
-                    .imageUrl(imageUrl)
-                    .build();
-        }
-        return tarotCardRepository.save(card);
-    }
-
-    private void upsertTranslation(TarotCard card, String locale, String name, String description) {
-        Optional<TarotCardTranslation> existing = tarotCardTranslationRepository.findByTarotCard_IdAndLocale(card.getId(), locale);
-        TarotCardTranslation trans;
-        if (existing.isPresent()) {
-            trans = existing.get();
-            trans.setName(name);
-            trans.setDescription(description);
-        } else {
-            trans = TarotCardTranslation.builder()
-                    .tarotCard(card)
-                    .locale(locale)
-                    .name(name)
-                    .description(description)
-                    .build();
-        }
-        tarotCardTranslationRepository.save(trans);
-    }
-
-    public record ImportResult(int cardsUpserted, int translationsUpserted, int rowsSkipped) {}
+    static String contentHash(Object... fields) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (Object field : fields) {
+                digest.update(String.valueOf(field).getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0x1f);
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private record SourceResponse(InputStream body, String etag, String lastModified) {}
+
+    private record CardRow(int id, int cardNumber, SuitType suit, String imageUrl, String contentHash) {}
+
+    private record TranslationRow(int cardId, String locale, String name, String description, String contentHash) {}
+
+    private record SheetRow(CardRow card, List<TranslationRow> translations) {}
+
+    private record ParsedSheet(List<SheetRow> rows, int rowsSkipped, String etag, String lastModified,
+                               long fetchNanos, long parseNanos) {}
+
+    /**
+     * @return the card and its translations, or null if the row is invalid
+     */
+    private static SheetRow parseRow(long rowNumber, CSVRecord record) {
+        if (record.size() < MIN_COLUMNS) {
+            log.warn("Tarot import: row {} skipped, column count={} (need >= {})", rowNumber, record.size(), MIN_COLUMNS);
+            return null;
+        }
+        Integer cardNumber = parseCardNumber(record.get(0));
+        if (cardNumber == null || cardNumber < 0 || cardNumber > 77) {
+            log.warn("Tarot import: row {} skipped, invalid card_number='{}'", rowNumber, record.get(0));
+            return null;
+        }
+        SuitType suit = mapSuit(record.get(1));
+        if (suit == null) {
+            log.warn("Tarot import: row {} skipped, suit not mapped='{}'", rowNumber, record.get(1));
+            return null;
+        }
+        int id = cardNumber + 1;
+        String imageUrl = nullOrTrim(record.get(2));
+        CardRow card = new CardRow(id, cardNumber, suit, imageUrl, contentHash(cardNumber, suit, imageUrl));
+        List<TranslationRow> translations = new ArrayList<>(LOCALES.length);
+        for (int locIdx = 0; locIdx < LOCALES.length; locIdx++) {
+            int base = 3 + locIdx * 3;
+            String name = nullOrTrim(record.get(base + 1));
+            if (name == null) continue;
+            String description = nullOrTrim(record.get(base + 2));
+            translations.add(new TranslationRow(id, LOCALES[locIdx], name, description, contentHash(name, description)));
+        }
+        return new SheetRow(card, translations);
+    }
+
+    /**
+     * Rows waiting to be flushed plus running totals. Rows are keyed by their conflict target so a card
+     * repeated within one batch is written once (last row wins, as with the previous save-per-row import).
+     * Rows whose hash matches the stored one are counted as unchanged and never sent.
+     */
+    private static final class ImportBatch {
+        private final Map<Integer, String> cardHashes;
+        private final Map<String, String> translationHashes;
+        private final Map<Integer, CardRow> cards = new LinkedHashMap<>();
+        private final Map<String, TranslationRow> translations = new LinkedHashMap<>();
+        private int rowsPending;
+        private int cardsUpserted;
+        private int cardsUnchanged;
+        private int translationsUpserted;
+        private int translationsUnchanged;
+        private int rowsSkipped;
+        private long fetchNanos;
+        private long parseNanos;
+        private long cardWriteNanos;
+        private long translationWriteNanos;
+
+        ImportBatch(Map<Integer, String> cardHashes, Map<String, String> translationHashes) {
+            this.cardHashes = cardHashes;
+            this.translationHashes = translationHashes;
+        }
+
+        void add(SheetRow row) {
+            rowsPending++;
+            CardRow card = row.card();
+            if (card.contentHash().equals(cardHashes.get(card.id()))) {
+                cardsUnchanged++;
+            } else {
+                cards.put(card.id(), card);
+                cardHashes.put(card.id(), card.contentHash());
+            }
+            for (TranslationRow translation : row.translations()) {
+                String key = translation.cardId() + ":" + translation.locale();
+                if (translation.contentHash().equals(translationHashes.get(key))) {
+                    translationsUnchanged++;
+                } else {
+                    translations.put(key, translation);
+                    translationHashes.put(key, translation.contentHash());
+                }
+            }
+        }
+
+        ImportResult result(long deckVersion, long totalNanos) {
+            return new ImportResult(Outcome.IMPORTED, deckVersion, cardsUpserted, cardsUnchanged, translationsUpserted,
+                    translationsUnchanged, rowsSkipped, millis(fetchNanos), millis(parseNanos),
+                    millis(cardWriteNanos), millis(translationWriteNanos), millis(totalNanos));
+        }
+
+        private static long millis(long nanos) {
+            return nanos / 1_000_000;
+        }
+    }
+
+    public enum Outcome {
+        /** The sheet was parsed; counts say what changed */
+        IMPORTED,
+        /** The source answered 304 (or the file is unchanged); nothing was parsed */
+        NOT_MODIFIED,
+        /** Another node holds the import lock */
+        LOCKED_ELSEWHERE
+    }
+
+    /**
+     * Outcome of one import run. deckVersion is -1 when the import was LOCKED_ELSEWHERE.
+     */
+    public record ImportResult(Outcome outcome, long deckVersion,
+                               int cardsUpserted, int cardsUnchanged,
+                               int translationsUpserted, int translationsUnchanged, int rowsSkipped,
+                               long fetchMillis, long parseMillis, long cardWriteMillis,
+                               long translationWriteMillis, long totalMillis) {
+
+        static ImportResult skipped(Outcome outcome, long deckVersion, long totalMillis) {
+            return new ImportResult(outcome, deckVersion, 0, 0, 0, 0, 0, totalMillis, 0, 0, 0, totalMillis);
+        }
+    }
 }
@@ -0,0 +1,47 @@
+package com.mystictarot.backend.service.capture;
+
+import com.mystictarot.backend.dto.request.CreateOrderRequestDTO;
+import com.mystictarot.backend.dto.request.FollowUpRequestDTO;
+import com.mystictarot.backend.dto.request.InterpretRequestDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.mvc.method.annotation.RequestBodyAdviceAdapter;
+
+import java.lang.reflect.Type;
+import java.util.Set;
+
+/**
+ * Takes the captured shape (spread, card count, lengths, locale) from request bodies that MVC has already
+ * parsed, so traffic capture never reads or parses a body itself. Only active while capture is enabled.
+ */
+@ControllerAdvice
+@RequiredArgsConstructor
+public class TrafficCaptureBodyAdvice extends RequestBodyAdviceAdapter {
+
+    private static final Set<Type> CAPTURED_BODIES = Set.of(
+            InterpretRequestDTO.class, FollowUpRequestDTO.class, CreateOrderRequestDTO.class);
+
+    private final TrafficCaptureService trafficCaptureService;
+
+    @Override
+    public boolean supports(MethodParameter methodParameter, Type targetType,
+                            Class<? extends HttpMessageConverter<?>> converterType) {
+        return trafficCaptureService.isEnabled() && CAPTURED_BODIES.contains(targetType);
+    }
+
+    @Override
+    public Object afterBodyRead(Object body, HttpInputMessage inputMessage, MethodParameter parameter, Type targetType,
+                                Class<? extends HttpMessageConverter<?>> converterType) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null) {
+            attributes.setAttribute(TrafficCaptureService.SHAPE_ATTRIBUTE, trafficCaptureService.describe(body),
+                    RequestAttributes.SCOPE_REQUEST);
+        }
+        return body;
+    }
+}
@@ -0,0 +1,26 @@
+package com.mystictarot.backend.service.capture;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * One captured request, written as a JSON line. Holds the shape of the request only: no ids, tokens, IP
+ * addresses or free text. Shape fields are null for endpoints that do not have them.
+ *
+ * @param offsetMs       arrival time since the first captured request
+ * @param gapMs          time since the previous arrival
+ * @param client         pseudonymous caller, stable within one capture and not linkable to a user; null if anonymous
+ * @param endpoint       matched route pattern relative to the context path, e.g. /history/{id}; UNKNOWN if none matched
+ * @param questionLength characters in the interpret question or follow-up message
+ * @param locale         normalized language (vi, en)
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record TrafficCaptureRecord(long offsetMs, long gapMs, String client, String method, String endpoint,
+                                   int status, long durationMs, String spreadType, Integer cardCount,
+                                   Integer questionLength, String locale) {
+
+    /**
+     * Body-derived part of a record, attached to the request by {@link TrafficCaptureBodyAdvice}
+     */
+    public record Shape(String spreadType, Integer cardCount, Integer questionLength, String locale) {
+    }
+}
@@ -0,0 +1,173 @@
+package com.mystictarot.backend.service.capture;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mystictarot.backend.dto.request.CreateOrderRequestDTO;
+import com.mystictarot.backend.dto.request.FollowUpRequestDTO;
+import com.mystictarot.backend.dto.request.InterpretRequestDTO;
+import com.mystictarot.backend.service.capture.TrafficCaptureRecord.Shape;
+import com.mystictarot.backend.service.payment.signing.HmacSha256Signer;
+import com.mystictarot.backend.util.LocaleUtil;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Opt-in capture of production request shapes for load replay (app.traffic-capture.enabled, off by default).
+ * Records are queued by the request thread and appended to app.traffic-capture.file as JSON lines by a
+ * scheduled flush, so a request never waits on disk. When the queue is full, records are dropped and counted
+ * in {@value #DROPPED_METRIC}; capture stops after app.traffic-capture.max-records.
+ * <p>
+ * Callers are identified by an HMAC of the user id under a key generated at startup and never stored, so
+ * requests of one caller can be grouped within a capture but not traced back to the user.
+ */
+@Slf4j
+@Component
+public class TrafficCaptureService {
+
+    public static final String SHAPE_ATTRIBUTE = TrafficCaptureService.class.getName() + ".shape";
+    static final String DROPPED_METRIC = "traffic.capture.dropped";
+
+    private static final long NOT_STARTED = Long.MIN_VALUE;
+    private static final int CLIENT_ID_LENGTH = 16;
+
+    private final boolean enabled;
+    private final Path file;
+    private final long maxRecords;
+    private final ObjectMapper objectMapper;
+    private final LocaleUtil localeUtil;
+    private final Counter dropped;
+    private final BlockingQueue<TrafficCaptureRecord> queue;
+    private final HmacSha256Signer clientSigner;
+    private final AtomicLong firstArrivalNanos = new AtomicLong(NOT_STARTED);
+    private final AtomicLong lastArrivalNanos = new AtomicLong(NOT_STARTED);
+    private final AtomicLong accepted = new AtomicLong();
+
+    public TrafficCaptureService(
+            @Value("${app.traffic-capture.enabled:false}") boolean enabled,
+            @Value("${app.traffic-capture.file:traffic-capture.jsonl}") String file,
+            @Value("${app.traffic-capture.max-records:200000}") long maxRecords,
+            @Value("${app.traffic-capture.queue-capacity:10000}") int queueCapacity,
+            ObjectMapper objectMapper,
+            LocaleUtil localeUtil,
+            MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.file = Path.of(file);
+        this.maxRecords = maxRecords;
+        this.objectMapper = objectMapper;
+        this.localeUtil = localeUtil;
+        this.dropped = meterRegistry.counter(DROPPED_METRIC);
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+        byte[] key = new byte[32];
+        new SecureRandom().nextBytes(key);
+        this.clientSigner = HmacSha256Signer.forKey(HexFormat.of().formatHex(key));
+        if (enabled) {
+            log.info("Traffic capture enabled, writing up to {} records to {}", maxRecords, this.file.toAbsolutePath());
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Note the arrival of a request
+     */
+    public Arrival arrive() {
+        long now = System.nanoTime();
+        firstArrivalNanos.compareAndSet(NOT_STARTED, now);
+        long previous = lastArrivalNanos.getAndSet(now);
+        long gapNanos = previous == NOT_STARTED ? 0 : Math.max(0, now - previous);
+        return new Arrival(TimeUnit.NANOSECONDS.toMillis(now - firstArrivalNanos.get()),
+                TimeUnit.NANOSECONDS.toMillis(gapNanos));
+    }
+
+    /**
+     * Shape of a request body; null for bodies that are not captured
+     */
+    public Shape describe(Object body) {
+        if (body instanceof InterpretRequestDTO interpret) {
+            return new Shape(
+                    interpret.getSpreadType() != null ? interpret.getSpreadType().name() : null,
+                    interpret.getCards() != null ? interpret.getCards().size() : null,
+                    interpret.getQuestion() != null ? interpret.getQuestion().length() : null,
+                    localeUtil.normalize(interpret.getLang()));
+        }
+        if (body instanceof FollowUpRequestDTO followUp) {
+            return new Shape(null, null, followUp.getMessage() != null ? followUp.getMessage().length() : null, null);
+        }
+        if (body instanceof CreateOrderRequestDTO order) {
+            return new Shape(null, null, null, localeUtil.normalize(order.getLang()));
+        }
+        return null;
+    }
+
+    /**
+     * Pseudonymous id for a user, stable for the lifetime of this process
+     */
+    public String clientId(String userId) {
+        return clientSigner.signHex(userId).substring(0, CLIENT_ID_LENGTH);
+    }
+
+    public void record(TrafficCaptureRecord record) {
+        if (accepted.get() >= maxRecords) {
+            return;
+        }
+        if (!queue.offer(record)) {
+            dropped.increment();
+            return;
+        }
+        if (accepted.incrementAndGet() == maxRecords) {
+            log.info("Traffic capture reached {} records; later requests are not captured", maxRecords);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.traffic-capture.flush-interval-ms:1000}")
+    public void flush() {
+        if (queue.isEmpty()) {
+            return;
+        }
+        List<TrafficCaptureRecord> batch = new ArrayList<>(queue.size());
+        queue.drainTo(batch);
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            for (TrafficCaptureRecord record : batch) {
+                writer.write(objectMapper.writeValueAsString(record));
+                writer.newLine();
+            }
+        } catch (IOException e) {
+            dropped.increment(batch.size());
+            log.warn("Could not write {} traffic capture records to {}: {}", batch.size(), file, e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        flush();
+    }
+
+    /**
+     * @param offsetMs time since the first captured request
+     * @param gapMs    time since the previous arrival
+     */
+    public record Arrival(long offsetMs, long gapMs) {
+    }
+}
@@ -0,0 +1,188 @@
+package com.mystictarot.backend.service.deck;
+
+import com.mystictarot.backend.dto.response.TarotCardResponseDTO;
+import com.mystictarot.backend.entity.TarotCard;
+import com.mystictarot.backend.entity.TarotCardTranslation;
+import com.mystictarot.backend.repository.TarotCardTranslationRepository;
+import com.mystictarot.backend.repository.TarotDeckStateRepository;
+import com.mystictarot.backend.util.LocaleUtil;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory copy of the localized deck served by GET /tarot/cards. Each node holds an immutable snapshot
+ * tagged with the deck version from tarot_deck_state and swaps it in one reference write, so readers see
+ * either the old deck or the new one, never a mix. An import that changes the deck publishes the new
+ * version on a pub/sub channel; a periodic version check covers nodes that missed the message.
+ * Lookups are counted in cache.gets (cache=tarot_deck, result=hit|miss).
+ */
+@Slf4j
+@Service
+public class TarotDeckCache implements MessageListener {
+
+    static final String CHANNEL = "tarot:deck-version";
+    static final String CACHE_METRIC = "cache.gets";
+
+    private final TarotCardTranslationRepository tarotCardTranslationRepository;
+    private final TarotDeckStateRepository tarotDeckStateRepository;
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final LocaleUtil localeUtil;
+    private final Counter cacheHits;
+    private final Counter cacheMisses;
+
+    private final ReentrantLock reloadLock = new ReentrantLock();
+    private volatile DeckSnapshot snapshot;
+
+    record DeckSnapshot(long version, Map<String, List<TarotCardResponseDTO>> byLocale) {
+    }
+
+    public TarotDeckCache(TarotCardTranslationRepository tarotCardTranslationRepository,
+                          TarotDeckStateRepository tarotDeckStateRepository,
+                          StringRedisTemplate redisTemplate,
+                          RedisMessageListenerContainer listenerContainer,
+                          LocaleUtil localeUtil,
+                          MeterRegistry meterRegistry) {
+        this.tarotCardTranslationRepository = tarotCardTranslationRepository;
+        this.tarotDeckStateRepository = tarotDeckStateRepository;
+        this.redisTemplate = redisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.localeUtil = localeUtil;
+        this.cacheHits = meterRegistry.counter(CACHE_METRIC, "cache", "tarot_deck", "result", "hit");
+        this.cacheMisses = meterRegistry.counter(CACHE_METRIC, "cache", "tarot_deck", "result", "miss");
+    }
+
+    @PostConstruct
+    public void init() {
+        listenerContainer.addMessageListener(this, new ChannelTopic(CHANNEL));
+    }
+
+    /**
+     * Deck for a resolved locale; cards without a translation in that locale fall back to the default locale
+     * @param locale locale already resolved by LocaleUtil
+     * @return cards ordered by id
+     */
+    public List<TarotCardResponseDTO> getDeck(String locale) {
+        DeckSnapshot current = snapshot;
+        if (current == null) {
+            cacheMisses.increment();
+            current = reload(-1);
+        } else {
+            cacheHits.increment();
+        }
+        List<TarotCardResponseDTO> deck = current.byLocale().get(locale);
+        return deck != null ? deck : current.byLocale().getOrDefault(localeUtil.getDefaultLocale(), List.of());
+    }
+
+    public long currentVersion() {
+        DeckSnapshot current = snapshot;
+        return current != null ? current.version() : -1;
+    }
+
+    /**
+     * Reload this node and tell the others to do the same. Called after the import transaction commits.
+     * @param version deck version written by the import
+     */
+    public void publish(long version) {
+        reload(version);
+        try {
+            redisTemplate.convertAndSend(CHANNEL, Long.toString(version));
+        } catch (DataAccessException e) {
+            log.warn("Could not publish deck version {}, other nodes will pick it up on their next check: {}",
+                    version, e.getMessage());
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        try {
+            reload(Long.parseLong(body));
+        } catch (NumberFormatException e) {
+            log.warn("Ignoring malformed deck version message: {}", body);
+        }
+    }
+
+    /**
+     * Safety net for lost pub/sub messages (Redis restart, node reconnecting)
+     */
+    @Scheduled(fixedDelayString = "${app.import.tarot.version-check-interval-ms:60000}")
+    public void checkVersion() {
+        if (snapshot == null) {
+            return;
+        }
+        tarotDeckStateRepository.findCurrentVersion()
+                .filter(version -> version != currentVersion())
+                .ifPresent(version -> reload(Long.MAX_VALUE));
+    }
+
+    /**
+     * Load a new snapshot unless one at least as new as minVersion is already in place
+     * (-1 accepts any loaded snapshot, Long.MAX_VALUE always reloads)
+     */
+    DeckSnapshot reload(long minVersion) {
+        reloadLock.lock();
+        try {
+            DeckSnapshot current = snapshot;
+            if (current != null && current.version() >= minVersion) {
+                return current;
+            }
+            // Version first: if an import commits in between, the snapshot is labelled older than its
+            // content and gets reloaded once more on the next notification, rather than the reverse.
+            long version = tarotDeckStateRepository.findCurrentVersion().orElse(0L);
+            DeckSnapshot loaded = new DeckSnapshot(version, buildDecks(tarotCardTranslationRepository.findAllWithCard()));
+            snapshot = loaded;
+            log.info("Tarot deck cache loaded version {} ({} locales)", version, loaded.byLocale().size());
+            return loaded;
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    private Map<String, List<TarotCardResponseDTO>> buildDecks(List<TarotCardTranslation> translations) {
+        Map<String, Map<Integer, TarotCardResponseDTO>> byLocale = new HashMap<>();
+        for (TarotCardTranslation t : translations) {
+            byLocale.computeIfAbsent(t.getLocale(), l -> new HashMap<>()).put(t.getTarotCard().getId(), toDto(t));
+        }
+        Map<Integer, TarotCardResponseDTO> fallback = byLocale.getOrDefault(localeUtil.getDefaultLocale(), Map.of());
+        Map<String, List<TarotCardResponseDTO>> decks = new HashMap<>();
+        for (Map.Entry<String, Map<Integer, TarotCardResponseDTO>> entry : byLocale.entrySet()) {
+            Map<Integer, TarotCardResponseDTO> cards = new HashMap<>(fallback);
+            cards.putAll(entry.getValue());
+            List<TarotCardResponseDTO> deck = new ArrayList<>(cards.values());
+            deck.sort(Comparator.comparing(TarotCardResponseDTO::getId));
+            decks.put(entry.getKey(), List.copyOf(deck));
+        }
+        return Map.copyOf(decks);
+    }
+
+    private static TarotCardResponseDTO toDto(TarotCardTranslation t) {
+        TarotCard card = t.getTarotCard();
+        return TarotCardResponseDTO.builder()
+                .id(card.getId())
+                .cardNumber(card.getCardNumber())
+                .suit(card.getSuit())
+                .name(t.getName())
+                .description(t.getDescription())
+                .imageUrl(card.getImageUrl())
+                .build();
+    }
+}
@@ -0,0 +1,52 @@
+package com.mystictarot.backend.service.deck;
+
+import com.mystictarot.backend.repository.TarotCardRepository;
+import com.mystictarot.backend.repository.TarotCardTranslationRepository;
+import com.mystictarot.backend.util.LocaleUtil;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.health.contributor.Health;
+import org.springframework.boot.health.contributor.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Readiness check: the node only takes traffic once the database holds a full deck with a
+ * default-locale translation for every card. The deck import runs in the background after startup,
+ * so on a fresh database this stays OUT_OF_SERVICE until that import (on any node) has committed.
+ * Once the deck is valid the result is remembered and no longer queried.
+ */
+@Component
+@RequiredArgsConstructor
+public class TarotDeckHealthIndicator implements HealthIndicator {
+
+    public static final int DECK_SIZE = 78;
+
+    private final TarotCardRepository tarotCardRepository;
+    private final TarotCardTranslationRepository tarotCardTranslationRepository;
+    private final LocaleUtil localeUtil;
+
+    private volatile boolean deckValid;
+
+    @Override
+    public Health health() {
+        if (deckValid) {
+            return Health.up().withDetail("cards", DECK_SIZE).build();
+        }
+        long cards = tarotCardRepository.count();
+        long translations = tarotCardTranslationRepository.countByLocale(localeUtil.getDefaultLocale());
+        if (cards >= DECK_SIZE && translations >= DECK_SIZE) {
+            deckValid = true;
+            return Health.up().withDetail("cards", cards).build();
+        }
+        return Health.outOfService()
+                .withDetail("cards", cards)
+                .withDetail("defaultLocaleTranslations", translations)
+                .build();
+    }
+
+    public boolean isDeckValid() {
+        if (!deckValid) {
+            health();
+        }
+        return deckValid;
+    }
+}
@@ -0,0 +1,70 @@
+package com.mystictarot.backend.service.deck;
+
+import com.mystictarot.backend.service.TarotSheetImportService;
+import com.mystictarot.backend.service.TarotSheetImportService.ImportResult;
+import com.mystictarot.backend.util.RedisScripts;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Re-imports the tarot sheet on a schedule. Unchanged sheets cost one conditional GET; a Redis lock keeps
+ * the poll on one node (the import itself is also serialized in the database). The lock is released with a
+ * compare-and-delete, so a run that outlived its TTL cannot drop the lock another node has taken since. Disabled unless
+ * app.import.tarot.refresh-enabled is true, checked per run so AOT-built images can still toggle it.
+ */
+@Slf4j
+@Component
+public class TarotDeckImportWorker {
+
+    static final String LOCK_KEY = "tarot:import:lock";
+
+    private final TarotSheetImportService tarotSheetImportService;
+    private final StringRedisTemplate redisTemplate;
+    private final String csvUrl;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    @Value("${app.import.tarot.refresh-enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.import.tarot.lock-ttl-ms:300000}")
+    private long lockTtlMs;
+
+    public TarotDeckImportWorker(TarotSheetImportService tarotSheetImportService,
+                                 StringRedisTemplate redisTemplate,
+                                 @Value("${app.import.tarot.csv-url}") String csvUrl) {
+        this.tarotSheetImportService = tarotSheetImportService;
+        this.redisTemplate = redisTemplate;
+        this.csvUrl = csvUrl;
+    }
+
+    @Scheduled(fixedDelayString = "${app.import.tarot.refresh-interval-ms:900000}",
+            initialDelayString = "${app.import.tarot.refresh-initial-delay-ms:120000}")
+    public void refresh() {
+        if (!enabled) {
+            return;
+        }
+        Boolean acquired = redisTemplate.opsForValue().setIfAbsent(LOCK_KEY, nodeId, Duration.ofMillis(lockTtlMs));
+        if (!Boolean.TRUE.equals(acquired)) {
+            return;
+        }
+        try {
+            ImportResult result = tarotSheetImportService.runImport(csvUrl);
+            if (result.outcome() == TarotSheetImportService.Outcome.IMPORTED
+                    && (result.cardsUpserted() > 0 || result.translationsUpserted() > 0)) {
+                log.info("Tarot deck refreshed to version {}: {} cards, {} translations changed",
+                        result.deckVersion(), result.cardsUpserted(), result.translationsUpserted());
+            }
+        } catch (RuntimeException e) {
+            log.error("Scheduled tarot import failed", e);
+        } finally {
+            redisTemplate.execute(RedisScripts.COMPARE_AND_DELETE, List.of(LOCK_KEY), nodeId);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.mystictarot.backend.service.expiry;
+
+import com.mystictarot.backend.repository.TransactionRepository;
+import com.mystictarot.backend.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+/**
+ * One chunk of the expiry sweep per call. Each chunk runs in its own short transaction guarded by a
+ * Postgres advisory lock, so only one node sweeps at a time and no lock outlives its connection.
+ */
+@Service
+@RequiredArgsConstructor
+public class ExpirySweepService {
+
+    /** Returned when another node holds the sweep lock */
+    public static final int LOCKED_ELSEWHERE = -1;
+
+    static final long PENDING_ORDERS_LOCK_KEY = 0x4d54_0001L;
+    static final long LAPSED_SUBSCRIPTIONS_LOCK_KEY = 0x4d54_0002L;
+
+    private final TransactionRepository transactionRepository;
+    private final UserRepository userRepository;
+
+    /**
+     * Mark one chunk of PENDING transactions created before the cutoff as EXPIRED
+     * @param cutoff creation time before which an unpaid order is considered expired
+     * @param limit chunk size
+     * @return number of transactions expired, or LOCKED_ELSEWHERE
+     */
+    @Transactional
+    public int expirePendingOrders(LocalDateTime cutoff, int limit) {
+        if (!transactionRepository.tryAdvisoryXactLock(PENDING_ORDERS_LOCK_KEY)) {
+            return LOCKED_ELSEWHERE;
+        }
+        return transactionRepository.expirePendingCreatedBefore(cutoff, limit);
+    }
+
+    /**
+     * Downgrade one chunk of users whose subscription expired before now to FREE
+     * @param now current time
+     * @param limit chunk size
+     * @return number of users downgraded, or LOCKED_ELSEWHERE
+     */
+    @Transactional
+    public int downgradeLapsedSubscriptions(LocalDateTime now, int limit) {
+        if (!transactionRepository.tryAdvisoryXactLock(LAPSED_SUBSCRIPTIONS_LOCK_KEY)) {
+            return LOCKED_ELSEWHERE;
+        }
+        return userRepository.downgradeLapsedSubscriptions(now, limit);
+    }
+}
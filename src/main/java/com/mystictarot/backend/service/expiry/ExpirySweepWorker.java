@@ -0,0 +1,64 @@
+package com.mystictarot.backend.service.expiry;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.function.IntSupplier;
+
+/**
+ * Expires unpaid orders and downgrades lapsed subscriptions in the background.
+ * Runs on every node; the advisory lock in ExpirySweepService lets only one of them do the work.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ExpirySweepWorker {
+
+    private final ExpirySweepService expirySweepService;
+
+    @Value("${payment.order-expiry-minutes:15}")
+    private int orderExpiryMinutes;
+
+    @Value("${payment.expiry-sweeper.grace-minutes:15}")
+    private int graceMinutes;
+
+    @Value("${payment.expiry-sweeper.batch-size:500}")
+    private int batchSize;
+
+    @Value("${payment.expiry-sweeper.max-batches-per-run:100}")
+    private int maxBatchesPerRun;
+
+    @Scheduled(fixedDelayString = "${payment.expiry-sweeper.interval-ms:60000}",
+            initialDelayString = "${payment.expiry-sweeper.initial-delay-ms:30000}")
+    public void sweep() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime cutoff = now.minusMinutes(orderExpiryMinutes + graceMinutes);
+        int expired = drain(() -> expirySweepService.expirePendingOrders(cutoff, batchSize));
+        int downgraded = drain(() -> expirySweepService.downgradeLapsedSubscriptions(now, batchSize));
+        if (expired > 0 || downgraded > 0) {
+            log.info("Expiry sweep: {} pending orders expired, {} subscriptions downgraded", expired, downgraded);
+        }
+    }
+
+    /**
+     * Run chunks until one comes back short, another node holds the lock, or the per-run cap is reached
+     */
+    int drain(IntSupplier chunk) {
+        int total = 0;
+        for (int i = 0; i < maxBatchesPerRun; i++) {
+            int updated = chunk.getAsInt();
+            if (updated == ExpirySweepService.LOCKED_ELSEWHERE) {
+                break;
+            }
+            total += updated;
+            if (updated < batchSize) {
+                break;
+            }
+        }
+        return total;
+    }
+}
@@ -0,0 +1,17 @@
+package com.mystictarot.backend.service.idempotency;
+
+/**
+ * What is stored under an idempotency key: an in-flight marker while the first request runs,
+ * then the response it produced. The in-flight marker carries a random owner token so only the
+ * request that claimed the key can complete or release it.
+ */
+public record IdempotencyEntry(String fingerprint, String owner, boolean completed, int status, String contentType, byte[] body) {
+
+    public static IdempotencyEntry inFlight(String fingerprint, String owner) {
+        return new IdempotencyEntry(fingerprint, owner, false, 0, null, null);
+    }
+
+    public static IdempotencyEntry completed(String fingerprint, int status, String contentType, byte[] body) {
+        return new IdempotencyEntry(fingerprint, null, true, status, contentType, body);
+    }
+}
@@ -0,0 +1,157 @@
+package com.mystictarot.backend.service.idempotency;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Claims idempotency keys for the Idempotency-Key filter. Redis is the primary store; if it is unreachable
+ * the claim falls back to the database. Until every key written there could have expired, a Redis claim is
+ * only granted once the database holds no entry for the key, so keys used during an outage keep working after
+ * Redis is back; outside that window a Redis claim does not touch the database. A duplicate that arrives
+ * while the first request is still running waits for its result instead of executing again.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class IdempotencyService {
+
+    public enum Outcome {
+        /** Caller owns the key and must execute the request, then complete or release */
+        ACQUIRED,
+        /** A stored response exists for the same request; send it back */
+        REPLAY,
+        /** The key was used for a different request */
+        MISMATCH,
+        /** The first request is still running after the wait timeout */
+        IN_PROGRESS
+    }
+
+    public record Claim(Outcome outcome, String key, IdempotencyEntry entry, IdempotencyStore store) {
+    }
+
+    private final RedisIdempotencyStore redisStore;
+    private final JdbcIdempotencyStore jdbcStore;
+
+    @Value("${app.idempotency.in-flight-ttl-ms:120000}")
+    private long inFlightTtlMs;
+
+    @Value("${app.idempotency.response-ttl-hours:24}")
+    private long responseTtlHours;
+
+    @Value("${app.idempotency.wait-timeout-ms:3000}")
+    private long waitTimeoutMs;
+
+    @Value("${app.idempotency.poll-interval-ms:50}")
+    private long pollIntervalMs;
+
+    @Value("${app.idempotency.max-poll-interval-ms:500}")
+    private long maxPollIntervalMs;
+
+    /** Epoch millis until which keys claimed in the database during a Redis outage may still be live */
+    private volatile long databaseKeysLiveUntilMs;
+
+    public Claim claim(String key, String fingerprint) {
+        IdempotencyEntry inFlight = IdempotencyEntry.inFlight(fingerprint, UUID.randomUUID().toString());
+        Duration inFlightTtl = Duration.ofMillis(inFlightTtlMs);
+        IdempotencyStore store = redisStore;
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(waitTimeoutMs);
+        long pause = pollIntervalMs;
+        while (true) {
+            IdempotencyEntry existing;
+            try {
+                if (store.tryBegin(key, inFlight, inFlightTtl)) {
+                    existing = store == redisStore ? claimedDuringOutage(key, inFlight) : null;
+                    if (existing == null) {
+                        return new Claim(Outcome.ACQUIRED, key, inFlight, store);
+                    }
+                    store = jdbcStore;
+                } else {
+                    existing = store.find(key);
+                }
+            } catch (DataAccessException e) {
+                if (store == jdbcStore) {
+                    throw e;
+                }
+                log.warn("Redis unavailable for idempotency keys, falling back to database: {}", e.getMessage());
+                databaseKeysLiveUntilMs = System.currentTimeMillis()
+                        + Math.max(inFlightTtlMs, TimeUnit.HOURS.toMillis(responseTtlHours));
+                store = jdbcStore;
+                continue;
+            }
+            if (existing == null) {
+                // released or expired between the two calls; try to take it
+                continue;
+            }
+            if (!existing.fingerprint().equals(fingerprint)) {
+                return new Claim(Outcome.MISMATCH, key, existing, store);
+            }
+            if (existing.completed()) {
+                return new Claim(Outcome.REPLAY, key, existing, store);
+            }
+            if (System.nanoTime() >= deadline) {
+                return new Claim(Outcome.IN_PROGRESS, key, existing, store);
+            }
+            try {
+                Thread.sleep(pause);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return new Claim(Outcome.IN_PROGRESS, key, existing, store);
+            }
+            pause = Math.min(pause * 2, maxPollIntervalMs);
+        }
+    }
+
+    /**
+     * A key claimed in the database while Redis was down stays there until it expires, so a fresh Redis claim
+     * is given back when the database already holds the key. The database is only read while such keys can
+     * still be live; if it cannot be read, the Redis claim stands.
+     * @return the database entry, or null if the Redis claim stands
+     */
+    private IdempotencyEntry claimedDuringOutage(String key, IdempotencyEntry inFlight) {
+        if (System.currentTimeMillis() >= databaseKeysLiveUntilMs) {
+            return null;
+        }
+        IdempotencyEntry fallback;
+        try {
+            fallback = jdbcStore.find(key);
+        } catch (DataAccessException e) {
+            log.warn("Could not check database idempotency key {}: {}", key, e.getMessage());
+            return null;
+        }
+        if (fallback != null) {
+            redisStore.release(key, inFlight);
+        }
+        return fallback;
+    }
+
+    /**
+     * Store the response for replay. Failures are logged only: the in-flight marker then expires on its own.
+     * Nothing is stored if the marker expired and another request has claimed the key since.
+     */
+    public void complete(Claim claim, int status, String contentType, byte[] body) {
+        try {
+            if (!claim.store().complete(claim.key(), claim.entry(),
+                    IdempotencyEntry.completed(claim.entry().fingerprint(), status, contentType, body),
+                    Duration.ofHours(responseTtlHours))) {
+                log.warn("Idempotency key {} expired before its response was stored", claim.key());
+            }
+        } catch (DataAccessException e) {
+            log.warn("Could not store idempotent response for key {}: {}", claim.key(), e.getMessage());
+        }
+    }
+
+    public void release(Claim claim) {
+        try {
+            claim.store().release(claim.key(), claim.entry());
+        } catch (DataAccessException e) {
+            log.warn("Could not release idempotency key {}: {}", claim.key(), e.getMessage());
+        }
+    }
+}
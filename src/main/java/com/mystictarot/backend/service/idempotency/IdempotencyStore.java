@@ -0,0 +1,32 @@
+package com.mystictarot.backend.service.idempotency;
+
+import java.time.Duration;
+
+/**
+ * Storage for idempotency keys. Implementations must make tryBegin atomic across instances.
+ */
+public interface IdempotencyStore {
+
+    /**
+     * Store the in-flight marker unless the key already exists
+     * @return true if this caller now owns the key
+     */
+    boolean tryBegin(String key, IdempotencyEntry inFlight, Duration ttl);
+
+    /**
+     * @return the current entry, or null if the key is free
+     */
+    IdempotencyEntry find(String key);
+
+    /**
+     * Replace the in-flight marker with the completed response, if the marker is still the caller's
+     * @return true if the response was stored
+     */
+    boolean complete(String key, IdempotencyEntry inFlight, IdempotencyEntry completed, Duration ttl);
+
+    /**
+     * Drop the key so the client can retry, e.g. after a server error, if the marker is still the caller's
+     * @return true if the key was dropped
+     */
+    boolean release(String key, IdempotencyEntry inFlight);
+}
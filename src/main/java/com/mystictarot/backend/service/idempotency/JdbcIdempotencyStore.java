@@ -0,0 +1,59 @@
+package com.mystictarot.backend.service.idempotency;
+
+import com.mystictarot.backend.repository.IdempotencyKeyRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Fallback idempotency store on the idempotency_keys table, used while Redis is unreachable.
+ * The row id is the owner token of the in-flight marker.
+ */
+@Component
+@RequiredArgsConstructor
+public class JdbcIdempotencyStore implements IdempotencyStore {
+
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+
+    @Override
+    @Transactional
+    public boolean tryBegin(String key, IdempotencyEntry inFlight, Duration ttl) {
+        LocalDateTime now = LocalDateTime.now();
+        idempotencyKeyRepository.deleteExpired(key, now);
+        return idempotencyKeyRepository.insertIfAbsent(UUID.fromString(inFlight.owner()), key, inFlight.fingerprint(), now.plus(ttl), now) == 1;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public IdempotencyEntry find(String key) {
+        return idempotencyKeyRepository.findByRecordKeyAndExpiresAtAfter(key, LocalDateTime.now())
+                .map(e -> e.isCompleted()
+                        ? IdempotencyEntry.completed(e.getFingerprint(), e.getResponseStatus(), e.getContentType(), e.getResponseBody())
+                        : IdempotencyEntry.inFlight(e.getFingerprint(), e.getId().toString()))
+                .orElse(null);
+    }
+
+    @Override
+    @Transactional
+    public boolean complete(String key, IdempotencyEntry inFlight, IdempotencyEntry completed, Duration ttl) {
+        return idempotencyKeyRepository.complete(key, UUID.fromString(inFlight.owner()), completed.status(),
+                completed.contentType(), completed.body(), LocalDateTime.now().plus(ttl)) == 1;
+    }
+
+    @Override
+    @Transactional
+    public boolean release(String key, IdempotencyEntry inFlight) {
+        return idempotencyKeyRepository.deleteByRecordKeyAndOwner(key, UUID.fromString(inFlight.owner())) == 1;
+    }
+
+    @Scheduled(cron = "${app.idempotency.purge-cron:0 30 * * * *}")
+    @Transactional
+    public void purgeExpired() {
+        idempotencyKeyRepository.deleteAllExpired(LocalDateTime.now());
+    }
+}
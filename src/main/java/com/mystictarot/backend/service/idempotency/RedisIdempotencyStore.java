@@ -0,0 +1,65 @@
+package com.mystictarot.backend.service.idempotency;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mystictarot.backend.util.RedisScripts;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Primary idempotency store: one Redis string per key, SET NX for the in-flight marker. Complete and release
+ * are compare-and-set scripts against the caller's marker, so a request whose marker expired cannot overwrite
+ * or drop a key that another request has claimed since.
+ */
+@Component
+@RequiredArgsConstructor
+public class RedisIdempotencyStore implements IdempotencyStore {
+
+    static final String KEY_PREFIX = "idem:";
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public boolean tryBegin(String key, IdempotencyEntry inFlight, Duration ttl) {
+        return Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(KEY_PREFIX + key, write(inFlight), ttl));
+    }
+
+    @Override
+    public IdempotencyEntry find(String key) {
+        String value = redisTemplate.opsForValue().get(KEY_PREFIX + key);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(value, IdempotencyEntry.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Corrupt idempotency entry for key " + key, e);
+        }
+    }
+
+    @Override
+    public boolean complete(String key, IdempotencyEntry inFlight, IdempotencyEntry completed, Duration ttl) {
+        Long replaced = redisTemplate.execute(RedisScripts.COMPARE_AND_SET, List.of(KEY_PREFIX + key),
+                write(inFlight), write(completed), String.valueOf(ttl.toMillis()));
+        return replaced != null && replaced == 1L;
+    }
+
+    @Override
+    public boolean release(String key, IdempotencyEntry inFlight) {
+        Long deleted = redisTemplate.execute(RedisScripts.COMPARE_AND_DELETE, List.of(KEY_PREFIX + key), write(inFlight));
+        return deleted != null && deleted == 1L;
+    }
+
+    private String write(IdempotencyEntry entry) {
+        try {
+            return objectMapper.writeValueAsString(entry);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize idempotency entry", e);
+        }
+    }
+}
@@ -3,20 +3,22 @@ package com.mystictarot.backend.service.payment;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.mystictarot.backend.entity.Transaction;
+import com.mystictarot.backend.entity.enums.PaymentProvider;
+import com.mystictarot.backend.service.payment.http.PaymentHttpClients;
+import com.mystictarot.backend.service.payment.signing.HmacSha256Signer;
+import com.mystictarot.backend.service.payment.signing.SignaturePayloads;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 
-import javax.crypto.Mac;
-import javax.crypto.spec.SecretKeySpec;
 import java.nio.charset.StandardCharsets;
 import java.util.Base64;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 @Service
@@ -25,8 +27,11 @@ public class MomoPaymentService implements PaymentProviderService {
 
     private static final String REQUEST_TYPE = "payWithATM";
     private static final String LANG = "vi";
+    private static final Set<Integer> SUCCESS_CODES = Set.of(0, 9000);
+    private static final Set<Integer> PENDING_CODES = Set.of(1000, 7000, 7002);
+    private static final int FIRST_TRANSACTION_ERROR_CODE = 1001;
 
-    private final RestTemplate restTemplate;
+    private final PaymentHttpClients paymentHttpClients;
     private final ObjectMapper objectMapper;
 
     @Value("${payment.momo.partner-code}")
@@ -41,6 +46,9 @@ public class MomoPaymentService implements PaymentProviderService {
     @Value("${payment.momo.endpoint:}")
     private String endpoint;
 
+    @Value("${payment.momo.query-endpoint:}")
+    private String queryEndpoint;
+
     @Value("${payment.momo.ipn-url:}")
     private String ipnUrl;
 
@@ -57,17 +65,9 @@ public class MomoPaymentService implements PaymentProviderService {
         String ipn = ipnUrl != null && !ipnUrl.isBlank() ? ipnUrl : returnUrl;
         String extraData = Base64.getEncoder().encodeToString("{}".getBytes(StandardCharsets.UTF_8));
 
-        String rawSignature = "accessKey=" + accessKey +
-                "&amount=" + amount +
-                "&extraData=" + extraData +
-                "&ipnUrl=" + ipn +
-                "&orderId=" + orderId +
-                "&orderInfo=" + orderInfo +
-                "&partnerCode=" + partnerCode +
-                "&redirectUrl=" + returnUrl +
-                "&requestId=" + requestId +
-                "&requestType=" + REQUEST_TYPE;
-        String signature = signHmacSha256(rawSignature, secretKey);
+        String rawSignature = SignaturePayloads.momoCreateOrder(accessKey, amount, extraData, ipn, orderId, orderInfo,
+                partnerCode, returnUrl, requestId, REQUEST_TYPE);
+        String signature = HmacSha256Signer.forRequiredKey(secretKey, "payment.momo.secret-key").signHex(rawSignature);
 
         Map<String, Object> body = new HashMap<>();
         body.put("partnerCode", partnerCode);
@@ -88,7 +88,7 @@ public class MomoPaymentService implements PaymentProviderService {
         HttpEntity<Map<String, Object>> entity = new HttpEntity<>(body, headers);
 
         try {
-            String response = restTemplate.postForObject(endpoint, entity, String.class);
+            String response = paymentHttpClients.forProvider(PaymentProvider.MOMO).postForObject(endpoint, entity, String.class);
             if (response == null) {
                 return CreateOrderResult.builder().success(false).errorCode("EMPTY_RESPONSE").errorMessage("Momo returned empty response").build();
             }
@@ -111,29 +111,55 @@ public class MomoPaymentService implements PaymentProviderService {
         } catch (Exception e) {
             return CreateOrderResult.builder()
                     .success(false)
-                    .errorCode("CALL_FAILED")
+                    .errorCode(PaymentHttpClients.isTimeout(e) ? "TIMEOUT" : "CALL_FAILED")
                     .errorMessage(e.getMessage())
                     .build();
         }
     }
 
-    private static String signHmacSha256(String data, String key) {
+    @Override
+    public ProviderOrderStatus queryOrderStatus(Transaction transaction) {
+        String orderId = transaction.getId().toString();
+        String requestId = UUID.randomUUID().toString();
+        String rawSignature = SignaturePayloads.momoQuery(accessKey, orderId, partnerCode, requestId);
+        String signature = HmacSha256Signer.forRequiredKey(secretKey, "payment.momo.secret-key").signHex(rawSignature);
+
+        Map<String, Object> body = new HashMap<>();
+        body.put("partnerCode", partnerCode);
+        body.put("requestId", requestId);
+        body.put("orderId", orderId);
+        body.put("signature", signature);
+        body.put("lang", LANG);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
         try {
-            Mac mac = Mac.getInstance("HmacSHA256");
-            SecretKeySpec spec = new SecretKeySpec(key.getBytes(StandardCharsets.UTF_8), "HmacSHA256");
-            mac.init(spec);
-            byte[] hash = mac.doFinal(data.getBytes(StandardCharsets.UTF_8));
-            return bytesToHex(hash);
+            String response = paymentHttpClients.forProvider(PaymentProvider.MOMO)
+                    .postForObject(resolveQueryEndpoint(), new HttpEntity<>(body, headers), String.class);
+            if (response == null) {
+                return ProviderOrderStatus.UNKNOWN;
+            }
+            int resultCode = objectMapper.readTree(response).path("resultCode").asInt(-1);
+            if (SUCCESS_CODES.contains(resultCode)) {
+                return ProviderOrderStatus.PAID;
+            }
+            if (PENDING_CODES.contains(resultCode)) {
+                return ProviderOrderStatus.PENDING;
+            }
+            // 1xxx/4xxx describe the transaction itself; lower codes are request or system errors
+            return resultCode >= FIRST_TRANSACTION_ERROR_CODE ? ProviderOrderStatus.FAILED : ProviderOrderStatus.UNKNOWN;
         } catch (Exception e) {
-            throw new RuntimeException("HMAC SHA256 failed", e);
+            return ProviderOrderStatus.UNKNOWN;
         }
     }
 
-    private static String bytesToHex(byte[] bytes) {
-        StringBuilder sb = new StringBuilder();
-        for (byte b : bytes) {
-            sb.append(String.format("%02x", b));
+    /**
+     * Query API sits next to the create API (/v2/gateway/api/create -> /v2/gateway/api/query) unless configured
+     */
+    private String resolveQueryEndpoint() {
+        if (queryEndpoint != null && !queryEndpoint.isBlank()) {
+            return queryEndpoint;
         }
-        return sb.toString();
+        return endpoint.replaceFirst("/create$", "/query");
     }
 }
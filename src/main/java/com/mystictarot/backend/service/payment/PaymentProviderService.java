@@ -5,4 +5,10 @@ import com.mystictarot.backend.entity.Transaction;
 public interface PaymentProviderService {
 
     CreateOrderResult createOrder(Transaction transaction, CreateOrderCommand command);
+
+    /**
+     * Ask the provider for the current state of an order created by {@link #createOrder}.
+     * Never throws for provider or network errors; those come back as {@link ProviderOrderStatus#UNKNOWN}.
+     */
+    ProviderOrderStatus queryOrderStatus(Transaction transaction);
 }
@@ -0,0 +1,157 @@
+package com.mystictarot.backend.service.payment;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mystictarot.backend.dto.response.PlanInfoDTO;
+import com.mystictarot.backend.entity.PlanPriceEntry;
+import com.mystictarot.backend.entity.enums.PlanType;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Immutable snapshot of the plan_prices table. Prices, DTO lists and the serialized response are built
+ * once per snapshot, and locale keys are normalised once (trimmed, lower case), so lookups only read maps
+ * and compare characters.
+ */
+public final class PlanCatalog {
+
+    private static final PlansDocument EMPTY = new PlansDocument("[]".getBytes(StandardCharsets.UTF_8), "\"empty\"");
+
+    private final Map<String, Map<PlanType, PlanPrice>> prices;
+    private final Map<String, Map<PlanType, Integer>> extraCredits;
+    private final Map<String, List<PlanInfoDTO>> plans;
+    private final Map<String, PlansDocument> documents;
+    private final String[] locales;
+
+    private PlanCatalog(Map<String, Map<PlanType, PlanPrice>> prices, Map<String, Map<PlanType, Integer>> extraCredits,
+                        Map<String, List<PlanInfoDTO>> plans, Map<String, PlansDocument> documents) {
+        this.prices = prices;
+        this.extraCredits = extraCredits;
+        this.plans = plans;
+        this.documents = documents;
+        this.locales = prices.keySet().toArray(String[]::new);
+    }
+
+    /**
+     * Build a snapshot from active entries, which must already be in display order
+     */
+    public static PlanCatalog of(List<PlanPriceEntry> entries, ObjectMapper objectMapper) {
+        Map<String, Map<PlanType, PlanPrice>> prices = new HashMap<>();
+        Map<String, Map<PlanType, Integer>> extraCredits = new HashMap<>();
+        Map<String, List<PlanInfoDTO>> plans = new LinkedHashMap<>();
+        for (PlanPriceEntry entry : entries) {
+            String locale = entry.getLocale().trim().toLowerCase(Locale.ROOT);
+            prices.computeIfAbsent(locale, key -> new EnumMap<>(PlanType.class))
+                    .put(entry.getPlanType(), new PlanPrice(entry.getAmount(), entry.getCurrency()));
+            if (entry.getExtraCredits() != null) {
+                extraCredits.computeIfAbsent(locale, key -> new EnumMap<>(PlanType.class))
+                        .put(entry.getPlanType(), entry.getExtraCredits());
+            }
+            plans.computeIfAbsent(locale, key -> new ArrayList<>())
+                    .add(PlanInfoDTO.builder()
+                            .planType(entry.getPlanType())
+                            .amount(entry.getAmount().doubleValue())
+                            .currency(entry.getCurrency())
+                            .extraCredits(entry.getExtraCredits())
+                            .build());
+        }
+        Map<String, PlansDocument> documents = new HashMap<>();
+        plans.replaceAll((locale, list) -> {
+            List<PlanInfoDTO> immutable = List.copyOf(list);
+            documents.put(locale, serialize(immutable, objectMapper));
+            return immutable;
+        });
+        prices.replaceAll((locale, map) -> Collections.unmodifiableMap(map));
+        extraCredits.replaceAll((locale, map) -> Collections.unmodifiableMap(map));
+        return new PlanCatalog(Map.copyOf(prices), Map.copyOf(extraCredits), Map.copyOf(plans), Map.copyOf(documents));
+    }
+
+    /**
+     * Priced locale for a requested one: the exact locale, else its language part (en-US -> en). Case and
+     * surrounding whitespace are ignored; the request is compared in place, so nothing is allocated.
+     * @return this catalog's own locale key, or null if neither is priced
+     */
+    public String matchLocale(String requested) {
+        int start = 0;
+        int end = requested.length();
+        while (start < end && requested.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && requested.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        String exact = findLocale(requested, start, end);
+        if (exact != null) {
+            return exact;
+        }
+        int separator = indexOf(requested, '-', start, end);
+        if (separator < 0) {
+            separator = indexOf(requested, '_', start, end);
+        }
+        return separator > start ? findLocale(requested, start, separator) : null;
+    }
+
+    /**
+     * @return the price, or null if the plan is not sold in this locale
+     */
+    public PlanPrice price(String locale, PlanType planType) {
+        Map<PlanType, PlanPrice> byPlan = prices.get(locale);
+        return byPlan != null ? byPlan.get(planType) : null;
+    }
+
+    /**
+     * @return credits granted by the plan in this locale, or null if it grants none
+     */
+    public Integer extraCredits(String locale, PlanType planType) {
+        Map<PlanType, Integer> byPlan = extraCredits.get(locale);
+        return byPlan != null ? byPlan.get(planType) : null;
+    }
+
+    public List<PlanInfoDTO> plans(String locale) {
+        return plans.getOrDefault(locale, List.of());
+    }
+
+    public PlansDocument document(String locale) {
+        return documents.getOrDefault(locale, EMPTY);
+    }
+
+    private String findLocale(String requested, int start, int end) {
+        int length = end - start;
+        for (String locale : locales) {
+            if (locale.length() == length && locale.regionMatches(true, 0, requested, start, length)) {
+                return locale;
+            }
+        }
+        return null;
+    }
+
+    private static int indexOf(String value, char c, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (value.charAt(i) == c) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static PlansDocument serialize(List<PlanInfoDTO> plans, ObjectMapper objectMapper) {
+        try {
+            byte[] body = objectMapper.writeValueAsBytes(plans);
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            return new PlansDocument(body, "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"");
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Could not serialize plan catalog", e);
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.mystictarot.backend.service.payment;
+
+/**
+ * Pre-serialized /payments/plans response for one locale and its strong ETag
+ */
+public record PlansDocument(byte[] body, String etag) {
+}
@@ -0,0 +1,15 @@
+package com.mystictarot.backend.service.payment;
+
+/**
+ * Order state as reported by a provider's status API
+ */
+public enum ProviderOrderStatus {
+    /** Money captured; the order should be granted */
+    PAID,
+    /** Provider considers the order closed without payment (cancelled, expired, declined) */
+    FAILED,
+    /** User has not finished paying yet, or the provider is still processing */
+    PENDING,
+    /** Provider could not be asked or gave an answer we do not understand; try again later */
+    UNKNOWN
+}
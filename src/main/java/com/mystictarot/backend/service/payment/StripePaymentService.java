@@ -2,15 +2,17 @@ package com.mystictarot.backend.service.payment;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.mystictarot.backend.entity.Transaction;
+import com.mystictarot.backend.entity.enums.PaymentProvider;
+import com.mystictarot.backend.service.payment.http.PaymentHttpClients;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
-import org.springframework.web.client.RestTemplate;
 
 import java.util.Map;
 
@@ -18,11 +20,14 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class StripePaymentService implements PaymentProviderService {
 
-    private static final String STRIPE_API_BASE = "https://api.stripe.com/v1/checkout/sessions";
+    private static final String CHECKOUT_SESSIONS_PATH = "/checkout/sessions";
 
-    private final RestTemplate restTemplate;
+    private final PaymentHttpClients paymentHttpClients;
     private final ObjectMapper objectMapper;
 
+    @Value("${payment.stripe.api-base:https://api.stripe.com/v1}")
+    private String apiBase;
+
     @Value("${payment.stripe.secret-key}")
     private String secretKey;
 
@@ -69,7 +74,7 @@ public class StripePaymentService implements PaymentProviderService {
         HttpEntity<MultiValueMap<String, String>> entity = new HttpEntity<>(body, headers);
 
         try {
-            String response = restTemplate.postForObject(STRIPE_API_BASE, entity, String.class);
+            String response = paymentHttpClients.forProvider(PaymentProvider.STRIPE).postForObject(apiBase + CHECKOUT_SESSIONS_PATH, entity, String.class);
             if (response == null) {
                 return CreateOrderResult.builder().success(false).errorCode("EMPTY_RESPONSE").errorMessage("Stripe returned empty response").build();
             }
@@ -87,9 +92,36 @@ public class StripePaymentService implements PaymentProviderService {
         } catch (Exception e) {
             return CreateOrderResult.builder()
                     .success(false)
-                    .errorCode("CALL_FAILED")
+                    .errorCode(PaymentHttpClients.isTimeout(e) ? "TIMEOUT" : "CALL_FAILED")
                     .errorMessage(e.getMessage())
                     .build();
         }
     }
+
+    @Override
+    public ProviderOrderStatus queryOrderStatus(Transaction transaction) {
+        String sessionId = transaction.getProviderTransactionId();
+        if (sessionId == null) {
+            return ProviderOrderStatus.UNKNOWN;
+        }
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("Authorization", "Bearer " + secretKey);
+        try {
+            String response = paymentHttpClients.forProvider(PaymentProvider.STRIPE)
+                    .exchange(apiBase + CHECKOUT_SESSIONS_PATH + "/{id}", HttpMethod.GET, new HttpEntity<>(headers),
+                            String.class, sessionId)
+                    .getBody();
+            if (response == null) {
+                return ProviderOrderStatus.UNKNOWN;
+            }
+            Map<?, ?> parsed = objectMapper.readValue(response, Map.class);
+            Object paymentStatus = parsed.get("payment_status");
+            if ("paid".equals(paymentStatus) || "no_payment_required".equals(paymentStatus)) {
+                return ProviderOrderStatus.PAID;
+            }
+            return "expired".equals(parsed.get("status")) ? ProviderOrderStatus.FAILED : ProviderOrderStatus.PENDING;
+        } catch (Exception e) {
+            return ProviderOrderStatus.UNKNOWN;
+        }
+    }
 }
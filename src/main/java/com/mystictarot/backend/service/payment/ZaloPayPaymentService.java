@@ -3,17 +3,19 @@ package com.mystictarot.backend.service.payment;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.mystictarot.backend.entity.Transaction;
+import com.mystictarot.backend.entity.enums.PaymentProvider;
+import com.mystictarot.backend.service.payment.http.PaymentHttpClients;
+import com.mystictarot.backend.service.payment.signing.HmacSha256Signer;
+import com.mystictarot.backend.service.payment.signing.SignaturePayloads;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
 
-import javax.crypto.Mac;
-import javax.crypto.spec.SecretKeySpec;
-import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -21,7 +23,11 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class ZaloPayPaymentService implements PaymentProviderService {
 
-    private final RestTemplate restTemplate;
+    private static final int RETURN_CODE_SUCCESS = 1;
+    private static final int RETURN_CODE_FAILED = 2;
+    private static final int RETURN_CODE_PROCESSING = 3;
+
+    private final PaymentHttpClients paymentHttpClients;
     private final ObjectMapper objectMapper;
 
     @Value("${payment.zalopay.app-id}")
@@ -36,6 +42,9 @@ public class ZaloPayPaymentService implements PaymentProviderService {
     @Value("${payment.zalopay.endpoint:}")
     private String endpoint;
 
+    @Value("${payment.zalopay.query-endpoint:}")
+    private String queryEndpoint;
+
     @Value("${payment.zalopay.callback-url:}")
     private String callbackUrl;
 
@@ -49,13 +58,15 @@ public class ZaloPayPaymentService implements PaymentProviderService {
         String orderInfo = "Mystic Tarot - " + command.getPlanType();
         String callback = callbackUrl != null && !callbackUrl.isBlank() ? callbackUrl : command.getReturnUrl();
 
-        String data = appId + "|" + appTransId + "|" + transaction.getUser().getId() + "|" + amount + "|" + System.currentTimeMillis() + "|" + embedData + "|" + item;
-        String mac = signHmacSha256(data, key1);
+        long appTime = System.currentTimeMillis();
+
+        String data = SignaturePayloads.zaloPayCreateOrder(appId, appTransId, appUser, amount, appTime, embedData, item);
+        String mac = HmacSha256Signer.forRequiredKey(key1, "payment.zalopay.key1").signHex(data);
 
         Map<String, Object> body = new HashMap<>();
         body.put("app_id", Long.parseLong(appId));
         body.put("app_user", appUser);
-        body.put("app_time", System.currentTimeMillis());
+        body.put("app_time", appTime);
         body.put("amount", amount);
         body.put("app_trans_id", appTransId);
         body.put("embed_data", embedData);
@@ -69,7 +80,7 @@ public class ZaloPayPaymentService implements PaymentProviderService {
         HttpEntity<Map<String, Object>> entity = new HttpEntity<>(body, headers);
 
         try {
-            String response = restTemplate.postForObject(endpoint, entity, String.class);
+            String response = paymentHttpClients.forProvider(PaymentProvider.ZALOPAY).postForObject(endpoint, entity, String.class);
             if (response == null) {
                 return CreateOrderResult.builder().success(false).errorCode("EMPTY_RESPONSE").errorMessage("ZaloPay returned empty response").build();
             }
@@ -91,25 +102,52 @@ public class ZaloPayPaymentService implements PaymentProviderService {
         } catch (Exception e) {
             return CreateOrderResult.builder()
                     .success(false)
-                    .errorCode("CALL_FAILED")
+                    .errorCode(PaymentHttpClients.isTimeout(e) ? "TIMEOUT" : "CALL_FAILED")
                     .errorMessage(e.getMessage())
                     .build();
         }
     }
 
-    private static String signHmacSha256(String data, String key) {
+    @Override
+    public ProviderOrderStatus queryOrderStatus(Transaction transaction) {
+        String appTransId = transaction.getProviderTransactionId();
+        if (appTransId == null) {
+            return ProviderOrderStatus.UNKNOWN;
+        }
+        String mac = HmacSha256Signer.forRequiredKey(key1, "payment.zalopay.key1")
+                .signHex(SignaturePayloads.zaloPayQuery(appId, appTransId, key1));
+
+        MultiValueMap<String, String> body = new LinkedMultiValueMap<>();
+        body.add("app_id", appId);
+        body.add("app_trans_id", appTransId);
+        body.add("mac", mac);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_FORM_URLENCODED);
         try {
-            Mac mac = Mac.getInstance("HmacSHA256");
-            SecretKeySpec spec = new SecretKeySpec(key.getBytes(StandardCharsets.UTF_8), "HmacSHA256");
-            mac.init(spec);
-            byte[] hash = mac.doFinal(data.getBytes(StandardCharsets.UTF_8));
-            StringBuilder sb = new StringBuilder();
-            for (byte b : hash) {
-                sb.append(String.format("%02x", b));
+            String response = paymentHttpClients.forProvider(PaymentProvider.ZALOPAY)
+                    .postForObject(resolveQueryEndpoint(), new HttpEntity<>(body, headers), String.class);
+            if (response == null) {
+                return ProviderOrderStatus.UNKNOWN;
             }
-            return sb.toString();
+            return switch (objectMapper.readTree(response).path("return_code").asInt(-1)) {
+                case RETURN_CODE_SUCCESS -> ProviderOrderStatus.PAID;
+                case RETURN_CODE_FAILED -> ProviderOrderStatus.FAILED;
+                case RETURN_CODE_PROCESSING -> ProviderOrderStatus.PENDING;
+                default -> ProviderOrderStatus.UNKNOWN;
+            };
         } catch (Exception e) {
-            throw new RuntimeException("HMAC SHA256 failed", e);
+            return ProviderOrderStatus.UNKNOWN;
+        }
+    }
+
+    /**
+     * Query API sits next to the create API (/v2/create -> /v2/query) unless configured
+     */
+    private String resolveQueryEndpoint() {
+        if (queryEndpoint != null && !queryEndpoint.isBlank()) {
+            return queryEndpoint;
         }
+        return endpoint.replaceFirst("/create$", "/query");
     }
 }
@@ -0,0 +1,150 @@
+package com.mystictarot.backend.service.payment.http;
+
+import org.apache.hc.client5.http.classic.ExecChain;
+import org.apache.hc.client5.http.classic.ExecChainHandler;
+import org.apache.hc.core5.concurrent.Cancellable;
+import org.apache.hc.core5.http.ClassicHttpRequest;
+import org.apache.hc.core5.http.ClassicHttpResponse;
+import org.apache.hc.core5.http.HttpEntity;
+import org.apache.hc.core5.http.HttpException;
+import org.apache.hc.core5.http.io.entity.HttpEntityWrapper;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Outermost exec-chain step that enforces a total deadline on an exchange.
+ * Apache HttpClient only has per-phase timeouts (pool lease, connect, socket read), so a provider that
+ * trickles bytes can keep a call alive indefinitely. This handler schedules a cancel of the request at
+ * the deadline; cancelling closes the underlying connection, and the I/O error the blocked caller then sees,
+ * before the response or while reading its body, is replaced by a {@link TotalDeadlineExceededException}.
+ * The timer is dropped as soon as the response body is closed.
+ */
+class DeadlineExecHandler implements ExecChainHandler {
+
+    private final ScheduledExecutorService scheduler;
+    private final long totalTimeoutMs;
+
+    DeadlineExecHandler(ScheduledExecutorService scheduler, Duration totalTimeout) {
+        this.scheduler = scheduler;
+        this.totalTimeoutMs = totalTimeout.toMillis();
+    }
+
+    @Override
+    public ClassicHttpResponse execute(ClassicHttpRequest request, ExecChain.Scope scope, ExecChain chain)
+            throws IOException, HttpException {
+        if (!(scope.originalRequest instanceof Cancellable cancellable)) {
+            return chain.proceed(request, scope);
+        }
+        Deadline deadline = new Deadline(cancellable);
+        deadline.schedule();
+        ClassicHttpResponse response;
+        try {
+            response = chain.proceed(request, scope);
+        } catch (IOException e) {
+            deadline.cancel();
+            throw deadline.translate(e);
+        } catch (HttpException | RuntimeException e) {
+            deadline.cancel();
+            throw e;
+        }
+        HttpEntity entity = response.getEntity();
+        if (entity == null) {
+            deadline.cancel();
+        } else {
+            response.setEntity(new DeadlineEntity(entity, deadline));
+        }
+        return response;
+    }
+
+    /**
+     * Scheduled cancel of one exchange; remembers whether it fired so the resulting I/O error can be named
+     */
+    private final class Deadline implements Runnable {
+
+        private final Cancellable cancellable;
+        private final AtomicBoolean expired = new AtomicBoolean();
+        private ScheduledFuture<?> future;
+
+        Deadline(Cancellable cancellable) {
+            this.cancellable = cancellable;
+        }
+
+        void schedule() {
+            future = scheduler.schedule(this, totalTimeoutMs, TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public void run() {
+            expired.set(true);
+            cancellable.cancel();
+        }
+
+        void cancel() {
+            future.cancel(false);
+        }
+
+        IOException translate(IOException e) {
+            return expired.get() && !(e instanceof TotalDeadlineExceededException)
+                    ? new TotalDeadlineExceededException(totalTimeoutMs, e)
+                    : e;
+        }
+    }
+
+    private static final class DeadlineEntity extends HttpEntityWrapper {
+
+        private final Deadline deadline;
+
+        DeadlineEntity(HttpEntity entity, Deadline deadline) {
+            super(entity);
+            this.deadline = deadline;
+        }
+
+        @Override
+        public InputStream getContent() throws IOException {
+            return new FilterInputStream(super.getContent()) {
+                @Override
+                public int read() throws IOException {
+                    try {
+                        return super.read();
+                    } catch (IOException e) {
+                        throw deadline.translate(e);
+                    }
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) throws IOException {
+                    try {
+                        return super.read(b, off, len);
+                    } catch (IOException e) {
+                        throw deadline.translate(e);
+                    }
+                }
+
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        deadline.cancel();
+                    }
+                }
+            };
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                super.close();
+            } finally {
+                deadline.cancel();
+            }
+        }
+    }
+}
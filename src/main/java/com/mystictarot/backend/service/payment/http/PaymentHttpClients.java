@@ -0,0 +1,172 @@
+package com.mystictarot.backend.service.payment.http;
+
+import com.mystictarot.backend.entity.enums.PaymentProvider;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.classic.methods.HttpHead;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.io.CloseMode;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.RequestCallback;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.ResponseExtractor;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+
+/**
+ * One pooled, instrumented RestTemplate per payment provider. Calls are traced as http.client.requests spans.
+ * Each provider gets its own connection pool, so a provider that hangs can only exhaust its own
+ * connections: further calls to it fail after the pool-acquire timeout while the other providers
+ * keep working. Connections are kept alive and reused between calls. A timeout while the response body is
+ * being read (a read timeout or the total deadline) fails with ResourceAccessException, like a timeout before
+ * the response, rather than the plain RestClientException RestTemplate uses for body extraction errors.
+ */
+@Slf4j
+public class PaymentHttpClients implements DisposableBean {
+
+    private final Map<PaymentProvider, RestTemplate> restTemplates = new EnumMap<>(PaymentProvider.class);
+    private final Map<PaymentProvider, CloseableHttpClient> httpClients = new EnumMap<>(PaymentProvider.class);
+    private final ScheduledThreadPoolExecutor deadlineScheduler;
+
+    public PaymentHttpClients(Map<PaymentProvider, PaymentHttpSettings> settings, MeterRegistry meterRegistry,
+                              ObservationRegistry observationRegistry) {
+        this.deadlineScheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = Executors.defaultThreadFactory().newThread(runnable);
+            thread.setName("payment-http-deadline");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.deadlineScheduler.setRemoveOnCancelPolicy(true);
+
+        settings.forEach((provider, providerSettings) -> {
+            CloseableHttpClient httpClient = createHttpClient(providerSettings, deadlineScheduler);
+            RestTemplate restTemplate = new ProviderRestTemplate(new HttpComponentsClientHttpRequestFactory(httpClient));
+            restTemplate.getInterceptors().add(new ProviderMetricsInterceptor(meterRegistry, provider));
+            restTemplate.setObservationRegistry(observationRegistry);
+            httpClients.put(provider, httpClient);
+            restTemplates.put(provider, restTemplate);
+            log.info("Payment HTTP client for {}: {}", provider, providerSettings);
+        });
+    }
+
+    /**
+     * Get the RestTemplate dedicated to a provider
+     * @throws IllegalStateException if no client is configured for the provider
+     */
+    public RestTemplate forProvider(PaymentProvider provider) {
+        RestTemplate restTemplate = restTemplates.get(provider);
+        if (restTemplate == null) {
+            throw new IllegalStateException("No HTTP client configured for payment provider " + provider);
+        }
+        return restTemplate;
+    }
+
+    /**
+     * Whether a failed provider call timed out (read timeout, pool-acquire timeout or total deadline)
+     */
+    public static boolean isTimeout(Throwable failure) {
+        return timeoutCause(failure) != null;
+    }
+
+    private static InterruptedIOException timeoutCause(Throwable failure) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof InterruptedIOException timeout) {
+                return timeout;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Open a pooled connection to a provider before its first real call (DNS, TCP, TLS). Goes through the
+     * raw client, so it is not counted in the provider metrics; the response status does not matter.
+     */
+    public void preconnect(PaymentProvider provider, String url) {
+        CloseableHttpClient httpClient = httpClients.get(provider);
+        if (httpClient == null || url == null || url.isBlank()) {
+            return;
+        }
+        try {
+            httpClient.execute(new HttpHead(url), response -> null);
+        } catch (IOException | IllegalArgumentException e) {
+            log.debug("Preconnect to {} failed: {}", provider, e.getMessage());
+        }
+    }
+
+    private static CloseableHttpClient createHttpClient(PaymentHttpSettings settings, ScheduledExecutorService scheduler) {
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(settings.maxConnections())
+                .setMaxConnPerRoute(settings.maxConnections())
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.of(settings.connectTimeout()))
+                        .setSocketTimeout(Timeout.of(settings.readTimeout()))
+                        .setTimeToLive(TimeValue.ofMinutes(5))
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                        .build())
+                .build();
+
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectionRequestTimeout(Timeout.of(settings.poolAcquireTimeout()))
+                .setResponseTimeout(Timeout.of(settings.readTimeout()))
+                .setConnectionKeepAlive(TimeValue.of(settings.keepAlive()))
+                .build();
+
+        return HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .addExecInterceptorFirst("total-deadline", new DeadlineExecHandler(scheduler, settings.totalTimeout()))
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.of(settings.keepAlive()))
+                .disableAutomaticRetries()
+                .build();
+    }
+
+    @Override
+    public void destroy() {
+        httpClients.values().forEach(client -> client.close(CloseMode.GRACEFUL));
+        deadlineScheduler.shutdownNow();
+    }
+
+    private static final class ProviderRestTemplate extends RestTemplate {
+
+        ProviderRestTemplate(HttpComponentsClientHttpRequestFactory requestFactory) {
+            super(requestFactory);
+        }
+
+        @Override
+        protected <T> T doExecute(URI url, String uriTemplate, HttpMethod method, RequestCallback requestCallback,
+                                  ResponseExtractor<T> responseExtractor) throws RestClientException {
+            try {
+                return super.doExecute(url, uriTemplate, method, requestCallback, responseExtractor);
+            } catch (ResourceAccessException e) {
+                throw e;
+            } catch (RestClientException e) {
+                InterruptedIOException timeout = timeoutCause(e);
+                if (timeout == null) {
+                    throw e;
+                }
+                throw new ResourceAccessException("I/O error on " + method + " request for \"" + url + "\": "
+                        + timeout.getMessage(), timeout);
+            }
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.mystictarot.backend.service.payment.http;
+
+import java.time.Duration;
+
+/**
+ * HTTP client limits for one payment provider
+ * @param connectTimeout TCP/TLS connect timeout
+ * @param readTimeout maximum silence between two packets of the response
+ * @param totalTimeout hard deadline for the whole exchange, including pool wait and body read
+ * @param maxConnections pool size; also caps concurrent calls so a stalled provider cannot take every request thread
+ * @param poolAcquireTimeout how long a caller waits for a free pooled connection
+ * @param keepAlive how long an idle connection is kept for reuse
+ */
+public record PaymentHttpSettings(
+        Duration connectTimeout,
+        Duration readTimeout,
+        Duration totalTimeout,
+        int maxConnections,
+        Duration poolAcquireTimeout,
+        Duration keepAlive) {
+}
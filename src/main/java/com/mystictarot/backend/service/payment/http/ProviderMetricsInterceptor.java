@@ -0,0 +1,162 @@
+package com.mystictarot.backend.service.payment.http;
+
+import com.mystictarot.backend.entity.enums.PaymentProvider;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Records latency and outcome of every call to a payment provider as the
+ * {@value #METRIC_NAME} timer, tagged by provider, outcome and HTTP status.
+ * A call is recorded once its response body has been closed, so a timeout while reading the body
+ * (including the total deadline) counts as TIMEOUT rather than as the status that preceded it.
+ * Timers are registered once per status and reused.
+ */
+class ProviderMetricsInterceptor implements ClientHttpRequestInterceptor {
+
+    static final String METRIC_NAME = "payment.provider.requests";
+
+    private final MeterRegistry meterRegistry;
+    private final String provider;
+    private final Timer timeoutTimer;
+    private final Timer ioErrorTimer;
+    private final Map<Integer, Timer> responseTimers = new ConcurrentHashMap<>();
+
+    ProviderMetricsInterceptor(MeterRegistry meterRegistry, PaymentProvider provider) {
+        this.meterRegistry = meterRegistry;
+        this.provider = provider.name();
+        this.timeoutTimer = timer("TIMEOUT", "NONE");
+        this.ioErrorTimer = timer("IO_ERROR", "NONE");
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        ClientHttpResponse response;
+        try {
+            response = execution.execute(request, body);
+        } catch (IOException e) {
+            // Read, pool-acquire and total-deadline timeouts all surface as InterruptedIOException
+            sample.stop(e instanceof InterruptedIOException ? timeoutTimer : ioErrorTimer);
+            throw e;
+        } catch (RuntimeException e) {
+            sample.stop(ioErrorTimer);
+            throw e;
+        }
+        return new RecordingResponse(response, sample, responseTimer(response.getStatusCode().value()));
+    }
+
+    private Timer responseTimer(int status) {
+        return responseTimers.computeIfAbsent(status, s -> timer(outcomeOf(s), String.valueOf(s)));
+    }
+
+    private Timer timer(String outcome, String status) {
+        return Timer.builder(METRIC_NAME)
+                .description("Outbound payment provider HTTP calls")
+                .tag("provider", provider)
+                .tag("outcome", outcome)
+                .tag("status", status)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private static String outcomeOf(int status) {
+        if (status >= 500) {
+            return "SERVER_ERROR";
+        }
+        if (status >= 400) {
+            return "CLIENT_ERROR";
+        }
+        return "SUCCESS";
+    }
+
+    /**
+     * Stops the sample when the body is closed, or with TIMEOUT / IO_ERROR when reading the body fails
+     */
+    private final class RecordingResponse implements ClientHttpResponse {
+
+        private final ClientHttpResponse delegate;
+        private final Timer.Sample sample;
+        private final Timer completedTimer;
+        private final AtomicBoolean recorded = new AtomicBoolean();
+
+        RecordingResponse(ClientHttpResponse delegate, Timer.Sample sample, Timer completedTimer) {
+            this.delegate = delegate;
+            this.sample = sample;
+            this.completedTimer = completedTimer;
+        }
+
+        @Override
+        public HttpStatusCode getStatusCode() throws IOException {
+            return delegate.getStatusCode();
+        }
+
+        @Override
+        public String getStatusText() throws IOException {
+            return delegate.getStatusText();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return delegate.getHeaders();
+        }
+
+        @Override
+        public InputStream getBody() throws IOException {
+            return new FilterInputStream(delegate.getBody()) {
+                @Override
+                public int read() throws IOException {
+                    try {
+                        return super.read();
+                    } catch (IOException e) {
+                        recordFailure(e);
+                        throw e;
+                    }
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) throws IOException {
+                    try {
+                        return super.read(b, off, len);
+                    } catch (IOException e) {
+                        recordFailure(e);
+                        throw e;
+                    }
+                }
+            };
+        }
+
+        @Override
+        public void close() {
+            try {
+                delegate.close();
+            } finally {
+                record(completedTimer);
+            }
+        }
+
+        private void recordFailure(IOException e) {
+            record(e instanceof InterruptedIOException ? timeoutTimer : ioErrorTimer);
+        }
+
+        private void record(Timer timer) {
+            if (recorded.compareAndSet(false, true)) {
+                sample.stop(timer);
+            }
+        }
+    }
+}
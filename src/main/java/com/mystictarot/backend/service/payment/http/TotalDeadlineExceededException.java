@@ -0,0 +1,16 @@
+package com.mystictarot.backend.service.payment.http;
+
+import java.net.SocketTimeoutException;
+
+/**
+ * Thrown when a provider exchange runs past its total deadline. It is a {@link SocketTimeoutException}, so
+ * callers and metrics treat it like any other timeout, whether it fires before the response headers or while
+ * the body is being read.
+ */
+public class TotalDeadlineExceededException extends SocketTimeoutException {
+
+    TotalDeadlineExceededException(long totalTimeoutMs, Throwable cause) {
+        super("Total deadline of " + totalTimeoutMs + " ms exceeded");
+        initCause(cause);
+    }
+}
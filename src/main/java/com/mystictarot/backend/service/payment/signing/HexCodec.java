@@ -0,0 +1,58 @@
+package com.mystictarot.backend.service.payment.signing;
+
+/**
+ * Lowercase hex encoding and case-insensitive decoding via lookup tables
+ */
+public final class HexCodec {
+
+    private static final char[] DIGITS = "0123456789abcdef".toCharArray();
+    private static final byte[] VALUES = new byte[128];
+
+    static {
+        java.util.Arrays.fill(VALUES, (byte) -1);
+        for (int i = 0; i < 10; i++) {
+            VALUES['0' + i] = (byte) i;
+        }
+        for (int i = 0; i < 6; i++) {
+            VALUES['a' + i] = (byte) (10 + i);
+            VALUES['A' + i] = (byte) (10 + i);
+        }
+    }
+
+    private HexCodec() {
+    }
+
+    public static String encode(byte[] bytes) {
+        char[] out = new char[bytes.length * 2];
+        for (int i = 0, j = 0; i < bytes.length; i++) {
+            int b = bytes[i] & 0xff;
+            out[j++] = DIGITS[b >>> 4];
+            out[j++] = DIGITS[b & 0x0f];
+        }
+        return new String(out);
+    }
+
+    /**
+     * Decode a hex string, accepting either case
+     * @return decoded bytes, or null if the input is null, has odd length or contains a non-hex character
+     */
+    public static byte[] decode(CharSequence hex) {
+        if (hex == null || (hex.length() & 1) != 0) {
+            return null;
+        }
+        byte[] out = new byte[hex.length() / 2];
+        for (int i = 0; i < out.length; i++) {
+            int hi = valueOf(hex.charAt(2 * i));
+            int lo = valueOf(hex.charAt(2 * i + 1));
+            if (hi < 0 || lo < 0) {
+                return null;
+            }
+            out[i] = (byte) ((hi << 4) | lo);
+        }
+        return out;
+    }
+
+    private static int valueOf(char c) {
+        return c < 128 ? VALUES[c] : -1;
+    }
+}
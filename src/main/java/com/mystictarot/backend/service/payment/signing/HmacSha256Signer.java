@@ -0,0 +1,106 @@
+package com.mystictarot.backend.service.payment.signing;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * HMAC-SHA256 signer bound to one secret key.
+ * The key is initialised once into a prototype {@link Mac}. Signing borrows a clone of it from a small pool and
+ * returns it afterwards, so a call needs neither a provider lookup nor a key schedule, and request threads that
+ * live for one request (virtual threads) reuse the same few instances instead of each cloning its own.
+ * Verification decodes the expected hex and compares raw bytes in constant time.
+ * Instances are cached per key; use {@link #forKey(String)}.
+ */
+public final class HmacSha256Signer {
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final Map<String, HmacSha256Signer> CACHE = new ConcurrentHashMap<>();
+    private static final int POOL_SIZE = Math.max(2, Runtime.getRuntime().availableProcessors());
+
+    private final SecretKeySpec keySpec;
+    private final Mac prototype;
+    private final BlockingQueue<Mac> pool = new ArrayBlockingQueue<>(POOL_SIZE);
+
+    private HmacSha256Signer(String key) {
+        this.keySpec = new SecretKeySpec(key.getBytes(StandardCharsets.UTF_8), ALGORITHM);
+        this.prototype = initMac();
+    }
+
+    /**
+     * Get the cached signer for a key
+     * @return signer, or null if the key is null or blank (signing disabled)
+     */
+    public static HmacSha256Signer forKey(String key) {
+        if (key == null || key.isBlank()) {
+            return null;
+        }
+        return CACHE.computeIfAbsent(key, HmacSha256Signer::new);
+    }
+
+    /**
+     * Get the cached signer for a key that must be configured
+     * @param property property name used in the error message
+     * @throws IllegalStateException if the key is null or blank
+     */
+    public static HmacSha256Signer forRequiredKey(String key, String property) {
+        HmacSha256Signer signer = forKey(key);
+        if (signer == null) {
+            throw new IllegalStateException(property + " is not configured");
+        }
+        return signer;
+    }
+
+    /**
+     * MAC over the UTF-8 bytes of the given parts, as if they were concatenated
+     */
+    public byte[] sign(CharSequence... parts) {
+        Mac mac = pool.poll();
+        if (mac == null) {
+            mac = newMac();
+        }
+        for (CharSequence part : parts) {
+            mac.update(part.toString().getBytes(StandardCharsets.UTF_8));
+        }
+        byte[] signature = mac.doFinal();
+        // doFinal leaves the Mac reset and keyed; a full pool drops it
+        pool.offer(mac);
+        return signature;
+    }
+
+    public String signHex(CharSequence... parts) {
+        return HexCodec.encode(sign(parts));
+    }
+
+    /**
+     * Constant-time check of a hex signature (either case) against the given parts
+     */
+    public boolean verifyHex(String expectedHex, CharSequence... parts) {
+        byte[] expected = HexCodec.decode(expectedHex);
+        return expected != null && MessageDigest.isEqual(expected, sign(parts));
+    }
+
+    private Mac newMac() {
+        try {
+            return (Mac) prototype.clone();
+        } catch (CloneNotSupportedException e) {
+            return initMac();
+        }
+    }
+
+    private Mac initMac() {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(keySpec);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot initialise " + ALGORITHM, e);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.mystictarot.backend.service.payment.signing;
+
+import com.mystictarot.backend.dto.webhook.MomoWebhookPayloadDTO;
+
+/**
+ * Canonical strings that payment providers sign, built in one pre-sized buffer
+ */
+public final class SignaturePayloads {
+
+    private SignaturePayloads() {
+    }
+
+    /**
+     * Momo create-order signature: alphabetically ordered key=value pairs joined by '&amp;'
+     */
+    public static String momoCreateOrder(String accessKey, long amount, String extraData, String ipnUrl, String orderId,
+                                         String orderInfo, String partnerCode, String redirectUrl, String requestId,
+                                         String requestType) {
+        return new CanonicalQuery(384)
+                .param("accessKey", accessKey)
+                .param("amount", amount)
+                .param("extraData", extraData)
+                .param("ipnUrl", ipnUrl)
+                .param("orderId", orderId)
+                .param("orderInfo", orderInfo)
+                .param("partnerCode", partnerCode)
+                .param("redirectUrl", redirectUrl)
+                .param("requestId", requestId)
+                .param("requestType", requestType)
+                .toString();
+    }
+
+    /**
+     * Momo IPN signature (missing fields sign as empty values)
+     */
+    public static String momoIpn(MomoWebhookPayloadDTO payload) {
+        return new CanonicalQuery(384)
+                .param("amount", payload.getAmount())
+                .param("extraData", payload.getExtraData())
+                .param("message", payload.getMessage())
+                .param("orderId", payload.getOrderId())
+                .param("orderInfo", payload.getOrderInfo())
+                .param("orderType", payload.getOrderType())
+                .param("partnerCode", payload.getPartnerCode())
+                .param("payType", payload.getPayType())
+                .param("requestId", payload.getRequestId())
+                .param("responseTime", payload.getResponseTime())
+                .param("resultCode", payload.getResultCode())
+                .param("transId", payload.getTransId())
+                .toString();
+    }
+
+    /**
+     * ZaloPay create-order MAC input: app_id|app_trans_id|app_user|amount|app_time|embed_data|item
+     */
+    public static String zaloPayCreateOrder(String appId, String appTransId, String appUser, long amount, long appTime,
+                                            String embedData, String item) {
+        return new StringBuilder(64 + appTransId.length() + appUser.length() + embedData.length() + item.length())
+                .append(appId).append('|')
+                .append(appTransId).append('|')
+                .append(appUser).append('|')
+                .append(amount).append('|')
+                .append(appTime).append('|')
+                .append(embedData).append('|')
+                .append(item)
+                .toString();
+    }
+
+    /**
+     * Momo transaction-status query signature
+     */
+    public static String momoQuery(String accessKey, String orderId, String partnerCode, String requestId) {
+        return new CanonicalQuery(192)
+                .param("accessKey", accessKey)
+                .param("orderId", orderId)
+                .param("partnerCode", partnerCode)
+                .param("requestId", requestId)
+                .toString();
+    }
+
+    /**
+     * ZaloPay order-status query MAC input: app_id|app_trans_id|key1
+     */
+    public static String zaloPayQuery(String appId, String appTransId, String key1) {
+        return new StringBuilder(appId.length() + appTransId.length() + key1.length() + 2)
+                .append(appId).append('|')
+                .append(appTransId).append('|')
+                .append(key1)
+                .toString();
+    }
+
+    private static final class CanonicalQuery {
+
+        private final StringBuilder buffer;
+
+        CanonicalQuery(int capacity) {
+            this.buffer = new StringBuilder(capacity);
+        }
+
+        CanonicalQuery param(String key, Object value) {
+            if (!buffer.isEmpty()) {
+                buffer.append('&');
+            }
+            buffer.append(key).append('=');
+            if (value != null) {
+                buffer.append(value);
+            }
+            return this;
+        }
+
+        CanonicalQuery param(String key, long value) {
+            if (!buffer.isEmpty()) {
+                buffer.append('&');
+            }
+            buffer.append(key).append('=').append(value);
+            return this;
+        }
+
+        @Override
+        public String toString() {
+            return buffer.toString();
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.mystictarot.backend.service.profiling;
+
+import com.mystictarot.backend.dto.response.ProfilingRecordingDTO;
+import com.mystictarot.backend.exception.ResourceNotFoundException;
+import com.mystictarot.backend.exception.ValidationException;
+import jdk.jfr.Configuration;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * On-demand Flight Recorder recordings for operators, next to the always-on "continuous" recording the
+ * image starts with -XX:StartFlightRecording. Only one on-demand recording is open at a time; it stops by
+ * itself after the requested duration (at most max-duration-seconds) and keeps at most max-size-mb on disk.
+ * Stopping it dumps the data to a temporary .jfr file and closes the recording.
+ */
+@Slf4j
+@Service
+public class FlightRecordingService implements DisposableBean {
+
+    static final String CONTINUOUS_RECORDING = "continuous";
+    private static final Set<String> SETTINGS = Set.of("default", "profile");
+
+    private final Duration maxDuration;
+    private final long maxSizeBytes;
+    private final Map<Long, OnDemandRecording> recordings = new ConcurrentHashMap<>();
+
+    public FlightRecordingService(@Value("${app.profiling.max-duration-seconds:900}") long maxDurationSeconds,
+                                  @Value("${app.profiling.max-size-mb:200}") long maxSizeMb) {
+        this.maxDuration = Duration.ofSeconds(maxDurationSeconds);
+        this.maxSizeBytes = maxSizeMb * 1024 * 1024;
+    }
+
+    /**
+     * Start a recording with the "default" (about 1% overhead) or "profile" (more detail, about 2%) settings
+     */
+    public synchronized ProfilingRecordingDTO start(String settings, Long durationSeconds) {
+        if (!SETTINGS.contains(settings)) {
+            throw new ValidationException("Invalid settings: " + settings + ". Use default or profile.");
+        }
+        if (durationSeconds != null && durationSeconds < 1) {
+            throw new ValidationException("durationSeconds must be positive");
+        }
+        if (!recordings.isEmpty()) {
+            throw new IllegalArgumentException("Recording " + recordings.keySet().iterator().next()
+                    + " is still open, stop it first");
+        }
+        Duration duration = durationSeconds == null || durationSeconds > maxDuration.toSeconds()
+                ? maxDuration : Duration.ofSeconds(durationSeconds);
+
+        Recording recording;
+        try {
+            recording = new Recording(Configuration.getConfiguration(settings));
+        } catch (IOException | ParseException e) {
+            throw new IllegalStateException("Cannot load JFR settings " + settings, e);
+        }
+        recording.setName("on-demand-" + settings);
+        recording.setToDisk(true);
+        recording.setDuration(duration);
+        recording.setMaxSize(maxSizeBytes);
+        recording.start();
+        OnDemandRecording onDemand = new OnDemandRecording(recording, settings);
+        recordings.put(recording.getId(), onDemand);
+        log.info("Flight recording {} started: settings={}, duration={}s", recording.getId(), settings,
+                duration.toSeconds());
+        return onDemand.toDto();
+    }
+
+    public List<ProfilingRecordingDTO> list() {
+        return recordings.values().stream()
+                .map(OnDemandRecording::toDto)
+                .sorted(Comparator.comparingLong(ProfilingRecordingDTO::getId))
+                .toList();
+    }
+
+    /**
+     * Stop the recording if it is still running and dump it to a temporary file, which the caller deletes
+     */
+    public synchronized Path stop(long id) {
+        OnDemandRecording onDemand = recordings.remove(id);
+        if (onDemand == null) {
+            throw new ResourceNotFoundException("Recording not found with id: " + id);
+        }
+        Recording recording = onDemand.recording();
+        try {
+            if (recording.getState() == RecordingState.RUNNING) {
+                recording.stop();
+            }
+            Path file = dump(recording);
+            log.info("Flight recording {} stopped, {} bytes", id, Files.size(file));
+            return file;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write recording " + id, e);
+        } finally {
+            recording.close();
+        }
+    }
+
+    /**
+     * Snapshot of the always-on recording (last hours of data), which keeps running
+     */
+    public Path dumpContinuous() {
+        Recording continuous = FlightRecorder.getFlightRecorder().getRecordings().stream()
+                .filter(recording -> CONTINUOUS_RECORDING.equals(recording.getName())
+                        && recording.getState() == RecordingState.RUNNING)
+                .findFirst()
+                .orElseThrow(() -> new ResourceNotFoundException(
+                        "No continuous recording; start the JVM with -XX:StartFlightRecording:name=continuous"));
+        try {
+            return dump(continuous);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write the continuous recording", e);
+        }
+    }
+
+    private static Path dump(Recording recording) throws IOException {
+        Path file = Files.createTempFile("recording-" + recording.getId() + "-", ".jfr");
+        try {
+            recording.dump(file);
+            return file;
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+    }
+
+    @Override
+    public void destroy() {
+        recordings.values().forEach(onDemand -> onDemand.recording().close());
+        recordings.clear();
+    }
+
+    private record OnDemandRecording(Recording recording, String settings) {
+
+        ProfilingRecordingDTO toDto() {
+            return ProfilingRecordingDTO.builder()
+                    .id(recording.getId())
+                    .settings(settings)
+                    .state(recording.getState().name())
+                    .startTime(recording.getStartTime())
+                    .durationSeconds(recording.getDuration() != null ? recording.getDuration().toSeconds() : 0)
+                    .maxSizeBytes(recording.getMaxSize())
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.mystictarot.backend.service.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One Gemini generation, retries and backoff included
+ */
+@Name("com.mystictarot.GeminiCall")
+@Label("Gemini Call")
+@Category({"Mystic Tarot", "Gemini"})
+@Description("Gemini generateContent call including retries")
+@StackTrace(false)
+public class GeminiCallEvent extends Event {
+
+    @Label("Operation")
+    public String operation;
+
+    @Label("Model")
+    public String model;
+
+    @Label("Prompt Size")
+    @Description("Prompt length in characters")
+    public int promptChars;
+
+    @Label("Attempts")
+    public int attempts;
+
+    @Label("HTTP Status")
+    @Description("Status of the last attempt, 0 when no response was received")
+    public int httpStatus;
+
+    @Label("Outcome")
+    public String outcome;
+}
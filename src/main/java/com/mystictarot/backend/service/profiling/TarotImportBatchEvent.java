@@ -0,0 +1,25 @@
+package com.mystictarot.backend.service.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One JDBC batch flush of the tarot sheet import
+ */
+@Name("com.mystictarot.TarotImportBatch")
+@Label("Tarot Import Batch")
+@Category({"Mystic Tarot", "Import"})
+@Description("Card and translation upserts written in one batch")
+@StackTrace(false)
+public class TarotImportBatchEvent extends Event {
+
+    @Label("Cards")
+    public int cards;
+
+    @Label("Translations")
+    public int translations;
+}
@@ -0,0 +1,27 @@
+package com.mystictarot.backend.service.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * One step of an interpret or follow-up request (the same steps that are traced as tarot.* spans)
+ */
+@Name("com.mystictarot.TarotPhase")
+@Label("Tarot Phase")
+@Category({"Mystic Tarot", "Tarot"})
+@Description("Prepare, lookup, prompt and store steps of interpret and follow-up requests")
+@StackTrace(false)
+@Threshold("1 ms")
+public class TarotPhaseEvent extends Event {
+
+    @Label("Phase")
+    public String phase;
+
+    @Label("Failed")
+    public boolean failed;
+}
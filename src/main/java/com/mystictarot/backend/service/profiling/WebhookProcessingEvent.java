@@ -0,0 +1,28 @@
+package com.mystictarot.backend.service.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One attempt to apply a webhook inbox event
+ */
+@Name("com.mystictarot.WebhookProcessing")
+@Label("Webhook Processing")
+@Category({"Mystic Tarot", "Payment"})
+@Description("Webhook inbox event applied by the background worker")
+@StackTrace(false)
+public class WebhookProcessingEvent extends Event {
+
+    @Label("Provider")
+    public String provider;
+
+    @Label("Inbox Event Id")
+    public String eventId;
+
+    @Label("Outcome")
+    public String outcome;
+}
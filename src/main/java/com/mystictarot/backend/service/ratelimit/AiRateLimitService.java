@@ -0,0 +1,156 @@
+package com.mystictarot.backend.service.ratelimit;
+
+import com.mystictarot.backend.entity.enums.PlanType;
+import com.mystictarot.backend.entity.enums.SpreadType;
+import com.mystictarot.backend.exception.RateLimitExceededException;
+import com.mystictarot.backend.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Cluster-wide, cost-weighted rate limiting for the AI endpoints.
+ * Every node shares one token bucket per user and one per client IP in Redis; the Lua script
+ * checks and debits both atomically. Interpret costs one token per card in the spread, so a
+ * CELTIC_CROSS weighs ten times a DAILY_DRAW. Bucket size per minute depends on the user's plan.
+ * If Redis is unreachable the check fails open so an outage of the limiter never blocks readings.
+ * Every decision is counted in {@value #DECISIONS_METRIC} (limiter=ai) by plan and result.
+ */
+@Slf4j
+@Service
+public class AiRateLimitService {
+
+    public static final String DECISIONS_METRIC = "ratelimit.decisions";
+    private static final String KEY_PREFIX = "rl:ai:";
+    private static final long WINDOW_MS = 60_000L;
+
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> TOKEN_BUCKET_SCRIPT = createScript();
+
+    private final StringRedisTemplate redisTemplate;
+    private final UserRepository userRepository;
+    private final Map<PlanType, Map<String, Counter>> decisionCounters = new EnumMap<>(PlanType.class);
+
+    @Value("${app.rate-limit.ai.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.rate-limit.ai.plans.free:10}")
+    private int freeTokensPerMinute;
+
+    @Value("${app.rate-limit.ai.plans.retail5:15}")
+    private int retail5TokensPerMinute;
+
+    @Value("${app.rate-limit.ai.plans.monthly:30}")
+    private int monthlyTokensPerMinute;
+
+    @Value("${app.rate-limit.ai.plans.unlimited:60}")
+    private int unlimitedTokensPerMinute;
+
+    @Value("${app.rate-limit.ai.ip-tokens-per-minute:60}")
+    private int ipTokensPerMinute;
+
+    @Value("${app.rate-limit.ai.follow-up-cost:2}")
+    private int followUpCost;
+
+    public AiRateLimitService(StringRedisTemplate redisTemplate, UserRepository userRepository,
+                              MeterRegistry meterRegistry) {
+        this.redisTemplate = redisTemplate;
+        this.userRepository = userRepository;
+        for (PlanType plan : PlanType.values()) {
+            decisionCounters.put(plan, Map.of(
+                    "ALLOWED", decisionCounter(meterRegistry, plan, "ALLOWED"),
+                    "REJECTED", decisionCounter(meterRegistry, plan, "REJECTED"),
+                    "SKIPPED", decisionCounter(meterRegistry, plan, "SKIPPED")));
+        }
+    }
+
+    /**
+     * Debit the cost of an interpretation (one token per card in the spread)
+     * @throws RateLimitExceededException if either the user or the IP bucket cannot cover the cost
+     */
+    public RateLimitDecision consumeForInterpret(UUID userId, String clientIp, SpreadType spreadType) {
+        return consume(userId, clientIp, spreadType.getCardCount());
+    }
+
+    /**
+     * Debit the cost of a follow-up question
+     * @throws RateLimitExceededException if either the user or the IP bucket cannot cover the cost
+     */
+    public RateLimitDecision consumeForFollowUp(UUID userId, String clientIp) {
+        return consume(userId, clientIp, followUpCost);
+    }
+
+    private RateLimitDecision consume(UUID userId, String clientIp, int cost) {
+        if (!enabled) {
+            return RateLimitDecision.unlimited();
+        }
+        PlanType plan = userRepository.findPlanById(userId).orElse(PlanType.FREE);
+        int userCapacity = getTokensPerMinute(plan);
+        int effectiveCost = Math.max(1, Math.min(cost, Math.min(userCapacity, ipTokensPerMinute)));
+
+        List<?> result;
+        try {
+            result = redisTemplate.execute(TOKEN_BUCKET_SCRIPT,
+                    List.of(KEY_PREFIX + "user:" + userId, KEY_PREFIX + "ip:" + clientIp),
+                    String.valueOf(userCapacity),
+                    String.valueOf(ipTokensPerMinute),
+                    String.valueOf(effectiveCost),
+                    String.valueOf(WINDOW_MS));
+        } catch (DataAccessException e) {
+            log.warn("AI rate limit skipped, Redis unavailable: {}", e.getMessage());
+            countDecision(plan, "SKIPPED");
+            return RateLimitDecision.unlimited();
+        }
+        if (result == null || result.size() < 5) {
+            log.warn("AI rate limit skipped, unexpected script reply: {}", result);
+            countDecision(plan, "SKIPPED");
+            return RateLimitDecision.unlimited();
+        }
+
+        RateLimitDecision decision = RateLimitDecision.fromScriptResult(result);
+        if (!decision.allowed()) {
+            log.info("AI rate limit exceeded: userId={}, ip={}, plan={}, cost={}", userId, clientIp, plan, effectiveCost);
+            countDecision(plan, "REJECTED");
+            throw new RateLimitExceededException(decision);
+        }
+        countDecision(plan, "ALLOWED");
+        return decision;
+    }
+
+    private void countDecision(PlanType plan, String result) {
+        decisionCounters.get(plan).get(result).increment();
+    }
+
+    private static Counter decisionCounter(MeterRegistry meterRegistry, PlanType plan, String result) {
+        return meterRegistry.counter(DECISIONS_METRIC, "limiter", "ai", "plan", plan.name(), "result", result);
+    }
+
+    private int getTokensPerMinute(PlanType plan) {
+        return switch (plan) {
+            case FREE -> freeTokensPerMinute;
+            case RETAIL_5 -> retail5TokensPerMinute;
+            case MONTHLY -> monthlyTokensPerMinute;
+            case UNLIMITED -> unlimitedTokensPerMinute;
+        };
+    }
+
+    @SuppressWarnings("rawtypes")
+    private static RedisScript<List> createScript() {
+        DefaultRedisScript<List> script = new DefaultRedisScript<>();
+        script.setLocation(new ClassPathResource("scripts/ai_token_bucket.lua"));
+        script.setResultType(List.class);
+        return script;
+    }
+}
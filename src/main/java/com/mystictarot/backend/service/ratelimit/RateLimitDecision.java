@@ -0,0 +1,56 @@
+package com.mystictarot.backend.service.ratelimit;
+
+import org.springframework.http.HttpHeaders;
+
+import java.util.List;
+
+/**
+ * Outcome of a rate-limit check, rendered as IETF RateLimit headers.
+ * A negative limit means the check was skipped (limiter disabled or Redis unavailable) and no headers are sent.
+ */
+public record RateLimitDecision(boolean allowed, long limit, long remaining, long resetSeconds, long retryAfterSeconds) {
+
+    public static final String HEADER_LIMIT = "RateLimit-Limit";
+    public static final String HEADER_REMAINING = "RateLimit-Remaining";
+    public static final String HEADER_RESET = "RateLimit-Reset";
+
+    private static final RateLimitDecision UNLIMITED = new RateLimitDecision(true, -1, -1, 0, 0);
+
+    public static RateLimitDecision unlimited() {
+        return UNLIMITED;
+    }
+
+    /**
+     * Map the {allowed, limit, remaining, resetMs, retryAfterMs} reply of the token bucket script
+     */
+    static RateLimitDecision fromScriptResult(List<?> result) {
+        return new RateLimitDecision(
+                toLong(result.get(0)) == 1L,
+                toLong(result.get(1)),
+                Math.max(0, toLong(result.get(2))),
+                toSeconds(toLong(result.get(3))),
+                toSeconds(toLong(result.get(4))));
+    }
+
+    public HttpHeaders toHeaders() {
+        HttpHeaders headers = new HttpHeaders();
+        if (limit < 0) {
+            return headers;
+        }
+        headers.set(HEADER_LIMIT, String.valueOf(limit));
+        headers.set(HEADER_REMAINING, String.valueOf(remaining));
+        headers.set(HEADER_RESET, String.valueOf(resetSeconds));
+        if (!allowed) {
+            headers.set(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, retryAfterSeconds)));
+        }
+        return headers;
+    }
+
+    private static long toLong(Object value) {
+        return value instanceof Number n ? n.longValue() : Long.parseLong(String.valueOf(value));
+    }
+
+    private static long toSeconds(long millis) {
+        return (millis + 999) / 1000;
+    }
+}
@@ -0,0 +1,142 @@
+package com.mystictarot.backend.service.reconciliation;
+
+import com.mystictarot.backend.entity.Transaction;
+import com.mystictarot.backend.entity.enums.PaymentProvider;
+import com.mystictarot.backend.entity.enums.TransactionStatus;
+import com.mystictarot.backend.exception.InvalidPaymentException;
+import com.mystictarot.backend.repository.TransactionRepository;
+import com.mystictarot.backend.service.PaymentWebhookService;
+import com.mystictarot.backend.service.payment.PaymentProviderService;
+import com.mystictarot.backend.service.payment.PaymentServiceFactory;
+import com.mystictarot.backend.service.payment.ProviderOrderStatus;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Asks providers about orders whose webhook never arrived. Candidates are PENDING/EXPIRED orders past
+ * their payment window, least recently reconciled first so a backlog larger than one batch rotates instead
+ * of re-checking the same oldest orders; each provider is queried through a small shared pool and its own
+ * rate limiter, and PAID/FAILED answers go through PaymentWebhookService so entitlement is granted at most once.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PaymentReconciliationService implements DisposableBean {
+
+    private static final List<TransactionStatus> CANDIDATE_STATUSES = List.of(TransactionStatus.PENDING, TransactionStatus.EXPIRED);
+    private static final String PREFIX = "payment.reconciliation.";
+
+    private final TransactionRepository transactionRepository;
+    private final PaymentServiceFactory paymentServiceFactory;
+    private final PaymentWebhookService paymentWebhookService;
+    private final Environment environment;
+
+    private final Map<PaymentProvider, ProviderRateLimiter> rateLimiters = new EnumMap<>(PaymentProvider.class);
+    private ExecutorService executor;
+
+    @Value("${payment.order-expiry-minutes:15}")
+    private int orderExpiryMinutes;
+
+    @Value("${payment.reconciliation.lookback-hours:24}")
+    private int lookbackHours;
+
+    @Value("${payment.reconciliation.batch-size:200}")
+    private int batchSize;
+
+    @Value("${payment.reconciliation.parallelism:4}")
+    private int parallelism;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    @PostConstruct
+    void init() {
+        double fallback = environment.getProperty(PREFIX + "default.requests-per-second", Double.class, 5.0);
+        for (PaymentProvider provider : PaymentProvider.values()) {
+            double rate = environment.getProperty(PREFIX + provider.name().toLowerCase() + ".requests-per-second",
+                    Double.class, fallback);
+            rateLimiters.put(provider, new ProviderRateLimiter(rate));
+        }
+        // Provider calls are blocking I/O; with virtual threads the pool size still caps concurrency
+        ThreadFactory threadFactory = virtualThreads
+                ? Thread.ofVirtual().name("payment-reconcile-", 1).factory()
+                : Thread.ofPlatform().name("payment-reconcile-", 1).daemon(true).factory();
+        executor = Executors.newFixedThreadPool(parallelism, threadFactory);
+    }
+
+    /**
+     * Reconcile one batch of stale orders
+     * @return how many orders ended up in each provider status
+     */
+    public Map<ProviderOrderStatus, Integer> reconcile() throws InterruptedException {
+        LocalDateTime now = LocalDateTime.now();
+        List<Transaction> candidates = transactionRepository.findReconciliationCandidates(CANDIDATE_STATUSES,
+                now.minusHours(lookbackHours), now.minusMinutes(orderExpiryMinutes), PageRequest.of(0, batchSize));
+        if (!candidates.isEmpty()) {
+            transactionRepository.markReconciled(candidates.stream().map(Transaction::getId).toList(), now);
+        }
+        List<Callable<ProviderOrderStatus>> tasks = new ArrayList<>(candidates.size());
+        for (Transaction transaction : candidates) {
+            tasks.add(() -> reconcile(transaction));
+        }
+        Map<ProviderOrderStatus, Integer> counts = new EnumMap<>(ProviderOrderStatus.class);
+        for (Future<ProviderOrderStatus> future : executor.invokeAll(tasks)) {
+            ProviderOrderStatus status;
+            try {
+                status = future.get();
+            } catch (ExecutionException e) {
+                status = ProviderOrderStatus.UNKNOWN;
+            }
+            counts.merge(status, 1, Integer::sum);
+        }
+        return counts;
+    }
+
+    private ProviderOrderStatus reconcile(Transaction transaction) throws InterruptedException {
+        PaymentProviderService provider;
+        try {
+            provider = paymentServiceFactory.getService(transaction.getProvider());
+        } catch (InvalidPaymentException e) {
+            return ProviderOrderStatus.UNKNOWN;
+        }
+        rateLimiters.get(transaction.getProvider()).acquire();
+        ProviderOrderStatus status = provider.queryOrderStatus(transaction);
+        if (status == ProviderOrderStatus.PAID || status == ProviderOrderStatus.FAILED) {
+            try {
+                paymentWebhookService.applyProviderStatus(transaction.getId(), status);
+            } catch (RuntimeException e) {
+                log.warn("Could not apply reconciled status {} to transaction {}", status, transaction.getId(), e);
+                return ProviderOrderStatus.UNKNOWN;
+            }
+            if (status == ProviderOrderStatus.PAID) {
+                log.info("Reconciled transaction {} as paid via {} status query", transaction.getId(), transaction.getProvider());
+            }
+        }
+        return status;
+    }
+
+    @Override
+    public void destroy() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+}
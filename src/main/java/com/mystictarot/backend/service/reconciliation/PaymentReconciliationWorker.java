@@ -0,0 +1,79 @@
+package com.mystictarot.backend.service.reconciliation;
+
+import com.mystictarot.backend.service.payment.ProviderOrderStatus;
+import com.mystictarot.backend.util.RedisScripts;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Periodically reconciles stale orders. A Redis lock keeps the run on one node so provider rate limits
+ * are not multiplied by the number of instances. The lock is renewed every third of its TTL while a run
+ * is in progress, since a batch throttled by provider rate limits and timeouts has no useful upper bound,
+ * and released with a compare-and-delete so a node never drops a lock it no longer owns.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PaymentReconciliationWorker {
+
+    static final String LOCK_KEY = "payment:reconciliation:lock";
+
+    private final PaymentReconciliationService paymentReconciliationService;
+    private final StringRedisTemplate redisTemplate;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    @Value("${payment.reconciliation.lock-ttl-ms:600000}")
+    private long lockTtlMs;
+
+    @Scheduled(fixedDelayString = "${payment.reconciliation.interval-ms:300000}",
+            initialDelayString = "${payment.reconciliation.initial-delay-ms:60000}")
+    public void run() {
+        Boolean acquired = redisTemplate.opsForValue().setIfAbsent(LOCK_KEY, nodeId, Duration.ofMillis(lockTtlMs));
+        if (!Boolean.TRUE.equals(acquired)) {
+            return;
+        }
+        Thread renewal = Thread.ofVirtual().name("payment-reconcile-lock").start(this::renewLock);
+        try {
+            Map<ProviderOrderStatus, Integer> counts = paymentReconciliationService.reconcile();
+            if (!counts.isEmpty()) {
+                log.info("Payment reconciliation: {}", counts);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            renewal.interrupt();
+            redisTemplate.execute(RedisScripts.COMPARE_AND_DELETE, List.of(LOCK_KEY), nodeId);
+        }
+    }
+
+    private void renewLock() {
+        long interval = Math.max(1, lockTtlMs / 3);
+        while (true) {
+            try {
+                Thread.sleep(interval);
+            } catch (InterruptedException e) {
+                return;
+            }
+            try {
+                Long renewed = redisTemplate.execute(RedisScripts.COMPARE_AND_EXPIRE, List.of(LOCK_KEY),
+                        nodeId, String.valueOf(lockTtlMs));
+                if (renewed == null || renewed == 0L) {
+                    log.warn("Payment reconciliation lock was lost before the run finished");
+                    return;
+                }
+            } catch (DataAccessException e) {
+                log.warn("Could not renew payment reconciliation lock: {}", e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.mystictarot.backend.service.reconciliation;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Spaces calls to one provider evenly: each caller reserves the next free slot under a short lock
+ * and then sleeps outside it until that slot comes up.
+ */
+final class ProviderRateLimiter {
+
+    private final long intervalNanos;
+    private final ReentrantLock lock = new ReentrantLock();
+    private long nextSlotNanos;
+
+    ProviderRateLimiter(double permitsPerSecond) {
+        if (permitsPerSecond <= 0) {
+            throw new IllegalArgumentException("permitsPerSecond must be positive");
+        }
+        this.intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond);
+        this.nextSlotNanos = System.nanoTime();
+    }
+
+    void acquire() throws InterruptedException {
+        long waitNanos;
+        lock.lock();
+        try {
+            long now = System.nanoTime();
+            long slot = Math.max(now, nextSlotNanos);
+            nextSlotNanos = slot + intervalNanos;
+            waitNanos = slot - now;
+        } finally {
+            lock.unlock();
+        }
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+}
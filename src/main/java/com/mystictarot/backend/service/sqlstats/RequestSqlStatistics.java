@@ -0,0 +1,53 @@
+package com.mystictarot.backend.service.sqlstats;
+
+/**
+ * JDBC work done on behalf of one HTTP request. Only touched by the request thread, so plain fields suffice.
+ */
+public class RequestSqlStatistics {
+
+    private final String request;
+    private int statements;
+    private long jdbcTimeMs;
+    private long rows;
+
+    RequestSqlStatistics(String request) {
+        this.request = request;
+    }
+
+    void recordStatement(long elapsedMs) {
+        statements++;
+        jdbcTimeMs += elapsedMs;
+    }
+
+    void recordRow() {
+        rows++;
+    }
+
+    /**
+     * Method and path, e.g. GET /api/v1/history/3f1c...
+     */
+    public String getRequest() {
+        return request;
+    }
+
+    /**
+     * Statements executed; a JDBC batch counts once
+     */
+    public int getStatements() {
+        return statements;
+    }
+
+    /**
+     * Time spent executing statements, as measured around each execute call
+     */
+    public long getJdbcTimeMs() {
+        return jdbcTimeMs;
+    }
+
+    /**
+     * Rows read from result sets
+     */
+    public long getRows() {
+        return rows;
+    }
+}
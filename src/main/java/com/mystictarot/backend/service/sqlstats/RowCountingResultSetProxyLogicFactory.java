@@ -0,0 +1,35 @@
+package com.mystictarot.backend.service.sqlstats;
+
+import net.ttddyy.dsproxy.ConnectionInfo;
+import net.ttddyy.dsproxy.proxy.ProxyConfig;
+import net.ttddyy.dsproxy.proxy.ResultSetProxyLogic;
+import net.ttddyy.dsproxy.proxy.ResultSetProxyLogicFactory;
+import net.ttddyy.dsproxy.proxy.SimpleResultSetProxyLogicFactory;
+
+import java.sql.ResultSet;
+
+/**
+ * Result set proxy logic that counts rows for {@link SqlStatisticsCollector}. Only a successful next() is
+ * looked at; every other call goes straight to the default datasource-proxy logic.
+ */
+public class RowCountingResultSetProxyLogicFactory implements ResultSetProxyLogicFactory {
+
+    private final ResultSetProxyLogicFactory delegate = new SimpleResultSetProxyLogicFactory();
+    private final SqlStatisticsCollector collector;
+
+    public RowCountingResultSetProxyLogicFactory(SqlStatisticsCollector collector) {
+        this.collector = collector;
+    }
+
+    @Override
+    public ResultSetProxyLogic create(ResultSet resultSet, ConnectionInfo connectionInfo, ProxyConfig proxyConfig) {
+        ResultSetProxyLogic logic = delegate.create(resultSet, connectionInfo, proxyConfig);
+        return (proxy, method, args) -> {
+            Object result = logic.invoke(proxy, method, args);
+            if (Boolean.TRUE.equals(result) && "next".equals(method.getName())) {
+                collector.recordRow();
+            }
+            return result;
+        };
+    }
+}
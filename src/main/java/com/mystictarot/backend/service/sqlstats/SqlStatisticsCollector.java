@@ -0,0 +1,95 @@
+package com.mystictarot.backend.service.sqlstats;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Receives every JDBC statement and result set row (through the datasource-proxy wrapper configured in
+ * SqlStatisticsConfig) and adds them to the statistics of the request running on the current thread, if any. Statements slower than
+ * app.sql-stats.slow-query-threshold-ms go to the {@value #SLOW_QUERY_LOGGER} log with their SQL normalized
+ * (literals and IN lists collapsed), and are counted in {@value #SLOW_QUERY_METRIC}. Bind values are never logged.
+ */
+@Component
+public class SqlStatisticsCollector {
+
+    static final String SLOW_QUERY_LOGGER = "sql.slow";
+    static final String SLOW_QUERY_METRIC = "sql.slow.queries";
+
+    private static final Logger slowQueryLog = LoggerFactory.getLogger(SLOW_QUERY_LOGGER);
+    private static final ThreadLocal<RequestSqlStatistics> CURRENT = new ThreadLocal<>();
+
+    private static final int MAX_SQL_LENGTH = 2000;
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("(?<![\\w.$])-?\\d+(?:\\.\\d+)?(?![\\w.])");
+    private static final Pattern IN_LIST = Pattern.compile("(?i)\\bin\\s*\\(\\s*\\?(?:\\s*,\\s*\\?)*\\s*\\)");
+
+    private final Counter slowQueries;
+
+    @Value("${app.sql-stats.slow-query-threshold-ms:200}")
+    private long slowQueryThresholdMs;
+
+    public SqlStatisticsCollector(MeterRegistry meterRegistry) {
+        this.slowQueries = meterRegistry.counter(SLOW_QUERY_METRIC);
+    }
+
+    /**
+     * Start collecting for the request on the current thread
+     * @param request method and path, used in log lines
+     */
+    public RequestSqlStatistics begin(String request) {
+        RequestSqlStatistics statistics = new RequestSqlStatistics(request);
+        CURRENT.set(statistics);
+        return statistics;
+    }
+
+    public void end() {
+        CURRENT.remove();
+    }
+
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        long elapsedMs = execInfo.getElapsedTime();
+        RequestSqlStatistics statistics = CURRENT.get();
+        if (statistics != null) {
+            statistics.recordStatement(elapsedMs);
+        }
+        if (elapsedMs >= slowQueryThresholdMs) {
+            slowQueries.increment();
+            String sql = queryInfoList.stream().map(QueryInfo::getQuery).collect(Collectors.joining("; "));
+            slowQueryLog.warn("Slow query: {} ms, batch={}, request={}, sql={}", elapsedMs, execInfo.isBatch(),
+                    statistics != null ? statistics.getRequest() : "-", normalize(sql));
+        }
+    }
+
+    /**
+     * Called by {@link RowCountingResultSetProxyLogicFactory} for each ResultSet.next() that returned a row
+     */
+    void recordRow() {
+        RequestSqlStatistics statistics = CURRENT.get();
+        if (statistics != null) {
+            statistics.recordRow();
+        }
+    }
+
+    /**
+     * One line per statement shape: whitespace collapsed, literals replaced by ?, IN lists of any length
+     * shown as in (?...), truncated to {@value #MAX_SQL_LENGTH} characters
+     */
+    static String normalize(String sql) {
+        String normalized = WHITESPACE.matcher(sql).replaceAll(" ").trim();
+        normalized = STRING_LITERAL.matcher(normalized).replaceAll("?");
+        normalized = NUMBER_LITERAL.matcher(normalized).replaceAll("?");
+        normalized = IN_LIST.matcher(normalized).replaceAll("in (?...)");
+        return normalized.length() > MAX_SQL_LENGTH ? normalized.substring(0, MAX_SQL_LENGTH) + "..." : normalized;
+    }
+}
@@ -0,0 +1,127 @@
+package com.mystictarot.backend.service.token;
+
+import com.mystictarot.backend.entity.RefreshToken;
+import com.mystictarot.backend.entity.User;
+import com.mystictarot.backend.repository.RefreshTokenRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.UUID;
+
+/**
+ * Issues and rotates opaque refresh tokens.
+ * The raw token is 256 random bits returned to the client once; only its SHA-256 hash is persisted.
+ * Every refresh marks the presented token used and issues a new one in the same family. Presenting
+ * a token that was already used means it leaked, so the whole family is revoked and the user must log in again.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RefreshTokenService {
+
+    private static final int TOKEN_BYTES = 32;
+    private static final SecureRandom SECURE_RANDOM = new SecureRandom();
+    private static final Base64.Encoder TOKEN_ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    private final RefreshTokenRepository refreshTokenRepository;
+
+    @Value("${jwt.refresh-expiration-days:30}")
+    private long refreshExpirationDays;
+
+    /**
+     * Result of a successful rotation
+     * @param user owner of the token
+     * @param refreshToken new raw refresh token
+     */
+    public record Rotation(User user, String refreshToken) {
+    }
+
+    /**
+     * Start a new token family for a fresh login
+     * @return raw refresh token to hand to the client
+     */
+    @Transactional
+    public String issue(User user) {
+        return issue(user, UUID.randomUUID());
+    }
+
+    /**
+     * Exchange a refresh token for a new one
+     * @throws BadCredentialsException if the token is unknown, expired, revoked or reused
+     */
+    @Transactional(noRollbackFor = BadCredentialsException.class)
+    public Rotation rotate(String rawToken) {
+        RefreshToken current = refreshTokenRepository.findByTokenHash(hash(rawToken))
+                .orElseThrow(() -> new BadCredentialsException("Invalid refresh token"));
+        LocalDateTime now = LocalDateTime.now();
+
+        if (current.getRevokedAt() != null || refreshTokenRepository.markUsed(current.getId(), now) == 0) {
+            int revokedCount = refreshTokenRepository.revokeFamily(current.getFamilyId(), now);
+            log.warn("Refresh token reuse detected, revoked family: familyId={}, tokensRevoked={}",
+                    current.getFamilyId(), revokedCount);
+            throw new BadCredentialsException("Invalid refresh token");
+        }
+        if (current.getExpiresAt().isBefore(now)) {
+            throw new BadCredentialsException("Refresh token expired");
+        }
+
+        User user = current.getUser();
+        return new Rotation(user, issue(user, current.getFamilyId()));
+    }
+
+    /**
+     * Revoke the family of the given refresh token (logout). Unknown tokens are ignored.
+     */
+    @Transactional
+    public void revoke(String rawToken) {
+        refreshTokenRepository.findByTokenHash(hash(rawToken))
+                .ifPresent(token -> refreshTokenRepository.revokeFamily(token.getFamilyId(), LocalDateTime.now()));
+    }
+
+    /**
+     * Delete refresh tokens that expired more than a day ago
+     */
+    @Scheduled(cron = "${jwt.refresh-cleanup-cron:0 30 3 * * *}")
+    @Transactional
+    public void deleteExpired() {
+        int deleted = refreshTokenRepository.deleteExpiredBefore(LocalDateTime.now().minusDays(1));
+        if (deleted > 0) {
+            log.info("Deleted {} expired refresh tokens", deleted);
+        }
+    }
+
+    private String issue(User user, UUID familyId) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        SECURE_RANDOM.nextBytes(bytes);
+        String rawToken = TOKEN_ENCODER.encodeToString(bytes);
+
+        refreshTokenRepository.save(RefreshToken.builder()
+                .user(user)
+                .tokenHash(hash(rawToken))
+                .familyId(familyId)
+                .expiresAt(LocalDateTime.now().plusDays(refreshExpirationDays))
+                .build());
+        return rawToken;
+    }
+
+    static String hash(String rawToken) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(rawToken.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
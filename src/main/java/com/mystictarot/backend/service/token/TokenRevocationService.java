@@ -0,0 +1,172 @@
+package com.mystictarot.backend.service.token;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory revocation list for access tokens, keyed by the JWT ID (jti).
+ * The hot path ({@link #isRevoked(String)}) is a Bloom filter probe that answers "not revoked" for
+ * almost every request without touching the map, Redis or the database. Revocations are written to a
+ * Redis sorted set (score = token expiry) so new nodes can load them at startup, and broadcast on a
+ * pub/sub channel so every running node applies them immediately. Entries are dropped once the
+ * access token they refer to has expired anyway.
+ * Probes are counted in cache.gets (cache=jwt_revocation_filter): hit when the Bloom filter answers on
+ * its own, miss when the exact map had to be consulted (a revoked token or a false positive).
+ */
+@Slf4j
+@Service
+public class TokenRevocationService implements MessageListener {
+
+    static final String REVOKED_KEY = "auth:revoked-jti";
+    static final String CHANNEL = "auth:revocations";
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final Counter filterHits;
+    private final Counter filterMisses;
+
+    private final Map<String, Long> revoked = new ConcurrentHashMap<>();
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private volatile RevocationBloomFilter filter;
+
+    @Value("${jwt.revocation.bloom-expected-entries:100000}")
+    private int bloomExpectedEntries;
+
+    @Value("${jwt.revocation.bloom-false-positive-rate:0.001}")
+    private double bloomFalsePositiveRate;
+
+    public TokenRevocationService(StringRedisTemplate redisTemplate, RedisMessageListenerContainer listenerContainer,
+                                  MeterRegistry meterRegistry) {
+        this.redisTemplate = redisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.filterHits = meterRegistry.counter("cache.gets", "cache", "jwt_revocation_filter", "result", "hit");
+        this.filterMisses = meterRegistry.counter("cache.gets", "cache", "jwt_revocation_filter", "result", "miss");
+    }
+
+    @PostConstruct
+    public void init() {
+        filter = new RevocationBloomFilter(bloomExpectedEntries, bloomFalsePositiveRate);
+        listenerContainer.addMessageListener(this, new ChannelTopic(CHANNEL));
+        loadFromRedis();
+    }
+
+    /**
+     * Check whether an access token ID has been revoked
+     * @param tokenId JWT ID (jti claim)
+     * @return true if the token was revoked and has not expired yet
+     */
+    public boolean isRevoked(String tokenId) {
+        if (tokenId == null) {
+            return false;
+        }
+        if (!filter.mightContain(tokenId)) {
+            filterHits.increment();
+            return false;
+        }
+        filterMisses.increment();
+        Long expiresAt = revoked.get(tokenId);
+        return expiresAt != null && expiresAt > System.currentTimeMillis();
+    }
+
+    /**
+     * Revoke an access token on every node until it expires
+     * @param tokenId JWT ID (jti claim)
+     * @param expiresAtMillis token expiry as epoch millis
+     */
+    public void revoke(String tokenId, long expiresAtMillis) {
+        if (tokenId == null || expiresAtMillis <= System.currentTimeMillis()) {
+            return;
+        }
+        addLocal(tokenId, expiresAtMillis);
+        try {
+            redisTemplate.opsForZSet().add(REVOKED_KEY, tokenId, expiresAtMillis);
+            redisTemplate.convertAndSend(CHANNEL, tokenId + ":" + expiresAtMillis);
+        } catch (DataAccessException e) {
+            log.warn("Could not publish token revocation to Redis, other nodes will not see it: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int separator = body.lastIndexOf(':');
+        if (separator <= 0) {
+            log.warn("Ignoring malformed revocation message: {}", body);
+            return;
+        }
+        try {
+            addLocal(body.substring(0, separator), Long.parseLong(body.substring(separator + 1)));
+        } catch (NumberFormatException e) {
+            log.warn("Ignoring malformed revocation message: {}", body);
+        }
+    }
+
+    /**
+     * Drop revocations of tokens that have expired and rebuild the Bloom filter from the rest
+     */
+    @Scheduled(fixedDelayString = "${jwt.revocation.purge-interval-ms:300000}")
+    public void purgeExpired() {
+        long now = System.currentTimeMillis();
+        writeLock.lock();
+        try {
+            revoked.values().removeIf(expiresAt -> expiresAt <= now);
+            RevocationBloomFilter rebuilt = new RevocationBloomFilter(bloomExpectedEntries, bloomFalsePositiveRate);
+            revoked.keySet().forEach(rebuilt::put);
+            filter = rebuilt;
+        } finally {
+            writeLock.unlock();
+        }
+        try {
+            redisTemplate.opsForZSet().removeRangeByScore(REVOKED_KEY, Double.NEGATIVE_INFINITY, now);
+        } catch (DataAccessException e) {
+            log.warn("Could not purge expired revocations from Redis: {}", e.getMessage());
+        }
+    }
+
+    private void addLocal(String tokenId, long expiresAtMillis) {
+        writeLock.lock();
+        try {
+            revoked.merge(tokenId, expiresAtMillis, Math::max);
+            filter.put(tokenId);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void loadFromRedis() {
+        try {
+            long now = System.currentTimeMillis();
+            Set<ZSetOperations.TypedTuple<String>> entries =
+                    redisTemplate.opsForZSet().rangeByScoreWithScores(REVOKED_KEY, now, Double.POSITIVE_INFINITY);
+            if (entries == null) {
+                return;
+            }
+            for (ZSetOperations.TypedTuple<String> entry : entries) {
+                if (entry.getValue() != null && entry.getScore() != null) {
+                    addLocal(entry.getValue(), entry.getScore().longValue());
+                }
+            }
+            log.info("Loaded {} active token revocations from Redis", revoked.size());
+        } catch (DataAccessException e) {
+            log.warn("Could not load token revocations from Redis: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.mystictarot.backend.service.webhook;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mystictarot.backend.dto.webhook.MomoWebhookPayloadDTO;
+import com.mystictarot.backend.dto.webhook.ZaloPayCallbackDataDTO;
+import com.mystictarot.backend.entity.WebhookInboxEvent;
+import com.mystictarot.backend.entity.enums.PaymentProvider;
+import com.mystictarot.backend.entity.enums.WebhookEventStatus;
+import com.mystictarot.backend.repository.WebhookInboxRepository;
+import com.mystictarot.backend.service.PaymentWebhookService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Durable inbox for verified payment webhooks.
+ * Endpoints only verify and {@link #accept} the raw event, which is a single insert, and acknowledge
+ * the provider right away. {@link WebhookInboxWorker} later claims due events in batches and applies
+ * each one in its own transaction; failures are retried with exponential backoff until max-attempts,
+ * after which the event is parked as DEAD for manual inspection.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class WebhookInboxService {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final WebhookInboxRepository webhookInboxRepository;
+    private final PaymentWebhookService paymentWebhookService;
+    private final ObjectMapper objectMapper;
+
+    @Value("${payment.webhook-inbox.lease-ms:60000}")
+    private long leaseMs;
+
+    @Value("${payment.webhook-inbox.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${payment.webhook-inbox.initial-backoff-ms:5000}")
+    private long initialBackoffMs;
+
+    @Value("${payment.webhook-inbox.max-backoff-ms:1800000}")
+    private long maxBackoffMs;
+
+    /**
+     * Store a verified event. Redelivered events with the same provider and event ID are ignored.
+     * @return true if the event is new, false if it was already in the inbox
+     */
+    @Transactional
+    public boolean accept(PaymentProvider provider, String eventId, String payload) {
+        boolean inserted = webhookInboxRepository.insertIfAbsent(
+                UUID.randomUUID(), provider.name(), eventId, payload, LocalDateTime.now()) > 0;
+        if (!inserted) {
+            log.info("Duplicate webhook ignored: provider={}, eventId={}", provider, eventId);
+        }
+        return inserted;
+    }
+
+    /**
+     * Claim up to {@code limit} due events for this worker. Rows locked by another worker are skipped,
+     * and claimed rows are leased so they are not picked up again while being processed.
+     */
+    @Transactional
+    public List<WebhookInboxEvent> claimBatch(int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        List<UUID> ids = webhookInboxRepository.lockDueEventIds(now, limit);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        webhookInboxRepository.lease(ids, now.plusNanos(leaseMs * 1_000_000L));
+        return webhookInboxRepository.findAllById(ids);
+    }
+
+    /**
+     * Apply one event and mark it processed in the same transaction
+     */
+    @Transactional(rollbackFor = Exception.class)
+    public void process(UUID eventId) throws Exception {
+        WebhookInboxEvent event = webhookInboxRepository.findById(eventId).orElse(null);
+        if (event == null || event.getStatus() != WebhookEventStatus.PENDING) {
+            return;
+        }
+        switch (event.getProvider()) {
+            case MOMO -> paymentWebhookService.handleMomoCallback(
+                    objectMapper.readValue(event.getPayload(), MomoWebhookPayloadDTO.class));
+            case ZALOPAY -> paymentWebhookService.handleZaloPayCallback(
+                    objectMapper.readValue(event.getPayload(), ZaloPayCallbackDataDTO.class));
+            case STRIPE -> paymentWebhookService.handleStripeWebhook(event.getPayload());
+        }
+        event.setStatus(WebhookEventStatus.PROCESSED);
+        event.setProcessedAt(LocalDateTime.now());
+        event.setLastError(null);
+        webhookInboxRepository.save(event);
+    }
+
+    /**
+     * Schedule a retry with exponential backoff, or park the event as DEAD after max-attempts
+     */
+    @Transactional
+    public void recordFailure(UUID eventId, Exception error) {
+        webhookInboxRepository.findById(eventId).ifPresent(event -> {
+            String message = error.getClass().getSimpleName() + ": " + error.getMessage();
+            event.setLastError(message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message);
+            if (event.getAttempts() >= maxAttempts) {
+                event.setStatus(WebhookEventStatus.DEAD);
+                log.error("Webhook event dead after {} attempts: provider={}, eventId={}, error={}",
+                        event.getAttempts(), event.getProvider(), event.getEventId(), message);
+            } else {
+                long delayMs = backoffMs(event.getAttempts());
+                event.setNextAttemptAt(LocalDateTime.now().plusNanos(delayMs * 1_000_000L));
+                log.warn("Webhook event failed, retry in {} ms: provider={}, eventId={}, attempt={}, error={}",
+                        delayMs, event.getProvider(), event.getEventId(), event.getAttempts(), message);
+            }
+            webhookInboxRepository.save(event);
+        });
+    }
+
+    /**
+     * Delete processed events older than the retention period
+     */
+    @Transactional
+    public int purgeProcessed(LocalDateTime before) {
+        return webhookInboxRepository.deleteByStatusAndProcessedAtBefore(WebhookEventStatus.PROCESSED, before);
+    }
+
+    long backoffMs(int attempts) {
+        int exponent = Math.max(0, Math.min(attempts - 1, 30));
+        return Math.min(maxBackoffMs, initialBackoffMs << exponent);
+    }
+}
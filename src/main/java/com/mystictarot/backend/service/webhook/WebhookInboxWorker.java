@@ -0,0 +1,118 @@
+package com.mystictarot.backend.service.webhook;
+
+import com.mystictarot.backend.entity.WebhookInboxEvent;
+import com.mystictarot.backend.entity.enums.PaymentProvider;
+import com.mystictarot.backend.service.profiling.WebhookProcessingEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Drains the webhook inbox in the background. Safe to run on every node: batches are claimed
+ * with SKIP LOCKED and leased, and entitlement is applied with a conditional status update.
+ * Each attempt is timed as {@value #PROCESSING_METRIC} by provider and outcome; for processed events,
+ * {@value #LAG_METRIC} records the time from receipt to processing. Each attempt is also traced as a
+ * payment.webhook.process span under the scheduled drain, with the inbox event id as an attribute, and
+ * recorded as a {@link WebhookProcessingEvent} for Flight Recorder.
+ */
+@Slf4j
+@Component
+public class WebhookInboxWorker {
+
+    static final String PROCESSING_METRIC = "payment.webhook.processing";
+    static final String LAG_METRIC = "payment.webhook.lag";
+
+    private final WebhookInboxService webhookInboxService;
+    private final MeterRegistry meterRegistry;
+    private final ObservationRegistry observationRegistry;
+    private final Map<PaymentProvider, ProviderTimers> timersByProvider = new EnumMap<>(PaymentProvider.class);
+
+    @Value("${payment.webhook-inbox.batch-size:50}")
+    private int batchSize;
+
+    @Value("${payment.webhook-inbox.retention-days:30}")
+    private int retentionDays;
+
+    public WebhookInboxWorker(WebhookInboxService webhookInboxService, MeterRegistry meterRegistry,
+                              ObservationRegistry observationRegistry) {
+        this.webhookInboxService = webhookInboxService;
+        this.meterRegistry = meterRegistry;
+        this.observationRegistry = observationRegistry;
+        for (PaymentProvider provider : PaymentProvider.values()) {
+            timersByProvider.put(provider, new ProviderTimers(processingTimer(provider, "SUCCESS"),
+                    processingTimer(provider, "FAILURE"), meterRegistry.timer(LAG_METRIC, "provider", provider.name())));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${payment.webhook-inbox.poll-interval-ms:1000}")
+    public void drain() {
+        List<WebhookInboxEvent> batch;
+        do {
+            batch = webhookInboxService.claimBatch(batchSize);
+            for (WebhookInboxEvent event : batch) {
+                String provider = String.valueOf(event.getProvider());
+                ProviderTimers timers = timersByProvider.get(event.getProvider());
+                Timer.Sample sample = Timer.start(meterRegistry);
+                Observation observation = Observation.createNotStarted("payment.webhook.process", observationRegistry)
+                        .lowCardinalityKeyValue("provider", provider)
+                        .highCardinalityKeyValue("event.id", String.valueOf(event.getId()))
+                        .start();
+                WebhookProcessingEvent jfrEvent = new WebhookProcessingEvent();
+                jfrEvent.begin();
+                String outcome = "FAILURE";
+                try (Observation.Scope scope = observation.openScope()) {
+                    webhookInboxService.process(event.getId());
+                    outcome = "SUCCESS";
+                    sample.stop(timers.success());
+                    if (event.getReceivedAt() != null) {
+                        timers.lag().record(Duration.between(event.getReceivedAt(), LocalDateTime.now()));
+                    }
+                } catch (Exception e) {
+                    observation.error(e);
+                    sample.stop(timers.failure());
+                    webhookInboxService.recordFailure(event.getId(), e);
+                } finally {
+                    observation.stop();
+                    jfrEvent.end();
+                    if (jfrEvent.shouldCommit()) {
+                        jfrEvent.provider = provider;
+                        jfrEvent.eventId = String.valueOf(event.getId());
+                        jfrEvent.outcome = outcome;
+                        jfrEvent.commit();
+                    }
+                }
+            }
+        } while (batch.size() == batchSize);
+    }
+
+    private record ProviderTimers(Timer success, Timer failure, Timer lag) {
+    }
+
+    private Timer processingTimer(PaymentProvider provider, String outcome) {
+        return Timer.builder(PROCESSING_METRIC)
+                .description("Webhook inbox event processing attempts")
+                .tag("provider", provider.name())
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${payment.webhook-inbox.purge-cron:0 0 4 * * *}")
+    public void purgeProcessed() {
+        int deleted = webhookInboxService.purgeProcessed(LocalDateTime.now().minusDays(retentionDays));
+        if (deleted > 0) {
+            log.info("Purged {} processed webhook events", deleted);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.mystictarot.backend.util;
+
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+
+/**
+ * Lua scripts shared by Redis locks and markers that must only be changed by the caller that wrote them
+ */
+public final class RedisScripts {
+
+    /**
+     * Replace KEYS[1] with ARGV[2] (ttl ARGV[3] ms) only if it still holds ARGV[1]; returns 1 or 0
+     */
+    public static final RedisScript<Long> COMPARE_AND_SET = createScript("scripts/compare_and_set.lua");
+
+    /**
+     * Delete KEYS[1] only if it still holds ARGV[1]; returns 1 or 0
+     */
+    public static final RedisScript<Long> COMPARE_AND_DELETE = createScript("scripts/compare_and_delete.lua");
+
+    /**
+     * Set the ttl of KEYS[1] to ARGV[2] ms only if it still holds ARGV[1]; returns 1 or 0
+     */
+    public static final RedisScript<Long> COMPARE_AND_EXPIRE = createScript("scripts/compare_and_expire.lua");
+
+    private RedisScripts() {
+    }
+
+    private static RedisScript<Long> createScript(String location) {
+        DefaultRedisScript<Long> script = new DefaultRedisScript<>();
+        script.setLocation(new ClassPathResource(location));
+        script.setResultType(Long.class);
+        return script;
+    }
+}
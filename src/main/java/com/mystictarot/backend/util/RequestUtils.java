@@ -0,0 +1,36 @@
+package com.mystictarot.backend.util;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Utility class for inspecting incoming HTTP requests
+ */
+public class RequestUtils {
+
+    private static final String UNKNOWN_CLIENT = "unknown";
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    /**
+     * Resolve the originating client IP. X-Forwarded-For is not read here: the client controls every hop it
+     * sends, so Tomcat's RemoteIpValve (server.forward-headers-strategy=native) resolves the remote address
+     * from the right-most hop that is not one of our own proxies (server.tomcat.remoteip.*)
+     * @param request current HTTP request
+     * @return client IP, or "unknown" when it cannot be determined
+     */
+    public static String getClientIp(HttpServletRequest request) {
+        return request.getRemoteAddr() != null ? request.getRemoteAddr() : UNKNOWN_CLIENT;
+    }
+
+    /**
+     * Extract the bearer token from the Authorization header
+     * @param request current HTTP request
+     * @return token without the "Bearer " prefix, or null if absent
+     */
+    public static String getBearerToken(HttpServletRequest request) {
+        String bearerToken = request.getHeader("Authorization");
+        if (bearerToken != null && bearerToken.startsWith(BEARER_PREFIX) && bearerToken.length() > BEARER_PREFIX.length()) {
+            return bearerToken.substring(BEARER_PREFIX.length());
+        }
+        return null;
+    }
+}
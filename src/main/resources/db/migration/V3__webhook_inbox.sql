@@ -0,0 +1,18 @@
+-- Migration: durable inbox for payment provider webhooks
+-- Run this manually before deploying to environments where ddl-auto is validate.
+
+CREATE TABLE IF NOT EXISTS webhook_inbox (
+    id UUID PRIMARY KEY,
+    provider VARCHAR(255) NOT NULL,
+    event_id VARCHAR(255) NOT NULL,
+    payload TEXT NOT NULL,
+    status VARCHAR(255) NOT NULL DEFAULT 'PENDING',
+    attempts INTEGER NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP NOT NULL,
+    last_error VARCHAR(1000),
+    received_at TIMESTAMP NOT NULL,
+    processed_at TIMESTAMP,
+    CONSTRAINT uk_webhook_inbox_provider_event UNIQUE (provider, event_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_webhook_inbox_status_next_attempt ON webhook_inbox(status, next_attempt_at);
@@ -0,0 +1,10 @@
+-- Migration: EXPIRED transaction status and indexes for the expiry sweeper
+-- Run this manually before deploying to environments where ddl-auto is validate.
+
+-- Hibernate generates a CHECK constraint for enum columns that ddl-auto update does not widen.
+ALTER TABLE transactions DROP CONSTRAINT IF EXISTS transactions_status_check;
+ALTER TABLE transactions ADD CONSTRAINT transactions_status_check
+    CHECK (status IN ('PENDING', 'SUCCESS', 'FAILED', 'CANCELLED', 'EXPIRED'));
+
+CREATE INDEX IF NOT EXISTS idx_transactions_status_created_at ON transactions(status, created_at, id);
+CREATE INDEX IF NOT EXISTS idx_users_plan_subscription_expiry ON users(plan, subscription_expiry, id);
@@ -0,0 +1,42 @@
+-- Migration: plan and price catalog keyed by (plan_type, locale)
+-- Run this manually before deploying to environments where ddl-auto is validate.
+-- Price changes take effect on every instance within payment.catalog.refresh-interval-ms, no redeploy needed.
+
+CREATE TABLE IF NOT EXISTS plan_prices (
+    id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    plan_type VARCHAR(255) NOT NULL,
+    locale VARCHAR(10) NOT NULL,
+    amount NUMERIC(12, 2) NOT NULL,
+    currency VARCHAR(3) NOT NULL,
+    extra_credits INTEGER,
+    sort_order INTEGER NOT NULL DEFAULT 0,
+    active BOOLEAN NOT NULL DEFAULT TRUE,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT uk_plan_prices_plan_locale UNIQUE (plan_type, locale)
+);
+
+-- The refresh compares MAX(updated_at); keep it moving for manual SQL edits too.
+CREATE OR REPLACE FUNCTION plan_prices_touch_updated_at() RETURNS TRIGGER AS $$
+BEGIN
+    NEW.updated_at := CURRENT_TIMESTAMP;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS trg_plan_prices_updated_at ON plan_prices;
+CREATE TRIGGER trg_plan_prices_updated_at
+    BEFORE UPDATE ON plan_prices
+    FOR EACH ROW EXECUTE FUNCTION plan_prices_touch_updated_at();
+
+-- Seed with the prices previously configured in application.yml
+INSERT INTO plan_prices (plan_type, locale, amount, currency, extra_credits, sort_order) VALUES
+    ('MONTHLY',   'vi', 199000, 'VND', NULL, 0),
+    ('UNLIMITED', 'vi', 399000, 'VND', NULL, 1),
+    ('RETAIL_5',  'vi',  19000, 'VND', 5,    2),
+    ('MONTHLY',   'vn', 199000, 'VND', NULL, 0),
+    ('UNLIMITED', 'vn', 399000, 'VND', NULL, 1),
+    ('RETAIL_5',  'vn',  19000, 'VND', 5,    2),
+    ('MONTHLY',   'en',  12.99, 'USD', NULL, 0),
+    ('UNLIMITED', 'en',  39.99, 'USD', NULL, 1),
+    ('RETAIL_5',  'en',   1.99, 'USD', 5,    2)
+ON CONFLICT (plan_type, locale) DO NOTHING;
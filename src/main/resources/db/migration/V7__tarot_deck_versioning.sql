@@ -0,0 +1,18 @@
+-- Migration: incremental tarot sheet import
+-- Run this manually before deploying to environments where ddl-auto is validate.
+-- Rows imported before this migration have no hash and are rewritten once by the next import.
+
+ALTER TABLE tarot_cards ADD COLUMN IF NOT EXISTS content_hash VARCHAR(64);
+ALTER TABLE tarot_card_translations ADD COLUMN IF NOT EXISTS content_hash VARCHAR(64);
+
+CREATE TABLE IF NOT EXISTS tarot_deck_state (
+    id SMALLINT PRIMARY KEY,
+    version BIGINT NOT NULL,
+    source_url VARCHAR(2048),
+    source_etag VARCHAR(512),
+    source_last_modified VARCHAR(64),
+    imported_at TIMESTAMP,
+    CONSTRAINT ck_tarot_deck_state_singleton CHECK (id = 1)
+);
+
+INSERT INTO tarot_deck_state (id, version) VALUES (1, 0) ON CONFLICT (id) DO NOTHING;
@@ -0,0 +1,27 @@
+-- Migration: time-ordered UUIDv7 primary keys for users, readings, chat_messages and transactions
+-- No schema change: the id columns stay UUID and the application now generates v7 values (UuidV7Generator).
+--
+-- Existing rows keep their random v4 ids. Rewriting them is not an option:
+--   * user ids are the JWT subject;
+--   * reading ids are in client URLs;
+--   * transaction ids are sent to MoMo, ZaloPay and Stripe as order references, and come back in webhooks and
+--     reconciliation.
+--
+-- v7 ids start with the timestamp (01...). That is below almost every existing v4 id, so new keys all go in
+-- at one spot near the low end of each index, not all over it. The hot leaf page stays in cache, and splits no
+-- longer dirty random pages or write full-page WAL images for them. One catch: Postgres fills pages up to the
+-- fillfactor only at the rightmost end of an index. At any other point it splits a full page roughly in the
+-- middle. Until the v4 rows are gone, the v7 part of the index is therefore not packed to the fillfactor.
+-- Rebuild the indexes once after deploying, then periodically (e.g. monthly) while v4 rows remain. A table with
+-- only v7 ids (a new environment) inserts at the right edge and stays packed. docs/benchmarks.md describes how
+-- to measure the difference with UuidPrimaryKeyInsertBenchmark.
+--
+-- Run outside a transaction. CONCURRENTLY does not block reads or writes.
+
+REINDEX INDEX CONCURRENTLY users_pkey;
+REINDEX INDEX CONCURRENTLY readings_pkey;
+REINDEX INDEX CONCURRENTLY chat_messages_pkey;
+REINDEX INDEX CONCURRENTLY transactions_pkey;
+
+-- Progress of the cutover: share of rows with a v7 id (the version digit is the 15th character)
+-- SELECT count(*) FILTER (WHERE substr(id::text, 15, 1) = '7') * 100.0 / count(*) AS v7_percent FROM readings;
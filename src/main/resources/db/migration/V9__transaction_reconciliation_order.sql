@@ -0,0 +1,6 @@
+-- Migration: last_reconciled_at on transactions, so reconciliation rotates through its candidates
+-- Run this manually before deploying to environments where ddl-auto is validate.
+
+-- Orders never asked about come first, then the least recently asked. Without it every run took the same
+-- oldest batch and newer stale orders were never reached while the backlog exceeded the batch size.
+ALTER TABLE transactions ADD COLUMN IF NOT EXISTS last_reconciled_at TIMESTAMP;
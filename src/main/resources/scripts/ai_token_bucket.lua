@@ -0,0 +1,60 @@
+-- Atomic dual token bucket (per user + per client IP) for the AI endpoints.
+-- KEYS[1] = user bucket, KEYS[2] = ip bucket
+-- ARGV[1] = user capacity, ARGV[2] = ip capacity, ARGV[3] = cost, ARGV[4] = refill window in ms
+-- Each bucket refills to full capacity over one window. A request is admitted only when both
+-- buckets hold at least `cost` tokens, so a rejected request never drains either bucket.
+-- Returns {allowed, limit, remaining, resetMs, retryAfterMs}, reported for the tighter bucket.
+local time = redis.call('TIME')
+local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+local userCap = tonumber(ARGV[1])
+local ipCap = tonumber(ARGV[2])
+local cost = tonumber(ARGV[3])
+local window = tonumber(ARGV[4])
+
+local function refill(key, capacity)
+    local state = redis.call('HMGET', key, 'tokens', 'ts')
+    local tokens = tonumber(state[1])
+    local ts = tonumber(state[2])
+    if tokens == nil or ts == nil then
+        return capacity
+    end
+    local elapsed = math.max(0, now - ts)
+    return math.min(capacity, tokens + elapsed * capacity / window)
+end
+
+local function persist(key, tokens)
+    redis.call('HSET', key, 'tokens', tostring(tokens), 'ts', now)
+    redis.call('PEXPIRE', key, window * 2)
+end
+
+local function waitMs(tokens, capacity, needed)
+    if tokens >= needed then
+        return 0
+    end
+    return math.ceil((needed - tokens) * window / capacity)
+end
+
+local userTokens = refill(KEYS[1], userCap)
+local ipTokens = refill(KEYS[2], ipCap)
+
+local allowed = 0
+if userTokens >= cost and ipTokens >= cost then
+    userTokens = userTokens - cost
+    ipTokens = ipTokens - cost
+    allowed = 1
+end
+persist(KEYS[1], userTokens)
+persist(KEYS[2], ipTokens)
+
+local limit = userCap
+local tokens = userTokens
+if ipTokens < userTokens then
+    limit = ipCap
+    tokens = ipTokens
+end
+
+local retryAfterMs = 0
+if allowed == 0 then
+    retryAfterMs = math.max(waitMs(userTokens, userCap, cost), waitMs(ipTokens, ipCap, cost))
+end
+return {allowed, limit, math.floor(tokens), waitMs(tokens, limit, limit), retryAfterMs}
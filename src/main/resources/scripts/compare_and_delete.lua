@@ -0,0 +1,8 @@
+-- Delete a key only if it still holds the value the caller wrote.
+-- KEYS[1] = key
+-- ARGV[1] = expected value
+-- Returns 1 if deleted, 0 if the key expired or now belongs to someone else.
+if redis.call('GET', KEYS[1]) == ARGV[1] then
+    return redis.call('DEL', KEYS[1])
+end
+return 0
@@ -0,0 +1,8 @@
+-- Extend a key's ttl only if it still holds the value the caller wrote.
+-- KEYS[1] = key
+-- ARGV[1] = expected value, ARGV[2] = ttl in ms
+-- Returns 1 if extended, 0 if the key expired or now belongs to someone else.
+if redis.call('GET', KEYS[1]) == ARGV[1] then
+    return redis.call('PEXPIRE', KEYS[1], ARGV[2])
+end
+return 0
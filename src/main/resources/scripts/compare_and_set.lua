@@ -0,0 +1,9 @@
+-- Replace a key only if it still holds the value the caller wrote.
+-- KEYS[1] = key
+-- ARGV[1] = expected value, ARGV[2] = new value, ARGV[3] = ttl in ms
+-- Returns 1 if replaced, 0 if the key expired or now belongs to someone else.
+if redis.call('GET', KEYS[1]) == ARGV[1] then
+    redis.call('SET', KEYS[1], ARGV[2], 'PX', ARGV[3])
+    return 1
+end
+return 0
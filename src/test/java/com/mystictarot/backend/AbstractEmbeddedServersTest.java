@@ -0,0 +1,83 @@
+package com.mystictarot.backend;
+
+import com.mystictarot.backend.entity.TarotCard;
+import com.mystictarot.backend.entity.TarotCardTranslation;
+import com.mystictarot.backend.entity.enums.SuitType;
+import com.mystictarot.backend.repository.TarotCardRepository;
+import com.mystictarot.backend.repository.TarotCardTranslationRepository;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+
+/**
+ * Base for full-stack tests that boot the application against an embedded Postgres and an embedded Redis.
+ * Both servers are started once per test class, before the Spring context, and stopped after it; the datasource
+ * and Redis connection properties point at them.
+ */
+abstract class AbstractEmbeddedServersTest {
+
+    private static EmbeddedPostgres postgres;
+    private static RedisServer redisServer;
+    private static int redisPort;
+
+    @Autowired
+    protected TarotCardRepository tarotCardRepository;
+
+    @Autowired
+    protected TarotCardTranslationRepository tarotCardTranslationRepository;
+
+    @BeforeAll
+    static void startServers() throws IOException {
+        postgres = EmbeddedPostgres.start();
+        try (ServerSocket socket = new ServerSocket(0)) {
+            redisPort = socket.getLocalPort();
+        }
+        redisServer = new RedisServer(redisPort);
+        redisServer.start();
+    }
+
+    @AfterAll
+    static void stopServers() throws IOException {
+        redisServer.stop();
+        postgres.close();
+    }
+
+    @DynamicPropertySource
+    static void serverProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> postgres.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "");
+        registry.add("spring.data.redis.host", () -> "localhost");
+        registry.add("spring.data.redis.port", () -> redisPort);
+    }
+
+    /**
+     * Cards 1..size, each with a translation per locale ("vi" and "en" get distinct names)
+     */
+    protected void seedDeck(int size, String... locales) {
+        for (int id = 1; id <= size; id++) {
+            TarotCard card = tarotCardRepository.save(TarotCard.builder()
+                    .id(id).cardNumber(id).suit(SuitType.MAJOR_ARCANA).build());
+            for (String locale : locales) {
+                tarotCardTranslationRepository.save(TarotCardTranslation.builder()
+                        .tarotCard(card).locale(locale).name(cardName(locale, id)).description(cardDescription(locale, id))
+                        .build());
+            }
+        }
+    }
+
+    private static String cardName(String locale, int id) {
+        return ("vi".equals(locale) ? "Lá " : "Card ") + id;
+    }
+
+    private static String cardDescription(String locale, int id) {
+        return ("vi".equals(locale) ? "Mô tả lá " : "Meaning of card ") + id;
+    }
+}
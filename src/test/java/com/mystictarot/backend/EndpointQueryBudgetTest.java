@@ -0,0 +1,343 @@
+package com.mystictarot.backend;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mystictarot.backend.dto.request.CardDTO;
+import com.mystictarot.backend.dto.request.CreateOrderRequestDTO;
+import com.mystictarot.backend.dto.request.FollowUpRequestDTO;
+import com.mystictarot.backend.dto.request.InterpretRequestDTO;
+import com.mystictarot.backend.entity.ChatMessage;
+import com.mystictarot.backend.entity.Reading;
+import com.mystictarot.backend.entity.Transaction;
+import com.mystictarot.backend.entity.User;
+import com.mystictarot.backend.entity.enums.CardOrientation;
+import com.mystictarot.backend.entity.enums.ChatRole;
+import com.mystictarot.backend.entity.enums.PaymentProvider;
+import com.mystictarot.backend.entity.enums.PlanType;
+import com.mystictarot.backend.entity.enums.SpreadType;
+import com.mystictarot.backend.repository.ChatMessageRepository;
+import com.mystictarot.backend.repository.ReadingRepository;
+import com.mystictarot.backend.repository.TransactionRepository;
+import com.mystictarot.backend.repository.UserRepository;
+import com.mystictarot.backend.service.GeminiService;
+import com.mystictarot.backend.service.JwtTokenProvider;
+import com.mystictarot.backend.service.payment.CreateOrderResult;
+import com.mystictarot.backend.service.payment.StripePaymentService;
+import com.mystictarot.backend.service.payment.signing.HmacSha256Signer;
+import com.mystictarot.backend.service.webhook.WebhookInboxWorker;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.TestSecurityContextHolder;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Runs each hot endpoint through the full stack (security filters, services, Hibernate) against an embedded
+ * Postgres and embedded Redis, and asserts the exact number of SQL statements it executes plus a rough
+ * latency budget. Unit tests mock the repositories, so an N+1 select, a lazy load outside the intended
+ * query or an extra round trip only shows up here. Gemini and the Stripe API are mocked.
+ * <p>
+ * Each endpoint is called once to warm up, then measured. When a change legitimately adds or removes a
+ * statement, the failure message lists the statements; update the expected count in the same change.
+ * Latency budgets are loose and only catch gross regressions; on a slow machine scale them with
+ * {@code -Dperf.latency-scale=3}.
+ */
+@SpringBootTest(properties = {
+        "app.warmup.enabled=false",
+        "app.import.tarot.enabled=false",
+        "management.tracing.sampling.probability=0",
+        "payment.webhook-inbox.poll-interval-ms=3600000",
+        "payment.expiry-sweeper.initial-delay-ms=3600000",
+        "payment.reconciliation.initial-delay-ms=3600000",
+        "payment.stripe.webhook-secret=" + EndpointQueryBudgetTest.STRIPE_WEBHOOK_SECRET,
+        "jwt.secret=K2zX9mQp7rT4vW1yB6nC3dF8gH5jL0sAK2zX9mQp7rT4vW1y",
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=INFO",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=INFO"
+})
+@AutoConfigureMockMvc
+@DirtiesContext
+@DisplayName("Endpoint Query Budget Tests")
+class EndpointQueryBudgetTest extends AbstractEmbeddedServersTest {
+
+    static final String STRIPE_WEBHOOK_SECRET = "whsec_query_budget_test";
+
+    private static final String CONTEXT_PATH = "/api/v1";
+    private static final double LATENCY_SCALE = Double.parseDouble(System.getProperty("perf.latency-scale", "1"));
+    private static final SqlStatementCounter COUNTER = new SqlStatementCounter();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JwtTokenProvider jwtTokenProvider;
+
+    @Autowired
+    private WebhookInboxWorker webhookInboxWorker;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ReadingRepository readingRepository;
+
+    @Autowired
+    private ChatMessageRepository chatMessageRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @MockitoBean
+    private GeminiService geminiService;
+
+    @MockitoBean
+    private StripePaymentService stripePaymentService;
+
+    private User user;
+    private String bearerToken;
+
+    @TestConfiguration
+    static class CountingDataSourceConfig {
+
+        @Bean
+        static BeanPostProcessor countingDataSourcePostProcessor() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource && "dataSource".equals(beanName)
+                            ? COUNTER.wrap(dataSource) : bean;
+                }
+            };
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        // MockMvc starts each request from the test security context, which falls back to whatever an earlier
+        // test class left in SecurityContextHolder on this thread; requests must authenticate by token only
+        TestSecurityContextHolder.clearContext();
+        if (tarotCardRepository.count() == 0) {
+            seedDeck(10, "vi");
+        }
+        user = userRepository.save(User.builder()
+                .email(UUID.randomUUID() + "@example.com")
+                .passwordHash("not-used")
+                .name("Query Budget")
+                .plan(PlanType.FREE)
+                .extraCredits(10)
+                .build());
+        bearerToken = "Bearer " + jwtTokenProvider.generateToken(user.getId(), user.getEmail());
+    }
+
+    @Test
+    @DisplayName("POST /tarot/interpret: user, rate-limit plan, cards, quota, translations, then reading insert")
+    void interpret() throws Exception {
+        when(geminiService.generateInterpretation(anyString(), any(), anyString(), anyString()))
+                .thenReturn("The cards point to a period of change.");
+        InterpretRequestDTO request = InterpretRequestDTO.builder()
+                .question("What should I focus on this month?")
+                .spreadType(SpreadType.THREE_CARDS)
+                .cards(List.of(new CardDTO(1, CardOrientation.UPRIGHT), new CardDTO(5, CardOrientation.REVERSED),
+                        new CardDTO(9, CardOrientation.UPRIGHT)))
+                .build();
+
+        assertBudget("interpret", 9, 300, () -> () -> perform(authorized(post(CONTEXT_PATH + "/tarot/interpret")).content(json(request)), 200));
+    }
+
+    @Test
+    @DisplayName("POST /tarot/follow-up: history loads in one query whatever its length")
+    void followUp() throws Exception {
+        when(geminiService.generateFollowUpResponse(anyString(), anyString())).thenReturn("Trust the process.");
+        Reading reading = saveReading();
+        saveMessages(reading, 20);
+        FollowUpRequestDTO request = FollowUpRequestDTO.builder()
+                .readingId(reading.getId())
+                .message("What about my relationships?")
+                .build();
+
+        assertBudget("follow-up", 8, 300, () -> () -> perform(authorized(post(CONTEXT_PATH + "/tarot/follow-up")).content(json(request)), 200));
+    }
+
+    @Test
+    @DisplayName("GET /history: one page query plus its count, no per-reading loads")
+    void historyList() throws Exception {
+        for (int i = 0; i < 12; i++) {
+            saveReading();
+        }
+
+        assertBudget("history list", 3, 200, () -> () -> perform(authorized(get(CONTEXT_PATH + "/history")), 200));
+    }
+
+    @Test
+    @DisplayName("GET /history/{id}: reading and its chat messages in two queries")
+    void historyDetail() throws Exception {
+        Reading reading = saveReading();
+        saveMessages(reading, 20);
+
+        assertBudget("history detail", 3, 200,
+                () -> () -> perform(authorized(get(CONTEXT_PATH + "/history/" + reading.getId())), 200));
+    }
+
+    @Test
+    @DisplayName("GET /user/profile: user and two usage counts")
+    void profile() throws Exception {
+        saveReading();
+
+        assertBudget("profile", 4, 200, () -> () -> perform(authorized(get(CONTEXT_PATH + "/user/profile")), 200));
+    }
+
+    @Test
+    @DisplayName("POST /payments/create-order: user, idempotency lookup, insert, then payment URL update")
+    void createOrder() throws Exception {
+        when(stripePaymentService.createOrder(any(), any())).thenAnswer(invocation -> CreateOrderResult.builder()
+                .success(true)
+                .providerTransactionId("cs_test_" + UUID.randomUUID())
+                .paymentUrl("https://checkout.stripe.com/c/pay/cs_test")
+                .build());
+
+        assertBudget("create-order", 5, 300, () -> {
+            CreateOrderRequestDTO request = CreateOrderRequestDTO.builder()
+                    .planType(PlanType.MONTHLY)
+                    .provider(PaymentProvider.STRIPE)
+                    .idempotencyKey(UUID.randomUUID().toString())
+                    .lang("en")
+                    .build();
+            return () -> perform(authorized(post(CONTEXT_PATH + "/payments/create-order")).content(json(request)), 200);
+        });
+    }
+
+    @Test
+    @DisplayName("POST /payments/webhook/stripe: receipt is a single inbox insert")
+    void webhookReceipt() throws Exception {
+        assertBudget("webhook receipt", 1, 200, () -> {
+            String payload = checkoutCompleted(savePendingTransaction());
+            return () -> postStripeWebhook(payload);
+        });
+    }
+
+    @Test
+    @DisplayName("Webhook processing: claim, event, transaction joined with its user, grant, mark processed")
+    void webhookProcessing() throws Exception {
+        assertBudget("webhook processing", 8, 300, () -> {
+            webhookInboxWorker.drain();
+            postStripeWebhook(checkoutCompleted(savePendingTransaction()));
+            return webhookInboxWorker::drain;
+        });
+    }
+
+    @FunctionalInterface
+    private interface Step {
+        void run() throws Exception;
+    }
+
+    /**
+     * @param arrange runs before each call without being counted, and returns the call to measure
+     */
+    private void assertBudget(String name, int expectedStatements, long latencyBudgetMs, Callable<Step> arrange)
+            throws Exception {
+        arrange.call().run();
+
+        Step step = arrange.call();
+        COUNTER.start();
+        long started = System.nanoTime();
+        List<String> statements;
+        try {
+            step.run();
+        } finally {
+            statements = COUNTER.stop();
+        }
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+
+        assertThat(statements)
+                .as("%s executed %d SQL statements:%n%s", name, statements.size(), String.join("\n", statements))
+                .hasSize(expectedStatements);
+        assertThat(elapsedMs)
+                .as("%s latency in ms", name)
+                .isLessThanOrEqualTo(Math.round(latencyBudgetMs * LATENCY_SCALE));
+    }
+
+    private MockHttpServletRequestBuilder authorized(MockHttpServletRequestBuilder request) {
+        return request.header("Authorization", bearerToken);
+    }
+
+    private void perform(MockHttpServletRequestBuilder request, int expectedStatus) throws Exception {
+        mockMvc.perform(request.contextPath(CONTEXT_PATH).contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().is(expectedStatus));
+    }
+
+    private void postStripeWebhook(String payload) throws Exception {
+        String timestamp = String.valueOf(System.currentTimeMillis() / 1000);
+        String signature = HmacSha256Signer.forKey(STRIPE_WEBHOOK_SECRET).signHex(timestamp, ".", payload);
+        perform(post(CONTEXT_PATH + "/payments/webhook/stripe")
+                .header("Stripe-Signature", "t=" + timestamp + ",v1=" + signature)
+                .content(payload), 204);
+    }
+
+    private String json(Object body) throws Exception {
+        return objectMapper.writeValueAsString(body);
+    }
+
+    private static String checkoutCompleted(Transaction transaction) {
+        return "{\"id\":\"evt_" + UUID.randomUUID() + "\",\"type\":\"checkout.session.completed\","
+                + "\"data\":{\"object\":{\"client_reference_id\":\"" + transaction.getId() + "\"}}}";
+    }
+
+    private Transaction savePendingTransaction() {
+        return transactionRepository.save(Transaction.builder()
+                .user(user)
+                .amount(new BigDecimal("12.99"))
+                .planType(PlanType.MONTHLY)
+                .provider(PaymentProvider.STRIPE)
+                .build());
+    }
+
+    private Reading saveReading() {
+        return readingRepository.save(Reading.builder()
+                .user(user)
+                .question("Will the new job be a good fit?")
+                .spreadType(SpreadType.THREE_CARDS)
+                .cardsJson("[{\"id\":1,\"orientation\":\"UPRIGHT\"}]")
+                .interpretationText("The cards suggest steady growth.")
+                .build());
+    }
+
+    private void saveMessages(Reading reading, int count) {
+        List<ChatMessage> messages = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            messages.add(ChatMessage.builder()
+                    .reading(reading)
+                    .role(i % 2 == 0 ? ChatRole.USER : ChatRole.AI)
+                    .content("Message " + i)
+                    .build());
+        }
+        chatMessageRepository.saveAll(messages);
+    }
+}
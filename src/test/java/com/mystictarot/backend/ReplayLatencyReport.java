@@ -0,0 +1,127 @@
+package com.mystictarot.backend;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Latency distribution per endpoint from one {@link TrafficReplayTest} run. Saved as JSON, so a run of one build
+ * can be compared with a run of another.
+ *
+ * @param maxDispatchLagMs how far the replay fell behind the capture schedule; a large value means the machine
+ *                         running the replay, not the server, limited the load
+ */
+record ReplayLatencyReport(String label, double speed, int requests, int skipped, long maxDispatchLagMs,
+                           Map<String, EndpointStats> endpoints) {
+
+    /**
+     * Latencies in ms, measured by the client from sending the request to receiving the whole response.
+     * Errors are transport failures and 5xx responses.
+     */
+    record EndpointStats(int count, int errors, double p50, double p90, double p95, double p99, double max) {
+    }
+
+    /**
+     * Thread-safe collector for one run
+     */
+    static final class Recorder {
+
+        private final Map<String, ConcurrentLinkedQueue<Long>> latenciesNanos = new ConcurrentHashMap<>();
+        private final Map<String, AtomicLong> errors = new ConcurrentHashMap<>();
+
+        void record(String endpoint, long latencyNanos, boolean error) {
+            latenciesNanos.computeIfAbsent(endpoint, e -> new ConcurrentLinkedQueue<>()).add(latencyNanos);
+            if (error) {
+                recordFailure(endpoint);
+            }
+        }
+
+        /**
+         * A request that got no response; counted as an error without a latency
+         */
+        void recordFailure(String endpoint) {
+            latenciesNanos.computeIfAbsent(endpoint, e -> new ConcurrentLinkedQueue<>());
+            errors.computeIfAbsent(endpoint, e -> new AtomicLong()).incrementAndGet();
+        }
+
+        ReplayLatencyReport build(String label, double speed, int skipped, long maxDispatchLagMs) {
+            Map<String, EndpointStats> endpoints = new TreeMap<>();
+            int requests = 0;
+            for (Map.Entry<String, ConcurrentLinkedQueue<Long>> entry : latenciesNanos.entrySet()) {
+                long[] sorted = entry.getValue().stream().mapToLong(Long::longValue).sorted().toArray();
+                int endpointErrors = (int) errors.getOrDefault(entry.getKey(), new AtomicLong()).get();
+                endpoints.put(entry.getKey(), new EndpointStats(sorted.length, endpointErrors,
+                        percentile(sorted, 50), percentile(sorted, 90), percentile(sorted, 95),
+                        percentile(sorted, 99), percentile(sorted, 100)));
+                requests += sorted.length;
+            }
+            return new ReplayLatencyReport(label, speed, requests, skipped, maxDispatchLagMs, endpoints);
+        }
+
+        /**
+         * Nearest-rank percentile, in ms
+         */
+        static double percentile(long[] sortedNanos, double percentile) {
+            if (sortedNanos.length == 0) {
+                return 0;
+            }
+            int rank = (int) Math.ceil(percentile / 100 * sortedNanos.length);
+            return sortedNanos[Math.max(0, rank - 1)] / 1_000_000.0;
+        }
+    }
+
+    /**
+     * Endpoints whose p50 or p95 grew by more than maxRegression (0.2 = 20%) and by more than minDeltaMs, or whose
+     * error count grew. Endpoints with fewer than minCount requests in either run are not compared.
+     */
+    List<String> regressionsAgainst(ReplayLatencyReport baseline, double maxRegression, double minDeltaMs, int minCount) {
+        List<String> regressions = new ArrayList<>();
+        for (Map.Entry<String, EndpointStats> entry : endpoints.entrySet()) {
+            EndpointStats before = baseline.endpoints().get(entry.getKey());
+            EndpointStats after = entry.getValue();
+            if (before == null || before.count() < minCount || after.count() < minCount) {
+                continue;
+            }
+            checkPercentile(regressions, entry.getKey(), "p50", before.p50(), after.p50(), maxRegression, minDeltaMs);
+            checkPercentile(regressions, entry.getKey(), "p95", before.p95(), after.p95(), maxRegression, minDeltaMs);
+            if (after.errors() > before.errors()) {
+                regressions.add("%s errors %d -> %d".formatted(entry.getKey(), before.errors(), after.errors()));
+            }
+        }
+        return regressions;
+    }
+
+    private static void checkPercentile(List<String> regressions, String endpoint, String name, double before,
+                                        double after, double maxRegression, double minDeltaMs) {
+        if (after > before * (1 + maxRegression) && after - before > minDeltaMs) {
+            regressions.add("%s %s %.1f ms -> %.1f ms".formatted(endpoint, name, before, after));
+        }
+    }
+
+    /**
+     * One line per endpoint, with the baseline next to each percentile when there is one
+     */
+    String format(ReplayLatencyReport baseline) {
+        StringBuilder out = new StringBuilder("%-32s %7s %6s %16s %16s %16s%n".formatted(
+                "endpoint", "count", "errors", "p50 ms", "p95 ms", "p99 ms"));
+        for (Map.Entry<String, EndpointStats> entry : endpoints.entrySet()) {
+            EndpointStats after = entry.getValue();
+            EndpointStats before = baseline != null ? baseline.endpoints().get(entry.getKey()) : null;
+            out.append("%-32s %7d %6d %16s %16s %16s%n".formatted(entry.getKey(), after.count(), after.errors(),
+                    compared(before != null ? before.p50() : null, after.p50()),
+                    compared(before != null ? before.p95() : null, after.p95()),
+                    compared(before != null ? before.p99() : null, after.p99())));
+        }
+        out.append("requests=%d skipped=%d speed=%sx maxDispatchLagMs=%d%n".formatted(
+                requests, skipped, speed, maxDispatchLagMs));
+        return out.toString();
+    }
+
+    private static String compared(Double before, double after) {
+        return before == null ? "%.1f".formatted(after) : "%.1f -> %.1f".formatted(before, after);
+    }
+}
@@ -0,0 +1,52 @@
+package com.mystictarot.backend;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+/**
+ * Records the SQL statements executed on the thread that called {@link #start}, so scheduled jobs running in
+ * the same application context do not change the count. A JDBC batch is one entry (one round trip).
+ */
+class SqlStatementCounter implements QueryExecutionListener {
+
+    private final List<String> statements = new CopyOnWriteArrayList<>();
+    private volatile Thread owner;
+
+    DataSource wrap(DataSource dataSource) {
+        return ProxyDataSourceBuilder.create(dataSource)
+                .name("sql-statement-counter")
+                .listener(this)
+                .build();
+    }
+
+    void start() {
+        statements.clear();
+        owner = Thread.currentThread();
+    }
+
+    /**
+     * @return statements executed since {@link #start}, in order
+     */
+    List<String> stop() {
+        owner = null;
+        return List.copyOf(statements);
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        if (Thread.currentThread() == owner) {
+            statements.add(queryInfoList.stream().map(QueryInfo::getQuery).collect(Collectors.joining("; ")));
+        }
+    }
+}
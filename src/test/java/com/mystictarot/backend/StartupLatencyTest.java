@@ -0,0 +1,180 @@
+package com.mystictarot.backend;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Cold start of the packaged application: plain JVM start vs the fast-start mode used by the Docker image
+ * (AOT-processed context + CDS archive + fast-start profile). Each run is a fresh JVM, timed from process
+ * launch until /actuator/health/liveness answers, followed by the first GET /tarot/cards.
+ * <p>
+ * Needs a jar built with -P fast-start and a reachable Postgres/Redis (DB_* and REDIS_* are passed through):
+ * <pre>
+ * mvn -P fast-start -DskipTests package
+ * mvn test -Dtest=StartupLatencyTest -Dstartup.jar=target/SoulPetBackEnd-0.0.1-SNAPSHOT.jar
+ * </pre>
+ * The baseline runs first with ddl-auto update, so the schema exists when fast-start skips the schema pass.
+ * Every run and the medians are logged. The fast-start median must stay under {@code startup.max-ratio} of the
+ * plain one; {@code startup.max-start-ms} and {@code startup.max-first-request-ms} add absolute budgets for the
+ * fast-start run and are only checked when set. See docs/benchmarks.md.
+ */
+@Slf4j
+@EnabledIfSystemProperty(named = "startup.jar", matches = ".+")
+@DisplayName("Startup Latency Tests")
+class StartupLatencyTest {
+
+    private static final Duration START_TIMEOUT = Duration.ofMinutes(2);
+
+    private final HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+
+    @TempDir
+    Path workDir;
+
+    @Test
+    @DisplayName("Fast-start mode should reach liveness within the configured share of the plain start time")
+    void fastStart_StaysWithinStartupBudget() throws Exception {
+        int runs = Integer.getInteger("startup.runs", 3);
+        double maxRatio = Double.parseDouble(System.getProperty("startup.max-ratio", "0.5"));
+        Long maxStartMillis = Long.getLong("startup.max-start-ms");
+        Long maxFirstRequestMillis = Long.getLong("startup.max-first-request-ms");
+        Path appJar = extract(Path.of(System.getProperty("startup.jar")).toAbsolutePath());
+        Path archive = workDir.resolve("app.jsa");
+        train(appJar, archive);
+
+        List<Measurement> baseline = new ArrayList<>();
+        List<Measurement> fastStart = new ArrayList<>();
+        for (int i = 0; i < runs; i++) {
+            baseline.add(measure(appJar, List.of()));
+            fastStart.add(measure(appJar, List.of("-XX:SharedArchiveFile=" + archive, "-Dspring.aot.enabled=true",
+                    "-Dspring.profiles.active=fast-start")));
+            log.info("Startup run {}: plain {}, fast-start {}", i + 1, baseline.getLast(), fastStart.getLast());
+        }
+
+        Measurement base = median(baseline);
+        Measurement fast = median(fastStart);
+        log.info("Startup median over {} runs: plain {}, fast-start {}", runs, base, fast);
+        assertThat(fast.startMillis()).as("fast-start ms to liveness vs %.2f of plain", maxRatio)
+                .isLessThan((long) (base.startMillis() * maxRatio));
+        assertThat(fast.firstRequestMillis()).as("fast-start first request ms vs twice plain")
+                .isLessThanOrEqualTo(Math.max(base.firstRequestMillis(), 1) * 2);
+        if (maxStartMillis != null) {
+            assertThat(fast.startMillis()).as("fast-start ms to liveness").isLessThanOrEqualTo(maxStartMillis);
+        }
+        if (maxFirstRequestMillis != null) {
+            assertThat(fast.firstRequestMillis()).as("fast-start first request ms")
+                    .isLessThanOrEqualTo(maxFirstRequestMillis);
+        }
+    }
+
+    private record Measurement(long startMillis, long firstRequestMillis) {
+
+        @Override
+        public String toString() {
+            return startMillis + " ms to liveness, first request " + firstRequestMillis + " ms";
+        }
+    }
+
+    /**
+     * Same layout as the image: java -Djarmode=tools extract, so CDS sees plain jars
+     */
+    private Path extract(Path jar) throws Exception {
+        Path destination = workDir.resolve("application");
+        run(List.of(java(), "-Djarmode=tools", "-jar", jar.toString(), "extract", "--destination", destination.toString()));
+        return destination.resolve(jar.getFileName());
+    }
+
+    private void train(Path appJar, Path archive) throws Exception {
+        run(List.of(java(), "-XX:ArchiveClassesAtExit=" + archive, "-Dspring.context.exit=onRefresh",
+                "-Dspring.aot.enabled=true", "-Dspring.profiles.active=fast-start", "-jar", appJar.toString()));
+        assertThat(archive).isNotEmptyFile();
+    }
+
+    private Measurement measure(Path appJar, List<String> jvmArgs) throws Exception {
+        int port = freePort();
+        List<String> command = new ArrayList<>();
+        command.add(java());
+        command.addAll(jvmArgs);
+        command.addAll(List.of("-jar", appJar.toString(), "--server.port=" + port, "--app.import.tarot.enabled=false"));
+        String base = "http://localhost:" + port + "/api/v1";
+
+        long launched = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(workDir.resolve("run-" + port + ".log").toFile())
+                .start();
+        try {
+            awaitLiveness(process, base + "/actuator/health/liveness");
+            long startMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - launched);
+
+            long requested = System.nanoTime();
+            HttpResponse<Void> cards = http.send(HttpRequest.newBuilder(URI.create(base + "/tarot/cards")).build(),
+                    HttpResponse.BodyHandlers.discarding());
+            long firstRequestMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - requested);
+            assertThat(cards.statusCode()).isEqualTo(200);
+            return new Measurement(startMillis, firstRequestMillis);
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        }
+    }
+
+    private void awaitLiveness(Process process, String url) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url)).timeout(Duration.ofSeconds(1)).build();
+        long deadline = System.nanoTime() + START_TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            assertThat(process.isAlive()).as("application exited during startup").isTrue();
+            try {
+                if (http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException e) {
+                // not listening yet
+            }
+            Thread.sleep(10);
+        }
+        throw new AssertionError("Application did not become live within " + START_TIMEOUT);
+    }
+
+    private void run(List<String> command) throws Exception {
+        Path log = Files.createTempFile(workDir, "step", ".log");
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).redirectOutput(log.toFile()).start();
+        assertThat(process.waitFor(START_TIMEOUT.toSeconds(), TimeUnit.SECONDS)).isTrue();
+        assertThat(process.exitValue()).as(Files.readString(log)).isZero();
+    }
+
+    private static Measurement median(List<Measurement> measurements) {
+        List<Long> start = measurements.stream().map(Measurement::startMillis).sorted().toList();
+        List<Long> first = measurements.stream().map(Measurement::firstRequestMillis).sorted().toList();
+        return new Measurement(start.get(start.size() / 2), first.get(first.size() / 2));
+    }
+
+    private static String java() {
+        return Path.of(System.getProperty("java.home"), "bin", "java").toString();
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,347 @@
+package com.mystictarot.backend;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mystictarot.backend.dto.request.CardDTO;
+import com.mystictarot.backend.dto.request.CreateOrderRequestDTO;
+import com.mystictarot.backend.dto.request.FollowUpRequestDTO;
+import com.mystictarot.backend.dto.request.InterpretRequestDTO;
+import com.mystictarot.backend.entity.Reading;
+import com.mystictarot.backend.entity.User;
+import com.mystictarot.backend.entity.enums.CardOrientation;
+import com.mystictarot.backend.entity.enums.PaymentProvider;
+import com.mystictarot.backend.entity.enums.PlanType;
+import com.mystictarot.backend.entity.enums.SpreadType;
+import com.mystictarot.backend.repository.ReadingRepository;
+import com.mystictarot.backend.repository.UserRepository;
+import com.mystictarot.backend.service.GeminiService;
+import com.mystictarot.backend.service.JwtTokenProvider;
+import com.mystictarot.backend.service.capture.TrafficCaptureRecord;
+import com.mystictarot.backend.service.payment.CreateOrderResult;
+import com.mystictarot.backend.service.payment.StripePaymentService;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+/**
+ * Replays a traffic capture (app.traffic-capture, see docs/benchmarks.md) against this build over real HTTP, on
+ * an embedded Postgres and embedded Redis, and writes the latency distribution per endpoint to
+ * {@code replay.report} (default target/replay/&lt;label&gt;.json); a summary table is logged. Only runs when
+ * {@code -Dreplay.capture} points at a capture file.
+ * <p>
+ * Requests are sent open-loop at their captured offsets divided by {@code replay.speed}, so a slow build does not
+ * slow down the arrival rate. Each captured caller becomes a seeded user on the UNLIMITED plan with one reading;
+ * bodies are rebuilt from the captured shape with a fixed seed, so two runs send the same requests. Gemini and
+ * Stripe are stand-ins that answer after a fixed delay. AI rate limits are off, since all requests come from one
+ * address. Endpoints the replay cannot rebuild (auth, webhooks, deletes) are skipped and counted.
+ * <p>
+ * With {@code -Dreplay.baseline=<report of another build>} the run fails when an endpoint's p50 or p95 regressed
+ * by more than {@code replay.max-regression} (default 0.2) and {@code replay.min-delta-ms} (default 20).
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "app.warmup.enabled=false",
+        "app.import.tarot.enabled=false",
+        "app.traffic-capture.enabled=false",
+        "app.rate-limit.ai.enabled=false",
+        "app.rate-limit.auth-max-per-minute=1000000",
+        "management.tracing.sampling.probability=0",
+        "payment.webhook-inbox.poll-interval-ms=3600000",
+        "payment.expiry-sweeper.initial-delay-ms=3600000",
+        "payment.reconciliation.initial-delay-ms=3600000",
+        "jwt.secret=K2zX9mQp7rT4vW1yB6nC3dF8gH5jL0sAK2zX9mQp7rT4vW1y",
+        "jwt.expiration=86400000",
+        "logging.level.com.mystictarot.backend=INFO"
+})
+@Slf4j
+@EnabledIfSystemProperty(named = "replay.capture", matches = ".+")
+@DirtiesContext
+@DisplayName("Traffic Replay")
+class TrafficReplayTest extends AbstractEmbeddedServersTest {
+
+    private static final String CONTEXT_PATH = "/api/v1";
+    private static final String QUESTION_TEXT = "What should I keep in mind about the road ahead of me? ";
+    private static final int DECK_SIZE = 78;
+    private static final int MIN_COMPARED_REQUESTS = 20;
+
+    private static final double SPEED = Double.parseDouble(System.getProperty("replay.speed", "1"));
+    private static final long SEED = Long.parseLong(System.getProperty("replay.seed", "42"));
+    private static final long GEMINI_LATENCY_MS = Long.parseLong(System.getProperty("replay.gemini-latency-ms", "1500"));
+    private static final long PAYMENT_LATENCY_MS = Long.parseLong(System.getProperty("replay.payment-latency-ms", "300"));
+    private static final int WARMUP_REQUESTS = Integer.parseInt(System.getProperty("replay.warmup-requests", "100"));
+    private static final String LABEL = System.getProperty("replay.label", "replay");
+    private static final double MAX_REGRESSION = Double.parseDouble(System.getProperty("replay.max-regression", "0.2"));
+    private static final double MIN_DELTA_MS = Double.parseDouble(System.getProperty("replay.min-delta-ms", "20"));
+
+    @Value("${local.server.port}")
+    private int port;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JwtTokenProvider jwtTokenProvider;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ReadingRepository readingRepository;
+
+    @MockitoBean
+    private GeminiService geminiService;
+
+    @MockitoBean
+    private StripePaymentService stripePaymentService;
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    private record ReplayClient(String bearerToken, UUID readingId) {
+    }
+
+    private record PlannedRequest(long offsetMs, String endpoint, HttpRequest request) {
+    }
+
+    @Test
+    @DisplayName("Replay the capture and compare latency with the baseline, if given")
+    void replay() throws Exception {
+        Path capturePath = Path.of(System.getProperty("replay.capture"));
+        List<TrafficCaptureRecord> capture = readCapture(capturePath);
+        assertThat(capture).as("records in %s", capturePath).isNotEmpty();
+        stubStandIns();
+        seedDeck(DECK_SIZE, "vi", "en");
+        Map<String, ReplayClient> clients = seedClients(capture);
+
+        warmUp(plan(capture.subList(0, Math.min(WARMUP_REQUESTS, capture.size())), clients, new Random(SEED + 1)));
+        List<PlannedRequest> plan = plan(capture, clients, new Random(SEED));
+        int skipped = capture.size() - plan.size();
+        ReplayLatencyReport report = run(plan, skipped);
+
+        Path reportPath = Path.of(System.getProperty("replay.report", "target/replay/" + LABEL + ".json"));
+        Files.createDirectories(reportPath.toAbsolutePath().getParent());
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(reportPath.toFile(), report);
+
+        String baselinePath = System.getProperty("replay.baseline");
+        ReplayLatencyReport baseline = baselinePath != null
+                ? objectMapper.readValue(Path.of(baselinePath).toFile(), ReplayLatencyReport.class)
+                : null;
+        log.info("Replay {} of {}, report in {}{}{}", LABEL, capturePath, reportPath, System.lineSeparator(),
+                report.format(baseline));
+        if (baseline != null) {
+            assertThat(report.regressionsAgainst(baseline, MAX_REGRESSION, MIN_DELTA_MS, MIN_COMPARED_REQUESTS))
+                    .as("latency regressions against %s", baselinePath)
+                    .isEmpty();
+        }
+    }
+
+    private List<TrafficCaptureRecord> readCapture(Path path) throws IOException {
+        List<TrafficCaptureRecord> records = new ArrayList<>();
+        for (String line : Files.readAllLines(path)) {
+            if (!line.isBlank()) {
+                records.add(objectMapper.readValue(line, TrafficCaptureRecord.class));
+            }
+        }
+        records.sort(Comparator.comparingLong(TrafficCaptureRecord::offsetMs));
+        return records;
+    }
+
+    private void stubStandIns() {
+        when(geminiService.generateInterpretation(anyString(), any(), anyString(), anyString()))
+                .thenAnswer(invocation -> {
+                    Thread.sleep(GEMINI_LATENCY_MS);
+                    return "The cards point to a period of change.";
+                });
+        when(geminiService.generateFollowUpResponse(anyString(), anyString()))
+                .thenAnswer(invocation -> {
+                    Thread.sleep(GEMINI_LATENCY_MS);
+                    return "Trust the process.";
+                });
+        when(stripePaymentService.createOrder(any(), any())).thenAnswer(invocation -> {
+            Thread.sleep(PAYMENT_LATENCY_MS);
+            return CreateOrderResult.builder()
+                    .success(true)
+                    .providerTransactionId("cs_test_" + UUID.randomUUID())
+                    .paymentUrl("https://checkout.stripe.com/c/pay/cs_test")
+                    .build();
+        });
+    }
+
+    /**
+     * One user per captured caller, keyed by the capture's client id
+     */
+    private Map<String, ReplayClient> seedClients(List<TrafficCaptureRecord> capture) {
+        Map<String, ReplayClient> clients = new HashMap<>();
+        for (TrafficCaptureRecord record : capture) {
+            if (record.client() != null && !clients.containsKey(record.client())) {
+                User user = userRepository.save(User.builder()
+                        .email("replay-" + record.client() + "@example.com")
+                        .passwordHash("not-used")
+                        .name("Replay " + record.client())
+                        .plan(PlanType.UNLIMITED)
+                        .extraCredits(1_000_000)
+                        .build());
+                Reading reading = readingRepository.save(Reading.builder()
+                        .user(user)
+                        .question("Will the new job be a good fit?")
+                        .spreadType(SpreadType.THREE_CARDS)
+                        .cardsJson("[{\"id\":1,\"orientation\":\"UPRIGHT\"}]")
+                        .interpretationText("The cards suggest steady growth.")
+                        .build());
+                clients.put(record.client(), new ReplayClient(
+                        "Bearer " + jwtTokenProvider.generateToken(user.getId(), user.getEmail()), reading.getId()));
+            }
+        }
+        return clients;
+    }
+
+    private List<PlannedRequest> plan(List<TrafficCaptureRecord> capture, Map<String, ReplayClient> clients,
+                                      Random random) throws IOException {
+        ReplayClient anonymous = new ReplayClient(null, new UUID(SEED, 0));
+        List<PlannedRequest> plan = new ArrayList<>();
+        for (TrafficCaptureRecord record : capture) {
+            ReplayClient client = record.client() != null ? clients.get(record.client()) : anonymous;
+            HttpRequest request = toRequest(record, client, random);
+            if (request != null) {
+                plan.add(new PlannedRequest(record.offsetMs(), record.method() + " " + record.endpoint(), request));
+            }
+        }
+        return plan;
+    }
+
+    /**
+     * @return the request rebuilt from the captured shape, or null for endpoints the replay does not cover
+     */
+    private HttpRequest toRequest(TrafficCaptureRecord record, ReplayClient client, Random random) throws IOException {
+        String locale = record.locale() != null ? record.locale() : "vi";
+        return switch (record.method() + " " + record.endpoint()) {
+            case "POST /tarot/interpret" -> post(client, "/tarot/interpret", interpretBody(record, locale, random));
+            case "POST /tarot/follow-up" -> post(client, "/tarot/follow-up",
+                    new FollowUpRequestDTO(client.readingId(), text(record.questionLength())));
+            case "GET /tarot/cards" -> get(client, "/tarot/cards?lang=" + locale);
+            case "GET /history" -> get(client, "/history");
+            case "GET /history/{id}" -> get(client, "/history/" + client.readingId());
+            case "GET /user/profile" -> get(client, "/user/profile");
+            case "GET /payments/plans" -> get(client, "/payments/plans?lang=" + locale);
+            case "POST /payments/create-order" -> post(client, "/payments/create-order", CreateOrderRequestDTO.builder()
+                    .planType(PlanType.MONTHLY)
+                    .provider(PaymentProvider.STRIPE)
+                    .idempotencyKey(new UUID(random.nextLong(), random.nextLong()).toString())
+                    .lang(locale)
+                    .build());
+            default -> null;
+        };
+    }
+
+    private InterpretRequestDTO interpretBody(TrafficCaptureRecord record, String locale, Random random) {
+        SpreadType spreadType = record.spreadType() != null ? SpreadType.valueOf(record.spreadType()) : SpreadType.THREE_CARDS;
+        int cardCount = record.cardCount() != null ? record.cardCount() : spreadType.getCardCount();
+        List<Integer> ids = new ArrayList<>(IntStream.rangeClosed(1, DECK_SIZE).boxed().toList());
+        Collections.shuffle(ids, random);
+        List<CardDTO> cards = ids.subList(0, Math.min(cardCount, DECK_SIZE)).stream()
+                .map(id -> new CardDTO(id, random.nextBoolean() ? CardOrientation.UPRIGHT : CardOrientation.REVERSED))
+                .toList();
+        return InterpretRequestDTO.builder()
+                .question(text(record.questionLength()))
+                .spreadType(spreadType)
+                .cards(cards)
+                .lang(locale)
+                .build();
+    }
+
+    private static String text(Integer length) {
+        int n = length != null && length > 0 ? length : QUESTION_TEXT.length();
+        return QUESTION_TEXT.repeat(n / QUESTION_TEXT.length() + 1).substring(0, n);
+    }
+
+    private HttpRequest get(ReplayClient client, String path) {
+        return request(client, path).GET().build();
+    }
+
+    private HttpRequest post(ReplayClient client, String path, Object body) throws IOException {
+        return request(client, path)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body)))
+                .build();
+    }
+
+    private HttpRequest.Builder request(ReplayClient client, String path) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create("http://localhost:" + port + CONTEXT_PATH + path))
+                .timeout(Duration.ofMinutes(2));
+        return client.bearerToken() != null ? builder.header("Authorization", client.bearerToken()) : builder;
+    }
+
+    /**
+     * Sends requests at once and waits for them, so JIT, connection pools and caches are warm before measuring
+     */
+    private void warmUp(List<PlannedRequest> plan) {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (PlannedRequest planned : plan) {
+                executor.submit(() -> httpClient.send(planned.request(), HttpResponse.BodyHandlers.discarding()));
+            }
+        }
+    }
+
+    private ReplayLatencyReport run(List<PlannedRequest> plan, int skipped) throws InterruptedException {
+        ReplayLatencyReport.Recorder recorder = new ReplayLatencyReport.Recorder();
+        long maxLagNanos = 0;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            long start = System.nanoTime();
+            for (PlannedRequest planned : plan) {
+                long due = start + (long) (TimeUnit.MILLISECONDS.toNanos(planned.offsetMs()) / SPEED);
+                long wait = due - System.nanoTime();
+                if (wait > 0) {
+                    TimeUnit.NANOSECONDS.sleep(wait);
+                } else {
+                    maxLagNanos = Math.max(maxLagNanos, -wait);
+                }
+                executor.submit(() -> send(planned, recorder));
+            }
+        }
+        return recorder.build(LABEL, SPEED, skipped, TimeUnit.NANOSECONDS.toMillis(maxLagNanos));
+    }
+
+    private void send(PlannedRequest planned, ReplayLatencyReport.Recorder recorder) {
+        long started = System.nanoTime();
+        try {
+            HttpResponse<Void> response = httpClient.send(planned.request(), HttpResponse.BodyHandlers.discarding());
+            recorder.record(planned.endpoint(), System.nanoTime() - started, response.statusCode() >= 500);
+        } catch (IOException e) {
+            recorder.recordFailure(planned.endpoint());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
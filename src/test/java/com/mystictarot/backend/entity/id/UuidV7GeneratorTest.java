@@ -0,0 +1,71 @@
+package com.mystictarot.backend.entity.id;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("UuidV7Generator Tests")
+class UuidV7GeneratorTest {
+
+    @Test
+    @DisplayName("Should set version 7 and the RFC 9562 variant")
+    void generate_ShouldSetVersionAndVariant() {
+        UUID uuid = UuidV7Generator.generate();
+
+        assertThat(uuid.version()).isEqualTo(7);
+        assertThat(uuid.variant()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should embed the current time in milliseconds, allowing for counter carry under load")
+    void generate_ShouldEmbedTimestamp() {
+        long before = System.currentTimeMillis();
+        UUID uuid = UuidV7Generator.generate();
+        long after = System.currentTimeMillis();
+
+        assertThat(UuidV7Generator.timestampMillis(uuid)).isBetween(before, after + 1_000);
+    }
+
+    @Test
+    @DisplayName("Should be strictly increasing in the byte order Postgres compares uuids in")
+    void generate_ShouldBeMonotonic() {
+        List<UUID> ids = IntStream.range(0, 100_000).mapToObj(i -> UuidV7Generator.generate()).toList();
+
+        for (int i = 1; i < ids.size(); i++) {
+            assertThat(Long.compareUnsigned(ids.get(i - 1).getMostSignificantBits(),
+                    ids.get(i).getMostSignificantBits()))
+                    .as("id %d after %d", i, i - 1)
+                    .isNegative();
+        }
+    }
+
+    @Test
+    @DisplayName("Should not repeat ids across threads")
+    void generate_Concurrent_ShouldBeUnique() {
+        Set<UUID> ids = ConcurrentHashMap.newKeySet();
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            for (int t = 0; t < 8; t++) {
+                executor.submit(() -> IntStream.range(0, 20_000).forEach(i -> ids.add(UuidV7Generator.generate())));
+            }
+        }
+
+        assertThat(ids).hasSize(160_000);
+    }
+
+    @Test
+    @DisplayName("Should reject non-v7 UUIDs when reading the timestamp")
+    void timestampMillis_RandomUuid_ShouldThrow() {
+        assertThatThrownBy(() -> UuidV7Generator.timestampMillis(UUID.randomUUID()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
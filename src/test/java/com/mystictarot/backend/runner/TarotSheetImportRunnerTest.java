@@ -0,0 +1,69 @@
+package com.mystictarot.backend.runner;
+
+import com.mystictarot.backend.service.TarotSheetImportService;
+import com.mystictarot.backend.service.TarotSheetImportService.ImportResult;
+import com.mystictarot.backend.service.TarotSheetImportService.Outcome;
+import com.mystictarot.backend.service.deck.TarotDeckHealthIndicator;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TarotSheetImportRunner Tests")
+class TarotSheetImportRunnerTest {
+
+    private static final String URL = "https://sheet.example/pub?output=csv";
+
+    @Mock
+    private TarotSheetImportService tarotSheetImportService;
+
+    @Mock
+    private TarotDeckHealthIndicator tarotDeckHealthIndicator;
+
+    @Test
+    @DisplayName("Should retry a failed import while no valid deck exists")
+    void importWithRetry_NoDeck_RetriesUntilSuccess() {
+        when(tarotSheetImportService.runImport(URL))
+                .thenThrow(new RuntimeException("sheet unreachable"))
+                .thenReturn(result(Outcome.IMPORTED));
+        when(tarotDeckHealthIndicator.isDeckValid()).thenReturn(false);
+
+        runner().importWithRetry();
+
+        verify(tarotSheetImportService, times(2)).runImport(URL);
+    }
+
+    @Test
+    @DisplayName("Should give up after a failure when the database already has a valid deck")
+    void importWithRetry_ExistingDeck_DoesNotRetry() {
+        when(tarotSheetImportService.runImport(URL)).thenThrow(new RuntimeException("sheet unreachable"));
+        when(tarotDeckHealthIndicator.isDeckValid()).thenReturn(true);
+
+        runner().importWithRetry();
+
+        verify(tarotSheetImportService, times(1)).runImport(URL);
+    }
+
+    @Test
+    @DisplayName("Should not start the import thread when the import is disabled")
+    void startImport_Disabled_DoesNothing() throws InterruptedException {
+        TarotSheetImportRunner runner = runner();
+
+        runner.startImport();
+        Thread.sleep(50);
+
+        verifyNoInteractions(tarotSheetImportService);
+    }
+
+    private TarotSheetImportRunner runner() {
+        return new TarotSheetImportRunner(tarotSheetImportService, tarotDeckHealthIndicator, URL, 1, 1);
+    }
+
+    private static ImportResult result(Outcome outcome) {
+        return new ImportResult(outcome, 1, 78, 0, 156, 0, 0, 1, 1, 1, 1, 4);
+    }
+}
@@ -0,0 +1,155 @@
+package com.mystictarot.backend.runner;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.mystictarot.backend.dto.response.InterpretResponseDTO;
+import com.mystictarot.backend.entity.enums.PaymentProvider;
+import com.mystictarot.backend.exception.ValidationException;
+import com.mystictarot.backend.service.GeminiService;
+import com.mystictarot.backend.service.JwtTokenProvider;
+import com.mystictarot.backend.service.TarotService;
+import com.mystictarot.backend.service.payment.http.PaymentHttpClients;
+import com.mystictarot.backend.util.LocaleUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.health.contributor.Status;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.support.ServletRequestHandledEvent;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Warmup Runner Tests")
+class WarmupRunnerTest {
+
+    @Mock
+    private TarotService tarotService;
+
+    @Mock
+    private GeminiService geminiService;
+
+    @Mock
+    private JwtTokenProvider jwtTokenProvider;
+
+    @Mock
+    private PaymentHttpClients paymentHttpClients;
+
+    @Mock
+    private DataSource dataSource;
+
+    @Mock
+    private Connection connection;
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    private SimpleMeterRegistry meterRegistry;
+    private WarmupRunner warmupRunner;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        warmupRunner = new WarmupRunner(tarotService, geminiService, jwtTokenProvider, paymentHttpClients, dataSource,
+                redisTemplate, new LocaleUtil("vi", "vi,en"), objectMapper, meterRegistry);
+        ReflectionTestUtils.setField(warmupRunner, "enabled", true);
+        ReflectionTestUtils.setField(warmupRunner, "iterations", 3);
+        ReflectionTestUtils.setField(warmupRunner, "maxDurationMs", 30000L);
+        ReflectionTestUtils.setField(warmupRunner, "dbConnections", 4);
+        ReflectionTestUtils.setField(warmupRunner, "stripeApiBase", "https://api.stripe.com/v1");
+        ReflectionTestUtils.setField(warmupRunner, "stripeSecretKey", "");
+        ReflectionTestUtils.setField(warmupRunner, "momoEndpoint", "https://momo.example/create");
+        ReflectionTestUtils.setField(warmupRunner, "zaloPayEndpoint", "");
+    }
+
+    @Test
+    @DisplayName("Should exercise every path, fill the pool and then report readiness")
+    void runWarmup_RunsAllSteps() throws Exception {
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(tarotService.getDeck(anyString())).thenReturn(List.of());
+        when(jwtTokenProvider.generateToken(any(UUID.class), anyString())).thenReturn("token");
+        when(jwtTokenProvider.validateToken("token")).thenReturn(true);
+        when(tarotService.dryRunInterpretation(any(), anyString()))
+                .thenReturn(InterpretResponseDTO.builder().interpretation("ok").build());
+        WarmupHealthIndicator healthIndicator = new WarmupHealthIndicator(warmupRunner);
+        assertThat(healthIndicator.health().getStatus()).isEqualTo(Status.OUT_OF_SERVICE);
+
+        warmupRunner.runWarmup();
+
+        verify(dataSource, times(4)).getConnection();
+        verify(connection, times(4)).close();
+        verify(redisTemplate).hasKey(anyString());
+        verify(geminiService).preconnect();
+        verify(paymentHttpClients).preconnect(PaymentProvider.MOMO, "https://momo.example/create");
+        verify(paymentHttpClients, never()).preconnect(eq(PaymentProvider.STRIPE), anyString());
+        verify(tarotService, times(3)).getDeck("vi");
+        verify(tarotService, times(3)).getDeck("en");
+        verify(jwtTokenProvider, times(3)).getUserIdFromToken("token");
+        verify(tarotService, times(3)).dryRunInterpretation(any(), anyString());
+        assertThat(healthIndicator.health().getStatus()).isEqualTo(Status.UP);
+        assertThat(meterRegistry.timer("app.warmup.duration").count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should skip a failing step and still finish the warm-up")
+    void runWarmup_StepFails_ContinuesAndCompletes() throws Exception {
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(tarotService.getDeck(anyString())).thenReturn(List.of());
+        when(jwtTokenProvider.generateToken(any(UUID.class), anyString())).thenReturn("token");
+        when(tarotService.dryRunInterpretation(any(), anyString()))
+                .thenThrow(new ValidationException("One or more card IDs are invalid."));
+
+        warmupRunner.runWarmup();
+
+        verify(tarotService, times(1)).dryRunInterpretation(any(), anyString());
+        verify(jwtTokenProvider, times(3)).validateToken("token");
+        assertThat(warmupRunner.isComplete()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should be ready at once without touching anything when disabled")
+    void startWarmup_Disabled_CompletesImmediately() {
+        ReflectionTestUtils.setField(warmupRunner, "enabled", false);
+
+        warmupRunner.startWarmup();
+
+        assertThat(warmupRunner.isComplete()).isTrue();
+        verifyNoInteractions(tarotService, dataSource, geminiService, paymentHttpClients);
+    }
+
+    @Test
+    @DisplayName("Should record only the first non-probe request after warm-up")
+    void onRequestHandled_RecordsFirstRealRequestOnce() {
+        warmupRunner.onRequestHandled(event("/api/v1/tarot/cards", 40));
+        ReflectionTestUtils.setField(warmupRunner, "enabled", false);
+        warmupRunner.startWarmup();
+
+        warmupRunner.onRequestHandled(event("/api/v1/actuator/health/readiness", 2));
+        warmupRunner.onRequestHandled(event("/api/v1/tarot/cards", 12));
+        warmupRunner.onRequestHandled(event("/api/v1/tarot/cards", 5));
+
+        assertThat(meterRegistry.timer("app.warmup.first.request").count()).isEqualTo(1);
+        assertThat(meterRegistry.timer("app.warmup.first.request").totalTime(TimeUnit.MILLISECONDS))
+                .isEqualTo(12);
+    }
+
+    private static ServletRequestHandledEvent event(String url, long millis) {
+        return new ServletRequestHandledEvent(new Object(), url, "127.0.0.1", "GET", "dispatcherServlet",
+                null, null, millis, null, 200);
+    }
+}
@@ -0,0 +1,197 @@
+package com.mystictarot.backend.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.mystictarot.backend.service.idempotency.IdempotencyEntry;
+import com.mystictarot.backend.service.idempotency.IdempotencyService;
+import com.mystictarot.backend.service.idempotency.IdempotencyService.Claim;
+import com.mystictarot.backend.service.idempotency.IdempotencyService.Outcome;
+import com.mystictarot.backend.service.idempotency.IdempotencyStore;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("IdempotencyFilter Tests")
+class IdempotencyFilterTest {
+
+    @Mock
+    private IdempotencyService idempotencyService;
+
+    @Mock
+    private IdempotencyStore store;
+
+    private IdempotencyFilter filter;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @BeforeEach
+    void setUp() {
+        filter = new IdempotencyFilter(idempotencyService, new ObjectMapper().registerModule(new JavaTimeModule()));
+        ReflectionTestUtils.setField(filter, "maxResponseBytes", 1024);
+        ReflectionTestUtils.setField(filter, "maxRequestBytes", 1024);
+        UserDetails user = User.withUsername(UUID.randomUUID().toString()).password("x").authorities(List.of()).build();
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+        request = new MockHttpServletRequest("POST", "/tarot/interpret");
+        request.addHeader(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, "retry-1");
+        request.setContent("{\"question\":\"love\"}".getBytes(StandardCharsets.UTF_8));
+        response = new MockHttpServletResponse();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("Should run the handler once and store its response")
+    void acquired_ExecutesAndStores() throws ServletException, IOException {
+        when(idempotencyService.claim(anyString(), anyString())).thenReturn(claim(Outcome.ACQUIRED, null));
+        AtomicInteger executions = new AtomicInteger();
+
+        filter.doFilter(request, response, (req, res) -> {
+            executions.incrementAndGet();
+            assertThat(new String(req.getInputStream().readAllBytes(), StandardCharsets.UTF_8)).contains("love");
+            res.setContentType("application/json");
+            res.getOutputStream().write("{\"reading\":1}".getBytes(StandardCharsets.UTF_8));
+        });
+
+        assertThat(executions.get()).isEqualTo(1);
+        assertThat(response.getContentAsString()).isEqualTo("{\"reading\":1}");
+        ArgumentCaptor<byte[]> stored = ArgumentCaptor.forClass(byte[].class);
+        verify(idempotencyService).complete(any(), eq(200), eq("application/json"), stored.capture());
+        assertThat(new String(stored.getValue(), StandardCharsets.UTF_8)).isEqualTo("{\"reading\":1}");
+    }
+
+    @Test
+    @DisplayName("Should replay the stored response without running the handler")
+    void replay_WritesStoredResponse() throws ServletException, IOException {
+        IdempotencyEntry stored = IdempotencyEntry.completed("fp", 200, "application/json",
+                "{\"reading\":1}".getBytes(StandardCharsets.UTF_8));
+        when(idempotencyService.claim(anyString(), anyString())).thenReturn(claim(Outcome.REPLAY, stored));
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, response, chain);
+
+        assertThat(chain.getRequest()).isNull();
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getHeader(IdempotencyFilter.REPLAYED_HEADER)).isEqualTo("true");
+        assertThat(response.getContentAsString()).isEqualTo("{\"reading\":1}");
+    }
+
+    @Test
+    @DisplayName("Should release the key when the handler fails with a server error")
+    void serverError_ReleasesKey() throws ServletException, IOException {
+        when(idempotencyService.claim(anyString(), anyString())).thenReturn(claim(Outcome.ACQUIRED, null));
+
+        filter.doFilter(request, response, (req, res) -> ((HttpServletResponse) res).setStatus(502));
+
+        verify(idempotencyService).release(any());
+        verify(idempotencyService, never()).complete(any(), anyInt(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should answer 422 when the key was used for another request")
+    void mismatch_Returns422() throws ServletException, IOException {
+        when(idempotencyService.claim(anyString(), anyString()))
+                .thenReturn(claim(Outcome.MISMATCH, IdempotencyEntry.inFlight("other", "owner")));
+
+        filter.doFilter(request, response, new MockFilterChain());
+
+        assertThat(response.getStatus()).isEqualTo(422);
+    }
+
+    @Test
+    @DisplayName("Should scope keys per user and fingerprint by method, path and body")
+    void fingerprint_DependsOnBody() throws ServletException, IOException {
+        when(idempotencyService.claim(anyString(), anyString())).thenReturn(claim(Outcome.MISMATCH, IdempotencyEntry.inFlight("x", "owner")));
+        filter.doFilter(request, response, new MockFilterChain());
+
+        MockHttpServletRequest other = new MockHttpServletRequest("POST", "/tarot/interpret");
+        other.addHeader(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, "retry-1");
+        other.setContent("{\"question\":\"career\"}".getBytes(StandardCharsets.UTF_8));
+        filter.doFilter(other, new MockHttpServletResponse(), new MockFilterChain());
+
+        ArgumentCaptor<String> keys = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<String> fingerprints = ArgumentCaptor.forClass(String.class);
+        verify(idempotencyService, times(2)).claim(keys.capture(), fingerprints.capture());
+        assertThat(keys.getAllValues().get(0)).isEqualTo(keys.getAllValues().get(1));
+        assertThat(fingerprints.getAllValues().get(0)).isNotEqualTo(fingerprints.getAllValues().get(1));
+    }
+
+    @Test
+    @DisplayName("Should answer 413 without claiming when Content-Length exceeds the limit")
+    void oversizedBody_DeclaredLength_Returns413() throws ServletException, IOException {
+        request.setContent(new byte[2048]);
+
+        filter.doFilter(request, response, new MockFilterChain());
+
+        assertThat(response.getStatus()).isEqualTo(413);
+        verifyNoInteractions(idempotencyService);
+    }
+
+    @Test
+    @DisplayName("Should answer 413 when a body without Content-Length grows past the limit")
+    void oversizedBody_Chunked_Returns413() throws ServletException, IOException {
+        MockHttpServletRequest chunked = new MockHttpServletRequest("POST", "/tarot/interpret") {
+            @Override
+            public long getContentLengthLong() {
+                return -1;
+            }
+        };
+        chunked.addHeader(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, "retry-1");
+        chunked.setContent(new byte[2048]);
+
+        filter.doFilter(chunked, response, new MockFilterChain());
+
+        assertThat(response.getStatus()).isEqualTo(413);
+        verifyNoInteractions(idempotencyService);
+    }
+
+    @Test
+    @DisplayName("Should pass through requests without the header or without a user")
+    void passThrough_WhenNoHeaderOrAnonymous() throws ServletException, IOException {
+        MockHttpServletRequest noHeader = new MockHttpServletRequest("POST", "/tarot/interpret");
+        filter.doFilter(noHeader, new MockHttpServletResponse(), new MockFilterChain());
+
+        SecurityContextHolder.clearContext();
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(request, response, chain);
+
+        assertThat(chain.getRequest()).isNotNull();
+        verifyNoInteractions(idempotencyService);
+    }
+
+    private Claim claim(Outcome outcome, IdempotencyEntry entry) {
+        return new Claim(outcome, "key", entry != null ? entry : IdempotencyEntry.inFlight("fp", "owner"), store);
+    }
+}
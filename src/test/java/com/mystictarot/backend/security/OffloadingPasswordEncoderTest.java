@@ -0,0 +1,123 @@
+package com.mystictarot.backend.security;
+
+import com.mystictarot.backend.exception.ServiceBusyException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for OffloadingPasswordEncoder
+ */
+@DisplayName("Offloading Password Encoder Tests")
+class OffloadingPasswordEncoderTest {
+
+    private OffloadingPasswordEncoder encoder;
+
+    @AfterEach
+    void tearDown() {
+        if (encoder != null) {
+            encoder.destroy();
+        }
+    }
+
+    @Test
+    @DisplayName("Should encode and match through the hashing pool")
+    void shouldEncodeAndMatch() {
+        encoder = new OffloadingPasswordEncoder(4, 2, 8, Duration.ofSeconds(5));
+
+        String hash = encoder.encode("password123");
+
+        assertThat(hash).startsWith("$2a$04$");
+        assertThat(encoder.matches("password123", hash)).isTrue();
+        assertThat(encoder.matches("wrongPassword", hash)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should reject fast with ServiceBusyException when pool and queue are full")
+    void shouldRejectFast_WhenSaturated() throws InterruptedException {
+        BlockingEncoder delegate = new BlockingEncoder();
+        encoder = new OffloadingPasswordEncoder(delegate, 10, 1, 1, Duration.ofSeconds(5));
+
+        Thread running = new Thread(() -> encoder.encode("first"));
+        running.start();
+        assertThat(delegate.started.await(5, TimeUnit.SECONDS)).isTrue();
+        Thread queued = new Thread(() -> encoder.encode("second"));
+        queued.start();
+        waitForQueued(queued);
+
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> encoder.encode("third"))
+                .isInstanceOf(ServiceBusyException.class);
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(1000);
+
+        delegate.release.countDown();
+        running.join(5000);
+        queued.join(5000);
+    }
+
+    @Test
+    @DisplayName("Should throw ServiceBusyException when hashing exceeds max wait")
+    void shouldThrowServiceBusy_WhenWaitExceeded() {
+        BlockingEncoder delegate = new BlockingEncoder();
+        encoder = new OffloadingPasswordEncoder(delegate, 10, 1, 1, Duration.ofMillis(50));
+
+        assertThatThrownBy(() -> encoder.matches("password123", "$2a$10$hash"))
+                .isInstanceOf(ServiceBusyException.class);
+        delegate.release.countDown();
+    }
+
+    @Test
+    @DisplayName("Should request upgrade only when stored cost differs from configured strength")
+    void shouldDetectCostChange() {
+        encoder = new OffloadingPasswordEncoder(12, 1, 1, Duration.ofSeconds(1));
+
+        assertThat(encoder.upgradeEncoding("$2a$10$abcdefghijklmnopqrstuv")).isTrue();
+        assertThat(encoder.upgradeEncoding("$2a$12$abcdefghijklmnopqrstuv")).isFalse();
+        assertThat(encoder.upgradeEncoding("not-a-bcrypt-hash")).isFalse();
+        assertThat(encoder.upgradeEncoding(null)).isFalse();
+    }
+
+    private void waitForQueued(Thread thread) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (thread.getState() != Thread.State.TIMED_WAITING && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+
+    /**
+     * Delegate that holds every call until released, to simulate slow hashing
+     */
+    private static class BlockingEncoder implements PasswordEncoder {
+        private final CountDownLatch started = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            block();
+            return "encoded";
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            block();
+            return true;
+        }
+
+        private void block() {
+            started.countDown();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
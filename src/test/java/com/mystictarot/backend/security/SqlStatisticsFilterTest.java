@@ -0,0 +1,100 @@
+package com.mystictarot.backend.security;
+
+import com.mystictarot.backend.service.sqlstats.SqlStatisticsCollector;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("SqlStatisticsFilter Tests")
+class SqlStatisticsFilterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private SqlStatisticsCollector collector;
+    private SqlStatisticsFilter filter;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        collector = new SqlStatisticsCollector(meterRegistry);
+        ReflectionTestUtils.setField(collector, "slowQueryThresholdMs", 200L);
+        filter = new SqlStatisticsFilter(collector, meterRegistry);
+        ReflectionTestUtils.setField(filter, "enabled", true);
+        ReflectionTestUtils.setField(filter, "logStatementsThreshold", 20);
+        ReflectionTestUtils.setField(filter, "logTimeThresholdMs", 500L);
+        request = new MockHttpServletRequest("GET", "/api/v1/history/42");
+        response = new MockHttpServletResponse();
+    }
+
+    @Test
+    @DisplayName("Should record statements, JDBC time and rows under the matched endpoint pattern")
+    void doFilter_WithQueries_ShouldRecordPerEndpoint() throws Exception {
+        FilterChain chain = (req, res) -> {
+            req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/history/{id}");
+            query(4);
+            query(6);
+            query(10);
+        };
+
+        filter.doFilter(request, response, chain);
+
+        DistributionSummary statements = meterRegistry.get(SqlStatisticsFilter.STATEMENTS_METRIC)
+                .tags("method", "GET", "uri", "/history/{id}").summary();
+        Timer time = meterRegistry.get(SqlStatisticsFilter.TIME_METRIC)
+                .tags("method", "GET", "uri", "/history/{id}").timer();
+        assertThat(statements.count()).isEqualTo(1);
+        assertThat(statements.totalAmount()).isEqualTo(3.0);
+        assertThat(time.totalTime(TimeUnit.MILLISECONDS)).isEqualTo(20.0);
+        assertThat(meterRegistry.get(SqlStatisticsFilter.ROWS_METRIC).summary().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should not record requests that ran no SQL")
+    void doFilter_WithoutQueries_ShouldNotRecord() throws Exception {
+        filter.doFilter(request, response, (req, res) -> { });
+
+        assertThat(meterRegistry.find(SqlStatisticsFilter.STATEMENTS_METRIC).summary()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should stop collecting once the request has finished")
+    void doFilter_AfterRequest_ShouldNotAttributeLaterQueries() throws Exception {
+        filter.doFilter(request, response, (req, res) -> query(1));
+
+        query(1);
+
+        assertThat(meterRegistry.get(SqlStatisticsFilter.STATEMENTS_METRIC).summary().totalAmount()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Should skip collection when disabled")
+    void doFilter_Disabled_ShouldNotRecord() throws Exception {
+        ReflectionTestUtils.setField(filter, "enabled", false);
+
+        filter.doFilter(request, response, (req, res) -> query(1));
+
+        assertThat(meterRegistry.find(SqlStatisticsFilter.STATEMENTS_METRIC).summary()).isNull();
+    }
+
+    private void query(long elapsedMs) {
+        ExecutionInfo info = new ExecutionInfo();
+        info.setElapsedTime(elapsedMs);
+        collector.afterQuery(info, List.of(new QueryInfo("select 1")));
+    }
+}
@@ -1,12 +1,14 @@
 package com.mystictarot.backend.service;
 
 import com.mystictarot.backend.dto.request.LoginRequestDTO;
+import com.mystictarot.backend.dto.request.RefreshTokenRequestDTO;
 import com.mystictarot.backend.dto.request.RegisterRequestDTO;
 import com.mystictarot.backend.dto.request.SocialLoginRequestDTO;
 import com.mystictarot.backend.dto.response.AuthResponseDTO;
 import com.mystictarot.backend.entity.User;
 import com.mystictarot.backend.entity.enums.PlanType;
 import com.mystictarot.backend.repository.UserRepository;
+import com.mystictarot.backend.service.token.RefreshTokenService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -48,6 +50,9 @@ class AuthServiceTest {
     @Mock
     private JwtTokenProvider jwtTokenProvider;
 
+    @Mock
+    private RefreshTokenService refreshTokenService;
+
     @InjectMocks
     private AuthService authService;
 
@@ -143,6 +148,7 @@ class AuthServiceTest {
         when(userRepository.findByEmail(testEmail)).thenReturn(Optional.of(testUser));
         when(passwordEncoder.matches(testPassword, hashedPassword)).thenReturn(true);
         when(jwtTokenProvider.generateToken(testUserId, testEmail)).thenReturn(testToken);
+        when(refreshTokenService.issue(testUser)).thenReturn("refresh-token");
 
         // When
         AuthResponseDTO response = authService.login(request);
@@ -150,12 +156,39 @@ class AuthServiceTest {
         // Then
         assertThat(response).isNotNull();
         assertThat(response.getToken()).isEqualTo(testToken);
+        assertThat(response.getRefreshToken()).isEqualTo("refresh-token");
         assertThat(response.getUserId()).isEqualTo(testUserId);
         assertThat(response.getEmail()).isEqualTo(testEmail);
 
         verify(userRepository, times(1)).findByEmail(testEmail);
         verify(passwordEncoder, times(1)).matches(testPassword, hashedPassword);
         verify(jwtTokenProvider, times(1)).generateToken(testUserId, testEmail);
+        verify(userRepository, never()).save(any(User.class));
+    }
+
+    @Test
+    @DisplayName("Should re-hash password on login when BCrypt cost changed")
+    void shouldRehashPassword_WhenCostChanged() {
+        // Given
+        LoginRequestDTO request = LoginRequestDTO.builder()
+                .email(testEmail)
+                .password(testPassword)
+                .build();
+        String upgradedHash = "$2a$12$upgradedHash123456789";
+
+        when(userRepository.findByEmail(testEmail)).thenReturn(Optional.of(testUser));
+        when(passwordEncoder.matches(testPassword, hashedPassword)).thenReturn(true);
+        when(passwordEncoder.upgradeEncoding(hashedPassword)).thenReturn(true);
+        when(passwordEncoder.encode(testPassword)).thenReturn(upgradedHash);
+        when(jwtTokenProvider.generateToken(testUserId, testEmail)).thenReturn(testToken);
+
+        // When
+        AuthResponseDTO response = authService.login(request);
+
+        // Then
+        assertThat(response.getToken()).isEqualTo(testToken);
+        assertThat(testUser.getPasswordHash()).isEqualTo(upgradedHash);
+        verify(userRepository, times(1)).save(testUser);
     }
 
     @Test
@@ -314,4 +347,56 @@ class AuthServiceTest {
         verify(userRepository, times(1)).save(argThat(user -> 
             user.getPlan() == PlanType.FREE && user.getExtraCredits() == 0));
     }
+
+    @Test
+    @DisplayName("Should issue new token pair when refresh token is rotated")
+    void shouldRefreshTokens_WhenRefreshTokenValid() {
+        // Given
+        RefreshTokenRequestDTO request = RefreshTokenRequestDTO.builder()
+                .refreshToken("old-refresh-token")
+                .build();
+        when(refreshTokenService.rotate("old-refresh-token"))
+                .thenReturn(new RefreshTokenService.Rotation(testUser, "new-refresh-token"));
+        when(jwtTokenProvider.generateToken(testUserId, testEmail)).thenReturn(testToken);
+
+        // When
+        AuthResponseDTO response = authService.refresh(request);
+
+        // Then
+        assertThat(response.getToken()).isEqualTo(testToken);
+        assertThat(response.getRefreshToken()).isEqualTo("new-refresh-token");
+        assertThat(response.getUserId()).isEqualTo(testUserId);
+    }
+
+    @Test
+    @DisplayName("Should propagate BadCredentialsException when refresh token is reused")
+    void shouldThrowBadCredentialsException_WhenRefreshTokenReused() {
+        // Given
+        RefreshTokenRequestDTO request = RefreshTokenRequestDTO.builder()
+                .refreshToken("used-refresh-token")
+                .build();
+        when(refreshTokenService.rotate("used-refresh-token"))
+                .thenThrow(new BadCredentialsException("Invalid refresh token"));
+
+        // When & Then
+        assertThatThrownBy(() -> authService.refresh(request))
+                .isInstanceOf(BadCredentialsException.class);
+        verify(jwtTokenProvider, never()).generateToken(any(), anyString());
+    }
+
+    @Test
+    @DisplayName("Should revoke refresh token family and access token on logout")
+    void shouldRevokeTokens_OnLogout() {
+        // Given
+        RefreshTokenRequestDTO request = RefreshTokenRequestDTO.builder()
+                .refreshToken("refresh-token")
+                .build();
+
+        // When
+        authService.logout(request, testToken);
+
+        // Then
+        verify(refreshTokenService, times(1)).revoke("refresh-token");
+        verify(jwtTokenProvider, times(1)).revokeToken(testToken);
+    }
 }
@@ -4,7 +4,11 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import com.mystictarot.backend.service.token.TokenRevocationService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.test.util.ReflectionTestUtils;
 
@@ -12,6 +16,10 @@ import java.util.Date;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 /**
  * Unit tests for JwtTokenProvider service
@@ -26,6 +34,12 @@ import static org.assertj.core.api.Assertions.assertThat;
 @DisplayName("JWT Token Provider Tests")
 class JwtTokenProviderTest {
 
+    @Mock
+    private TokenRevocationService tokenRevocationService;
+
+    @Spy
+    private SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
     @InjectMocks
     private JwtTokenProvider jwtTokenProvider;
 
@@ -115,6 +129,37 @@ class JwtTokenProviderTest {
 
         // Then
         assertThat(isValid).isTrue();
+        assertThat(meterRegistry.timer(JwtTokenProvider.VERIFICATION_METRIC, "outcome", "VALID").count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should invalidate revoked token")
+    void shouldInvalidate_RevokedToken() {
+        // Given
+        String token = jwtTokenProvider.generateToken(testUserId, testEmail);
+        String tokenId = jwtTokenProvider.getTokenIdFromToken(token);
+        when(tokenRevocationService.isRevoked(tokenId)).thenReturn(true);
+
+        // When
+        Boolean isValid = jwtTokenProvider.validateToken(token);
+
+        // Then
+        assertThat(tokenId).isNotBlank();
+        assertThat(isValid).isFalse();
+        assertThat(meterRegistry.timer(JwtTokenProvider.VERIFICATION_METRIC, "outcome", "REVOKED").count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should revoke token by its ID until expiry")
+    void shouldRevokeToken_ByTokenId() {
+        // Given
+        String token = jwtTokenProvider.generateToken(testUserId, testEmail);
+
+        // When
+        jwtTokenProvider.revokeToken(token);
+
+        // Then
+        verify(tokenRevocationService).revoke(eq(jwtTokenProvider.getTokenIdFromToken(token)), anyLong());
     }
 
     @Test
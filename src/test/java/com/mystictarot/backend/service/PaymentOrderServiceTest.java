@@ -13,16 +13,22 @@ import com.mystictarot.backend.repository.UserRepository;
 import com.mystictarot.backend.service.payment.CreateOrderResult;
 import com.mystictarot.backend.service.payment.PaymentServiceFactory;
 import com.mystictarot.backend.service.payment.PlanPrice;
+import io.micrometer.observation.tck.TestObservationRegistry;
+import io.micrometer.observation.tck.TestObservationRegistryAssert;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -51,6 +57,9 @@ class PaymentOrderServiceTest {
     @Mock
     private com.mystictarot.backend.service.payment.PaymentProviderService paymentProviderService;
 
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
     @InjectMocks
     private PaymentOrderService paymentOrderService;
 
@@ -61,9 +70,8 @@ class PaymentOrderServiceTest {
     @BeforeEach
     void setUp() {
         ReflectionTestUtils.setField(paymentOrderService, "orderExpiryMinutes", 15);
-        when(paymentPlanService.getPlanPrice(eq(PlanType.MONTHLY), any())).thenReturn(new PlanPrice(BigDecimal.valueOf(99000), "VND"));
-        when(paymentPlanService.getPlanPrice(eq(PlanType.UNLIMITED), any())).thenReturn(new PlanPrice(BigDecimal.valueOf(499000), "VND"));
-        when(paymentPlanService.getPlanPrice(eq(PlanType.RETAIL_5), any())).thenReturn(new PlanPrice(BigDecimal.valueOf(29000), "VND"));
+        // every order in this class is for MONTHLY; the FREE and unknown-user cases fail before the price lookup
+        lenient().when(paymentPlanService.getPlanPrice(eq(PlanType.MONTHLY), any())).thenReturn(new PlanPrice(BigDecimal.valueOf(99000), "VND"));
         userId = UUID.randomUUID();
         user = User.builder()
                 .id(userId)
@@ -118,6 +126,7 @@ class PaymentOrderServiceTest {
                         .providerTransactionId("momo-123")
                         .build()
         );
+        when(transactionRepository.recordProviderOrder(any(UUID.class), eq("momo-123"), eq("https://momo.vn/pay/xxx"))).thenReturn(1);
         CreateOrderResponseDTO response = paymentOrderService.createOrder(userId, request);
         assertThat(response).isNotNull();
         assertThat(response.getPaymentUrl()).isEqualTo("https://momo.vn/pay/xxx");
@@ -126,6 +135,39 @@ class PaymentOrderServiceTest {
         verify(transactionRepository, atLeastOnce()).save(any(Transaction.class));
     }
 
+    @Test
+    @DisplayName("Should trace reserve, provider call and record as separate spans")
+    void createOrder_Success_TracesEachStep() {
+        TestObservationRegistry observationRegistry = TestObservationRegistry.create();
+        ReflectionTestUtils.setField(paymentOrderService, "observationRegistry", observationRegistry);
+        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(transactionRepository.save(any(Transaction.class))).thenAnswer(inv -> {
+            Transaction t = inv.getArgument(0);
+            t.setId(UUID.randomUUID());
+            return t;
+        });
+        when(paymentServiceFactory.getService(PaymentProvider.MOMO)).thenReturn(paymentProviderService);
+        when(paymentProviderService.createOrder(any(Transaction.class), any())).thenReturn(
+                CreateOrderResult.builder()
+                        .success(true)
+                        .paymentUrl("https://momo.vn/pay/xxx")
+                        .providerTransactionId("momo-123")
+                        .build()
+        );
+        when(transactionRepository.recordProviderOrder(any(UUID.class), eq("momo-123"), eq("https://momo.vn/pay/xxx"))).thenReturn(1);
+
+        paymentOrderService.createOrder(userId, request);
+
+        TestObservationRegistryAssert.assertThat(observationRegistry)
+                .hasObservationWithNameEqualTo("payment.order.reserve").that().hasBeenStopped();
+        TestObservationRegistryAssert.assertThat(observationRegistry)
+                .hasObservationWithNameEqualTo("payment.order.provider").that()
+                .hasBeenStopped()
+                .hasLowCardinalityKeyValue("provider", "MOMO");
+        TestObservationRegistryAssert.assertThat(observationRegistry)
+                .hasObservationWithNameEqualTo("payment.order.record").that().hasBeenStopped();
+    }
+
     @Test
     @DisplayName("Should throw when provider returns failure")
     void createOrder_WhenProviderFails_Throws() {
@@ -143,4 +185,108 @@ class PaymentOrderServiceTest {
                 .isInstanceOf(InvalidPaymentException.class)
                 .hasMessageContaining("Insufficient balance");
     }
+
+    @Test
+    @DisplayName("Should commit the PENDING transaction before calling the provider")
+    void createOrder_CommitsBeforeProviderCall() {
+        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(transactionRepository.save(any(Transaction.class))).thenAnswer(inv -> {
+            Transaction t = inv.getArgument(0);
+            t.setId(UUID.randomUUID());
+            return t;
+        });
+        when(paymentServiceFactory.getService(PaymentProvider.MOMO)).thenReturn(paymentProviderService);
+        when(paymentProviderService.createOrder(any(Transaction.class), any())).thenReturn(
+                CreateOrderResult.builder().success(true).paymentUrl("https://momo.vn/pay/xxx").providerTransactionId("momo-123").build()
+        );
+        when(transactionRepository.recordProviderOrder(any(UUID.class), any(), any())).thenReturn(1);
+
+        paymentOrderService.createOrder(userId, request);
+
+        InOrder inOrder = inOrder(transactionRepository, transactionManager, paymentProviderService);
+        inOrder.verify(transactionRepository).save(any(Transaction.class));
+        inOrder.verify(transactionManager).commit(any());
+        inOrder.verify(paymentProviderService).createOrder(any(Transaction.class), any());
+        inOrder.verify(transactionRepository).recordProviderOrder(any(UUID.class), eq("momo-123"), eq("https://momo.vn/pay/xxx"));
+        inOrder.verify(transactionManager).commit(any());
+    }
+
+    @Test
+    @DisplayName("Should mark transaction failed and release idempotency key when provider fails")
+    void createOrder_WhenProviderFails_ReleasesIdempotencyKey() {
+        request.setIdempotencyKey("key-1");
+        UUID transactionId = UUID.randomUUID();
+        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(transactionRepository.findByUser_IdAndIdempotencyKey(userId, "key-1")).thenReturn(Optional.empty());
+        when(transactionRepository.saveAndFlush(any(Transaction.class))).thenAnswer(inv -> {
+            Transaction t = inv.getArgument(0);
+            t.setId(transactionId);
+            return t;
+        });
+        when(paymentServiceFactory.getService(PaymentProvider.MOMO)).thenReturn(paymentProviderService);
+        when(paymentProviderService.createOrder(any(Transaction.class), any())).thenThrow(new RuntimeException("timeout"));
+
+        assertThatThrownBy(() -> paymentOrderService.createOrder(userId, request))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessage("timeout");
+        verify(transactionRepository).markFailedAndReleaseIdempotencyKey(transactionId);
+        verify(transactionRepository, never()).recordProviderOrder(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should return stored order for a repeated idempotency key without calling the provider")
+    void createOrder_WhenIdempotencyKeyCompleted_ReturnsExisting() {
+        request.setIdempotencyKey("key-1");
+        Transaction existing = Transaction.builder()
+                .id(UUID.randomUUID())
+                .user(user)
+                .paymentUrl("https://momo.vn/pay/existing")
+                .createdAt(LocalDateTime.now())
+                .build();
+        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(transactionRepository.findByUser_IdAndIdempotencyKey(userId, "key-1")).thenReturn(Optional.of(existing));
+
+        CreateOrderResponseDTO response = paymentOrderService.createOrder(userId, request);
+
+        assertThat(response.getTransactionId()).isEqualTo(existing.getId());
+        assertThat(response.getPaymentUrl()).isEqualTo("https://momo.vn/pay/existing");
+        verify(paymentServiceFactory, never()).getService(any());
+    }
+
+    @Test
+    @DisplayName("Should reject a repeated idempotency key while the first request is still in flight")
+    void createOrder_WhenIdempotencyKeyInFlight_Throws() {
+        request.setIdempotencyKey("key-1");
+        Transaction inFlight = Transaction.builder().id(UUID.randomUUID()).user(user).build();
+        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(transactionRepository.findByUser_IdAndIdempotencyKey(userId, "key-1")).thenReturn(Optional.of(inFlight));
+
+        assertThatThrownBy(() -> paymentOrderService.createOrder(userId, request))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("idempotency key");
+        verify(paymentServiceFactory, never()).getService(any());
+    }
+
+    @Test
+    @DisplayName("Should re-read the winning row when a concurrent insert takes the idempotency key")
+    void createOrder_WhenConcurrentInsertWins_ReturnsWinner() {
+        request.setIdempotencyKey("key-1");
+        Transaction winner = Transaction.builder()
+                .id(UUID.randomUUID())
+                .user(user)
+                .paymentUrl("https://momo.vn/pay/winner")
+                .createdAt(LocalDateTime.now())
+                .build();
+        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(transactionRepository.findByUser_IdAndIdempotencyKey(userId, "key-1"))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(winner));
+        when(transactionRepository.saveAndFlush(any(Transaction.class)))
+                .thenThrow(new DataIntegrityViolationException("uk_transactions_user_idempotency"));
+
+        CreateOrderResponseDTO response = paymentOrderService.createOrder(userId, request);
+
+        assertThat(response.getTransactionId()).isEqualTo(winner.getId());
+        verify(paymentServiceFactory, never()).getService(any());
+    }
 }
@@ -0,0 +1,177 @@
+package com.mystictarot.backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mystictarot.backend.entity.PlanPriceEntry;
+import com.mystictarot.backend.entity.enums.PlanType;
+import com.mystictarot.backend.exception.InvalidPaymentException;
+import com.mystictarot.backend.repository.PlanPriceRepository;
+import com.mystictarot.backend.service.payment.PlanPrice;
+import com.mystictarot.backend.service.payment.PlansDocument;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("PaymentPlanService Tests")
+class PaymentPlanServiceTest {
+
+    @Mock
+    private PlanPriceRepository planPriceRepository;
+
+    private MockEnvironment environment;
+    private PaymentPlanService paymentPlanService;
+
+    private final LocalDateTime loadedAt = LocalDateTime.of(2026, 1, 1, 0, 0);
+
+    @BeforeEach
+    void setUp() {
+        environment = new MockEnvironment();
+        paymentPlanService = new PaymentPlanService(planPriceRepository, new ObjectMapper(), environment,
+                new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(paymentPlanService, "defaultLocale", "vi");
+        ReflectionTestUtils.setField(paymentPlanService, "fallbackLocale", "en");
+    }
+
+    @Test
+    @DisplayName("Should resolve exact locale, language part, default and fallback")
+    void getPlanPrice_ResolvesLocale() {
+        givenCatalog(List.of(
+                entry(PlanType.MONTHLY, "vi", "199000", "VND", 0),
+                entry(PlanType.MONTHLY, "en", "12.99", "USD", 0),
+                entry(PlanType.MONTHLY, "ja", "1900", "JPY", 0)));
+        paymentPlanService.init();
+
+        assertThat(paymentPlanService.getPlanPrice(PlanType.MONTHLY, "ja").currency()).isEqualTo("JPY");
+        assertThat(paymentPlanService.getPlanPrice(PlanType.MONTHLY, "en-US").currency()).isEqualTo("USD");
+        assertThat(paymentPlanService.getPlanPrice(PlanType.MONTHLY, null).currency()).isEqualTo("VND");
+        assertThat(paymentPlanService.getPlanPrice(PlanType.MONTHLY, "fr").amount()).isEqualByComparingTo("12.99");
+        assertThat(paymentPlanService.getPlanPrice(PlanType.MONTHLY, " JA ").currency()).isEqualTo("JPY");
+        assertThat(paymentPlanService.getPlanPrice(PlanType.MONTHLY, "EN_gb").currency()).isEqualTo("USD");
+    }
+
+    @Test
+    @DisplayName("Should read pack credits from the default locale of the catalog")
+    void getExtraCredits_ReadsCatalog() {
+        givenCatalog(List.of(
+                entry(PlanType.MONTHLY, "VI", "199000", "VND", 0),
+                entry(PlanType.RETAIL_5, "VI", "19000", "VND", 1)));
+        paymentPlanService.init();
+
+        assertThat(paymentPlanService.getExtraCredits(PlanType.RETAIL_5)).isEqualTo(5);
+        assertThat(paymentPlanService.getExtraCredits(PlanType.MONTHLY)).isNull();
+    }
+
+    @Test
+    @DisplayName("Should return the same price instance on every lookup")
+    void getPlanPrice_ReusesSnapshotInstances() {
+        givenCatalog(List.of(entry(PlanType.MONTHLY, "vi", "199000", "VND", 0)));
+        paymentPlanService.init();
+
+        PlanPrice first = paymentPlanService.getPlanPrice(PlanType.MONTHLY, "vi");
+        assertThat(paymentPlanService.getPlanPrice(PlanType.MONTHLY, "vi")).isSameAs(first);
+    }
+
+    @Test
+    @DisplayName("Should reject plans that are not priced")
+    void getPlanPrice_WhenNotPriced_Throws() {
+        givenCatalog(List.of(entry(PlanType.MONTHLY, "vi", "199000", "VND", 0)));
+        paymentPlanService.init();
+
+        assertThatThrownBy(() -> paymentPlanService.getPlanPrice(PlanType.FREE, "vi"))
+                .isInstanceOf(InvalidPaymentException.class);
+    }
+
+    @Test
+    @DisplayName("Should serve a pre-serialized document whose ETag changes only with content")
+    void getPlansDocument_PreSerializedWithStableEtag() {
+        givenCatalog(List.of(
+                entry(PlanType.MONTHLY, "vi", "199000", "VND", 0),
+                entry(PlanType.RETAIL_5, "vi", "19000", "VND", 2)));
+        paymentPlanService.init();
+
+        PlansDocument document = paymentPlanService.getPlansDocument("vi");
+        assertThat(new String(document.body(), StandardCharsets.UTF_8))
+                .startsWith("[{\"planType\":\"MONTHLY\",\"amount\":199000.0,\"currency\":\"VND\"");
+        assertThat(paymentPlanService.getPlansDocument("vi")).isSameAs(document);
+        String etag = document.etag();
+
+        when(planPriceRepository.findLatestUpdate()).thenReturn(Optional.of(loadedAt.plusMinutes(1)));
+        when(planPriceRepository.findByActiveTrueOrderBySortOrderAsc()).thenReturn(List.of(
+                entry(PlanType.MONTHLY, "vi", "149000", "VND", 0),
+                entry(PlanType.RETAIL_5, "vi", "19000", "VND", 2)));
+        paymentPlanService.refreshIfChanged();
+
+        assertThat(paymentPlanService.getPlansDocument("vi").etag()).isNotEqualTo(etag);
+        assertThat(paymentPlanService.getPlanPrice(PlanType.MONTHLY, "vi").amount()).isEqualByComparingTo("149000");
+    }
+
+    @Test
+    @DisplayName("Should not reload when the table has not changed")
+    void refreshIfChanged_WhenUnchanged_DoesNotReload() {
+        givenCatalog(List.of(entry(PlanType.MONTHLY, "vi", "199000", "VND", 0)));
+        paymentPlanService.init();
+
+        paymentPlanService.refreshIfChanged();
+
+        verify(planPriceRepository, times(1)).findByActiveTrueOrderBySortOrderAsc();
+    }
+
+    @Test
+    @DisplayName("Should seed an empty table from the legacy payment.plans configuration")
+    @SuppressWarnings("unchecked")
+    void init_WhenTableEmpty_SeedsFromProperties() {
+        environment.setProperty("payment.plans.monthly.amount", "199000");
+        environment.setProperty("payment.plans.monthly.currency", "VND");
+        environment.setProperty("payment.locales.en.retail_5.amount", "1.99");
+        environment.setProperty("payment.locales.en.retail_5.currency", "USD");
+        environment.setProperty("payment.locales.en.retail_5.extra-credits", "5");
+        when(planPriceRepository.count()).thenReturn(0L);
+        when(planPriceRepository.findLatestUpdate()).thenReturn(Optional.empty());
+        when(planPriceRepository.findByActiveTrueOrderBySortOrderAsc()).thenReturn(List.of());
+
+        paymentPlanService.init();
+
+        ArgumentCaptor<List<PlanPriceEntry>> seeded = ArgumentCaptor.forClass(List.class);
+        verify(planPriceRepository).saveAll(seeded.capture());
+        assertThat(seeded.getValue()).extracting(PlanPriceEntry::getLocale, PlanPriceEntry::getPlanType, PlanPriceEntry::getExtraCredits)
+                .containsExactly(
+                        tuple("vi", PlanType.MONTHLY, null),
+                        tuple("vn", PlanType.MONTHLY, null),
+                        tuple("en", PlanType.RETAIL_5, 5));
+    }
+
+    private void givenCatalog(List<PlanPriceEntry> entries) {
+        when(planPriceRepository.count()).thenReturn((long) entries.size());
+        when(planPriceRepository.findLatestUpdate()).thenReturn(Optional.of(loadedAt));
+        when(planPriceRepository.findByActiveTrueOrderBySortOrderAsc()).thenReturn(entries);
+    }
+
+    private static PlanPriceEntry entry(PlanType plan, String locale, String amount, String currency, int sortOrder) {
+        return PlanPriceEntry.builder()
+                .planType(plan)
+                .locale(locale)
+                .amount(new BigDecimal(amount))
+                .currency(currency)
+                .extraCredits(plan == PlanType.RETAIL_5 ? 5 : null)
+                .sortOrder(sortOrder)
+                .build();
+    }
+}
@@ -0,0 +1,132 @@
+package com.mystictarot.backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mystictarot.backend.entity.Transaction;
+import com.mystictarot.backend.entity.User;
+import com.mystictarot.backend.entity.enums.PaymentProvider;
+import com.mystictarot.backend.entity.enums.PlanType;
+import com.mystictarot.backend.repository.TransactionRepository;
+import com.mystictarot.backend.repository.UserRepository;
+import com.mystictarot.backend.service.payment.ProviderOrderStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("PaymentWebhookService Tests")
+class PaymentWebhookServiceTest {
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private PaymentPlanService paymentPlanService;
+
+    private PaymentWebhookService paymentWebhookService;
+
+    private User user;
+    private Transaction transaction;
+
+    @BeforeEach
+    void setUp() {
+        paymentWebhookService = new PaymentWebhookService(transactionRepository, userRepository, new ObjectMapper(),
+                paymentPlanService);
+        user = User.builder()
+                .id(UUID.randomUUID())
+                .email("test@example.com")
+                .name("Test User")
+                .plan(PlanType.FREE)
+                .extraCredits(0)
+                .build();
+        transaction = Transaction.builder()
+                .id(UUID.randomUUID())
+                .user(user)
+                .amount(BigDecimal.valueOf(19000))
+                .planType(PlanType.RETAIL_5)
+                .provider(PaymentProvider.STRIPE)
+                .build();
+        when(transactionRepository.findById(transaction.getId())).thenReturn(Optional.of(transaction));
+    }
+
+    @Test
+    @DisplayName("Should grant entitlement when this callback flips the transaction to SUCCESS")
+    void shouldGrantEntitlement_WhenStatusFlipped() {
+        when(transactionRepository.markSuccessIfNotAlready(transaction.getId())).thenReturn(1);
+        when(paymentPlanService.getExtraCredits(PlanType.RETAIL_5)).thenReturn(7);
+
+        paymentWebhookService.handleStripeWebhook(checkoutCompleted());
+
+        verify(userRepository).addExtraCredits(user.getId(), 7);
+        verify(userRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Should fail the grant when the plan catalog has no credits for the pack")
+    void shouldFail_WhenCatalogHasNoCredits() {
+        when(transactionRepository.markSuccessIfNotAlready(transaction.getId())).thenReturn(1);
+
+        assertThatThrownBy(() -> paymentWebhookService.applyProviderStatus(transaction.getId(), ProviderOrderStatus.PAID))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("RETAIL_5");
+        verify(userRepository, never()).addExtraCredits(any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Should not grant entitlement twice for a redelivered callback")
+    void shouldNotGrantTwice_WhenAlreadySuccess() {
+        when(transactionRepository.markSuccessIfNotAlready(transaction.getId())).thenReturn(0);
+
+        paymentWebhookService.handleStripeWebhook(checkoutCompleted());
+
+        verify(userRepository, never()).addExtraCredits(any(), anyInt());
+        verify(userRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Should grant a reconciled PAID order through the same conditional update as webhooks")
+    void shouldGrantEntitlement_WhenReconciledAsPaid() {
+        when(transactionRepository.markSuccessIfNotAlready(transaction.getId())).thenReturn(1, 0);
+        when(paymentPlanService.getExtraCredits(PlanType.RETAIL_5)).thenReturn(5);
+
+        paymentWebhookService.applyProviderStatus(transaction.getId(), ProviderOrderStatus.PAID);
+        paymentWebhookService.applyProviderStatus(transaction.getId(), ProviderOrderStatus.PAID);
+
+        verify(userRepository, times(1)).addExtraCredits(user.getId(), 5);
+    }
+
+    @Test
+    @DisplayName("Should set the plan and its expiry with a targeted update for a monthly subscription")
+    void shouldUpdatePlan_WhenMonthlyPaid() {
+        transaction.setPlanType(PlanType.MONTHLY);
+        when(transactionRepository.markSuccessIfNotAlready(transaction.getId())).thenReturn(1);
+
+        paymentWebhookService.applyProviderStatus(transaction.getId(), ProviderOrderStatus.PAID);
+
+        verify(userRepository).updatePlan(eq(user.getId()), eq(PlanType.MONTHLY),
+                argThat(expiry -> expiry.isAfter(LocalDateTime.now().plusDays(29))));
+        verify(userRepository, never()).save(any());
+    }
+
+    private String checkoutCompleted() {
+        return "{\"id\":\"evt_1\",\"type\":\"checkout.session.completed\",\"data\":{\"object\":{\"client_reference_id\":\""
+                + transaction.getId() + "\"}}}";
+    }
+}
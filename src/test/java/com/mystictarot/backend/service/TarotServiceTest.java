@@ -27,6 +27,9 @@ import com.mystictarot.backend.repository.TarotCardRepository;
 import com.mystictarot.backend.repository.TarotCardTranslationRepository;
 import com.mystictarot.backend.repository.UserRepository;
 import com.mystictarot.backend.util.LocaleUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.tck.TestObservationRegistry;
+import io.micrometer.observation.tck.TestObservationRegistryAssert;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -34,10 +37,12 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
 import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -81,9 +86,17 @@ class TarotServiceTest {
     @Mock
     private GeminiService geminiService;
 
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Spy
+    private SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
     @InjectMocks
     private TarotService tarotService;
 
+    private TestObservationRegistry observationRegistry;
+
     private UUID userId;
     private User testUser;
     private Reading testReading;
@@ -133,6 +146,8 @@ class TarotServiceTest {
         ReflectionTestUtils.setField(tarotService, "monthlyPlanLimit", 20);
         ReflectionTestUtils.setField(tarotService, "retail5PlanLimit", 5);
         ReflectionTestUtils.setField(tarotService, "objectMapper", new ObjectMapper());
+        observationRegistry = TestObservationRegistry.create();
+        ReflectionTestUtils.setField(tarotService, "observationRegistry", observationRegistry);
     }
 
     @Test
@@ -145,6 +160,7 @@ class TarotServiceTest {
                 .build();
         String interpretation = "Your path suggests clarity.";
         when(userRepository.findById(userId)).thenReturn(Optional.of(testUser));
+        when(userRepository.findByIdForUpdate(userId)).thenReturn(Optional.of(testUser));
         when(readingRepository.countWeeklyReadingsByUserId(eq(userId), eq(ReadingStatus.ACTIVE), any(LocalDateTime.class)))
                 .thenReturn(1L);
         doReturn(tarotCards).when(tarotCardRepository).findAllById(anyIterable());
@@ -171,6 +187,83 @@ class TarotServiceTest {
                         && r.getInterpretationText().equals(interpretation)));
         verify(geminiService).generateInterpretation(eq("What should I focus on?"), eq(SpreadType.THREE_CARDS), anyString(), eq("en"));
         verify(userRepository, never()).save(any(User.class));
+        verify(userRepository, never()).spendExtraCredit(any());
+    }
+
+    @Test
+    @DisplayName("Should trace each interpret phase, with lookups and prompt building inside the prepare span")
+    void shouldTraceInterpretPhases() {
+        InterpretRequestDTO request = InterpretRequestDTO.builder()
+                .question("What should I focus on?")
+                .spreadType(SpreadType.THREE_CARDS)
+                .cards(threeCards)
+                .build();
+        when(userRepository.findById(userId)).thenReturn(Optional.of(testUser));
+        when(userRepository.findByIdForUpdate(userId)).thenReturn(Optional.of(testUser));
+        when(readingRepository.countWeeklyReadingsByUserId(eq(userId), eq(ReadingStatus.ACTIVE), any(LocalDateTime.class)))
+                .thenReturn(1L);
+        doReturn(tarotCards).when(tarotCardRepository).findAllById(anyIterable());
+        when(geminiService.generateInterpretation(any(), any(), anyString(), anyString())).thenReturn("Clarity.");
+        when(readingRepository.save(any(Reading.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        tarotService.interpretReading(userId, request);
+
+        TestObservationRegistryAssert.assertThat(observationRegistry)
+                .hasObservationWithNameEqualTo("tarot.interpret.prepare").that().hasBeenStopped().doesNotHaveError();
+        for (String phase : List.of("tarot.interpret.cards", "tarot.interpret.quota", "tarot.interpret.prompt")) {
+            TestObservationRegistryAssert.assertThat(observationRegistry)
+                    .hasObservationWithNameEqualTo(phase).that()
+                    .hasBeenStopped()
+                    .hasParentObservationContextMatching(parent -> "tarot.interpret.prepare".equals(parent.getName()));
+        }
+        TestObservationRegistryAssert.assertThat(observationRegistry)
+                .hasObservationWithNameEqualTo("tarot.interpret.store").that().hasBeenStopped().doesNotHaveError();
+    }
+
+    @Test
+    @DisplayName("Should mark the quota span as failed when the weekly limit is reached")
+    void shouldTraceQuotaRejection() {
+        InterpretRequestDTO request = InterpretRequestDTO.builder()
+                .question("What should I focus on?")
+                .spreadType(SpreadType.THREE_CARDS)
+                .cards(threeCards)
+                .build();
+        testUser.setExtraCredits(0);
+        when(userRepository.findById(userId)).thenReturn(Optional.of(testUser));
+        when(readingRepository.countWeeklyReadingsByUserId(eq(userId), eq(ReadingStatus.ACTIVE), any(LocalDateTime.class)))
+                .thenReturn(3L);
+        doReturn(tarotCards).when(tarotCardRepository).findAllById(anyIterable());
+
+        assertThatThrownBy(() -> tarotService.interpretReading(userId, request))
+                .isInstanceOf(ReadingLimitExceededException.class);
+
+        TestObservationRegistryAssert.assertThat(observationRegistry)
+                .hasObservationWithNameEqualTo("tarot.interpret.quota").that()
+                .hasBeenStopped()
+                .assertThatError().isInstanceOf(ReadingLimitExceededException.class);
+        TestObservationRegistryAssert.assertThat(observationRegistry)
+                .hasNumberOfObservationsWithNameEqualTo("tarot.interpret.store", 0);
+    }
+
+    @Test
+    @DisplayName("Should run the interpret path with a canned Gemini response without storing anything")
+    void shouldDryRunInterpretation_WithoutUserOrPersistence() {
+        InterpretRequestDTO request = InterpretRequestDTO.builder()
+                .question("What should I focus on?")
+                .spreadType(SpreadType.THREE_CARDS)
+                .cards(threeCards)
+                .build();
+        String cannedResponse = "{\"candidates\":[]}";
+        doReturn(tarotCards).when(tarotCardRepository).findAllById(anyIterable());
+        when(geminiService.interpretWithResponse(eq("What should I focus on?"), eq(SpreadType.THREE_CARDS),
+                contains("The Magician"), eq("en"), eq(cannedResponse))).thenReturn("Warm-up interpretation.");
+
+        InterpretResponseDTO response = tarotService.dryRunInterpretation(request, cannedResponse);
+
+        assertThat(response.getInterpretation()).isEqualTo("Warm-up interpretation.");
+        assertThat(response.getReadingId()).isNull();
+        verify(geminiService, never()).generateInterpretation(any(), any(), any(), any());
+        verifyNoInteractions(userRepository, readingRepository);
     }
 
     @Test
@@ -250,12 +343,15 @@ class TarotServiceTest {
                 .hasMessageContaining("limit reached");
 
         verify(geminiService, never()).generateInterpretation(any(), any(), any(), any());
+        assertThat(meterRegistry.counter(TarotService.QUOTA_METRIC, "plan", "FREE", "result", "REJECTED").count())
+                .isEqualTo(1);
     }
 
     @Test
     @DisplayName("Should allow interpret and deduct extra credit when weekly limit reached but has extra credits")
     void shouldAllowInterpret_WhenWeeklyLimitReachedButHasExtraCredits() {
         when(userRepository.findById(userId)).thenReturn(Optional.of(testUser));
+        when(userRepository.findByIdForUpdate(userId)).thenReturn(Optional.of(testUser));
         when(readingRepository.countWeeklyReadingsByUserId(eq(userId), eq(ReadingStatus.ACTIVE), any(LocalDateTime.class)))
                 .thenReturn(3L);
         doReturn(tarotCards).when(tarotCardRepository).findAllById(anyIterable());
@@ -266,7 +362,7 @@ class TarotServiceTest {
             r.setId(UUID.randomUUID());
             return r;
         });
-        when(userRepository.save(any(User.class))).thenAnswer(inv -> inv.getArgument(0));
+        when(userRepository.spendExtraCredit(userId)).thenReturn(1);
 
         InterpretRequestDTO request = InterpretRequestDTO.builder()
                 .question("Q")
@@ -278,9 +374,8 @@ class TarotServiceTest {
 
         assertThat(response).isNotNull();
         assertThat(response.getInterpretation()).isEqualTo("Interpretation using extra credit.");
-        ArgumentCaptor<User> userCaptor = ArgumentCaptor.forClass(User.class);
-        verify(userRepository).save(userCaptor.capture());
-        assertThat(userCaptor.getValue().getExtraCredits()).isEqualTo(1);
+        verify(userRepository).spendExtraCredit(userId);
+        verify(userRepository, never()).save(any(User.class));
     }
 
     @Test
@@ -289,6 +384,7 @@ class TarotServiceTest {
         testUser.setPlan(PlanType.UNLIMITED);
         String interpretation = "Unlimited insight.";
         when(userRepository.findById(userId)).thenReturn(Optional.of(testUser));
+        when(userRepository.findByIdForUpdate(userId)).thenReturn(Optional.of(testUser));
         doReturn(tarotCards).when(tarotCardRepository).findAllById(anyIterable());
         when(geminiService.generateInterpretation(any(), eq(SpreadType.THREE_CARDS), anyString(), anyString()))
                 .thenReturn(interpretation);
@@ -310,6 +406,7 @@ class TarotServiceTest {
         assertThat(response.getInterpretation()).isEqualTo(interpretation);
         verify(readingRepository, never()).countWeeklyReadingsByUserId(any(), any(), any());
         verify(userRepository, never()).save(any(User.class));
+        verify(userRepository, never()).spendExtraCredit(any());
     }
 
     @Test
@@ -340,6 +437,7 @@ class TarotServiceTest {
     void shouldInterpret_WhenWeeklyLimitReachedAndOneExtraCredit_DeductsToZero() {
         testUser.setExtraCredits(1);
         when(userRepository.findById(userId)).thenReturn(Optional.of(testUser));
+        when(userRepository.findByIdForUpdate(userId)).thenReturn(Optional.of(testUser));
         when(readingRepository.countWeeklyReadingsByUserId(eq(userId), eq(ReadingStatus.ACTIVE), any(LocalDateTime.class)))
                 .thenReturn(3L);
         doReturn(tarotCards).when(tarotCardRepository).findAllById(anyIterable());
@@ -350,7 +448,7 @@ class TarotServiceTest {
             r.setId(UUID.randomUUID());
             return r;
         });
-        when(userRepository.save(any(User.class))).thenAnswer(inv -> inv.getArgument(0));
+        when(userRepository.spendExtraCredit(userId)).thenReturn(1);
 
         InterpretRequestDTO request = InterpretRequestDTO.builder()
                 .question("Q")
@@ -361,9 +459,11 @@ class TarotServiceTest {
         InterpretResponseDTO response = tarotService.interpretReading(userId, request);
 
         assertThat(response).isNotNull();
-        ArgumentCaptor<User> userCaptor = ArgumentCaptor.forClass(User.class);
-        verify(userRepository).save(userCaptor.capture());
-        assertThat(userCaptor.getValue().getExtraCredits()).isEqualTo(0);
+        verify(userRepository).spendExtraCredit(userId);
+        verify(userRepository, never()).save(any(User.class));
+        assertThat(meterRegistry.counter(TarotService.QUOTA_METRIC, "plan", "FREE", "result", "EXTRA_CREDIT").count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.counter(TarotService.CREDITS_METRIC, "operation", "interpret").count()).isEqualTo(1);
     }
 
     @Test
@@ -371,6 +471,7 @@ class TarotServiceTest {
     void shouldAllowInterpret_MonthlyPlanWeeklyAtLimitWithExtraCredits() {
         testUser.setPlan(PlanType.MONTHLY);
         when(userRepository.findById(userId)).thenReturn(Optional.of(testUser));
+        when(userRepository.findByIdForUpdate(userId)).thenReturn(Optional.of(testUser));
         when(readingRepository.countWeeklyReadingsByUserId(eq(userId), eq(ReadingStatus.ACTIVE), any(LocalDateTime.class)))
                 .thenReturn(20L);
         doReturn(tarotCards).when(tarotCardRepository).findAllById(anyIterable());
@@ -381,7 +482,7 @@ class TarotServiceTest {
             r.setId(UUID.randomUUID());
             return r;
         });
-        when(userRepository.save(any(User.class))).thenAnswer(inv -> inv.getArgument(0));
+        when(userRepository.spendExtraCredit(userId)).thenReturn(1);
 
         InterpretRequestDTO request = InterpretRequestDTO.builder()
                 .question("Q")
@@ -392,9 +493,8 @@ class TarotServiceTest {
         InterpretResponseDTO response = tarotService.interpretReading(userId, request);
 
         assertThat(response).isNotNull();
-        ArgumentCaptor<User> userCaptor = ArgumentCaptor.forClass(User.class);
-        verify(userRepository).save(userCaptor.capture());
-        assertThat(userCaptor.getValue().getExtraCredits()).isEqualTo(1);
+        verify(userRepository).spendExtraCredit(userId);
+        verify(userRepository, never()).save(any(User.class));
     }
 
     @Test
@@ -425,6 +525,7 @@ class TarotServiceTest {
     void shouldAllowInterpret_Retail5WeeklyAtLimitWithExtraCredits() {
         testUser.setPlan(PlanType.RETAIL_5);
         when(userRepository.findById(userId)).thenReturn(Optional.of(testUser));
+        when(userRepository.findByIdForUpdate(userId)).thenReturn(Optional.of(testUser));
         when(readingRepository.countWeeklyReadingsByUserId(eq(userId), eq(ReadingStatus.ACTIVE), any(LocalDateTime.class)))
                 .thenReturn(5L);
         doReturn(tarotCards).when(tarotCardRepository).findAllById(anyIterable());
@@ -435,7 +536,7 @@ class TarotServiceTest {
             r.setId(UUID.randomUUID());
             return r;
         });
-        when(userRepository.save(any(User.class))).thenAnswer(inv -> inv.getArgument(0));
+        when(userRepository.spendExtraCredit(userId)).thenReturn(1);
 
         InterpretRequestDTO request = InterpretRequestDTO.builder()
                 .question("Q")
@@ -446,9 +547,8 @@ class TarotServiceTest {
         InterpretResponseDTO response = tarotService.interpretReading(userId, request);
 
         assertThat(response).isNotNull();
-        ArgumentCaptor<User> userCaptor = ArgumentCaptor.forClass(User.class);
-        verify(userRepository).save(userCaptor.capture());
-        assertThat(userCaptor.getValue().getExtraCredits()).isEqualTo(1);
+        verify(userRepository).spendExtraCredit(userId);
+        verify(userRepository, never()).save(any(User.class));
     }
 
     @Test
@@ -465,14 +565,13 @@ class TarotServiceTest {
         when(geminiService.generateFollowUpResponse(anyString(), eq("One more?")))
                 .thenReturn("Answer.");
         when(chatMessageRepository.save(any(ChatMessage.class))).thenAnswer(inv -> inv.getArgument(0));
-        when(userRepository.save(any(User.class))).thenAnswer(inv -> inv.getArgument(0));
+        when(userRepository.spendExtraCredit(userId)).thenReturn(1);
 
         FollowUpResponseDTO response = tarotService.followUp(userId, request);
 
         assertThat(response).isNotNull();
-        ArgumentCaptor<User> userCaptor = ArgumentCaptor.forClass(User.class);
-        verify(userRepository).save(userCaptor.capture());
-        assertThat(userCaptor.getValue().getExtraCredits()).isEqualTo(0);
+        verify(userRepository).spendExtraCredit(userId);
+        verify(userRepository, never()).save(any(User.class));
     }
 
     @Test
@@ -508,18 +607,63 @@ class TarotServiceTest {
         when(geminiService.generateFollowUpResponse(anyString(), eq("Can you elaborate?")))
                 .thenReturn(aiResponse);
         when(chatMessageRepository.save(any(ChatMessage.class))).thenAnswer(inv -> inv.getArgument(0));
-        when(userRepository.save(any(User.class))).thenAnswer(inv -> inv.getArgument(0));
+        when(userRepository.spendExtraCredit(userId)).thenReturn(1);
 
         FollowUpResponseDTO response = tarotService.followUp(userId, request);
 
         assertThat(response).isNotNull();
         assertThat(response.getContent()).isEqualTo(aiResponse);
-        ArgumentCaptor<User> userCaptor = ArgumentCaptor.forClass(User.class);
-        verify(userRepository).save(userCaptor.capture());
-        assertThat(userCaptor.getValue().getExtraCredits()).isEqualTo(1);
+        verify(userRepository).spendExtraCredit(userId);
+        verify(userRepository, never()).save(any(User.class));
         verify(chatMessageRepository, times(2)).save(any(ChatMessage.class));
     }
 
+    @Test
+    @DisplayName("Should not store the follow-up when another request spent the last credit while Gemini was answering")
+    void shouldThrowInsufficientCreditsException_WhenLastCreditSpentConcurrently() {
+        testUser.setExtraCredits(1);
+        FollowUpRequestDTO request = FollowUpRequestDTO.builder()
+                .readingId(readingId)
+                .message("One more?")
+                .build();
+        when(userRepository.findById(userId)).thenReturn(Optional.of(testUser));
+        when(readingRepository.findByIdAndUserId(readingId, userId)).thenReturn(Optional.of(testReading));
+        when(chatMessageRepository.findByReadingIdOrderByCreatedAtAsc(readingId)).thenReturn(List.of());
+        when(geminiService.generateFollowUpResponse(anyString(), eq("One more?"))).thenReturn("Answer.");
+        when(userRepository.spendExtraCredit(userId)).thenReturn(0);
+
+        assertThatThrownBy(() -> tarotService.followUp(userId, request))
+                .isInstanceOf(InsufficientCreditsException.class);
+
+        verify(chatMessageRepository, never()).save(any(ChatMessage.class));
+        assertThat(meterRegistry.counter(TarotService.CREDITS_METRIC, "operation", "follow_up").count()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should re-check the quota under the user lock and reject when the limit was reached meanwhile")
+    void shouldThrowReadingLimitExceededException_WhenLimitReachedWhileGeminiAnswered() {
+        testUser.setExtraCredits(0);
+        when(userRepository.findById(userId)).thenReturn(Optional.of(testUser));
+        when(userRepository.findByIdForUpdate(userId)).thenReturn(Optional.of(testUser));
+        when(readingRepository.countWeeklyReadingsByUserId(eq(userId), eq(ReadingStatus.ACTIVE), any(LocalDateTime.class)))
+                .thenReturn(2L, 3L);
+        doReturn(tarotCards).when(tarotCardRepository).findAllById(anyIterable());
+        when(geminiService.generateInterpretation(any(), eq(SpreadType.THREE_CARDS), anyString(), anyString()))
+                .thenReturn("Too late.");
+
+        InterpretRequestDTO request = InterpretRequestDTO.builder()
+                .question("Q")
+                .spreadType(SpreadType.THREE_CARDS)
+                .cards(threeCards)
+                .build();
+
+        assertThatThrownBy(() -> tarotService.interpretReading(userId, request))
+                .isInstanceOf(ReadingLimitExceededException.class);
+
+        verify(readingRepository, never()).save(any(Reading.class));
+        verify(userRepository, never()).spendExtraCredit(any());
+    }
+
     @Test
     @DisplayName("Should throw ResourceNotFoundException when user not found for follow-up")
     void shouldThrowResourceNotFoundException_WhenUserNotFoundForFollowUp() {
@@ -622,7 +766,7 @@ class TarotServiceTest {
         when(geminiService.generateFollowUpResponse(anyString(), eq("Second Q?")))
                 .thenReturn("Second A");
         when(chatMessageRepository.save(any(ChatMessage.class))).thenAnswer(inv -> inv.getArgument(0));
-        when(userRepository.save(any(User.class))).thenAnswer(inv -> inv.getArgument(0));
+        when(userRepository.spendExtraCredit(userId)).thenReturn(1);
 
         ArgumentCaptor<String> contextCaptor = ArgumentCaptor.forClass(String.class);
         FollowUpRequestDTO request = FollowUpRequestDTO.builder()
@@ -0,0 +1,238 @@
+package com.mystictarot.backend.service;
+
+import com.mystictarot.backend.entity.TarotDeckState;
+import com.mystictarot.backend.entity.enums.SuitType;
+import com.mystictarot.backend.repository.TarotDeckStateRepository;
+import com.mystictarot.backend.service.deck.TarotDeckCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for TarotSheetImportService
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TarotSheetImportService Tests")
+class TarotSheetImportServiceTest {
+
+    private static final String HEADER = "card_number,suit,image_url,"
+            + "vi_key,vi_name,vi_desc,en_key,en_name,en_desc,zh_key,zh_name,zh_desc,"
+            + "fr_key,fr_name,fr_desc,it_key,it_name,it_desc\n"
+            + "number,suit,image,,,,,,,,,,,,,,,\n";
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private TarotDeckStateRepository tarotDeckStateRepository;
+
+    @Mock
+    private TarotDeckCache tarotDeckCache;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @TempDir
+    Path tempDir;
+
+    private TarotDeckState state;
+
+    @BeforeEach
+    void setUp() {
+        state = TarotDeckState.builder().id(TarotDeckState.SINGLETON_ID).version(3L).build();
+        lenient().when(tarotDeckStateRepository.tryAdvisoryXactLock(TarotSheetImportService.IMPORT_LOCK_KEY)).thenReturn(true);
+        lenient().when(tarotDeckStateRepository.findForUpdate()).thenReturn(Optional.of(state));
+        lenient().when(tarotDeckStateRepository.findById(TarotDeckState.SINGLETON_ID)).thenReturn(Optional.of(state));
+    }
+
+    @Test
+    @DisplayName("Should stream a local CSV and upsert cards and translations in batches")
+    void runImport_LocalFile_BatchesUpserts() throws IOException {
+        StringBuilder csv = new StringBuilder(HEADER);
+        for (int n = 0; n < 5; n++) {
+            csv.append(row(n, "Major Arcana", "Card " + n, "\"Mô tả, có dấu phẩy\""));
+        }
+        csv.append("abc,Cups,img,,,,,,,,,,,,,,,\n");
+        TarotSheetImportService service = newService(2);
+
+        TarotSheetImportService.ImportResult result = service.runImport(write(csv.toString()).toString());
+
+        assertThat(result.cardsUpserted()).isEqualTo(5);
+        assertThat(result.translationsUpserted()).isEqualTo(10);
+        assertThat(result.rowsSkipped()).isEqualTo(1);
+        List<Integer> cardBatchSizes = capturedBatchSizes(TarotSheetImportService.UPSERT_CARD_SQL);
+        assertThat(cardBatchSizes).containsExactly(2, 2, 1);
+        assertThat(capturedBatchSizes(TarotSheetImportService.UPSERT_TRANSLATION_SQL)).containsExactly(4, 4, 2);
+        assertThat(result.deckVersion()).isEqualTo(4L);
+        verify(tarotDeckCache).publish(4L);
+        verify(tarotDeckStateRepository).save(state);
+    }
+
+    @Test
+    @DisplayName("Should skip rows whose content hash is unchanged and keep the deck version")
+    void runImport_UnchangedRows_NotWritten() throws IOException, SQLException {
+        String vi = TarotSheetImportService.contentHash("Lá 1", "Mô tả");
+        String en = TarotSheetImportService.contentHash("Ace", "Spark");
+        String card = TarotSheetImportService.contentHash(1, SuitType.WANDS,
+                "https://img/1.png");
+        ResultSet cards = mock(ResultSet.class);
+        when(cards.getInt(1)).thenReturn(2);
+        when(cards.getString(2)).thenReturn(card);
+        ResultSet translations = mock(ResultSet.class);
+        when(translations.getInt(1)).thenReturn(2, 2);
+        when(translations.getString(2)).thenReturn("vi", "en");
+        when(translations.getString(3)).thenReturn(vi, en);
+        doAnswer(inv -> {
+            ((RowCallbackHandler) inv.getArgument(1)).processRow(cards);
+            return null;
+        }).when(jdbcTemplate).query(eq(TarotSheetImportService.CARD_HASHES_SQL), any(RowCallbackHandler.class));
+        doAnswer(inv -> {
+            RowCallbackHandler handler = inv.getArgument(1);
+            handler.processRow(translations);
+            handler.processRow(translations);
+            return null;
+        }).when(jdbcTemplate).query(eq(TarotSheetImportService.TRANSLATION_HASHES_SQL), any(RowCallbackHandler.class));
+
+        TarotSheetImportService.ImportResult result = newService(100)
+                .runImport(write(HEADER + row(1, "Wands", "Ace", "Spark")).toString());
+
+        assertThat(result.cardsUnchanged()).isEqualTo(1);
+        assertThat(result.translationsUnchanged()).isEqualTo(2);
+        assertThat(result.cardsUpserted()).isZero();
+        assertThat(result.deckVersion()).isEqualTo(3L);
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyCollection(), anyInt(), any(ParameterizedPreparedStatementSetter.class));
+        verifyNoInteractions(tarotDeckCache);
+    }
+
+    @Test
+    @DisplayName("Should not parse a local file whose modification time matches the last import")
+    void runImport_FileNotModified_Skips() throws IOException {
+        Path file = write(HEADER + row(1, "Wands", "Ace", "Spark"));
+        TarotSheetImportService service = newService(100);
+        service.runImport(file.toString());
+        assertThat(state.getSourceLastModified()).isNotNull();
+        clearInvocations(jdbcTemplate, tarotDeckCache);
+
+        TarotSheetImportService.ImportResult result = service.runImport(file.toString());
+
+        assertThat(result.outcome()).isEqualTo(TarotSheetImportService.Outcome.NOT_MODIFIED);
+        verifyNoInteractions(jdbcTemplate, tarotDeckCache);
+        verify(transactionManager, times(1)).getTransaction(any());
+    }
+
+    @Test
+    @DisplayName("Should not write when another node holds the import lock")
+    void runImport_LockedElsewhere_Skips() throws IOException {
+        when(tarotDeckStateRepository.tryAdvisoryXactLock(TarotSheetImportService.IMPORT_LOCK_KEY)).thenReturn(false);
+        Path file = write(HEADER + row(1, "Wands", "Ace", "Spark"));
+
+        TarotSheetImportService.ImportResult result = newService(100).runImport(file.toString());
+
+        assertThat(result.outcome()).isEqualTo(TarotSheetImportService.Outcome.LOCKED_ELSEWHERE);
+        verify(tarotDeckStateRepository, never()).findForUpdate();
+        verifyNoInteractions(jdbcTemplate, tarotDeckCache);
+    }
+
+    @Test
+    @DisplayName("Should bind card columns in insert order")
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    void runImport_BindsCardColumns() throws IOException, SQLException {
+        TarotSheetImportService service = newService(100);
+
+        service.runImport(write(HEADER + row(21, "Major Arcana", "The World", "Completion")).toUri().toString());
+
+        ArgumentCaptor<Collection> rows = ArgumentCaptor.forClass(Collection.class);
+        ArgumentCaptor<ParameterizedPreparedStatementSetter> setter =
+                ArgumentCaptor.forClass(ParameterizedPreparedStatementSetter.class);
+        verify(jdbcTemplate).batchUpdate(eq(TarotSheetImportService.UPSERT_CARD_SQL), rows.capture(), anyInt(), setter.capture());
+        PreparedStatement ps = mock(PreparedStatement.class);
+        setter.getValue().setValues(ps, rows.getValue().iterator().next());
+        verify(ps).setInt(1, 22);
+        verify(ps).setInt(2, 21);
+        verify(ps).setString(3, "MAJOR_ARCANA");
+        verify(ps).setString(4, "https://img/21.png");
+        verify(ps).setString(eq(5), anyString());
+    }
+
+    @Test
+    @DisplayName("Should detect semicolon-delimited exports from the header line")
+    void runImport_SemicolonDelimiter() throws IOException {
+        String csv = (HEADER + row(1, "Wands", "Ace", "Spark")).replace(',', ';');
+        TarotSheetImportService service = newService(100);
+
+        TarotSheetImportService.ImportResult result = service.runImport(write(csv).toString());
+
+        assertThat(result.cardsUpserted()).isEqualTo(1);
+        assertThat(result.rowsSkipped()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should reject an HTML page instead of CSV without writing anything")
+    void runImport_Html_Throws() throws IOException {
+        TarotSheetImportService service = newService(100);
+        Path file = write("<!DOCTYPE html><html><body>Sign in</body></html>");
+
+        assertThatThrownBy(() -> service.runImport(file.toString()))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessageContaining("HTML");
+        verifyNoInteractions(jdbcTemplate, transactionManager);
+    }
+
+    private TarotSheetImportService newService(int batchSize) {
+        return new TarotSheetImportService(jdbcTemplate, tarotDeckStateRepository, tarotDeckCache, transactionManager,
+                batchSize, 1000, 1000);
+    }
+
+    private static String row(int number, String suit, String enName, String enDesc) {
+        return number + "," + suit + ",https://img/" + number + ".png,"
+                + "k,Lá " + number + ",Mô tả," + "k," + enName + "," + enDesc + ","
+                + "k,,,k,,,k,,\n";
+    }
+
+    private Path write(String content) throws IOException {
+        Path file = tempDir.resolve("tarot.csv");
+        Files.writeString(file, content, StandardCharsets.UTF_8);
+        return file;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private List<Integer> capturedBatchSizes(String sql) {
+        ArgumentCaptor<Collection> rows = ArgumentCaptor.forClass(Collection.class);
+        verify(jdbcTemplate, atLeastOnce()).batchUpdate(eq(sql), rows.capture(), anyInt(), any(ParameterizedPreparedStatementSetter.class));
+        List<Integer> sizes = new ArrayList<>();
+        for (Collection batch : rows.getAllValues()) {
+            sizes.add(batch.size());
+        }
+        return sizes;
+    }
+}
@@ -0,0 +1,130 @@
+package com.mystictarot.backend.service.capture;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mystictarot.backend.dto.request.CardDTO;
+import com.mystictarot.backend.dto.request.CreateOrderRequestDTO;
+import com.mystictarot.backend.dto.request.FollowUpRequestDTO;
+import com.mystictarot.backend.dto.request.InterpretRequestDTO;
+import com.mystictarot.backend.entity.enums.CardOrientation;
+import com.mystictarot.backend.entity.enums.SpreadType;
+import com.mystictarot.backend.service.capture.TrafficCaptureRecord.Shape;
+import com.mystictarot.backend.util.LocaleUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("TrafficCaptureService Tests")
+class TrafficCaptureServiceTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @TempDir
+    private Path tempDir;
+
+    private TrafficCaptureService service(long maxRecords, int queueCapacity) {
+        return new TrafficCaptureService(true, tempDir.resolve("capture.jsonl").toString(), maxRecords, queueCapacity,
+                objectMapper, new LocaleUtil("vi", "vi,en"), meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Should describe interpret bodies by shape only")
+    void describe_Interpret_ShouldKeepShapeOnly() {
+        InterpretRequestDTO body = InterpretRequestDTO.builder()
+                .question("Will I move to another city this year?")
+                .spreadType(SpreadType.THREE_CARDS)
+                .cards(List.of(new CardDTO(1, CardOrientation.UPRIGHT), new CardDTO(2, CardOrientation.REVERSED),
+                        new CardDTO(3, CardOrientation.UPRIGHT)))
+                .lang("en-US")
+                .build();
+
+        Shape shape = service(10, 10).describe(body);
+
+        assertThat(shape).isEqualTo(new Shape("THREE_CARDS", 3, 38, "en"));
+    }
+
+    @Test
+    @DisplayName("Should describe follow-up and order bodies")
+    void describe_FollowUpAndOrder_ShouldKeepLengthAndLocale() {
+        TrafficCaptureService service = service(10, 10);
+
+        assertThat(service.describe(new FollowUpRequestDTO(UUID.randomUUID(), "And the third card?")))
+                .isEqualTo(new Shape(null, null, 19, null));
+        assertThat(service.describe(CreateOrderRequestDTO.builder().lang(null).build()))
+                .isEqualTo(new Shape(null, null, null, "vi"));
+        assertThat(service.describe("other")).isNull();
+    }
+
+    @Test
+    @DisplayName("Should give a user the same pseudonymous id that does not contain the user id")
+    void clientId_ShouldBeStableAndOpaque() {
+        TrafficCaptureService service = service(10, 10);
+        String userId = UUID.randomUUID().toString();
+
+        String clientId = service.clientId(userId);
+
+        assertThat(clientId).hasSize(16).isEqualTo(service.clientId(userId));
+        assertThat(userId).doesNotContain(clientId);
+        assertThat(clientId).isNotEqualTo(service(10, 10).clientId(userId));
+    }
+
+    @Test
+    @DisplayName("Should measure arrival gaps from the previous request")
+    void arrive_ShouldReturnOffsetAndGap() throws Exception {
+        TrafficCaptureService service = service(10, 10);
+
+        TrafficCaptureService.Arrival first = service.arrive();
+        Thread.sleep(20);
+        TrafficCaptureService.Arrival second = service.arrive();
+
+        assertThat(first.offsetMs()).isZero();
+        assertThat(first.gapMs()).isZero();
+        assertThat(second.gapMs()).isGreaterThanOrEqualTo(20);
+        assertThat(second.offsetMs()).isEqualTo(second.gapMs());
+    }
+
+    @Test
+    @DisplayName("Should append queued records to the file as JSON lines without null fields")
+    void flush_ShouldWriteJsonLines() throws Exception {
+        TrafficCaptureService service = service(10, 10);
+        service.record(new TrafficCaptureRecord(0, 0, "c1", "GET", "/history", 200, 12, null, null, null, null));
+        service.record(new TrafficCaptureRecord(40, 40, "c1", "POST", "/tarot/interpret", 200, 900,
+                "DAILY_DRAW", 1, 25, "vi"));
+
+        service.flush();
+
+        List<String> lines = Files.readAllLines(tempDir.resolve("capture.jsonl"));
+        assertThat(lines).hasSize(2);
+        assertThat(lines.get(0)).doesNotContain("spreadType").doesNotContain("null");
+        assertThat(objectMapper.readValue(lines.get(1), TrafficCaptureRecord.class))
+                .isEqualTo(new TrafficCaptureRecord(40, 40, "c1", "POST", "/tarot/interpret", 200, 900,
+                        "DAILY_DRAW", 1, 25, "vi"));
+    }
+
+    @Test
+    @DisplayName("Should drop records when the queue is full and stop at max-records")
+    void record_QueueFullOrMaxReached_ShouldDrop() throws Exception {
+        TrafficCaptureService service = service(3, 2);
+        TrafficCaptureRecord record = new TrafficCaptureRecord(0, 0, null, "GET", "/tarot/cards", 200, 1,
+                null, null, null, "vi");
+
+        service.record(record);
+        service.record(record);
+        service.record(record);
+        service.flush();
+        service.record(record);
+        service.record(record);
+        service.flush();
+
+        assertThat(Files.readAllLines(tempDir.resolve("capture.jsonl"))).hasSize(3);
+        assertThat(meterRegistry.counter(TrafficCaptureService.DROPPED_METRIC).count()).isEqualTo(1.0);
+    }
+}
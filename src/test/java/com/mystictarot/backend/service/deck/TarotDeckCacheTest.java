@@ -0,0 +1,108 @@
+package com.mystictarot.backend.service.deck;
+
+import com.mystictarot.backend.dto.response.TarotCardResponseDTO;
+import com.mystictarot.backend.entity.TarotCard;
+import com.mystictarot.backend.entity.TarotCardTranslation;
+import com.mystictarot.backend.entity.enums.SuitType;
+import com.mystictarot.backend.repository.TarotCardTranslationRepository;
+import com.mystictarot.backend.repository.TarotDeckStateRepository;
+import com.mystictarot.backend.util.LocaleUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TarotDeckCache Tests")
+class TarotDeckCacheTest {
+
+    @Mock
+    private TarotCardTranslationRepository tarotCardTranslationRepository;
+
+    @Mock
+    private TarotDeckStateRepository tarotDeckStateRepository;
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private RedisMessageListenerContainer listenerContainer;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private TarotDeckCache cache;
+
+    private final TarotCard fool = TarotCard.builder().id(1).cardNumber(0).suit(SuitType.MAJOR_ARCANA).build();
+    private final TarotCard magician = TarotCard.builder().id(2).cardNumber(1).suit(SuitType.MAJOR_ARCANA).build();
+
+    @BeforeEach
+    void setUp() {
+        cache = new TarotDeckCache(tarotCardTranslationRepository, tarotDeckStateRepository, redisTemplate,
+                listenerContainer, new LocaleUtil("vi", "vi,en"), meterRegistry);
+        when(tarotDeckStateRepository.findCurrentVersion()).thenReturn(Optional.of(1L));
+        when(tarotCardTranslationRepository.findAllWithCard()).thenReturn(List.of(
+                translation(fool, "vi", "Chàng Khờ"),
+                translation(magician, "vi", "Nhà Ảo Thuật"),
+                translation(fool, "en", "The Fool")));
+    }
+
+    @Test
+    @DisplayName("Should fill missing translations from the default locale, ordered by id")
+    void getDeck_FallsBackToDefaultLocale() {
+        List<TarotCardResponseDTO> en = cache.getDeck("en");
+
+        assertThat(en).extracting(TarotCardResponseDTO::getName).containsExactly("The Fool", "Nhà Ảo Thuật");
+        assertThat(cache.getDeck("fr")).extracting(TarotCardResponseDTO::getName)
+                .containsExactly("Chàng Khờ", "Nhà Ảo Thuật");
+        verify(tarotCardTranslationRepository, times(1)).findAllWithCard();
+    }
+
+    @Test
+    @DisplayName("Should reload on a newer version message and ignore stale ones")
+    void onMessage_ReloadsOnlyForNewerVersion() {
+        cache.getDeck("vi");
+
+        cache.onMessage(message("1"), null);
+        verify(tarotCardTranslationRepository, times(1)).findAllWithCard();
+
+        when(tarotDeckStateRepository.findCurrentVersion()).thenReturn(Optional.of(2L));
+        when(tarotCardTranslationRepository.findAllWithCard()).thenReturn(List.of(translation(fool, "vi", "Kẻ Khờ")));
+        cache.onMessage(message("2"), null);
+
+        assertThat(cache.currentVersion()).isEqualTo(2L);
+        assertThat(cache.getDeck("vi")).extracting(TarotCardResponseDTO::getName).containsExactly("Kẻ Khờ");
+    }
+
+    @Test
+    @DisplayName("Should reload when the stored version differs after a missed message")
+    void checkVersion_ReloadsOnDrift() {
+        cache.getDeck("vi");
+        when(tarotDeckStateRepository.findCurrentVersion()).thenReturn(Optional.of(5L));
+
+        cache.checkVersion();
+
+        assertThat(cache.currentVersion()).isEqualTo(5L);
+        verify(tarotCardTranslationRepository, times(2)).findAllWithCard();
+    }
+
+    private static TarotCardTranslation translation(TarotCard card, String locale, String name) {
+        return TarotCardTranslation.builder().tarotCard(card).locale(locale).name(name).build();
+    }
+
+    private static DefaultMessage message(String body) {
+        return new DefaultMessage(TarotDeckCache.CHANNEL.getBytes(StandardCharsets.UTF_8),
+                body.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,56 @@
+package com.mystictarot.backend.service.deck;
+
+import com.mystictarot.backend.repository.TarotCardRepository;
+import com.mystictarot.backend.repository.TarotCardTranslationRepository;
+import com.mystictarot.backend.util.LocaleUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.health.contributor.Status;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TarotDeckHealthIndicator Tests")
+class TarotDeckHealthIndicatorTest {
+
+    @Mock
+    private TarotCardRepository tarotCardRepository;
+
+    @Mock
+    private TarotCardTranslationRepository tarotCardTranslationRepository;
+
+    private TarotDeckHealthIndicator indicator;
+
+    @BeforeEach
+    void setUp() {
+        indicator = new TarotDeckHealthIndicator(tarotCardRepository, tarotCardTranslationRepository,
+                new LocaleUtil("vi", "vi,en"));
+    }
+
+    @Test
+    @DisplayName("Should be out of service while the deck is incomplete")
+    void health_IncompleteDeck_OutOfService() {
+        when(tarotCardRepository.count()).thenReturn(78L);
+        when(tarotCardTranslationRepository.countByLocale("vi")).thenReturn(40L);
+
+        assertThat(indicator.health().getStatus()).isEqualTo(Status.OUT_OF_SERVICE);
+        assertThat(indicator.isDeckValid()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should report up once the deck is complete and stop querying afterwards")
+    void health_CompleteDeck_UpAndRemembered() {
+        when(tarotCardRepository.count()).thenReturn(78L);
+        when(tarotCardTranslationRepository.countByLocale("vi")).thenReturn(78L);
+
+        assertThat(indicator.health().getStatus()).isEqualTo(Status.UP);
+        assertThat(indicator.isDeckValid()).isTrue();
+        assertThat(indicator.health().getStatus()).isEqualTo(Status.UP);
+        verify(tarotCardRepository, times(1)).count();
+    }
+}
@@ -0,0 +1,63 @@
+package com.mystictarot.backend.service.expiry;
+
+import com.mystictarot.backend.repository.TransactionRepository;
+import com.mystictarot.backend.repository.UserRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ExpirySweepService Tests")
+class ExpirySweepServiceTest {
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @InjectMocks
+    private ExpirySweepService expirySweepService;
+
+    @Test
+    @DisplayName("Should expire a chunk of pending orders when the lock is acquired")
+    void expirePendingOrders_WhenLockAcquired_Updates() {
+        LocalDateTime cutoff = LocalDateTime.now().minusMinutes(30);
+        when(transactionRepository.tryAdvisoryXactLock(ExpirySweepService.PENDING_ORDERS_LOCK_KEY)).thenReturn(true);
+        when(transactionRepository.expirePendingCreatedBefore(cutoff, 500)).thenReturn(42);
+
+        assertThat(expirySweepService.expirePendingOrders(cutoff, 500)).isEqualTo(42);
+    }
+
+    @Test
+    @DisplayName("Should skip the chunk when another node holds the lock")
+    void expirePendingOrders_WhenLockedElsewhere_Skips() {
+        when(transactionRepository.tryAdvisoryXactLock(ExpirySweepService.PENDING_ORDERS_LOCK_KEY)).thenReturn(false);
+
+        assertThat(expirySweepService.expirePendingOrders(LocalDateTime.now(), 500))
+                .isEqualTo(ExpirySweepService.LOCKED_ELSEWHERE);
+        verify(transactionRepository, never()).expirePendingCreatedBefore(any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Should downgrade lapsed subscriptions under their own lock")
+    void downgradeLapsedSubscriptions_UsesSeparateLock() {
+        LocalDateTime now = LocalDateTime.now();
+        when(transactionRepository.tryAdvisoryXactLock(ExpirySweepService.LAPSED_SUBSCRIPTIONS_LOCK_KEY)).thenReturn(true);
+        when(userRepository.downgradeLapsedSubscriptions(now, 100)).thenReturn(3);
+
+        assertThat(expirySweepService.downgradeLapsedSubscriptions(now, 100)).isEqualTo(3);
+    }
+}
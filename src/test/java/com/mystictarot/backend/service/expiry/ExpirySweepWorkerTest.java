@@ -0,0 +1,76 @@
+package com.mystictarot.backend.service.expiry;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static java.time.temporal.ChronoUnit.SECONDS;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ExpirySweepWorker Tests")
+class ExpirySweepWorkerTest {
+
+    @Mock
+    private ExpirySweepService expirySweepService;
+
+    @InjectMocks
+    private ExpirySweepWorker expirySweepWorker;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(expirySweepWorker, "orderExpiryMinutes", 15);
+        ReflectionTestUtils.setField(expirySweepWorker, "graceMinutes", 15);
+        ReflectionTestUtils.setField(expirySweepWorker, "batchSize", 2);
+        ReflectionTestUtils.setField(expirySweepWorker, "maxBatchesPerRun", 10);
+    }
+
+    @Test
+    @DisplayName("Should keep sweeping full chunks until a short chunk comes back")
+    void sweep_DrainsUntilShortChunk() {
+        when(expirySweepService.expirePendingOrders(any(), eq(2))).thenReturn(2, 2, 1);
+        when(expirySweepService.downgradeLapsedSubscriptions(any(), eq(2))).thenReturn(0);
+
+        expirySweepWorker.sweep();
+
+        ArgumentCaptor<LocalDateTime> cutoff = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(expirySweepService, times(3)).expirePendingOrders(cutoff.capture(), eq(2));
+        assertThat(cutoff.getValue()).isCloseTo(LocalDateTime.now().minusMinutes(30), within(5, SECONDS));
+        verify(expirySweepService, times(1)).downgradeLapsedSubscriptions(any(), eq(2));
+    }
+
+    @Test
+    @DisplayName("Should stop immediately when another node holds the lock")
+    void drain_WhenLockedElsewhere_Stops() {
+        int total = expirySweepWorker.drain(() -> ExpirySweepService.LOCKED_ELSEWHERE);
+
+        assertThat(total).isZero();
+    }
+
+    @Test
+    @DisplayName("Should cap the number of chunks per run")
+    void drain_CapsBatchesPerRun() {
+        int[] calls = {0};
+        int total = expirySweepWorker.drain(() -> {
+            calls[0]++;
+            return 2;
+        });
+
+        assertThat(calls[0]).isEqualTo(10);
+        assertThat(total).isEqualTo(20);
+    }
+}
@@ -0,0 +1,205 @@
+package com.mystictarot.backend.service.idempotency;
+
+import com.mystictarot.backend.service.idempotency.IdempotencyService.Claim;
+import com.mystictarot.backend.service.idempotency.IdempotencyService.Outcome;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.same;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("IdempotencyService Tests")
+class IdempotencyServiceTest {
+
+    private static final String KEY = "record-key";
+    private static final String OUTAGE_KEY = "outage-key";
+    private static final String FINGERPRINT = "fingerprint";
+    private static final String OWNER = "4b1f0c1e-8a7d-4c52-9a4e-2f7d7f9b3c11";
+
+    @Mock
+    private RedisIdempotencyStore redisStore;
+
+    @Mock
+    private JdbcIdempotencyStore jdbcStore;
+
+    @InjectMocks
+    private IdempotencyService idempotencyService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(idempotencyService, "inFlightTtlMs", 120000L);
+        ReflectionTestUtils.setField(idempotencyService, "responseTtlHours", 24L);
+        ReflectionTestUtils.setField(idempotencyService, "waitTimeoutMs", 5000L);
+        ReflectionTestUtils.setField(idempotencyService, "pollIntervalMs", 1L);
+        ReflectionTestUtils.setField(idempotencyService, "maxPollIntervalMs", 5L);
+    }
+
+    @Test
+    @DisplayName("Should acquire a free key in Redis")
+    void claim_WhenKeyFree_Acquires() {
+        when(redisStore.tryBegin(eq(KEY), any(), eq(Duration.ofMinutes(2)))).thenReturn(true);
+
+        Claim claim = idempotencyService.claim(KEY, FINGERPRINT);
+
+        assertThat(claim.outcome()).isEqualTo(Outcome.ACQUIRED);
+        assertThat(claim.store()).isSameAs(redisStore);
+        verifyNoInteractions(jdbcStore);
+    }
+
+    @Test
+    @DisplayName("Should replay a response stored in the database during a Redis outage once Redis is back")
+    void claim_WhenKeyUsedDuringOutage_ReplaysFromDatabase() {
+        fallBackToDatabase();
+        IdempotencyEntry completed = IdempotencyEntry.completed(FINGERPRINT, 200, "application/json", body("{}"));
+        when(redisStore.tryBegin(eq(KEY), any(), any())).thenReturn(true);
+        when(jdbcStore.find(KEY)).thenReturn(completed);
+
+        Claim claim = idempotencyService.claim(KEY, FINGERPRINT);
+
+        assertThat(claim.outcome()).isEqualTo(Outcome.REPLAY);
+        assertThat(claim.store()).isSameAs(jdbcStore);
+        verify(redisStore).release(eq(KEY), argThat(e -> !e.completed() && FINGERPRINT.equals(e.fingerprint())));
+    }
+
+    @Test
+    @DisplayName("Should keep the Redis claim when the database cannot be checked")
+    void claim_WhenDatabaseDown_KeepsRedisClaim() {
+        fallBackToDatabase();
+        when(redisStore.tryBegin(eq(KEY), any(), any())).thenReturn(true);
+        when(jdbcStore.find(KEY)).thenThrow(new DataAccessResourceFailureException("down"));
+
+        Claim claim = idempotencyService.claim(KEY, FINGERPRINT);
+
+        assertThat(claim.outcome()).isEqualTo(Outcome.ACQUIRED);
+        assertThat(claim.store()).isSameAs(redisStore);
+        verify(redisStore, never()).release(any(), any());
+    }
+
+    @Test
+    @DisplayName("Should stop checking the database once keys claimed during the outage have expired")
+    void claim_WhenOutageKeysExpired_SkipsDatabase() {
+        ReflectionTestUtils.setField(idempotencyService, "inFlightTtlMs", 0L);
+        ReflectionTestUtils.setField(idempotencyService, "responseTtlHours", 0L);
+        fallBackToDatabase();
+        when(redisStore.tryBegin(eq(KEY), any(), any())).thenReturn(true);
+
+        Claim claim = idempotencyService.claim(KEY, FINGERPRINT);
+
+        assertThat(claim.outcome()).isEqualTo(Outcome.ACQUIRED);
+        assertThat(claim.store()).isSameAs(redisStore);
+        verify(jdbcStore, never()).find(any());
+    }
+
+    @Test
+    @DisplayName("Should replay a completed response for the same request")
+    void claim_WhenCompleted_Replays() {
+        IdempotencyEntry completed = IdempotencyEntry.completed(FINGERPRINT, 200, "application/json", body("{}"));
+        when(redisStore.tryBegin(eq(KEY), any(), any())).thenReturn(false);
+        when(redisStore.find(KEY)).thenReturn(completed);
+
+        Claim claim = idempotencyService.claim(KEY, FINGERPRINT);
+
+        assertThat(claim.outcome()).isEqualTo(Outcome.REPLAY);
+        assertThat(claim.entry()).isSameAs(completed);
+    }
+
+    @Test
+    @DisplayName("Should reject a key reused for a different request")
+    void claim_WhenFingerprintDiffers_Mismatch() {
+        when(redisStore.tryBegin(eq(KEY), any(), any())).thenReturn(false);
+        when(redisStore.find(KEY)).thenReturn(IdempotencyEntry.inFlight("other", OWNER));
+
+        assertThat(idempotencyService.claim(KEY, FINGERPRINT).outcome()).isEqualTo(Outcome.MISMATCH);
+    }
+
+    @Test
+    @DisplayName("Should wait for the in-flight request and replay its response")
+    void claim_WhenInFlight_WaitsThenReplays() {
+        IdempotencyEntry completed = IdempotencyEntry.completed(FINGERPRINT, 201, "application/json", body("{\"id\":1}"));
+        when(redisStore.tryBegin(eq(KEY), any(), any())).thenReturn(false);
+        when(redisStore.find(KEY)).thenReturn(IdempotencyEntry.inFlight(FINGERPRINT, OWNER), IdempotencyEntry.inFlight(FINGERPRINT, OWNER), completed);
+
+        Claim claim = idempotencyService.claim(KEY, FINGERPRINT);
+
+        assertThat(claim.outcome()).isEqualTo(Outcome.REPLAY);
+        assertThat(claim.entry().status()).isEqualTo(201);
+        verify(redisStore, times(3)).find(KEY);
+    }
+
+    @Test
+    @DisplayName("Should take over a key that the first request released")
+    void claim_WhenReleasedWhileWaiting_Acquires() {
+        when(redisStore.tryBegin(eq(KEY), any(), any())).thenReturn(false, true);
+        when(redisStore.find(KEY)).thenReturn(null);
+
+        assertThat(idempotencyService.claim(KEY, FINGERPRINT).outcome()).isEqualTo(Outcome.ACQUIRED);
+    }
+
+    @Test
+    @DisplayName("Should give up with IN_PROGRESS after the wait timeout")
+    void claim_WhenStillRunningAfterTimeout_InProgress() {
+        ReflectionTestUtils.setField(idempotencyService, "waitTimeoutMs", 0L);
+        when(redisStore.tryBegin(eq(KEY), any(), any())).thenReturn(false);
+        when(redisStore.find(KEY)).thenReturn(IdempotencyEntry.inFlight(FINGERPRINT, OWNER));
+
+        assertThat(idempotencyService.claim(KEY, FINGERPRINT).outcome()).isEqualTo(Outcome.IN_PROGRESS);
+    }
+
+    @Test
+    @DisplayName("Should fall back to the database store when Redis is down")
+    void claim_WhenRedisDown_UsesDatabase() {
+        when(redisStore.tryBegin(eq(KEY), any(), any())).thenThrow(new RedisConnectionFailureException("down"));
+        when(jdbcStore.tryBegin(eq(KEY), any(), any())).thenReturn(true);
+        when(jdbcStore.complete(eq(KEY), any(), any(), any())).thenReturn(true);
+
+        Claim claim = idempotencyService.claim(KEY, FINGERPRINT);
+        idempotencyService.complete(claim, 200, "application/json", body("{}"));
+
+        assertThat(claim.outcome()).isEqualTo(Outcome.ACQUIRED);
+        assertThat(claim.store()).isSameAs(jdbcStore);
+        verify(jdbcStore).complete(eq(KEY), same(claim.entry()), any(IdempotencyEntry.class), eq(Duration.ofHours(24)));
+        verify(redisStore, never()).complete(any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should complete and release with the in-flight marker the claim wrote, carrying a fresh owner token")
+    void completeAndRelease_UseTheClaimsOwnMarker() {
+        when(redisStore.tryBegin(eq(KEY), any(), any())).thenReturn(true);
+
+        Claim first = idempotencyService.claim(KEY, FINGERPRINT);
+        Claim second = idempotencyService.claim(KEY, FINGERPRINT);
+        idempotencyService.complete(first, 200, "application/json", body("{}"));
+        idempotencyService.release(second);
+
+        assertThat(first.entry().owner()).isNotBlank().isNotEqualTo(second.entry().owner());
+        verify(redisStore).complete(eq(KEY), same(first.entry()), argThat(e -> e.completed() && e.status() == 200),
+                eq(Duration.ofHours(24)));
+        verify(redisStore).release(KEY, second.entry());
+    }
+
+    private void fallBackToDatabase() {
+        when(redisStore.tryBegin(eq(OUTAGE_KEY), any(), any())).thenThrow(new RedisConnectionFailureException("down"));
+        when(jdbcStore.tryBegin(eq(OUTAGE_KEY), any(), any())).thenReturn(true);
+        assertThat(idempotencyService.claim(OUTAGE_KEY, FINGERPRINT).store()).isSameAs(jdbcStore);
+    }
+
+    private static byte[] body(String json) {
+        return json.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,166 @@
+package com.mystictarot.backend.service.payment;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mystictarot.backend.entity.Transaction;
+import com.mystictarot.backend.entity.enums.PaymentProvider;
+import com.mystictarot.backend.service.payment.http.PaymentHttpClients;
+import com.mystictarot.backend.service.payment.http.PaymentHttpSettings;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Status queries of each provider service against a local stand-in of the provider API.
+ */
+@DisplayName("Provider Order Status Query Tests")
+class ProviderOrderStatusQueryTest {
+
+    private static HttpServer server;
+    private static String baseUrl;
+    private static final Map<String, String> responses = new ConcurrentHashMap<>();
+    private static final Map<String, String> lastRequests = new ConcurrentHashMap<>();
+
+    private PaymentHttpClients clients;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @BeforeAll
+    static void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", exchange -> {
+            String path = exchange.getRequestURI().getPath();
+            lastRequests.put(path, new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+            String body = responses.get(path);
+            if (body == null) {
+                exchange.sendResponseHeaders(500, -1);
+                exchange.close();
+                return;
+            }
+            respond(exchange, body);
+        });
+        server.start();
+        baseUrl = "http://localhost:" + server.getAddress().getPort();
+    }
+
+    @AfterAll
+    static void stopServer() {
+        server.stop(0);
+    }
+
+    @BeforeEach
+    void setUp() {
+        Map<PaymentProvider, PaymentHttpSettings> settings = new EnumMap<>(PaymentProvider.class);
+        for (PaymentProvider provider : PaymentProvider.values()) {
+            settings.put(provider, new PaymentHttpSettings(Duration.ofSeconds(1), Duration.ofSeconds(2), Duration.ofSeconds(3),
+                    5, Duration.ofMillis(200), Duration.ofSeconds(30)));
+        }
+        clients = new PaymentHttpClients(settings, new SimpleMeterRegistry(), ObservationRegistry.NOOP);
+    }
+
+    @AfterEach
+    void tearDown() {
+        clients.destroy();
+        responses.clear();
+        lastRequests.clear();
+    }
+
+    @Test
+    @DisplayName("Momo: should map result codes and derive the query endpoint from the create endpoint")
+    void momo_MapsResultCodes() {
+        MomoPaymentService service = new MomoPaymentService(clients, objectMapper);
+        ReflectionTestUtils.setField(service, "partnerCode", "MOMO");
+        ReflectionTestUtils.setField(service, "accessKey", "access");
+        ReflectionTestUtils.setField(service, "secretKey", "secret");
+        ReflectionTestUtils.setField(service, "endpoint", baseUrl + "/v2/gateway/api/create");
+        Transaction transaction = transaction(null);
+
+        responses.put("/v2/gateway/api/query", "{\"resultCode\":0}");
+        assertThat(service.queryOrderStatus(transaction)).isEqualTo(ProviderOrderStatus.PAID);
+        assertThat(lastRequests.get("/v2/gateway/api/query")).contains(transaction.getId().toString()).contains("signature");
+
+        responses.put("/v2/gateway/api/query", "{\"resultCode\":1000}");
+        assertThat(service.queryOrderStatus(transaction)).isEqualTo(ProviderOrderStatus.PENDING);
+
+        responses.put("/v2/gateway/api/query", "{\"resultCode\":1005}");
+        assertThat(service.queryOrderStatus(transaction)).isEqualTo(ProviderOrderStatus.FAILED);
+
+        responses.put("/v2/gateway/api/query", "{\"resultCode\":99}");
+        assertThat(service.queryOrderStatus(transaction)).isEqualTo(ProviderOrderStatus.UNKNOWN);
+    }
+
+    @Test
+    @DisplayName("ZaloPay: should map return codes and report UNKNOWN on provider error")
+    void zaloPay_MapsReturnCodes() {
+        ZaloPayPaymentService service = new ZaloPayPaymentService(clients, objectMapper);
+        ReflectionTestUtils.setField(service, "appId", "2553");
+        ReflectionTestUtils.setField(service, "key1", "key1");
+        ReflectionTestUtils.setField(service, "endpoint", baseUrl + "/v2/create");
+        Transaction transaction = transaction("240101_123");
+
+        responses.put("/v2/query", "{\"return_code\":1}");
+        assertThat(service.queryOrderStatus(transaction)).isEqualTo(ProviderOrderStatus.PAID);
+        assertThat(lastRequests.get("/v2/query")).contains("app_trans_id=240101_123").contains("mac=");
+
+        responses.put("/v2/query", "{\"return_code\":2}");
+        assertThat(service.queryOrderStatus(transaction)).isEqualTo(ProviderOrderStatus.FAILED);
+
+        responses.put("/v2/query", "{\"return_code\":3}");
+        assertThat(service.queryOrderStatus(transaction)).isEqualTo(ProviderOrderStatus.PENDING);
+
+        responses.remove("/v2/query");
+        assertThat(service.queryOrderStatus(transaction)).isEqualTo(ProviderOrderStatus.UNKNOWN);
+    }
+
+    @Test
+    @DisplayName("Stripe: should map checkout session payment status")
+    void stripe_MapsSessionStatus() {
+        StripePaymentService service = new StripePaymentService(clients, objectMapper);
+        ReflectionTestUtils.setField(service, "apiBase", baseUrl + "/v1");
+        ReflectionTestUtils.setField(service, "secretKey", "sk_test");
+        Transaction transaction = transaction("cs_test_1");
+
+        responses.put("/v1/checkout/sessions/cs_test_1", "{\"status\":\"complete\",\"payment_status\":\"paid\"}");
+        assertThat(service.queryOrderStatus(transaction)).isEqualTo(ProviderOrderStatus.PAID);
+
+        responses.put("/v1/checkout/sessions/cs_test_1", "{\"status\":\"open\",\"payment_status\":\"unpaid\"}");
+        assertThat(service.queryOrderStatus(transaction)).isEqualTo(ProviderOrderStatus.PENDING);
+
+        responses.put("/v1/checkout/sessions/cs_test_1", "{\"status\":\"expired\",\"payment_status\":\"unpaid\"}");
+        assertThat(service.queryOrderStatus(transaction)).isEqualTo(ProviderOrderStatus.FAILED);
+    }
+
+    private static Transaction transaction(String providerTransactionId) {
+        return Transaction.builder()
+                .id(UUID.randomUUID())
+                .providerTransactionId(providerTransactionId)
+                .build();
+    }
+
+    private static void respond(HttpExchange exchange, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package com.mystictarot.backend.service.payment.http;
+
+import com.mystictarot.backend.entity.enums.PaymentProvider;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Exercises the provider clients against a local stand-in server that can answer, stall or trickle.
+ */
+@DisplayName("Payment HTTP Clients Tests")
+class PaymentHttpClientsTest {
+
+    private static HttpServer server;
+    private static ExecutorService serverExecutor;
+    private static String baseUrl;
+    private static final List<Integer> clientPorts = new CopyOnWriteArrayList<>();
+    private static volatile CountDownLatch stallStarted = new CountDownLatch(1);
+
+    private SimpleMeterRegistry meterRegistry;
+    private PaymentHttpClients clients;
+
+    @BeforeAll
+    static void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/ok", exchange -> {
+            clientPorts.add(exchange.getRemoteAddress().getPort());
+            respond(exchange, "{\"resultCode\":0}");
+        });
+        server.createContext("/stall", exchange -> {
+            stallStarted.countDown();
+            sleep(5000);
+            respond(exchange, "{}");
+        });
+        server.createContext("/drip", exchange -> {
+            exchange.sendResponseHeaders(200, 0);
+            try (OutputStream body = exchange.getResponseBody()) {
+                for (int i = 0; i < 25; i++) {
+                    body.write('x');
+                    body.flush();
+                    sleep(200);
+                }
+            } catch (IOException ignored) {
+                // client gave up
+            }
+        });
+        serverExecutor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable);
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(serverExecutor);
+        server.start();
+        baseUrl = "http://localhost:" + server.getAddress().getPort();
+    }
+
+    @AfterAll
+    static void stopServer() {
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (clients != null) {
+            clients.destroy();
+        }
+        clientPorts.clear();
+    }
+
+    @Test
+    @DisplayName("Should reuse keep-alive connection and record success metric")
+    void shouldReuseConnection_AndRecordMetrics() {
+        clients = create(settings(Duration.ofSeconds(2), Duration.ofSeconds(5), 5));
+
+        String first = clients.forProvider(PaymentProvider.MOMO).getForObject(baseUrl + "/ok", String.class);
+        String second = clients.forProvider(PaymentProvider.MOMO).getForObject(baseUrl + "/ok", String.class);
+
+        assertThat(first).contains("resultCode");
+        assertThat(second).contains("resultCode");
+        assertThat(clientPorts).hasSize(2);
+        assertThat(clientPorts.get(0)).isEqualTo(clientPorts.get(1));
+        assertThat(meterRegistry.get(ProviderMetricsInterceptor.METRIC_NAME)
+                .tag("provider", "MOMO").tag("outcome", "SUCCESS").timer().count()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should fail with read timeout when provider stalls")
+    void shouldFailWithReadTimeout_WhenProviderStalls() {
+        clients = create(settings(Duration.ofMillis(300), Duration.ofSeconds(5), 5));
+
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> clients.forProvider(PaymentProvider.ZALOPAY).getForObject(baseUrl + "/stall", String.class))
+                .isInstanceOf(ResourceAccessException.class);
+
+        assertThat(elapsedMillis(start)).isLessThan(2000);
+        assertThat(meterRegistry.get(ProviderMetricsInterceptor.METRIC_NAME)
+                .tag("provider", "ZALOPAY").tag("outcome", "TIMEOUT").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should enforce total deadline when provider trickles the body")
+    void shouldEnforceTotalDeadline_WhenProviderTrickles() {
+        clients = create(settings(Duration.ofSeconds(1), Duration.ofMillis(700), 5));
+
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> clients.forProvider(PaymentProvider.STRIPE).getForObject(baseUrl + "/drip", String.class))
+                .isInstanceOf(ResourceAccessException.class)
+                .hasCauseInstanceOf(TotalDeadlineExceededException.class)
+                .matches(PaymentHttpClients::isTimeout);
+
+        assertThat(elapsedMillis(start)).isLessThan(2500);
+        assertThat(meterRegistry.get(ProviderMetricsInterceptor.METRIC_NAME)
+                .tag("provider", "STRIPE").tag("outcome", "TIMEOUT").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get(ProviderMetricsInterceptor.METRIC_NAME)
+                .tag("provider", "STRIPE").tag("outcome", "SUCCESS").timer().count()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should fail fast when provider pool is exhausted without affecting other providers")
+    void shouldFailFast_WhenPoolExhausted() throws InterruptedException {
+        clients = create(settings(Duration.ofSeconds(3), Duration.ofSeconds(4), 1));
+        stallStarted = new CountDownLatch(1);
+        Thread stalled = new Thread(() -> {
+            try {
+                clients.forProvider(PaymentProvider.MOMO).getForObject(baseUrl + "/stall", String.class);
+            } catch (ResourceAccessException ignored) {
+                // expected once the read timeout fires
+            }
+        });
+        stalled.start();
+        assertThat(stallStarted.await(5, TimeUnit.SECONDS)).isTrue();
+
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> clients.forProvider(PaymentProvider.MOMO).getForObject(baseUrl + "/ok", String.class))
+                .isInstanceOf(ResourceAccessException.class);
+        assertThat(elapsedMillis(start)).isLessThan(1500);
+
+        assertThat(clients.forProvider(PaymentProvider.STRIPE).getForObject(baseUrl + "/ok", String.class))
+                .contains("resultCode");
+        stalled.join(6000);
+    }
+
+    private PaymentHttpClients create(PaymentHttpSettings settings) {
+        meterRegistry = new SimpleMeterRegistry();
+        Map<PaymentProvider, PaymentHttpSettings> all = new EnumMap<>(PaymentProvider.class);
+        for (PaymentProvider provider : PaymentProvider.values()) {
+            all.put(provider, settings);
+        }
+        return new PaymentHttpClients(all, meterRegistry, ObservationRegistry.NOOP);
+    }
+
+    private static PaymentHttpSettings settings(Duration readTimeout, Duration totalTimeout, int maxConnections) {
+        return new PaymentHttpSettings(Duration.ofSeconds(1), readTimeout, totalTimeout, maxConnections,
+                Duration.ofMillis(200), Duration.ofSeconds(30));
+    }
+
+    private static void respond(HttpExchange exchange, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static long elapsedMillis(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+}
@@ -0,0 +1,145 @@
+package com.mystictarot.backend.service.payment.signing;
+
+import com.mystictarot.backend.dto.webhook.MomoWebhookPayloadDTO;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for HmacSha256Signer, HexCodec and SignaturePayloads
+ */
+@DisplayName("HMAC SHA256 Signer Tests")
+class HmacSha256SignerTest {
+
+    private static final String KEY = "test-secret-key";
+
+    @Test
+    @DisplayName("Should produce the same signature as a plain JCE Mac")
+    void shouldMatchReferenceImplementation() throws Exception {
+        String data = "accessKey=abc&amount=19000&orderId=123";
+
+        assertThat(HmacSha256Signer.forKey(KEY).signHex(data)).isEqualTo(reference(data));
+    }
+
+    @Test
+    @DisplayName("Should sign parts as if they were concatenated")
+    void shouldSignPartsAsConcatenation() throws Exception {
+        assertThat(HmacSha256Signer.forKey(KEY).signHex("1700000000", ".", "{\"id\":\"evt_1\"}"))
+                .isEqualTo(reference("1700000000.{\"id\":\"evt_1\"}"));
+    }
+
+    @Test
+    @DisplayName("Should verify hex signatures in either case and reject tampered or malformed ones")
+    void shouldVerifySignatures() throws Exception {
+        HmacSha256Signer signer = HmacSha256Signer.forKey(KEY);
+        String signature = reference("payload");
+
+        assertThat(signer.verifyHex(signature, "payload")).isTrue();
+        assertThat(signer.verifyHex(signature.toUpperCase(), "payload")).isTrue();
+        assertThat(signer.verifyHex(signature, "payload2")).isFalse();
+        assertThat(signer.verifyHex("zz" + signature.substring(2), "payload")).isFalse();
+        assertThat(signer.verifyHex(signature.substring(1), "payload")).isFalse();
+        assertThat(signer.verifyHex(null, "payload")).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should cache signers per key and treat blank keys as unconfigured")
+    void shouldCacheSigners() {
+        assertThat(HmacSha256Signer.forKey(KEY)).isSameAs(HmacSha256Signer.forKey(KEY));
+        assertThat(HmacSha256Signer.forKey("")).isNull();
+        assertThat(HmacSha256Signer.forKey(null)).isNull();
+        assertThatThrownBy(() -> HmacSha256Signer.forRequiredKey(" ", "payment.momo.secret-key"))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("payment.momo.secret-key");
+    }
+
+    @Test
+    @DisplayName("Should sign correctly from many threads at once")
+    void shouldBeThreadSafe() throws Exception {
+        HmacSha256Signer signer = HmacSha256Signer.forKey(KEY);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Callable<Boolean>> tasks = IntStream.range(0, 400)
+                    .mapToObj(i -> (Callable<Boolean>) () -> signer.signHex("data-" + i).equals(reference("data-" + i)))
+                    .toList();
+            for (Future<Boolean> result : executor.invokeAll(tasks)) {
+                assertThat(result.get()).isTrue();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Should sign correctly from short-lived virtual threads sharing the pooled Macs")
+    void shouldBeThreadSafeOnVirtualThreads() throws Exception {
+        HmacSha256Signer signer = HmacSha256Signer.forKey(KEY);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Callable<Boolean>> tasks = IntStream.range(0, 400)
+                    .mapToObj(i -> (Callable<Boolean>) () -> signer.signHex("data-" + i).equals(reference("data-" + i)))
+                    .toList();
+            for (Future<Boolean> result : executor.invokeAll(tasks)) {
+                assertThat(result.get()).isTrue();
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should round-trip hex encoding")
+    void shouldRoundTripHex() {
+        byte[] bytes = {0, 1, 15, 16, 127, -128, -1};
+
+        assertThat(HexCodec.encode(bytes)).isEqualTo(HexFormat.of().formatHex(bytes));
+        assertThat(HexCodec.decode("00010F107F80FF")).isEqualTo(bytes);
+        assertThat(HexCodec.decode("0g")).isNull();
+    }
+
+    @Test
+    @DisplayName("Should build the canonical Momo IPN string with empty values for missing fields")
+    void shouldBuildMomoIpnString() {
+        MomoWebhookPayloadDTO payload = new MomoWebhookPayloadDTO();
+        payload.setAmount(new BigDecimal("19000"));
+        payload.setOrderId("order-1");
+        payload.setPartnerCode("MOMO");
+        payload.setRequestId("req-1");
+        payload.setResultCode(0);
+        payload.setTransId(42L);
+
+        assertThat(SignaturePayloads.momoIpn(payload)).isEqualTo(
+                "amount=19000&extraData=&message=&orderId=order-1&orderInfo=&orderType=&partnerCode=MOMO" +
+                        "&payType=&requestId=req-1&responseTime=&resultCode=0&transId=42");
+    }
+
+    @Test
+    @DisplayName("Should build the canonical ZaloPay order string")
+    void shouldBuildZaloPayOrderString() {
+        assertThat(SignaturePayloads.zaloPayCreateOrder("2553", "250101_1", "user_1", 19000, 1700000000000L, "{}", "[]"))
+                .isEqualTo("2553|250101_1|user_1|19000|1700000000000|{}|[]");
+    }
+
+    @Test
+    @DisplayName("Should build the canonical ZaloPay query string")
+    void shouldBuildZaloPayQueryString() {
+        assertThat(SignaturePayloads.zaloPayQuery("2553", "250101_1", "key1")).isEqualTo("2553|250101_1|key1");
+    }
+
+    private static String reference(String data) throws Exception {
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(KEY.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        return HexFormat.of().formatHex(mac.doFinal(data.getBytes(StandardCharsets.UTF_8)));
+    }
+}
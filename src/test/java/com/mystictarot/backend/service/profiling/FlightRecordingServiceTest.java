@@ -0,0 +1,89 @@
+package com.mystictarot.backend.service.profiling;
+
+import com.mystictarot.backend.dto.response.ProfilingRecordingDTO;
+import com.mystictarot.backend.exception.ResourceNotFoundException;
+import com.mystictarot.backend.exception.ValidationException;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("Flight Recording Service Tests")
+class FlightRecordingServiceTest {
+
+    private FlightRecordingService flightRecordingService;
+
+    @BeforeEach
+    void setUp() {
+        flightRecordingService = new FlightRecordingService(60, 10);
+    }
+
+    @AfterEach
+    void tearDown() {
+        flightRecordingService.destroy();
+    }
+
+    @Test
+    @DisplayName("Should record application events and hand back a readable .jfr file on stop")
+    void startAndStop_RecordsCustomEvents() throws Exception {
+        ProfilingRecordingDTO started = flightRecordingService.start("default", 30L);
+        assertThat(started.getState()).isEqualTo("RUNNING");
+        assertThat(started.getDurationSeconds()).isEqualTo(30);
+
+        GeminiCallEvent event = new GeminiCallEvent();
+        event.begin();
+        event.operation = "interpret";
+        event.model = "gemini-2.5-flash";
+        event.promptChars = 1234;
+        event.attempts = 2;
+        event.httpStatus = 200;
+        event.outcome = "SUCCESS";
+        event.commit();
+
+        Path file = flightRecordingService.stop(started.getId());
+        try {
+            List<RecordedEvent> geminiCalls = RecordingFile.readAllEvents(file).stream()
+                    .filter(recorded -> recorded.getEventType().getName().equals("com.mystictarot.GeminiCall"))
+                    .toList();
+            assertThat(geminiCalls).hasSize(1);
+            assertThat(geminiCalls.get(0).getInt("promptChars")).isEqualTo(1234);
+            assertThat(geminiCalls.get(0).getString("outcome")).isEqualTo("SUCCESS");
+        } finally {
+            Files.deleteIfExists(file);
+        }
+        assertThat(flightRecordingService.list()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should allow only one open recording and cap its duration")
+    void start_WhileOpen_Conflicts() {
+        ProfilingRecordingDTO started = flightRecordingService.start("profile", 3600L);
+
+        assertThat(started.getDurationSeconds()).isEqualTo(60);
+        assertThat(started.getMaxSizeBytes()).isEqualTo(10L * 1024 * 1024);
+        assertThatThrownBy(() -> flightRecordingService.start("default", null))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining(String.valueOf(started.getId()));
+        assertThat(flightRecordingService.list()).extracting(ProfilingRecordingDTO::getSettings).containsExactly("profile");
+    }
+
+    @Test
+    @DisplayName("Should reject unknown settings and unknown recording ids")
+    void invalidRequests_Rejected() {
+        assertThatThrownBy(() -> flightRecordingService.start("everything", null))
+                .isInstanceOf(ValidationException.class);
+        assertThatThrownBy(() -> flightRecordingService.start("default", 0L))
+                .isInstanceOf(ValidationException.class);
+        assertThatThrownBy(() -> flightRecordingService.stop(Long.MAX_VALUE))
+                .isInstanceOf(ResourceNotFoundException.class);
+    }
+}
@@ -0,0 +1,175 @@
+package com.mystictarot.backend.service.ratelimit;
+
+import com.mystictarot.backend.entity.enums.PlanType;
+import com.mystictarot.backend.entity.enums.SpreadType;
+import com.mystictarot.backend.exception.RateLimitExceededException;
+import com.mystictarot.backend.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.util.ReflectionTestUtils;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs the token bucket Lua script against an embedded Redis server.
+ */
+@DisplayName("AI Rate Limit Service Tests")
+class AiRateLimitServiceTest {
+
+    private static RedisServer redisServer;
+    private static LettuceConnectionFactory connectionFactory;
+    private static StringRedisTemplate redisTemplate;
+
+    private UserRepository userRepository;
+    private SimpleMeterRegistry meterRegistry;
+    private AiRateLimitService aiRateLimitService;
+    private UUID userId;
+
+    @BeforeAll
+    static void startRedis() throws IOException {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        redisServer = new RedisServer(port);
+        redisServer.start();
+        connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration("localhost", port));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        redisTemplate = new StringRedisTemplate(connectionFactory);
+    }
+
+    @AfterAll
+    static void stopRedis() throws IOException {
+        connectionFactory.destroy();
+        redisServer.stop();
+    }
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        meterRegistry = new SimpleMeterRegistry();
+        aiRateLimitService = new AiRateLimitService(redisTemplate, userRepository, meterRegistry);
+        ReflectionTestUtils.setField(aiRateLimitService, "enabled", true);
+        ReflectionTestUtils.setField(aiRateLimitService, "freeTokensPerMinute", 10);
+        ReflectionTestUtils.setField(aiRateLimitService, "retail5TokensPerMinute", 15);
+        ReflectionTestUtils.setField(aiRateLimitService, "monthlyTokensPerMinute", 30);
+        ReflectionTestUtils.setField(aiRateLimitService, "unlimitedTokensPerMinute", 60);
+        ReflectionTestUtils.setField(aiRateLimitService, "ipTokensPerMinute", 100);
+        ReflectionTestUtils.setField(aiRateLimitService, "followUpCost", 2);
+        userId = UUID.randomUUID();
+        when(userRepository.findPlanById(any())).thenReturn(Optional.of(PlanType.FREE));
+    }
+
+    @AfterEach
+    void flush() {
+        redisTemplate.execute((RedisCallback<Object>) connection -> {
+            connection.serverCommands().flushAll();
+            return null;
+        });
+    }
+
+    @Test
+    @DisplayName("Should report remaining tokens as RateLimit headers")
+    void shouldReportRemainingTokens_AsHeaders() {
+        RateLimitDecision decision = aiRateLimitService.consumeForInterpret(userId, "10.0.0.1", SpreadType.THREE_CARDS);
+
+        assertThat(decision.allowed()).isTrue();
+        HttpHeaders headers = decision.toHeaders();
+        assertThat(headers.getFirst(RateLimitDecision.HEADER_LIMIT)).isEqualTo("10");
+        assertThat(headers.getFirst(RateLimitDecision.HEADER_REMAINING)).isEqualTo("7");
+        assertThat(headers.getFirst(RateLimitDecision.HEADER_RESET)).isNotNull();
+        assertThat(headers.getFirst(HttpHeaders.RETRY_AFTER)).isNull();
+    }
+
+    @Test
+    @DisplayName("Should weight CELTIC_CROSS heavier than DAILY_DRAW")
+    void shouldWeightCelticCross_HeavierThanDailyDraw() {
+        for (int i = 0; i < 10; i++) {
+            aiRateLimitService.consumeForInterpret(userId, "10.0.0.2", SpreadType.DAILY_DRAW);
+        }
+        assertThatThrownBy(() -> aiRateLimitService.consumeForInterpret(userId, "10.0.0.2", SpreadType.DAILY_DRAW))
+                .isInstanceOf(RateLimitExceededException.class);
+        assertThat(meterRegistry.counter(AiRateLimitService.DECISIONS_METRIC,
+                "limiter", "ai", "plan", "FREE", "result", "REJECTED").count()).isEqualTo(1);
+
+        UUID otherUser = UUID.randomUUID();
+        aiRateLimitService.consumeForInterpret(otherUser, "10.0.0.3", SpreadType.CELTIC_CROSS);
+        assertThatThrownBy(() -> aiRateLimitService.consumeForInterpret(otherUser, "10.0.0.3", SpreadType.DAILY_DRAW))
+                .isInstanceOf(RateLimitExceededException.class)
+                .satisfies(ex -> {
+                    RateLimitDecision decision = ((RateLimitExceededException) ex).getDecision();
+                    assertThat(decision.allowed()).isFalse();
+                    assertThat(decision.toHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isNotNull();
+                });
+    }
+
+    @Test
+    @DisplayName("Should give higher plans a larger budget")
+    void shouldGiveHigherPlans_LargerBudget() {
+        when(userRepository.findPlanById(userId)).thenReturn(Optional.of(PlanType.UNLIMITED));
+
+        for (int i = 0; i < 6; i++) {
+            aiRateLimitService.consumeForInterpret(userId, "10.0.0.4", SpreadType.CELTIC_CROSS);
+        }
+        assertThatThrownBy(() -> aiRateLimitService.consumeForInterpret(userId, "10.0.0.4", SpreadType.DAILY_DRAW))
+                .isInstanceOf(RateLimitExceededException.class);
+    }
+
+    @Test
+    @DisplayName("Should share the IP bucket across users")
+    void shouldShareIpBucket_AcrossUsers() {
+        ReflectionTestUtils.setField(aiRateLimitService, "ipTokensPerMinute", 4);
+
+        aiRateLimitService.consumeForFollowUp(UUID.randomUUID(), "10.0.0.5");
+        aiRateLimitService.consumeForFollowUp(UUID.randomUUID(), "10.0.0.5");
+
+        assertThatThrownBy(() -> aiRateLimitService.consumeForFollowUp(UUID.randomUUID(), "10.0.0.5"))
+                .isInstanceOf(RateLimitExceededException.class);
+        assertThat(aiRateLimitService.consumeForFollowUp(UUID.randomUUID(), "10.0.0.6").allowed()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should not debit buckets when request is rejected")
+    void shouldNotDebitBuckets_WhenRequestIsRejected() {
+        for (int i = 0; i < 3; i++) {
+            aiRateLimitService.consumeForInterpret(userId, "10.0.0.7", SpreadType.THREE_CARDS);
+        }
+        assertThatThrownBy(() -> aiRateLimitService.consumeForInterpret(userId, "10.0.0.7", SpreadType.CELTIC_CROSS))
+                .isInstanceOf(RateLimitExceededException.class);
+
+        RateLimitDecision decision = aiRateLimitService.consumeForInterpret(userId, "10.0.0.7", SpreadType.DAILY_DRAW);
+        assertThat(decision.allowed()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should skip Redis when limiter is disabled")
+    void shouldSkipRedis_WhenLimiterIsDisabled() {
+        ReflectionTestUtils.setField(aiRateLimitService, "enabled", false);
+
+        RateLimitDecision decision = aiRateLimitService.consumeForInterpret(userId, "10.0.0.8", SpreadType.CELTIC_CROSS);
+
+        assertThat(decision.allowed()).isTrue();
+        assertThat(decision.toHeaders().isEmpty()).isTrue();
+    }
+}
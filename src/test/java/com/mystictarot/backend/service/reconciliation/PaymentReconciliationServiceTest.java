@@ -0,0 +1,234 @@
+package com.mystictarot.backend.service.reconciliation;
+
+import com.mystictarot.backend.entity.Transaction;
+import com.mystictarot.backend.entity.enums.PaymentProvider;
+import com.mystictarot.backend.entity.enums.TransactionStatus;
+import com.mystictarot.backend.exception.InvalidPaymentException;
+import com.mystictarot.backend.repository.TransactionRepository;
+import com.mystictarot.backend.service.PaymentWebhookService;
+import com.mystictarot.backend.service.payment.CreateOrderCommand;
+import com.mystictarot.backend.service.payment.CreateOrderResult;
+import com.mystictarot.backend.service.payment.PaymentProviderService;
+import com.mystictarot.backend.service.payment.PaymentServiceFactory;
+import com.mystictarot.backend.service.payment.ProviderOrderStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("PaymentReconciliationService Tests")
+class PaymentReconciliationServiceTest {
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private PaymentServiceFactory paymentServiceFactory;
+
+    @Mock
+    private PaymentWebhookService paymentWebhookService;
+
+    private MockEnvironment environment;
+    private PaymentReconciliationService service;
+
+    @BeforeEach
+    void setUp() {
+        environment = new MockEnvironment();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (service != null) {
+            service.destroy();
+        }
+    }
+
+    @Test
+    @DisplayName("Should apply PAID and FAILED answers and leave PENDING orders alone")
+    void reconcile_AppliesSettledStatuses() throws InterruptedException {
+        Transaction paid = transaction(PaymentProvider.MOMO);
+        Transaction failed = transaction(PaymentProvider.MOMO);
+        Transaction pending = transaction(PaymentProvider.MOMO);
+        Map<UUID, ProviderOrderStatus> answers = Map.of(
+                paid.getId(), ProviderOrderStatus.PAID,
+                failed.getId(), ProviderOrderStatus.FAILED,
+                pending.getId(), ProviderOrderStatus.PENDING);
+        when(transactionRepository.findReconciliationCandidates(anyList(), any(), any(), any()))
+                .thenReturn(List.of(paid, failed, pending));
+        when(paymentServiceFactory.getService(PaymentProvider.MOMO))
+                .thenReturn(new StandInProvider(t -> answers.get(t.getId()), 0));
+        service = create(4);
+
+        Map<ProviderOrderStatus, Integer> counts = service.reconcile();
+
+        verify(paymentWebhookService).applyProviderStatus(paid.getId(), ProviderOrderStatus.PAID);
+        verify(paymentWebhookService).applyProviderStatus(failed.getId(), ProviderOrderStatus.FAILED);
+        verify(paymentWebhookService, never()).applyProviderStatus(pending.getId(), ProviderOrderStatus.PENDING);
+        assertThat(counts).containsEntry(ProviderOrderStatus.PAID, 1)
+                .containsEntry(ProviderOrderStatus.FAILED, 1)
+                .containsEntry(ProviderOrderStatus.PENDING, 1);
+    }
+
+    @Test
+    @DisplayName("Should select PENDING and EXPIRED orders only")
+    void reconcile_QueriesPendingAndExpired() throws InterruptedException {
+        when(transactionRepository.findReconciliationCandidates(anyList(), any(), any(), any())).thenReturn(List.of());
+        service = create(2);
+
+        service.reconcile();
+
+        verify(transactionRepository).findReconciliationCandidates(
+                eq(List.of(TransactionStatus.PENDING, TransactionStatus.EXPIRED)), any(), any(), any());
+        verify(transactionRepository, never()).markReconciled(any(), any());
+    }
+
+    @Test
+    @DisplayName("Should stamp the batch as reconciled so the next run reaches the rest of the backlog")
+    void reconcile_MarksBatchReconciled() throws InterruptedException {
+        Transaction first = transaction(PaymentProvider.MOMO);
+        Transaction second = transaction(PaymentProvider.MOMO);
+        when(transactionRepository.findReconciliationCandidates(anyList(), any(), any(), any()))
+                .thenReturn(List.of(first, second));
+        when(paymentServiceFactory.getService(PaymentProvider.MOMO))
+                .thenReturn(new StandInProvider(t -> ProviderOrderStatus.PENDING, 0));
+        service = create(2);
+
+        service.reconcile();
+
+        verify(transactionRepository).markReconciled(eq(List.of(first.getId(), second.getId())), any());
+    }
+
+    @Test
+    @DisplayName("Should never run more provider queries at once than the configured parallelism")
+    void reconcile_BoundsParallelism() throws InterruptedException {
+        environment.setProperty("payment.reconciliation.default.requests-per-second", "1000");
+        List<Transaction> candidates = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            candidates.add(transaction(PaymentProvider.STRIPE));
+        }
+        when(transactionRepository.findReconciliationCandidates(anyList(), any(), any(), any())).thenReturn(candidates);
+        StandInProvider provider = new StandInProvider(t -> ProviderOrderStatus.PENDING, 50);
+        when(paymentServiceFactory.getService(PaymentProvider.STRIPE)).thenReturn(provider);
+        service = create(3);
+
+        service.reconcile();
+
+        assertThat(provider.calls.get()).isEqualTo(12);
+        assertThat(provider.maxConcurrent.get()).isLessThanOrEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Should pace queries to one provider by its own rate limit")
+    void reconcile_RateLimitsPerProvider() throws InterruptedException {
+        environment.setProperty("payment.reconciliation.default.requests-per-second", "1000");
+        environment.setProperty("payment.reconciliation.zalopay.requests-per-second", "10");
+        List<Transaction> candidates = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            candidates.add(transaction(PaymentProvider.ZALOPAY));
+        }
+        when(transactionRepository.findReconciliationCandidates(anyList(), any(), any(), any())).thenReturn(candidates);
+        when(paymentServiceFactory.getService(PaymentProvider.ZALOPAY))
+                .thenReturn(new StandInProvider(t -> ProviderOrderStatus.PENDING, 0));
+        service = create(6);
+
+        long start = System.nanoTime();
+        service.reconcile();
+
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isGreaterThanOrEqualTo(450);
+    }
+
+    @Test
+    @DisplayName("Should skip providers that are disabled")
+    void reconcile_WhenProviderDisabled_ReportsUnknown() throws InterruptedException {
+        Transaction transaction = transaction(PaymentProvider.MOMO);
+        when(transactionRepository.findReconciliationCandidates(anyList(), any(), any(), any())).thenReturn(List.of(transaction));
+        when(paymentServiceFactory.getService(PaymentProvider.MOMO))
+                .thenThrow(new InvalidPaymentException("Momo payment is currently disabled"));
+        service = create(2);
+
+        Map<ProviderOrderStatus, Integer> counts = service.reconcile();
+
+        assertThat(counts).containsEntry(ProviderOrderStatus.UNKNOWN, 1);
+        verify(paymentWebhookService, never()).applyProviderStatus(any(), any());
+    }
+
+    private PaymentReconciliationService create(int parallelism) {
+        PaymentReconciliationService created = new PaymentReconciliationService(
+                transactionRepository, paymentServiceFactory, paymentWebhookService, environment);
+        ReflectionTestUtils.setField(created, "orderExpiryMinutes", 15);
+        ReflectionTestUtils.setField(created, "lookbackHours", 24);
+        ReflectionTestUtils.setField(created, "batchSize", 200);
+        ReflectionTestUtils.setField(created, "parallelism", parallelism);
+        created.init();
+        return created;
+    }
+
+    private static Transaction transaction(PaymentProvider provider) {
+        return Transaction.builder()
+                .id(UUID.randomUUID())
+                .provider(provider)
+                .status(TransactionStatus.PENDING)
+                .paymentUrl("https://pay.example/" + provider)
+                .build();
+    }
+
+    /**
+     * In-process stand-in for a provider status API that records call concurrency
+     */
+    private static class StandInProvider implements PaymentProviderService {
+        private final Function<Transaction, ProviderOrderStatus> answer;
+        private final long latencyMs;
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicInteger maxConcurrent = new AtomicInteger();
+        private final AtomicInteger calls = new AtomicInteger();
+
+        StandInProvider(Function<Transaction, ProviderOrderStatus> answer, long latencyMs) {
+            this.answer = answer;
+            this.latencyMs = latencyMs;
+        }
+
+        @Override
+        public CreateOrderResult createOrder(Transaction transaction, CreateOrderCommand command) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public ProviderOrderStatus queryOrderStatus(Transaction transaction) {
+            calls.incrementAndGet();
+            maxConcurrent.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                if (latencyMs > 0) {
+                    Thread.sleep(latencyMs);
+                }
+                return answer.apply(transaction);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return ProviderOrderStatus.UNKNOWN;
+            } finally {
+                inFlight.decrementAndGet();
+            }
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.mystictarot.backend.service.sqlstats;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import net.ttddyy.dsproxy.ConnectionInfo;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.proxy.ProxyConfig;
+import net.ttddyy.dsproxy.proxy.ResultSetProxyLogic;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.ResultSet;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@DisplayName("SqlStatisticsCollector Tests")
+class SqlStatisticsCollectorTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private SqlStatisticsCollector collector;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        collector = new SqlStatisticsCollector(meterRegistry);
+        ReflectionTestUtils.setField(collector, "slowQueryThresholdMs", 100L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        collector.end();
+    }
+
+    @Test
+    @DisplayName("Should add statements and JDBC time to the current request")
+    void afterQuery_WithRequest_ShouldRecordStatement() {
+        RequestSqlStatistics statistics = collector.begin("GET /api/v1/history");
+
+        collector.afterQuery(execution(5), List.of(new QueryInfo("select 1")));
+        collector.afterQuery(execution(7), List.of(new QueryInfo("select 2")));
+
+        assertThat(statistics.getStatements()).isEqualTo(2);
+        assertThat(statistics.getJdbcTimeMs()).isEqualTo(12);
+    }
+
+    @Test
+    @DisplayName("Should not record statements after the request has ended")
+    void afterQuery_AfterEnd_ShouldNotRecord() {
+        RequestSqlStatistics statistics = collector.begin("GET /api/v1/history");
+        collector.end();
+
+        collector.afterQuery(execution(5), List.of(new QueryInfo("select 1")));
+
+        assertThat(statistics.getStatements()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should count slow queries whether or not a request is active")
+    void afterQuery_SlowQuery_ShouldIncrementCounter() {
+        collector.afterQuery(execution(99), List.of(new QueryInfo("select 1")));
+        collector.afterQuery(execution(100), List.of(new QueryInfo("select 2")));
+        collector.afterQuery(execution(350), List.of(new QueryInfo("select 3")));
+
+        assertThat(meterRegistry.counter(SqlStatisticsCollector.SLOW_QUERY_METRIC).count()).isEqualTo(2.0);
+    }
+
+    @Test
+    @DisplayName("Should count a row for each successful ResultSet.next()")
+    void resultSetProxy_Next_ShouldCountRows() throws Throwable {
+        RequestSqlStatistics statistics = collector.begin("GET /api/v1/history");
+        ResultSet resultSet = mock(ResultSet.class);
+        when(resultSet.next()).thenReturn(true, true, false);
+        ResultSetProxyLogic logic = new RowCountingResultSetProxyLogicFactory(collector)
+                .create(resultSet, new ConnectionInfo(), ProxyConfig.Builder.create().build());
+
+        while (Boolean.TRUE.equals(logic.invoke(null, ResultSet.class.getMethod("next"), null))) {
+            logic.invoke(null, ResultSet.class.getMethod("getString", int.class), new Object[]{1});
+        }
+
+        assertThat(statistics.getRows()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should replace literals and collapse IN lists and whitespace")
+    void normalize_ShouldProduceOneShapePerStatement() {
+        String sql = "select r1_0.id, r1_0.question\n   from readings r1_0\n"
+                + "where r1_0.user_id = 'a1b2' and r1_0.status in (?, ?, ?) and r1_0.score > 3.5 limit 20";
+
+        assertThat(SqlStatisticsCollector.normalize(sql)).isEqualTo(
+                "select r1_0.id, r1_0.question from readings r1_0 "
+                        + "where r1_0.user_id = ? and r1_0.status in (?...) and r1_0.score > ? limit ?");
+    }
+
+    @Test
+    @DisplayName("Should keep escaped quotes inside one string literal")
+    void normalize_EscapedQuote_ShouldReplaceWholeLiteral() {
+        assertThat(SqlStatisticsCollector.normalize("select * from users where name = 'O''Brien'"))
+                .isEqualTo("select * from users where name = ?");
+    }
+
+    @Test
+    @DisplayName("Should truncate very long statements")
+    void normalize_LongStatement_ShouldTruncate() {
+        String sql = "select " + "col, ".repeat(1000) + "id from t";
+
+        assertThat(SqlStatisticsCollector.normalize(sql)).hasSize(2003).endsWith("...");
+    }
+
+    private static ExecutionInfo execution(long elapsedMs) {
+        ExecutionInfo info = new ExecutionInfo();
+        info.setElapsedTime(elapsedMs);
+        return info;
+    }
+}
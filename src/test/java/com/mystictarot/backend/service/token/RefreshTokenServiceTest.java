@@ -0,0 +1,150 @@
+package com.mystictarot.backend.service.token;
+
+import com.mystictarot.backend.entity.RefreshToken;
+import com.mystictarot.backend.entity.User;
+import com.mystictarot.backend.entity.enums.PlanType;
+import com.mystictarot.backend.repository.RefreshTokenRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for RefreshTokenService
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Refresh Token Service Tests")
+class RefreshTokenServiceTest {
+
+    @Mock
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @InjectMocks
+    private RefreshTokenService refreshTokenService;
+
+    private User testUser;
+    private UUID familyId;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(refreshTokenService, "refreshExpirationDays", 30L);
+        testUser = User.builder()
+                .id(UUID.randomUUID())
+                .email("test@example.com")
+                .name("Test User")
+                .plan(PlanType.FREE)
+                .extraCredits(0)
+                .build();
+        familyId = UUID.randomUUID();
+    }
+
+    @Test
+    @DisplayName("Should store only the hash of an issued token")
+    void shouldStoreHash_WhenIssuing() {
+        // When
+        String rawToken = refreshTokenService.issue(testUser);
+
+        // Then
+        ArgumentCaptor<RefreshToken> captor = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(refreshTokenRepository).save(captor.capture());
+        RefreshToken saved = captor.getValue();
+        assertThat(rawToken).hasSizeGreaterThanOrEqualTo(43);
+        assertThat(saved.getTokenHash()).isEqualTo(RefreshTokenService.hash(rawToken)).isNotEqualTo(rawToken);
+        assertThat(saved.getExpiresAt()).isAfter(LocalDateTime.now().plusDays(29));
+    }
+
+    @Test
+    @DisplayName("Should rotate token within the same family")
+    void shouldRotateToken_WithinFamily() {
+        // Given
+        RefreshToken current = activeToken("raw-token");
+        when(refreshTokenRepository.findByTokenHash(RefreshTokenService.hash("raw-token"))).thenReturn(Optional.of(current));
+        when(refreshTokenRepository.markUsed(eq(current.getId()), any(LocalDateTime.class))).thenReturn(1);
+
+        // When
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate("raw-token");
+
+        // Then
+        ArgumentCaptor<RefreshToken> captor = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(refreshTokenRepository).save(captor.capture());
+        assertThat(rotation.user()).isEqualTo(testUser);
+        assertThat(rotation.refreshToken()).isNotEqualTo("raw-token");
+        assertThat(captor.getValue().getFamilyId()).isEqualTo(familyId);
+        verify(refreshTokenRepository, never()).revokeFamily(any(), any());
+    }
+
+    @Test
+    @DisplayName("Should revoke family when a used token is presented again")
+    void shouldRevokeFamily_WhenTokenReused() {
+        // Given
+        RefreshToken used = activeToken("raw-token");
+        used.setRevokedAt(LocalDateTime.now().minusMinutes(1));
+        when(refreshTokenRepository.findByTokenHash(anyString())).thenReturn(Optional.of(used));
+
+        // When & Then
+        assertThatThrownBy(() -> refreshTokenService.rotate("raw-token"))
+                .isInstanceOf(BadCredentialsException.class);
+        verify(refreshTokenRepository).revokeFamily(eq(familyId), any(LocalDateTime.class));
+        verify(refreshTokenRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Should revoke family when a concurrent rotation already used the token")
+    void shouldRevokeFamily_WhenConcurrentRotationWon() {
+        // Given
+        RefreshToken current = activeToken("raw-token");
+        when(refreshTokenRepository.findByTokenHash(anyString())).thenReturn(Optional.of(current));
+        when(refreshTokenRepository.markUsed(eq(current.getId()), any(LocalDateTime.class))).thenReturn(0);
+
+        // When & Then
+        assertThatThrownBy(() -> refreshTokenService.rotate("raw-token"))
+                .isInstanceOf(BadCredentialsException.class);
+        verify(refreshTokenRepository).revokeFamily(eq(familyId), any(LocalDateTime.class));
+    }
+
+    @Test
+    @DisplayName("Should reject expired and unknown tokens")
+    void shouldReject_ExpiredAndUnknownTokens() {
+        // Given
+        RefreshToken expired = activeToken("expired-token");
+        expired.setExpiresAt(LocalDateTime.now().minusMinutes(1));
+        when(refreshTokenRepository.findByTokenHash(RefreshTokenService.hash("expired-token"))).thenReturn(Optional.of(expired));
+        when(refreshTokenRepository.markUsed(eq(expired.getId()), any(LocalDateTime.class))).thenReturn(1);
+        when(refreshTokenRepository.findByTokenHash(RefreshTokenService.hash("unknown-token"))).thenReturn(Optional.empty());
+
+        // When & Then
+        assertThatThrownBy(() -> refreshTokenService.rotate("expired-token"))
+                .isInstanceOf(BadCredentialsException.class)
+                .hasMessageContaining("expired");
+        assertThatThrownBy(() -> refreshTokenService.rotate("unknown-token"))
+                .isInstanceOf(BadCredentialsException.class);
+        verify(refreshTokenRepository, never()).save(any());
+    }
+
+    private RefreshToken activeToken(String rawToken) {
+        return RefreshToken.builder()
+                .id(UUID.randomUUID())
+                .user(testUser)
+                .tokenHash(RefreshTokenService.hash(rawToken))
+                .familyId(familyId)
+                .expiresAt(LocalDateTime.now().plusDays(1))
+                .build();
+    }
+}
@@ -0,0 +1,155 @@
+package com.mystictarot.backend.service.token;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.test.util.ReflectionTestUtils;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs two revocation "nodes" against one embedded Redis server to check pub/sub sync and startup load.
+ */
+@DisplayName("Token Revocation Service Tests")
+class TokenRevocationServiceTest {
+
+    private static RedisServer redisServer;
+    private static LettuceConnectionFactory connectionFactory;
+    private static StringRedisTemplate redisTemplate;
+
+    private final List<RedisMessageListenerContainer> containers = new ArrayList<>();
+
+    @BeforeAll
+    static void startRedis() throws IOException {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        redisServer = new RedisServer(port);
+        redisServer.start();
+        connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration("localhost", port));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        redisTemplate = new StringRedisTemplate(connectionFactory);
+    }
+
+    @AfterAll
+    static void stopRedis() throws IOException {
+        connectionFactory.destroy();
+        redisServer.stop();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        for (RedisMessageListenerContainer container : containers) {
+            container.destroy();
+        }
+        containers.clear();
+        redisTemplate.execute((RedisCallback<Object>) connection -> {
+            connection.serverCommands().flushAll();
+            return null;
+        });
+    }
+
+    @Test
+    @DisplayName("Should report revoked token until it expires")
+    void shouldReportRevoked_UntilExpiry() {
+        TokenRevocationService node = startNode();
+        String tokenId = UUID.randomUUID().toString();
+
+        node.revoke(tokenId, System.currentTimeMillis() + 60_000);
+
+        assertThat(node.isRevoked(tokenId)).isTrue();
+        assertThat(node.isRevoked(UUID.randomUUID().toString())).isFalse();
+        assertThat(node.isRevoked(null)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should ignore revocation of already expired token")
+    void shouldIgnore_ExpiredRevocation() {
+        TokenRevocationService node = startNode();
+        String tokenId = UUID.randomUUID().toString();
+
+        node.revoke(tokenId, System.currentTimeMillis() - 1);
+
+        assertThat(node.isRevoked(tokenId)).isFalse();
+        assertThat(redisTemplate.opsForZSet().size(TokenRevocationService.REVOKED_KEY)).isZero();
+    }
+
+    @Test
+    @DisplayName("Should propagate revocation to other nodes via pub/sub")
+    void shouldPropagateRevocation_ToOtherNodes() throws InterruptedException {
+        TokenRevocationService nodeA = startNode();
+        TokenRevocationService nodeB = startNode();
+        String tokenId = UUID.randomUUID().toString();
+
+        nodeA.revoke(tokenId, System.currentTimeMillis() + 60_000);
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!nodeB.isRevoked(tokenId) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertThat(nodeB.isRevoked(tokenId)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should load active revocations from Redis on startup")
+    void shouldLoadRevocations_OnStartup() {
+        String active = UUID.randomUUID().toString();
+        String expired = UUID.randomUUID().toString();
+        startNode().revoke(active, System.currentTimeMillis() + 60_000);
+        redisTemplate.opsForZSet().add(TokenRevocationService.REVOKED_KEY, expired, System.currentTimeMillis() - 1000);
+
+        TokenRevocationService lateNode = startNode();
+
+        assertThat(lateNode.isRevoked(active)).isTrue();
+        assertThat(lateNode.isRevoked(expired)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should keep active revocations after purging expired ones")
+    void shouldKeepActiveRevocations_AfterPurge() throws InterruptedException {
+        TokenRevocationService node = startNode();
+        String active = UUID.randomUUID().toString();
+        String shortLived = UUID.randomUUID().toString();
+        node.revoke(active, System.currentTimeMillis() + 60_000);
+        node.revoke(shortLived, System.currentTimeMillis() + 50);
+        Thread.sleep(100);
+
+        node.purgeExpired();
+
+        assertThat(node.isRevoked(active)).isTrue();
+        assertThat(node.isRevoked(shortLived)).isFalse();
+        assertThat(redisTemplate.opsForZSet().size(TokenRevocationService.REVOKED_KEY)).isEqualTo(1);
+    }
+
+    private TokenRevocationService startNode() {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.afterPropertiesSet();
+        container.start();
+        containers.add(container);
+
+        TokenRevocationService service = new TokenRevocationService(redisTemplate, container, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(service, "bloomExpectedEntries", 1000);
+        ReflectionTestUtils.setField(service, "bloomFalsePositiveRate", 0.001);
+        service.init();
+        return service;
+    }
+}
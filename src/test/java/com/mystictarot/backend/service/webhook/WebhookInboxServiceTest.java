@@ -0,0 +1,154 @@
+package com.mystictarot.backend.service.webhook;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mystictarot.backend.dto.webhook.ZaloPayCallbackDataDTO;
+import com.mystictarot.backend.entity.WebhookInboxEvent;
+import com.mystictarot.backend.entity.enums.PaymentProvider;
+import com.mystictarot.backend.entity.enums.WebhookEventStatus;
+import com.mystictarot.backend.exception.InvalidPaymentException;
+import com.mystictarot.backend.repository.WebhookInboxRepository;
+import com.mystictarot.backend.service.PaymentWebhookService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for WebhookInboxService
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Webhook Inbox Service Tests")
+class WebhookInboxServiceTest {
+
+    @Mock
+    private WebhookInboxRepository webhookInboxRepository;
+
+    @Mock
+    private PaymentWebhookService paymentWebhookService;
+
+    private WebhookInboxService webhookInboxService;
+
+    @BeforeEach
+    void setUp() {
+        webhookInboxService = new WebhookInboxService(webhookInboxRepository, paymentWebhookService, new ObjectMapper());
+        ReflectionTestUtils.setField(webhookInboxService, "leaseMs", 60000L);
+        ReflectionTestUtils.setField(webhookInboxService, "maxAttempts", 3);
+        ReflectionTestUtils.setField(webhookInboxService, "initialBackoffMs", 1000L);
+        ReflectionTestUtils.setField(webhookInboxService, "maxBackoffMs", 3000L);
+    }
+
+    @Test
+    @DisplayName("Should report duplicate events as not accepted")
+    void shouldIgnoreDuplicateEvents() {
+        when(webhookInboxRepository.insertIfAbsent(any(), eq("STRIPE"), eq("evt_1"), anyString(), any()))
+                .thenReturn(1, 0);
+
+        assertThat(webhookInboxService.accept(PaymentProvider.STRIPE, "evt_1", "{}")).isTrue();
+        assertThat(webhookInboxService.accept(PaymentProvider.STRIPE, "evt_1", "{}")).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should lease claimed events")
+    void shouldLeaseClaimedEvents() {
+        UUID id = UUID.randomUUID();
+        WebhookInboxEvent event = event(PaymentProvider.STRIPE, "{}");
+        when(webhookInboxRepository.lockDueEventIds(any(), eq(10))).thenReturn(List.of(id));
+        when(webhookInboxRepository.findAllById(List.of(id))).thenReturn(List.of(event));
+
+        List<WebhookInboxEvent> batch = webhookInboxService.claimBatch(10);
+
+        assertThat(batch).containsExactly(event);
+        verify(webhookInboxRepository).lease(eq(List.of(id)), any(LocalDateTime.class));
+    }
+
+    @Test
+    @DisplayName("Should not lease anything when no events are due")
+    void shouldNotLease_WhenNothingDue() {
+        when(webhookInboxRepository.lockDueEventIds(any(), eq(10))).thenReturn(List.of());
+
+        assertThat(webhookInboxService.claimBatch(10)).isEmpty();
+        verify(webhookInboxRepository, never()).lease(any(), any());
+    }
+
+    @Test
+    @DisplayName("Should dispatch event to provider handler and mark it processed")
+    void shouldProcessEvent() throws Exception {
+        WebhookInboxEvent event = event(PaymentProvider.ZALOPAY, "{\"app_trans_id\":\"250101123\",\"amount\":19000}");
+        when(webhookInboxRepository.findById(event.getId())).thenReturn(Optional.of(event));
+
+        webhookInboxService.process(event.getId());
+
+        ArgumentCaptor<ZaloPayCallbackDataDTO> captor = ArgumentCaptor.forClass(ZaloPayCallbackDataDTO.class);
+        verify(paymentWebhookService).handleZaloPayCallback(captor.capture());
+        assertThat(captor.getValue().getAppTransId()).isEqualTo("250101123");
+        assertThat(event.getStatus()).isEqualTo(WebhookEventStatus.PROCESSED);
+        assertThat(event.getProcessedAt()).isNotNull();
+    }
+
+    @Test
+    @DisplayName("Should skip events that were already processed")
+    void shouldSkipProcessedEvent() throws Exception {
+        WebhookInboxEvent event = event(PaymentProvider.STRIPE, "{}");
+        event.setStatus(WebhookEventStatus.PROCESSED);
+        when(webhookInboxRepository.findById(event.getId())).thenReturn(Optional.of(event));
+
+        webhookInboxService.process(event.getId());
+
+        verifyNoInteractions(paymentWebhookService);
+        verify(webhookInboxRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Should back off exponentially and park event as dead after max attempts")
+    void shouldBackOffAndDeadLetter() {
+        WebhookInboxEvent event = event(PaymentProvider.STRIPE, "{}");
+        when(webhookInboxRepository.findById(event.getId())).thenReturn(Optional.of(event));
+
+        event.setAttempts(1);
+        LocalDateTime before = LocalDateTime.now();
+        webhookInboxService.recordFailure(event.getId(), new InvalidPaymentException("Transaction not found"));
+        assertThat(event.getStatus()).isEqualTo(WebhookEventStatus.PENDING);
+        assertThat(event.getNextAttemptAt()).isAfterOrEqualTo(before.plusSeconds(1));
+        assertThat(event.getLastError()).contains("Transaction not found");
+
+        event.setAttempts(3);
+        webhookInboxService.recordFailure(event.getId(), new InvalidPaymentException("Transaction not found"));
+        assertThat(event.getStatus()).isEqualTo(WebhookEventStatus.DEAD);
+        verify(webhookInboxRepository, times(2)).save(event);
+    }
+
+    @Test
+    @DisplayName("Should cap backoff at the configured maximum")
+    void shouldCapBackoff() {
+        assertThat(webhookInboxService.backoffMs(1)).isEqualTo(1000L);
+        assertThat(webhookInboxService.backoffMs(2)).isEqualTo(2000L);
+        assertThat(webhookInboxService.backoffMs(3)).isEqualTo(3000L);
+        assertThat(webhookInboxService.backoffMs(40)).isEqualTo(3000L);
+    }
+
+    private WebhookInboxEvent event(PaymentProvider provider, String payload) {
+        return WebhookInboxEvent.builder()
+                .id(UUID.randomUUID())
+                .provider(provider)
+                .eventId("evt-" + UUID.randomUUID())
+                .payload(payload)
+                .nextAttemptAt(LocalDateTime.now())
+                .receivedAt(LocalDateTime.now())
+                .build();
+    }
+}
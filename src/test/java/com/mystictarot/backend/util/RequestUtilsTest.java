@@ -0,0 +1,30 @@
+package com.mystictarot.backend.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Request Utils Tests")
+class RequestUtilsTest {
+
+    @Test
+    @DisplayName("Should use the remote address resolved by the container, not a client-supplied X-Forwarded-For")
+    void getClientIp_WithSpoofedForwardedFor_ShouldUseRemoteAddress() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRemoteAddr("203.0.113.7");
+        request.addHeader("X-Forwarded-For", "1.2.3.4, 203.0.113.7");
+
+        assertThat(RequestUtils.getClientIp(request)).isEqualTo("203.0.113.7");
+    }
+
+    @Test
+    @DisplayName("Should strip the Bearer prefix from the Authorization header")
+    void getBearerToken_WithBearerHeader_ShouldReturnToken() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer abc.def.ghi");
+
+        assertThat(RequestUtils.getBearerToken(request)).isEqualTo("abc.def.ghi");
+    }
+}
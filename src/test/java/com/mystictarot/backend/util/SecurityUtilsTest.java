@@ -1,5 +1,6 @@
 package com.mystictarot.backend.util;
 
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -42,6 +43,11 @@ class SecurityUtilsTest {
         SecurityContextHolder.setContext(securityContext);
     }
 
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
     @Test
     @DisplayName("Should extract user ID successfully from authenticated user")
     void shouldExtractUserId_SuccessfullyFromAuthenticatedUser() {